@@ -1,10 +1,16 @@
 
 package com.example.customerapi.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
 import jakarta.persistence.UniqueConstraint;
 import jakarta.validation.constraints.Email;
@@ -15,6 +21,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.Locale;
 import java.util.UUID;
 
 /**
@@ -22,7 +29,9 @@ import java.util.UUID;
  * This is the primary domain model for the Customer API.
  *
  * The class is mapped to a database table named "customers" with a unique constraint
- * on the primaryEmail field to ensure email uniqueness across all customers.
+ * on the primaryEmail field to ensure email uniqueness across all customers, an index on
+ * the normalized contact number for phone lookups, and composite indexes serving the filtered
+ * list queries (see {@code CustomerFilter}).
  *
  * Uses Lombok annotations to reduce boilerplate code:
  * - @Data: Generates getters, setters, equals, hashCode, and toString methods
@@ -31,7 +40,12 @@ import java.util.UUID;
  * - @AllArgsConstructor: Generates a constructor with all fields as parameters
  */
 @Entity
-@Table(name = "customers", uniqueConstraints = @UniqueConstraint(columnNames = "primaryEmail"))
+@Table(name = "customers", uniqueConstraints = @UniqueConstraint(columnNames = "primaryEmail"),
+        indexes = {
+            @Index(name = "idx_customers_contact_number_e164", columnList = "contact_number_e164"),
+            @Index(name = "idx_customers_surname_given_name", columnList = "surname, givenName, customerId"),
+            @Index(name = "idx_customers_email_domain_surname", columnList = "emailDomain, surname, customerId")
+        })
 @Data
 @Builder
 @NoArgsConstructor
@@ -93,6 +107,45 @@ public class Customer {
     @Schema(description = "Customer's phone number", example = "123-456-7890", required = true)
     private String contactNumber;
 
+    /**
+     * Customer's contact number in E.164 form (e.g. +11234567890).
+     * Derived from contactNumber on every write and indexed for lookups by phone;
+     * ignored when sent by clients. Null if the number cannot be normalized.
+     */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Schema(description = "Customer's phone number in E.164 form, derived from contactNumber",
+            example = "+11234567890", accessMode = Schema.AccessMode.READ_ONLY)
+    @Column(name = "contact_number_e164")
+    private String contactNumberE164;
+
+    /**
+     * Lower-cased domain of the primary email, derived on every write so lists can be
+     * filtered by domain through an index. Not part of the API representation.
+     */
+    @JsonIgnore
+    private String emailDomain;
+
+    /**
+     * Recomputes the derived lookup columns before the customer is inserted or updated.
+     */
+    @PrePersist
+    @PreUpdate
+    public void deriveLookupColumns() {
+        contactNumberE164 = PhoneNumbers.toE164(contactNumber);
+        emailDomain = emailDomainOf(primaryEmail);
+    }
+
+    /**
+     * Extracts the domain of an email address, lower-cased.
+     *
+     * @param email The email address
+     * @return The part after the last "@", or null if there is none
+     */
+    public static String emailDomainOf(String email) {
+        int at = email != null ? email.lastIndexOf('@') : -1;
+        return at >= 0 && at < email.length() - 1 ? email.substring(at + 1).toLowerCase(Locale.ROOT) : null;
+    }
+
     // All getters, setters, equals, hashCode, and toString methods
     // are automatically generated by Lombok's @Data annotation
 }
@@ -0,0 +1,58 @@
+package com.example.customerapi.model;
+
+/**
+ * Normalizes contact numbers to E.164 (a plus sign, the country code and the national number,
+ * digits only), so the same number entered as "(555) 123-4567", "555.123.4567" or
+ * "+1 555 123 4567" is stored and looked up as "+15551234567".
+ *
+ * Numbers without a country code are taken to be North American, matching the ten-digit
+ * layout accepted by {@link Customer#getContactNumber()}'s validation.
+ */
+public final class PhoneNumbers {
+
+    /**
+     * Country code assumed for numbers entered without one.
+     */
+    public static final String DEFAULT_COUNTRY_CODE = "1";
+
+    private static final int NATIONAL_LENGTH = 10;
+    private static final int MIN_E164_DIGITS = 8;
+    private static final int MAX_E164_DIGITS = 15;
+
+    private PhoneNumbers() {
+    }
+
+    /**
+     * Converts a phone number to E.164.
+     *
+     * @param number The number as entered; digits with optional spaces, dashes, dots, parentheses
+     *               and a leading plus sign
+     * @return The E.164 form, or null if the number is missing or cannot be normalized
+     */
+    public static String toE164(String number) {
+        if (number == null) {
+            return null;
+        }
+        String trimmed = number.trim();
+        boolean international = trimmed.startsWith("+");
+        StringBuilder digits = new StringBuilder(MAX_E164_DIGITS);
+        for (int i = international ? 1 : 0; i < trimmed.length(); i++) {
+            char c = trimmed.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            } else if (c != ' ' && c != '-' && c != '.' && c != '(' && c != ')') {
+                return null;
+            }
+        }
+        if (international) {
+            return digits.length() >= MIN_E164_DIGITS && digits.length() <= MAX_E164_DIGITS ? "+" + digits : null;
+        }
+        if (digits.length() == NATIONAL_LENGTH) {
+            return "+" + DEFAULT_COUNTRY_CODE + digits;
+        }
+        if (digits.length() == NATIONAL_LENGTH + 1 && digits.indexOf(DEFAULT_COUNTRY_CODE) == 0) {
+            return "+" + digits;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,15 @@
+CREATE TABLE IF NOT EXISTS customers (
+    customer_id UUID PRIMARY KEY,
+    given_name VARCHAR(255) NOT NULL,
+    middle_initial VARCHAR(255),
+    surname VARCHAR(255) NOT NULL,
+    primary_email VARCHAR(255) NOT NULL,
+    contact_number VARCHAR(255) NOT NULL,
+    contact_number_e164 VARCHAR(255),
+    email_domain VARCHAR(255),
+    CONSTRAINT uk_customers_primary_email UNIQUE (primary_email)
+);
+
+CREATE INDEX IF NOT EXISTS idx_customers_contact_number_e164 ON customers (contact_number_e164);
+CREATE INDEX IF NOT EXISTS idx_customers_surname_given_name ON customers (surname, given_name, customer_id);
+CREATE INDEX IF NOT EXISTS idx_customers_email_domain_surname ON customers (email_domain, surname, customer_id);
@@ -0,0 +1,67 @@
+// Load comparison of the servlet API (port 8080) and the reactive API (port 8081).
+//
+// Runs the same mix against either stack: mostly point reads by id, some creates and a
+// few full-list reads, with a ramp to a high number of concurrent virtual users.
+//
+//   k6 run -e BASE_URL=http://localhost:8080 load-test/customers.js   # servlet
+//   k6 run -e BASE_URL=http://localhost:8081 load-test/customers.js   # reactive
+//
+// Compare http_req_duration percentiles, http_reqs/s and the error rate between the runs,
+// together with each process's CPU and memory (e.g. from /actuator/prometheus).
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const SEED_CUSTOMERS = parseInt(__ENV.SEED_CUSTOMERS || '1000');
+const PEAK_VUS = parseInt(__ENV.PEAK_VUS || '2000');
+const JSON_HEADERS = { headers: { 'Content-Type': 'application/json' } };
+
+export const options = {
+    stages: [
+        { duration: '30s', target: PEAK_VUS / 4 },
+        { duration: '1m', target: PEAK_VUS },
+        { duration: '2m', target: PEAK_VUS },
+        { duration: '30s', target: 0 },
+    ],
+    thresholds: {
+        http_req_failed: ['rate<0.01'],
+    },
+};
+
+function customer(email) {
+    return JSON.stringify({
+        givenName: 'Load',
+        surname: 'Test',
+        primaryEmail: email,
+        contactNumber: '123-456-7890',
+    });
+}
+
+export function setup() {
+    const ids = [];
+    for (let i = 0; i < SEED_CUSTOMERS; i++) {
+        const res = http.post(`${BASE_URL}/api/customers`, customer(`seed-${Date.now()}-${i}@example.com`),
+            JSON_HEADERS);
+        if (res.status === 200) {
+            ids.push(res.json('customerId'));
+        }
+    }
+    return { ids };
+}
+
+export default function (data) {
+    const roll = Math.random();
+    if (roll < 0.90) {
+        const id = data.ids[Math.floor(Math.random() * data.ids.length)];
+        const res = http.get(`${BASE_URL}/api/customers/${id}`, { tags: { name: 'get-by-id' } });
+        check(res, { 'read 200': (r) => r.status === 200 });
+    } else if (roll < 0.99) {
+        const email = `load-${__VU}-${__ITER}-${Date.now()}@example.com`;
+        const res = http.post(`${BASE_URL}/api/customers`, customer(email),
+            Object.assign({ tags: { name: 'create' } }, JSON_HEADERS));
+        check(res, { 'create 200': (r) => r.status === 200 });
+    } else {
+        const res = http.get(`${BASE_URL}/api/customers`, { tags: { name: 'list' } });
+        check(res, { 'list 200': (r) => r.status === 200 });
+    }
+}
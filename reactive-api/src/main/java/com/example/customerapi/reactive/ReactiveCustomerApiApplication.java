@@ -0,0 +1,22 @@
+package com.example.customerapi.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+/**
+ * Main application class for the reactive variant of the Customer API.
+ * Serves the same /api/customers contract as the servlet application on WebFlux and R2DBC,
+ * for deployments where many concurrent, mostly idle connections fan in.
+ */
+@SpringBootApplication
+public class ReactiveCustomerApiApplication {
+
+    /**
+     * Main method that starts the reactive Customer API application.
+     *
+     * @param args Command line arguments passed to the application
+     */
+    public static void main(String[] args) {
+        SpringApplication.run(ReactiveCustomerApiApplication.class, args);
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.customerapi.reactive.controller;
+
+import com.example.customerapi.model.Customer;
+import com.example.customerapi.reactive.service.ReactiveCustomerService;
+import jakarta.validation.Valid;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * Reactive REST controller for managing Customer resources.
+ * Serves the same endpoints as the servlet API's CustomerController.
+ *
+ * All endpoints are prefixed with "/api/customers".
+ */
+@RestController
+@RequestMapping("/api/customers")
+public class ReactiveCustomerController {
+
+    private final ReactiveCustomerService service;
+
+    /**
+     * Constructor for dependency injection of the ReactiveCustomerService.
+     *
+     * @param service The customer service to be used by this controller
+     */
+    public ReactiveCustomerController(ReactiveCustomerService service) {
+        this.service = service;
+    }
+
+    /**
+     * Creates a new customer.
+     *
+     * @param customer The customer object to create, validated using Bean Validation
+     * @return The created customer with HTTP 200 OK status
+     */
+    @PostMapping
+    public Mono<Customer> createCustomer(@Valid @RequestBody Mono<Customer> customer) {
+        return customer.flatMap(service::createCustomer);
+    }
+
+    /**
+     * Retrieves all customers. With "Accept: application/x-ndjson" customers are streamed one
+     * per line as they are read, and the database is only read as fast as the client consumes.
+     *
+     * @return The customers
+     */
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<Customer> getAllCustomers() {
+        return service.getAllCustomers();
+    }
+
+    /**
+     * Retrieves a specific customer by ID.
+     *
+     * @param id The UUID of the customer to retrieve
+     * @return The customer with HTTP 200 OK status, or HTTP 404 Not Found if it doesn't exist
+     */
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Customer>> getCustomerById(@PathVariable UUID id) {
+        return service.getCustomerById(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Retrieves a specific customer by primary email address.
+     *
+     * @param email The email address of the customer to retrieve
+     * @return The customer with HTTP 200 OK status, or HTTP 404 Not Found if it doesn't exist
+     */
+    @GetMapping("/by-email/{email}")
+    public Mono<ResponseEntity<Customer>> getCustomerByEmail(@PathVariable String email) {
+        return service.getCustomerByEmail(email)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Updates an existing customer.
+     *
+     * @param id The UUID of the customer to update
+     * @param customer The updated customer data, validated using Bean Validation
+     * @return The updated customer with HTTP 200 OK status
+     */
+    @PutMapping("/{id}")
+    public Mono<Customer> updateCustomer(@PathVariable UUID id, @Valid @RequestBody Mono<Customer> customer) {
+        return customer.flatMap(updated -> service.updateCustomer(id, updated));
+    }
+
+    /**
+     * Deletes a customer by ID.
+     *
+     * @param id The UUID of the customer to delete
+     * @return HTTP 204 No Content status
+     */
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteCustomer(@PathVariable UUID id) {
+        return service.deleteCustomer(id)
+                .then(Mono.just(ResponseEntity.noContent().<Void>build()));
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.customerapi.reactive.exception;
+
+import com.example.customerapi.exception.ErrorResponse;
+import com.example.customerapi.exception.ResourceNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Exception handler for the reactive API.
+ * Produces the same {@link ErrorResponse} bodies and status codes as the servlet API.
+ */
+@RestControllerAdvice
+public class ReactiveExceptionHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveExceptionHandler.class);
+
+    /**
+     * Handles validation errors of @Valid request bodies.
+     *
+     * @param ex The validation exception
+     * @param exchange The current exchange
+     * @return ResponseEntity with error details
+     */
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<ErrorResponse> handleValidationExceptions(
+            WebExchangeBindException ex, ServerWebExchange exchange) {
+
+        Map<String, String> errors = new HashMap<>();
+        ex.getBindingResult().getAllErrors().forEach(error -> {
+            String fieldName = ((FieldError) error).getField();
+            errors.put(fieldName, error.getDefaultMessage());
+        });
+
+        logger.error("Validation error: {}", errors);
+        return error(HttpStatus.BAD_REQUEST, "Validation Error", errors.toString(), exchange);
+    }
+
+    /**
+     * Handles data integrity violations (e.g., unique constraint violations).
+     *
+     * @param ex The data integrity violation exception
+     * @param exchange The current exchange
+     * @return ResponseEntity with error details
+     */
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ErrorResponse> handleDataIntegrityViolationException(
+            DataIntegrityViolationException ex, ServerWebExchange exchange) {
+
+        String message = ex.getMessage();
+        if (message != null && message.toLowerCase().contains("primary_email")) {
+            message = "Email address is already in use";
+        }
+
+        logger.error("Data integrity violation: {}", message);
+        return error(HttpStatus.CONFLICT, "Data Integrity Violation", message, exchange);
+    }
+
+    /**
+     * Handles resource not found exceptions.
+     *
+     * @param ex The resource not found exception
+     * @param exchange The current exchange
+     * @return ResponseEntity with error details
+     */
+    @ExceptionHandler(ResourceNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleResourceNotFoundException(
+            ResourceNotFoundException ex, ServerWebExchange exchange) {
+
+        logger.error("Resource not found: {}", ex.getMessage());
+        return error(HttpStatus.NOT_FOUND, "Resource Not Found", ex.getMessage(), exchange);
+    }
+
+    private static ResponseEntity<ErrorResponse> error(HttpStatus status, String error, String message,
+            ServerWebExchange exchange) {
+        ErrorResponse errorResponse = new ErrorResponse(
+                LocalDateTime.now(),
+                status.value(),
+                error,
+                message,
+                "uri=" + exchange.getRequest().getPath()
+        );
+        return new ResponseEntity<>(errorResponse, status);
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.customerapi.reactive.repository;
+
+import com.example.customerapi.model.Customer;
+import com.example.customerapi.model.PhoneNumbers;
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * Non-blocking access to the customers table through R2DBC.
+ *
+ * Rows are mapped by hand rather than through Spring Data R2DBC's entity mapping, because
+ * the shared {@link Customer} model carries JPA mapping annotations that R2DBC doesn't read.
+ * The table layout matches the servlet API's.
+ */
+@Repository
+public class ReactiveCustomerRepository {
+
+    private static final String COLUMNS =
+            "customer_id, given_name, middle_initial, surname, primary_email, contact_number, contact_number_e164, "
+            + "email_domain";
+
+    private final DatabaseClient databaseClient;
+
+    /**
+     * Constructor for dependency injection of the DatabaseClient.
+     *
+     * @param databaseClient The R2DBC client
+     */
+    public ReactiveCustomerRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    /**
+     * Inserts a customer whose id has already been assigned.
+     *
+     * @param customer The customer to insert
+     * @return The inserted customer
+     */
+    public Mono<Customer> insert(Customer customer) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql("INSERT INTO customers (" + COLUMNS + ") "
+                + "VALUES (:customerId, :givenName, :middleInitial, :surname, :primaryEmail, :contactNumber, "
+                + ":contactNumberE164, :emailDomain)");
+        return bindFields(spec.bind("customerId", customer.getCustomerId()), customer)
+                .fetch()
+                .rowsUpdated()
+                .thenReturn(customer);
+    }
+
+    /**
+     * Overwrites the fields of an existing customer.
+     *
+     * @param customer The customer, identified by its id
+     * @return The number of rows updated, 0 if the customer doesn't exist
+     */
+    public Mono<Long> update(Customer customer) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql("UPDATE customers SET given_name = :givenName, "
+                + "middle_initial = :middleInitial, surname = :surname, primary_email = :primaryEmail, "
+                + "contact_number = :contactNumber, contact_number_e164 = :contactNumberE164, "
+                + "email_domain = :emailDomain "
+                + "WHERE customer_id = :customerId");
+        return bindFields(spec.bind("customerId", customer.getCustomerId()), customer)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * Streams all customers. Rows are fetched as the subscriber requests them.
+     *
+     * @return The customers
+     */
+    public Flux<Customer> findAll() {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM customers")
+                .map(ReactiveCustomerRepository::toCustomer)
+                .all();
+    }
+
+    /**
+     * Finds a customer by id.
+     *
+     * @param id The customer id
+     * @return The customer, or empty if not found
+     */
+    public Mono<Customer> findById(UUID id) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM customers WHERE customer_id = :id")
+                .bind("id", id)
+                .map(ReactiveCustomerRepository::toCustomer)
+                .one();
+    }
+
+    /**
+     * Finds a customer by primary email address.
+     *
+     * @param email The email address
+     * @return The customer, or empty if not found
+     */
+    public Mono<Customer> findByPrimaryEmail(String email) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM customers WHERE primary_email = :email")
+                .bind("email", email)
+                .map(ReactiveCustomerRepository::toCustomer)
+                .one();
+    }
+
+    /**
+     * Deletes a customer by id.
+     *
+     * @param id The customer id
+     * @return The number of rows deleted, 0 if the customer doesn't exist
+     */
+    public Mono<Long> deleteById(UUID id) {
+        return databaseClient.sql("DELETE FROM customers WHERE customer_id = :id")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindFields(DatabaseClient.GenericExecuteSpec spec,
+            Customer customer) {
+        DatabaseClient.GenericExecuteSpec bound = spec
+                .bind("givenName", customer.getGivenName())
+                .bind("surname", customer.getSurname())
+                .bind("primaryEmail", customer.getPrimaryEmail())
+                .bind("contactNumber", customer.getContactNumber());
+        bound = bindNullable(bound, "contactNumberE164", PhoneNumbers.toE164(customer.getContactNumber()));
+        bound = bindNullable(bound, "emailDomain", Customer.emailDomainOf(customer.getPrimaryEmail()));
+        return bindNullable(bound, "middleInitial", customer.getMiddleInitial());
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindNullable(DatabaseClient.GenericExecuteSpec spec,
+            String name, String value) {
+        return value != null ? spec.bind(name, value) : spec.bindNull(name, String.class);
+    }
+
+    private static Customer toCustomer(Readable row) {
+        return Customer.builder()
+                .customerId(row.get("customer_id", UUID.class))
+                .givenName(row.get("given_name", String.class))
+                .middleInitial(row.get("middle_initial", String.class))
+                .surname(row.get("surname", String.class))
+                .primaryEmail(row.get("primary_email", String.class))
+                .contactNumber(row.get("contact_number", String.class))
+                .contactNumberE164(row.get("contact_number_e164", String.class))
+                .emailDomain(row.get("email_domain", String.class))
+                .build();
+    }
+}
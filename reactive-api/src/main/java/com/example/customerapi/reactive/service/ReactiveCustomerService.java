@@ -0,0 +1,103 @@
+package com.example.customerapi.reactive.service;
+
+import com.example.customerapi.exception.ResourceNotFoundException;
+import com.example.customerapi.model.Customer;
+import com.example.customerapi.reactive.repository.ReactiveCustomerRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * Non-blocking counterpart of the servlet API's CustomerService.
+ * Provides the same business rules for CRUD operations on customers, returning Mono/Flux.
+ */
+@Service
+public class ReactiveCustomerService {
+
+    private final ReactiveCustomerRepository repository;
+    private final int streamBatchSize;
+
+    /**
+     * Constructor for dependency injection of the ReactiveCustomerRepository.
+     *
+     * @param repository The customer repository to be used by this service
+     * @param streamBatchSize How many rows to request from the database at a time when streaming
+     */
+    public ReactiveCustomerService(ReactiveCustomerRepository repository,
+            @Value("${customer-api.reactive.stream-batch-size:256}") int streamBatchSize) {
+        this.repository = repository;
+        this.streamBatchSize = streamBatchSize;
+    }
+
+    /**
+     * Creates a new customer with a generated ID.
+     *
+     * @param customer The customer object to create
+     * @return The created customer
+     */
+    public Mono<Customer> createCustomer(Customer customer) {
+        customer.setCustomerId(UUID.randomUUID());
+        return repository.insert(customer);
+    }
+
+    /**
+     * Streams all customers. Demand from the subscriber (ultimately the client connection)
+     * is passed to the database in batches, so a slow reader never buffers the whole table.
+     *
+     * @return The customers
+     */
+    public Flux<Customer> getAllCustomers() {
+        return repository.findAll().limitRate(streamBatchSize);
+    }
+
+    /**
+     * Retrieves a specific customer by ID.
+     *
+     * @param id The UUID of the customer to retrieve
+     * @return The customer, or empty if not found
+     */
+    public Mono<Customer> getCustomerById(UUID id) {
+        return repository.findById(id);
+    }
+
+    /**
+     * Retrieves a specific customer by primary email address.
+     *
+     * @param email The email address of the customer to retrieve
+     * @return The customer, or empty if not found
+     */
+    public Mono<Customer> getCustomerByEmail(String email) {
+        return repository.findByPrimaryEmail(email);
+    }
+
+    /**
+     * Updates an existing customer with new information.
+     *
+     * @param id The UUID of the customer to update
+     * @param newCustomer The updated customer data
+     * @return The updated customer, or a ResourceNotFoundException error if it doesn't exist
+     */
+    public Mono<Customer> updateCustomer(UUID id, Customer newCustomer) {
+        newCustomer.setCustomerId(id);
+        return repository.update(newCustomer)
+                .flatMap(updated -> updated > 0
+                        ? Mono.just(newCustomer)
+                        : Mono.error(new ResourceNotFoundException("Customer", "id", id)));
+    }
+
+    /**
+     * Deletes a customer by ID.
+     *
+     * @param id The UUID of the customer to delete
+     * @return Completion, or a ResourceNotFoundException error if the customer doesn't exist
+     */
+    public Mono<Void> deleteCustomer(UUID id) {
+        return repository.deleteById(id)
+                .flatMap(deleted -> deleted > 0
+                        ? Mono.<Void>empty()
+                        : Mono.error(new ResourceNotFoundException("Customer", "id", id)));
+    }
+}
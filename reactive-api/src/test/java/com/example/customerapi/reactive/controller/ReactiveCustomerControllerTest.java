@@ -0,0 +1,150 @@
+package com.example.customerapi.reactive.controller;
+
+import com.example.customerapi.exception.ErrorResponse;
+import com.example.customerapi.model.Customer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Integration tests for the ReactiveCustomerController against the H2 R2DBC database.
+ */
+@SpringBootTest
+@AutoConfigureWebTestClient
+public class ReactiveCustomerControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    private Customer newCustomer(String email) {
+        return Customer.builder()
+                .givenName("John")
+                .surname("Doe")
+                .primaryEmail(email)
+                .contactNumber("123-456-7890")
+                .build();
+    }
+
+    private Customer create(String email) {
+        return webTestClient.post().uri("/api/customers")
+                .bodyValue(newCustomer(email))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(Customer.class)
+                .returnResult()
+                .getResponseBody();
+    }
+
+    @Test
+    public void testCreateAndGetCustomer() {
+        // Arrange
+        Customer created = create("reactive.get@example.com");
+
+        // Act & Assert
+        assertNotNull(created);
+        assertNotNull(created.getCustomerId());
+        webTestClient.get().uri("/api/customers/{id}", created.getCustomerId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(Customer.class)
+                .isEqualTo(created);
+        webTestClient.get().uri("/api/customers/by-email/{email}", "reactive.get@example.com")
+                .exchange()
+                .expectStatus().isOk();
+    }
+
+    @Test
+    public void testCreateCustomerValidationError() {
+        // Arrange
+        Customer invalid = newCustomer("not-an-email");
+
+        // Act & Assert
+        webTestClient.post().uri("/api/customers")
+                .bodyValue(invalid)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody(ErrorResponse.class)
+                .value(error -> assertEquals("Validation Error", error.getError()));
+    }
+
+    @Test
+    public void testDuplicateEmailConflict() {
+        // Arrange
+        create("reactive.duplicate@example.com");
+
+        // Act & Assert
+        webTestClient.post().uri("/api/customers")
+                .bodyValue(newCustomer("reactive.duplicate@example.com"))
+                .exchange()
+                .expectStatus().isEqualTo(409)
+                .expectBody(ErrorResponse.class)
+                .value(error -> assertEquals("Email address is already in use", error.getMessage()));
+    }
+
+    @Test
+    public void testMissingCustomerReturnsNotFound() {
+        // Act & Assert
+        webTestClient.get().uri("/api/customers/{id}", UUID.randomUUID())
+                .exchange()
+                .expectStatus().isNotFound();
+        webTestClient.delete().uri("/api/customers/{id}", UUID.randomUUID())
+                .exchange()
+                .expectStatus().isNotFound();
+        webTestClient.put().uri("/api/customers/{id}", UUID.randomUUID())
+                .bodyValue(newCustomer("reactive.missing@example.com"))
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    public void testStreamCustomersAsNdjson() {
+        // Arrange
+        Customer created = create("reactive.stream@example.com");
+
+        // Act
+        Flux<Customer> stream = webTestClient.get().uri("/api/customers")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(Customer.class)
+                .getResponseBody();
+
+        // Assert
+        StepVerifier.create(stream.filter(customer -> customer.getCustomerId().equals(created.getCustomerId())))
+                .expectNextCount(1)
+                .verifyComplete();
+    }
+
+    @Test
+    public void testUpdateAndDeleteCustomer() {
+        // Arrange
+        Customer created = create("reactive.update@example.com");
+        Customer changes = newCustomer("reactive.updated@example.com");
+        changes.setSurname("Smith");
+
+        // Act & Assert
+        webTestClient.put().uri("/api/customers/{id}", created.getCustomerId())
+                .bodyValue(changes)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(Customer.class)
+                .value(updated -> assertEquals("Smith", updated.getSurname()));
+        webTestClient.delete().uri("/api/customers/{id}", created.getCustomerId())
+                .exchange()
+                .expectStatus().isNoContent();
+        webTestClient.get().uri("/api/customers/{id}", created.getCustomerId())
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.customerapi.reactive.service;
+
+import com.example.customerapi.exception.ResourceNotFoundException;
+import com.example.customerapi.model.Customer;
+import com.example.customerapi.reactive.repository.ReactiveCustomerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for the ReactiveCustomerService class.
+ */
+@ExtendWith(MockitoExtension.class)
+public class ReactiveCustomerServiceTest {
+
+    @Mock
+    private ReactiveCustomerRepository repository;
+
+    private ReactiveCustomerService service;
+    private Customer testCustomer;
+
+    @BeforeEach
+    public void setup() {
+        service = new ReactiveCustomerService(repository, 10);
+        testCustomer = Customer.builder()
+                .givenName("John")
+                .surname("Doe")
+                .primaryEmail("john.doe@example.com")
+                .contactNumber("123-456-7890")
+                .build();
+    }
+
+    @Test
+    public void testCreateCustomerAssignsId() {
+        // Arrange
+        when(repository.insert(any(Customer.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+        // Act & Assert
+        StepVerifier.create(service.createCustomer(testCustomer))
+                .assertNext(created -> assertEquals("John", created.getGivenName()))
+                .verifyComplete();
+        assertTrue(testCustomer.getCustomerId() != null);
+    }
+
+    @Test
+    public void testGetAllCustomersRequestsInBatches() {
+        // Arrange
+        AtomicLong largestRequest = new AtomicLong();
+        Flux<Customer> rows = Flux.fromStream(IntStream.range(0, 100).mapToObj(i -> testCustomer))
+                .doOnRequest(n -> largestRequest.accumulateAndGet(n, Math::max));
+        when(repository.findAll()).thenReturn(rows);
+
+        // Act & Assert
+        StepVerifier.create(service.getAllCustomers())
+                .expectNextCount(100)
+                .verifyComplete();
+        assertEquals(10, largestRequest.get());
+    }
+
+    @Test
+    public void testUpdateCustomerNotFound() {
+        // Arrange
+        UUID id = UUID.randomUUID();
+        when(repository.update(any(Customer.class))).thenReturn(Mono.just(0L));
+
+        // Act & Assert
+        StepVerifier.create(service.updateCustomer(id, testCustomer))
+                .expectErrorSatisfies(error -> {
+                    assertTrue(error instanceof ResourceNotFoundException);
+                    assertEquals("Customer not found with id: '" + id + "'", error.getMessage());
+                })
+                .verify();
+    }
+
+    @Test
+    public void testUpdateCustomer() {
+        // Arrange
+        UUID id = UUID.randomUUID();
+        when(repository.update(any(Customer.class))).thenReturn(Mono.just(1L));
+
+        // Act & Assert
+        StepVerifier.create(service.updateCustomer(id, testCustomer))
+                .assertNext(updated -> assertEquals(id, updated.getCustomerId()))
+                .verifyComplete();
+    }
+
+    @Test
+    public void testDeleteCustomerNotFound() {
+        // Arrange
+        UUID id = UUID.randomUUID();
+        when(repository.deleteById(id)).thenReturn(Mono.just(0L));
+
+        // Act & Assert
+        StepVerifier.create(service.deleteCustomer(id))
+                .expectError(ResourceNotFoundException.class)
+                .verify();
+    }
+}
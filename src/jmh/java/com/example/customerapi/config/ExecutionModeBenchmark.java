@@ -0,0 +1,132 @@
+package com.example.customerapi.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares platform and virtual request threads at high concurrency against the same
+ * connection pool, i.e. the two values of customer-api.execution.mode.
+ *
+ * Each operation fires a burst of {@code concurrency} simulated requests and waits for all of
+ * them. A request spends {@code outsideMillis} blocked outside the database (reading the body,
+ * writing the response) and then holds a pooled connection for a point read plus
+ * {@code queryMillis} of simulated database latency. The platform executor is sized like
+ * Tomcat's default worker pool (200 threads); both modes share a 10 connection pool.
+ *
+ * Run with: ./gradlew jmh -Pjmh.includes=ExecutionModeBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ExecutionModeBenchmark {
+
+    private static final int PLATFORM_THREADS = 200;
+    private static final int POOL_SIZE = 10;
+    private static final int CUSTOMER_COUNT = 1_000;
+
+    @Param({"platform", "virtual"})
+    public String mode;
+
+    @Param({"1000", "10000"})
+    public int concurrency;
+
+    @Param({"5"})
+    public int outsideMillis;
+
+    @Param({"1"})
+    public int queryMillis;
+
+    private HikariDataSource dataSource;
+    private ExecutorService executor;
+    private UUID[] customerIds;
+
+    @Setup(Level.Trial)
+    public void setup() throws SQLException {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:execution-mode;DB_CLOSE_DELAY=-1");
+        config.setUsername("sa");
+        config.setMaximumPoolSize(POOL_SIZE);
+        config.setConnectionTimeout(TimeUnit.MINUTES.toMillis(5));
+        dataSource = new HikariDataSource(config);
+
+        customerIds = new UUID[CUSTOMER_COUNT];
+        try (Connection connection = dataSource.getConnection();
+                Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS customer "
+                    + "(customer_id UUID PRIMARY KEY, given_name VARCHAR(50), primary_email VARCHAR(100))");
+            try (PreparedStatement insert = connection.prepareStatement("MERGE INTO customer "
+                    + "(customer_id, given_name, primary_email) KEY (customer_id) VALUES (?, ?, ?)")) {
+                for (int i = 0; i < CUSTOMER_COUNT; i++) {
+                    customerIds[i] = UUID.randomUUID();
+                    insert.setObject(1, customerIds[i]);
+                    insert.setString(2, "Customer" + i);
+                    insert.setString(3, "customer" + i + "@example.com");
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+        }
+
+        executor = "virtual".equals(mode)
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(PLATFORM_THREADS);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+        dataSource.close();
+    }
+
+    @Benchmark
+    public int burst() throws InterruptedException, ExecutionException {
+        List<Future<Integer>> responses = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            responses.add(executor.submit(this::handleRequest));
+        }
+        int found = 0;
+        for (Future<Integer> response : responses) {
+            found += response.get();
+        }
+        return found;
+    }
+
+    private int handleRequest() throws InterruptedException, SQLException {
+        Thread.sleep(outsideMillis);
+        UUID id = customerIds[ThreadLocalRandom.current().nextInt(CUSTOMER_COUNT)];
+        try (Connection connection = dataSource.getConnection();
+                PreparedStatement query = connection.prepareStatement(
+                        "SELECT given_name, primary_email FROM customer WHERE customer_id = ?")) {
+            query.setObject(1, id);
+            try (ResultSet result = query.executeQuery()) {
+                Thread.sleep(queryMillis);
+                return result.next() ? 1 : 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.customerapi.repository;
+
+import com.example.customerapi.model.Customer;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares point reads from the in-memory H2 table with the memory-mapped customer store.
+ *
+ * Both backends are loaded with the same number of customers, then 4 threads look customers
+ * up by id and by email. "h2" goes through JDBC to an in-memory database, so every row lives
+ * on the heap; "mapped" reads the slot file and off-heap indexes of MappedCustomerStore. The
+ * heap retained after loading is printed at setup. Add -prof gc to compare the allocation
+ * rate per lookup and the time spent in GC.
+ *
+ * Run with: ./gradlew jmh -Pjmh.includes=MappedCustomerStoreBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(4)
+public class MappedCustomerStoreBenchmark {
+
+    private static final String CUSTOMERS_DDL = "CREATE TABLE customers (customer_id UUID PRIMARY KEY, "
+            + "given_name VARCHAR(255), middle_initial VARCHAR(255), surname VARCHAR(255), "
+            + "primary_email VARCHAR(255) UNIQUE, contact_number VARCHAR(255), contact_number_e164 VARCHAR(255), "
+            + "email_domain VARCHAR(255))";
+    private static final int LOAD_CHUNK = 1_000;
+
+    private static final RowMapper<Customer> CUSTOMER_MAPPER = (rs, rowNum) -> Customer.builder()
+            .customerId(rs.getObject("customer_id", UUID.class))
+            .givenName(rs.getString("given_name"))
+            .middleInitial(rs.getString("middle_initial"))
+            .surname(rs.getString("surname"))
+            .primaryEmail(rs.getString("primary_email"))
+            .contactNumber(rs.getString("contact_number"))
+            .contactNumberE164(rs.getString("contact_number_e164"))
+            .emailDomain(rs.getString("email_domain"))
+            .build();
+
+    @Param({"h2", "mapped"})
+    public String backend;
+
+    @Param({"100000"})
+    public int customers;
+
+    private Path directory;
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private MappedCustomerStore store;
+    private UUID[] ids;
+    private String[] emails;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        ids = new UUID[customers];
+        emails = new String[customers];
+        if ("h2".equals(backend)) {
+            HikariConfig config = new HikariConfig();
+            config.setJdbcUrl("jdbc:h2:mem:mapped-benchmark-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+            config.setUsername("sa");
+            config.setMaximumPoolSize(8);
+            dataSource = new HikariDataSource(config);
+            jdbcTemplate = new JdbcTemplate(dataSource);
+            jdbcTemplate.execute(CUSTOMERS_DDL);
+            CustomerRepositoryCustomImpl repository = new CustomerRepositoryCustomImpl(jdbcTemplate);
+            for (int start = 0; start < customers; start += LOAD_CHUNK) {
+                List<Customer> stored = repository.insertAll(chunk(start));
+                for (int i = 0; i < stored.size(); i++) {
+                    ids[start + i] = stored.get(i).getCustomerId();
+                }
+            }
+        } else {
+            directory = Files.createTempDirectory("mapped-store");
+            store = new MappedCustomerStore(directory, customers, 64L << 20, false);
+            for (int start = 0; start < customers; start += LOAD_CHUNK) {
+                List<Customer> chunk = chunk(start);
+                for (int i = 0; i < chunk.size(); i++) {
+                    Customer customer = chunk.get(i);
+                    customer.setCustomerId(UUID.randomUUID());
+                    customer.deriveLookupColumns();
+                    ids[start + i] = customer.getCustomerId();
+                }
+                store.putAll(chunk);
+            }
+        }
+        System.gc();
+        long heapBytes = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        System.out.printf("%n%s: %d customers, %d MiB heap in use after GC%n",
+                backend, customers, heapBytes >> 20);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        if (dataSource != null) {
+            dataSource.close();
+        }
+        if (store != null) {
+            store.close();
+            try (var files = Files.walk(directory)) {
+                files.sorted((a, b) -> b.compareTo(a)).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    private List<Customer> chunk(int start) {
+        int end = Math.min(start + LOAD_CHUNK, customers);
+        List<Customer> chunk = new ArrayList<>(end - start);
+        for (int i = start; i < end; i++) {
+            emails[i] = "customer" + i + "@example.com";
+            chunk.add(Customer.builder()
+                    .givenName("Given" + i)
+                    .middleInitial("Q")
+                    .surname("Surname" + i)
+                    .primaryEmail(emails[i])
+                    .contactNumber("555-123-4567")
+                    .build());
+        }
+        return chunk;
+    }
+
+    @Benchmark
+    public Customer findById() {
+        UUID id = ids[ThreadLocalRandom.current().nextInt(customers)];
+        if (store != null) {
+            return store.get(id);
+        }
+        return jdbcTemplate.queryForObject("SELECT * FROM customers WHERE customer_id = ?", CUSTOMER_MAPPER, id);
+    }
+
+    @Benchmark
+    public Customer findByEmail() {
+        String email = emails[ThreadLocalRandom.current().nextInt(customers)];
+        if (store != null) {
+            return store.getByEmail(email);
+        }
+        return jdbcTemplate.queryForObject("SELECT * FROM customers WHERE primary_email = ?", CUSTOMER_MAPPER, email);
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.customerapi.resilience;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Contention benchmark for ClientRateLimiter.
+ *
+ * "clients" controls how many distinct buckets the threads hit: with 1 every thread CASes
+ * the same bucket (one partner hammering the service), with 10000 the load is spread like
+ * ordinary traffic. The rate is high enough that most calls are admitted, which is the
+ * expensive path (a successful CAS).
+ *
+ * Run with: ./gradlew jmh -Pjmh.includes=ClientRateLimiterBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ClientRateLimiterBenchmark {
+
+    @Param({"1", "16", "10000"})
+    public int clients;
+
+    private ClientRateLimiter limiter;
+    private String[] keys;
+
+    @Setup
+    public void setup() {
+        limiter = new ClientRateLimiter(new RateLimitProperties().getMaxBuckets());
+        keys = new String[clients];
+        for (int i = 0; i < clients; i++) {
+            keys[i] = "POINT_READ:ip:10.0." + (i / 256) + "." + (i % 256);
+        }
+    }
+
+    private String nextKey() {
+        return keys[ThreadLocalRandom.current().nextInt(clients)];
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean singleThread() {
+        return limiter.tryAcquire(nextKey(), 1_000_000, 1_000, System.nanoTime()).allowed();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean eightThreads() {
+        return limiter.tryAcquire(nextKey(), 1_000_000, 1_000, System.nanoTime()).allowed();
+    }
+
+    @Benchmark
+    @Threads(32)
+    public boolean thirtyTwoThreads() {
+        return limiter.tryAcquire(nextKey(), 1_000_000, 1_000, System.nanoTime()).allowed();
+    }
+}
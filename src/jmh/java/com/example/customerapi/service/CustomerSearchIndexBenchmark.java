@@ -0,0 +1,91 @@
+package com.example.customerapi.service;
+
+import com.example.customerapi.model.Customer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures type-ahead lookups on the customer search index.
+ *
+ * The index is filled with synthetic customers whose names are drawn from a small alphabet,
+ * so short prefixes match many customers and the walk stops at the limit. "searchWhileWriting"
+ * runs lookups on 7 threads against one thread replacing customers, the shape of live traffic.
+ *
+ * Run with: ./gradlew jmh -Pjmh.includes=CustomerSearchIndexBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CustomerSearchIndexBenchmark {
+
+    private static final String[] SYLLABLES = {"an", "be", "co", "da", "el", "fi", "jo", "ka", "lu", "ma"};
+
+    @Param({"100000", "1000000"})
+    public int customers;
+
+    @Param({"1", "3"})
+    public int prefixLength;
+
+    private CustomerSearchIndex index;
+    private Customer[] indexed;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        index = new CustomerSearchIndex(null, new SimpleMeterRegistry());
+        indexed = new Customer[customers];
+        for (int i = 0; i < customers; i++) {
+            indexed[i] = randomCustomer(UUID.randomUUID());
+            index.put(indexed[i]);
+        }
+    }
+
+    private static String name() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        StringBuilder name = new StringBuilder();
+        for (int i = 0; i < 3; i++) {
+            name.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        return name.toString();
+    }
+
+    private static Customer randomCustomer(UUID id) {
+        String givenName = name();
+        String surname = name();
+        return Customer.builder()
+                .customerId(id)
+                .givenName(givenName)
+                .surname(surname)
+                .primaryEmail(givenName + "." + surname + "@example.com")
+                .build();
+    }
+
+    @Benchmark
+    public List<Customer> search() {
+        return index.search(name().substring(0, prefixLength), 10);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Object searchWhileWriting() {
+        if (ThreadLocalRandom.current().nextInt(8) == 0) {
+            Customer replaced = indexed[ThreadLocalRandom.current().nextInt(customers)];
+            index.put(randomCustomer(replaced.getCustomerId()));
+            return replaced;
+        }
+        return index.search(name().substring(0, prefixLength), 10);
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.customerapi.service;
+
+import com.example.customerapi.model.Customer;
+import com.example.customerapi.repository.CustomerRepositoryCustomImpl;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares creating customers one transaction each with the group-commit write path.
+ *
+ * Runs against a file-backed H2 database so every commit pays for a real log write; 32
+ * threads create customers concurrently. "direct" commits each insert on its own, "grouped"
+ * queues them through GroupCommitWriter. Vary maxBatchSize and maxBatchDelayMicros to see
+ * the trade-off: throughput comes from bigger batches, each create's latency grows by up to
+ * the batch delay. Use -bm sample to see the latency distribution.
+ *
+ * Run with: ./gradlew jmh -Pjmh.includes=GroupCommitBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(32)
+public class GroupCommitBenchmark {
+
+    private static final String CUSTOMERS_DDL = "CREATE TABLE customers (customer_id UUID PRIMARY KEY, "
+            + "given_name VARCHAR(255), middle_initial VARCHAR(255), surname VARCHAR(255), "
+            + "primary_email VARCHAR(255) UNIQUE, contact_number VARCHAR(255), contact_number_e164 VARCHAR(255), "
+            + "email_domain VARCHAR(255))";
+
+    @Param({"16", "128"})
+    public int maxBatchSize;
+
+    @Param({"0", "1000"})
+    public long maxBatchDelayMicros;
+
+    private Path directory;
+    private HikariDataSource dataSource;
+    private CustomerRepositoryCustomImpl repository;
+    private TransactionTemplate transactions;
+    private GroupCommitWriter writer;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("group-commit");
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:file:" + directory.resolve("customers"));
+        config.setUsername("sa");
+        config.setMaximumPoolSize(10);
+        dataSource = new HikariDataSource(config);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute(CUSTOMERS_DDL);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+
+        repository = new CustomerRepositoryCustomImpl(jdbcTemplate);
+        transactions = new TransactionTemplate(transactionManager);
+        GroupCommitProperties properties = new GroupCommitProperties();
+        properties.setEnabled(true);
+        properties.setMaxBatchSize(maxBatchSize);
+        properties.setMaxBatchDelay(Duration.ofNanos(TimeUnit.MICROSECONDS.toNanos(maxBatchDelayMicros)));
+        writer = new GroupCommitWriter(repository, transactionManager, new SimpleMeterRegistry(), properties);
+        writer.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        writer.destroy();
+        dataSource.close();
+        try (var files = Files.walk(directory)) {
+            files.sorted((a, b) -> b.compareTo(a)).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    private static Customer newCustomer() {
+        return Customer.builder()
+                .givenName("Load")
+                .surname("Test")
+                .primaryEmail(UUID.randomUUID() + "@example.com")
+                .contactNumber("123-456-7890")
+                .build();
+    }
+
+    @Benchmark
+    public List<Customer> direct() {
+        List<Customer> single = List.of(newCustomer());
+        return transactions.execute(status -> repository.insertAll(single));
+    }
+
+    @Benchmark
+    public Customer grouped() {
+        return writer.tryCreate(newCustomer()).orElseThrow();
+    }
+}
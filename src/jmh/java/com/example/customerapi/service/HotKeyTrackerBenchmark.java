@@ -0,0 +1,74 @@
+package com.example.customerapi.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost HotKeyTracker adds to every customer read.
+ *
+ * Keys follow a skewed distribution (a few hot customers, a long cold tail) which is the
+ * shape the tracker is built for. Compare "record" against "baseline" to get the per-read
+ * overhead; run with 1 and 8 threads to see the effect of contention on shared counters.
+ *
+ * Run with: ./gradlew jmh -Pjmh.includes=HotKeyTrackerBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class HotKeyTrackerBenchmark {
+
+    private static final int KEY_COUNT = 100_000;
+
+    @Param({"true", "false"})
+    public boolean enabled;
+
+    private HotKeyTracker tracker;
+    private UUID[] keys;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        tracker = new HotKeyTracker(enabled, 100, 8192, 4);
+        keys = new UUID[KEY_COUNT];
+        for (int i = 0; i < KEY_COUNT; i++) {
+            keys[i] = UUID.randomUUID();
+        }
+    }
+
+    private UUID nextKey() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        // 80% of reads go to 1% of customers
+        return random.nextInt(10) < 8 ? keys[random.nextInt(KEY_COUNT / 100)] : keys[random.nextInt(KEY_COUNT)];
+    }
+
+    @Benchmark
+    public UUID baseline() {
+        return nextKey();
+    }
+
+    @Benchmark
+    public UUID record() {
+        UUID key = nextKey();
+        tracker.record(key);
+        return key;
+    }
+
+    @Benchmark
+    @Threads(8)
+    public UUID recordContended() {
+        UUID key = nextKey();
+        tracker.record(key);
+        return key;
+    }
+}
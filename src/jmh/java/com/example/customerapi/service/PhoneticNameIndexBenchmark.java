@@ -0,0 +1,86 @@
+package com.example.customerapi.service;
+
+import com.example.customerapi.model.Customer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures fuzzy name lookups on the phonetic index with 1M synthetic customers.
+ *
+ * Names are drawn from common given names and surnames, so popular codes form large buckets,
+ * the worst case for the candidate re-ranking. Queries are real names with one letter
+ * replaced, the kind of mistake made when a name is taken down by ear. Compare one- and
+ * two-word queries: the second word narrows the candidates to customers matching both.
+ *
+ * Run with: ./gradlew jmh -Pjmh.includes=PhoneticNameIndexBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PhoneticNameIndexBenchmark {
+
+    private static final String[] GIVEN_NAMES = {"James", "Mary", "John", "Patricia", "Robert", "Jennifer",
+        "Michael", "Linda", "William", "Elizabeth", "David", "Barbara", "Richard", "Susan", "Joseph", "Jessica",
+        "Thomas", "Sarah", "Charles", "Karen", "Christopher", "Nancy", "Daniel", "Lisa", "Matthew", "Margaret",
+        "Anthony", "Sandra", "Mark", "Ashley", "Steven", "Kimberly", "Paul", "Emily", "Andrew", "Donna"};
+    private static final String[] SURNAMES = {"Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller",
+        "Davis", "Rodriguez", "Martinez", "Hernandez", "Lopez", "Gonzalez", "Wilson", "Anderson", "Thomas",
+        "Taylor", "Moore", "Jackson", "Martin", "Lee", "Perez", "Thompson", "White", "Harris", "Sanchez", "Clark",
+        "Ramirez", "Lewis", "Robinson", "Walker", "Young", "Allen", "King", "Wright", "Scott", "Torres", "Nguyen",
+        "Hill", "Flores", "Green", "Adams", "Nelson", "Baker", "Hall", "Rivera", "Campbell", "Mitchell", "Carter"};
+
+    @Param({"1000000"})
+    public int customers;
+
+    @Param({"1000", "5000"})
+    public int maxCandidates;
+
+    private PhoneticNameIndex index;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        index = new PhoneticNameIndex(null, new SimpleMeterRegistry(), maxCandidates);
+        Random random = new Random(42);
+        for (int i = 0; i < customers; i++) {
+            String givenName = GIVEN_NAMES[random.nextInt(GIVEN_NAMES.length)];
+            String surname = SURNAMES[random.nextInt(SURNAMES.length)];
+            index.put(Customer.builder()
+                    .customerId(UUID.randomUUID())
+                    .givenName(givenName)
+                    .surname(surname)
+                    .primaryEmail(givenName + "." + surname + i + "@example.com")
+                    .build());
+        }
+    }
+
+    private static String misheard(String[] names) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        char[] name = names[random.nextInt(names.length)].toCharArray();
+        name[1 + random.nextInt(name.length - 1)] = (char) ('a' + random.nextInt(26));
+        return new String(name);
+    }
+
+    @Benchmark
+    public List<Customer> surnameOnly() {
+        return index.search(misheard(SURNAMES), 10);
+    }
+
+    @Benchmark
+    public List<Customer> givenNameAndSurname() {
+        return index.search(misheard(GIVEN_NAMES) + " " + misheard(SURNAMES), 10);
+    }
+}
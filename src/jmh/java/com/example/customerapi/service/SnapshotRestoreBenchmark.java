@@ -0,0 +1,134 @@
+package com.example.customerapi.service;
+
+import com.example.customerapi.model.Customer;
+import com.example.customerapi.repository.CustomerRepositoryCustomImpl;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures restoring the customers table from a snapshot into an empty in-memory H2 database.
+ *
+ * A snapshot of 1M synthetic customers is written once; each iteration then restores it into a
+ * fresh database, decompressing on one thread and inserting batches on restoreParallelism
+ * threads. Compare parallelism 1 with more threads to see how much of the restore is spent in
+ * inserts rather than in decompression. Each database lives only as long as its connection pool.
+ *
+ * Run with: ./gradlew jmh -Pjmh.includes=SnapshotRestoreBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SnapshotRestoreBenchmark {
+
+    private static final String CUSTOMERS_DDL = "CREATE TABLE customers (customer_id UUID PRIMARY KEY, "
+            + "given_name VARCHAR(255), middle_initial VARCHAR(255), surname VARCHAR(255), "
+            + "primary_email VARCHAR(255) UNIQUE, contact_number VARCHAR(255), contact_number_e164 VARCHAR(255), "
+            + "email_domain VARCHAR(255))";
+    private static final int LOAD_CHUNK = 1_000;
+
+    @Param({"1000000"})
+    public int customers;
+
+    @Param({"1", "4"})
+    public int restoreParallelism;
+
+    @Param({"1000"})
+    public int restoreBatchSize;
+
+    private Path directory;
+    private HikariDataSource dataSource;
+    private CustomerSnapshotService snapshots;
+
+    @Setup(Level.Trial)
+    public void writeSnapshot() throws Exception {
+        directory = Files.createTempDirectory("customer-snapshot");
+        HikariDataSource source = newDatabase();
+        try {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(source);
+            CustomerRepositoryCustomImpl repository = new CustomerRepositoryCustomImpl(jdbcTemplate);
+            for (int start = 0; start < customers; start += LOAD_CHUNK) {
+                List<Customer> chunk = new ArrayList<>(LOAD_CHUNK);
+                for (int i = start; i < Math.min(start + LOAD_CHUNK, customers); i++) {
+                    chunk.add(Customer.builder()
+                            .givenName("Given" + i)
+                            .middleInitial("Q")
+                            .surname("Surname" + i)
+                            .primaryEmail("customer" + i + "@example" + (i % 100) + ".com")
+                            .contactNumber(String.format("555-%03d-%04d", i % 1000, i % 10_000))
+                            .build());
+                }
+                repository.insertAll(chunk);
+            }
+            CustomerSnapshotService writer = newService(source);
+            writer.restore();
+            writer.snapshot();
+            writer.destroy();
+        } finally {
+            source.close();
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void emptyDatabase() {
+        dataSource = newDatabase();
+        snapshots = newService(dataSource);
+    }
+
+    @TearDown(Level.Iteration)
+    public void closeDatabase() throws Exception {
+        snapshots.destroy();
+        dataSource.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteSnapshot() throws Exception {
+        try (var files = Files.walk(directory)) {
+            files.sorted((a, b) -> b.compareTo(a)).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public CustomerSnapshotService.RestoreResult restore() throws Exception {
+        return snapshots.restore();
+    }
+
+    private HikariDataSource newDatabase() {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:snapshot-benchmark-" + UUID.randomUUID());
+        config.setUsername("sa");
+        config.setMaximumPoolSize(restoreParallelism + 2);
+        HikariDataSource database = new HikariDataSource(config);
+        new JdbcTemplate(database).execute(CUSTOMERS_DDL);
+        return database;
+    }
+
+    private CustomerSnapshotService newService(HikariDataSource database) {
+        SnapshotProperties properties = new SnapshotProperties();
+        properties.setEnabled(true);
+        properties.setDirectory(directory.toString());
+        properties.setRestoreParallelism(restoreParallelism);
+        properties.setRestoreBatchSize(restoreBatchSize);
+        return new CustomerSnapshotService(new JdbcTemplate(database), new DataSourceTransactionManager(database),
+                new SimpleMeterRegistry(), properties);
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.customerapi.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures contention on the per-customer update locks.
+ *
+ * "hot" sends every update to a handful of customers, so threads queue on the same stripe;
+ * "uniform" spreads updates over many customers, where only stripe collisions cause waiting.
+ * Compare against "unguarded" to get the lock overhead, and vary the stripe count to see how
+ * collisions fall off. The simulated critical section stands in for a short transaction.
+ *
+ * Run with: ./gradlew jmh -Pjmh.includes=StripedLocksBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(8)
+public class StripedLocksBenchmark {
+
+    private static final int KEY_COUNT = 100_000;
+    private static final int HOT_KEYS = 4;
+    private static final long WORK_TOKENS = 200;
+
+    @Param({"16", "256", "4096"})
+    public int stripes;
+
+    @Param({"hot", "uniform"})
+    public String distribution;
+
+    private StripedLocks locks;
+    private UUID[] keys;
+    private int keyRange;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        locks = new StripedLocks(stripes, new SimpleMeterRegistry());
+        keys = new UUID[KEY_COUNT];
+        for (int i = 0; i < KEY_COUNT; i++) {
+            keys[i] = UUID.randomUUID();
+        }
+        keyRange = "hot".equals(distribution) ? HOT_KEYS : KEY_COUNT;
+    }
+
+    private UUID nextKey() {
+        return keys[ThreadLocalRandom.current().nextInt(keyRange)];
+    }
+
+    @Benchmark
+    public void unguarded() {
+        nextKey();
+        Blackhole.consumeCPU(WORK_TOKENS);
+    }
+
+    @Benchmark
+    public Boolean locked() {
+        return locks.withLock(nextKey(), () -> {
+            Blackhole.consumeCPU(WORK_TOKENS);
+            return Boolean.TRUE;
+        });
+    }
+}
@@ -2,12 +2,14 @@ package com.example.customerapi;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
 /**
  * Main application class for the Customer API.
  * This is the entry point for the Spring Boot application.
  */
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class CustomerApiApplication {
 
     /**
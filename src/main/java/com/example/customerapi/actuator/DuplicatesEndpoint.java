@@ -0,0 +1,59 @@
+package com.example.customerapi.actuator;
+
+import com.example.customerapi.service.DuplicateDetectionService;
+import com.example.customerapi.service.DuplicateDetectionService.DetectionStatus;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint controlling duplicate customer detection at /actuator/duplicates.
+ * GET reports progress and throughput, POST starts a run and DELETE stops it.
+ */
+@Component
+@Endpoint(id = "duplicates")
+public class DuplicatesEndpoint {
+
+    private final DuplicateDetectionService detection;
+
+    /**
+     * Constructor for dependency injection of the DuplicateDetectionService.
+     *
+     * @param detection The service running the detection
+     */
+    public DuplicatesEndpoint(DuplicateDetectionService detection) {
+        this.detection = detection;
+    }
+
+    /**
+     * Reports the progress of the current or last run.
+     *
+     * @return The detection status, including the report file
+     */
+    @ReadOperation
+    public DetectionStatus status() {
+        return detection.status();
+    }
+
+    /**
+     * Starts a run unless one is already running.
+     *
+     * @return The detection status
+     */
+    @WriteOperation
+    public DetectionStatus start() {
+        return detection.start();
+    }
+
+    /**
+     * Stops the running run; its report keeps the pairs found so far.
+     *
+     * @return The detection status
+     */
+    @DeleteOperation
+    public DetectionStatus stop() {
+        return detection.stop();
+    }
+}
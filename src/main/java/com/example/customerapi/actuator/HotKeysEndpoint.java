@@ -0,0 +1,50 @@
+package com.example.customerapi.actuator;
+
+import com.example.customerapi.service.HotKeyTracker;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Actuator endpoint exposing the most frequently read customers at /actuator/hotkeys.
+ * Counts are estimates from a Count-Min sketch and decay over time.
+ */
+@Component
+@Endpoint(id = "hotkeys")
+public class HotKeysEndpoint {
+
+    private static final int DEFAULT_LIMIT = 20;
+
+    private final HotKeyTracker tracker;
+
+    /**
+     * Constructor for dependency injection of the HotKeyTracker.
+     *
+     * @param tracker The tracker holding the access statistics
+     */
+    public HotKeysEndpoint(HotKeyTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    /**
+     * Lists the hottest customers.
+     *
+     * @param limit Maximum number of customers listed, at least 1, defaults to 20
+     * @return The total access count and the hottest customers with their estimated counts
+     */
+    @ReadOperation
+    public Map<String, Object> hotKeys(@Nullable Integer limit) {
+        if (limit != null && limit < 1) {
+            throw new InvalidEndpointRequestException("Invalid limit: " + limit, "limit must be at least 1");
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("totalAccesses", tracker.totalAccesses());
+        result.put("keys", tracker.topKeys(limit != null ? limit : DEFAULT_LIMIT));
+        return result;
+    }
+}
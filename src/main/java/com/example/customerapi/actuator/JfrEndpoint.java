@@ -0,0 +1,281 @@
+package com.example.customerapi.actuator;
+
+import com.example.customerapi.diagnostics.JfrProperties;
+import jakarta.annotation.PostConstruct;
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Actuator endpoint exposing JDK Flight Recorder controls at /actuator/jfr.
+ *
+ * A continuous recording using the low-overhead "default" settings runs in a ring bounded
+ * by age and size. POST /actuator/jfr/dump writes the last N minutes of it to a file and
+ * POST /actuator/jfr/profile starts a short recording with the high-detail "profile" settings.
+ * Files are only ever written to the configured local directory, are size-capped and
+ * the oldest are deleted once more than the configured number exist.
+ */
+@Component
+@Endpoint(id = "jfr")
+public class JfrEndpoint implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(JfrEndpoint.class);
+
+    private static final DateTimeFormatter FILE_TIMESTAMP =
+            DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS").withZone(ZoneOffset.UTC);
+    private static final Duration DEFAULT_PROFILE_DURATION = Duration.ofSeconds(30);
+    private static final String VIRTUAL_THREAD_PINNED = "jdk.VirtualThreadPinned";
+    private static final Duration PINNED_THRESHOLD = Duration.ofMillis(20);
+
+    private final JfrProperties properties;
+    private final Path directory;
+    private final ReentrantLock lock = new ReentrantLock();
+    private Recording continuous;
+    private Recording profile;
+
+    /**
+     * Constructor for dependency injection of the JFR configuration.
+     *
+     * @param properties The JFR configuration
+     */
+    public JfrEndpoint(JfrProperties properties) {
+        this.properties = properties;
+        this.directory = Paths.get(properties.getDirectory()).toAbsolutePath().normalize();
+    }
+
+    /**
+     * Starts the continuous recording if it is enabled.
+     *
+     * @throws IOException if the default recording settings cannot be read
+     * @throws ParseException if the default recording settings cannot be parsed
+     */
+    @PostConstruct
+    public void start() throws IOException, ParseException {
+        lock.lock();
+        try {
+            if (!properties.isEnabled() || continuous != null || !FlightRecorder.isAvailable()) {
+                return;
+            }
+            Recording recording = new Recording(Configuration.getConfiguration("default"));
+            recording.setName("customer-api-continuous");
+            recording.setToDisk(true);
+            recording.setMaxAge(properties.getMaxAge());
+            recording.setMaxSize(properties.getMaxSize().toBytes());
+            // Virtual threads blocked while pinned to their carrier, see customer-api.execution.mode
+            recording.enable(VIRTUAL_THREAD_PINNED).withThreshold(PINNED_THRESHOLD).withStackTrace();
+            recording.start();
+            continuous = recording;
+            logger.info("Started continuous JFR recording (max age {}, max size {})",
+                    properties.getMaxAge(), properties.getMaxSize());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Describes the state of the continuous and profiling recordings.
+     *
+     * @return The recording status
+     */
+    @ReadOperation
+    public Map<String, Object> status() {
+        lock.lock();
+        try {
+            Map<String, Object> status = new LinkedHashMap<>();
+            status.put("enabled", properties.isEnabled());
+            status.put("directory", directory.toString());
+            status.put("continuous", describe(continuous));
+            status.put("profile", describe(profile));
+            return status;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Performs a recording action: "dump" writes the last {@code minutes} of the continuous
+     * recording to a file, "profile" starts a high-detail recording lasting {@code seconds}.
+     *
+     * @param action Either "dump" or "profile"
+     * @param minutes How much history to dump, defaults to the whole ring
+     * @param seconds How long to profile for, defaults to 30 seconds
+     * @return The file written (or to be written) and its parameters
+     * @throws IOException if the recording file cannot be written
+     * @throws ParseException if the recording settings cannot be parsed
+     */
+    @WriteOperation
+    public Map<String, Object> record(@Selector String action, @Nullable Integer minutes,
+            @Nullable Integer seconds) throws IOException, ParseException {
+        // A lock rather than synchronized: dumps do file I/O, which would pin a virtual thread's carrier
+        lock.lock();
+        try {
+            return switch (action) {
+                case "dump" -> dump(minutes);
+                case "profile" -> profile(seconds);
+                default -> throw new InvalidEndpointRequestException("Unknown JFR action: " + action,
+                        "Action must be 'dump' or 'profile'");
+            };
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Map<String, Object> dump(Integer minutes) throws IOException {
+        if (continuous == null) {
+            throw new InvalidEndpointRequestException("Continuous recording is not running",
+                    "Set customer-api.jfr.enabled=true to record continuously");
+        }
+        Duration window = minutes != null ? Duration.ofMinutes(Math.max(1, minutes)) : properties.getMaxAge();
+        if (window.compareTo(properties.getMaxAge()) > 0) {
+            window = properties.getMaxAge();
+        }
+
+        Path file = newFile("dump");
+        try (Recording snapshot = FlightRecorder.getFlightRecorder().takeSnapshot()) {
+            snapshot.setMaxAge(window);
+            snapshot.setMaxSize(properties.getMaxFileSize().toBytes());
+            snapshot.dump(file);
+        }
+        enforceSizeCap(file);
+        pruneOldFiles();
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("file", file.toString());
+        result.put("bytes", Files.size(file));
+        result.put("window", window.toString());
+        logger.info("Dumped last {} of continuous JFR recording to {}", window, file);
+        return result;
+    }
+
+    private Map<String, Object> profile(Integer seconds) throws IOException, ParseException {
+        if (profile != null && profile.getState() == RecordingState.RUNNING) {
+            throw new InvalidEndpointRequestException("A profiling recording is already running",
+                    "Wait for the running profile to finish");
+        }
+        if (profile != null) {
+            profile.close();
+        }
+        Duration duration = seconds != null ? Duration.ofSeconds(Math.max(1, seconds)) : DEFAULT_PROFILE_DURATION;
+        if (duration.compareTo(properties.getMaxProfileDuration()) > 0) {
+            duration = properties.getMaxProfileDuration();
+        }
+
+        Path file = newFile("profile");
+        pruneOldFiles();
+        Recording recording = new Recording(Configuration.getConfiguration("profile"));
+        recording.setName("customer-api-profile");
+        recording.setToDisk(true);
+        recording.setDuration(duration);
+        recording.setMaxSize(properties.getMaxFileSize().toBytes());
+        recording.setDestination(file);
+        recording.start();
+        profile = recording;
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("file", file.toString());
+        result.put("duration", duration.toString());
+        logger.info("Started {} profiling JFR recording to {}", duration, file);
+        return result;
+    }
+
+    private Path newFile(String prefix) throws IOException {
+        Files.createDirectories(directory);
+        return directory.resolve(prefix + "-" + FILE_TIMESTAMP.format(Instant.now()) + ".jfr");
+    }
+
+    private void enforceSizeCap(Path file) throws IOException {
+        if (Files.size(file) > properties.getMaxFileSize().toBytes()) {
+            Files.deleteIfExists(file);
+            throw new InvalidEndpointRequestException("Recording exceeded the " + properties.getMaxFileSize()
+                    + " file size cap and was discarded", "Request a shorter window with the minutes parameter");
+        }
+    }
+
+    private void pruneOldFiles() throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(path -> path.getFileName().toString().endsWith(".jfr"))
+                    .sorted(Comparator.comparing(JfrEndpoint::lastModified).reversed())
+                    .toList();
+        }
+        for (Path stale : files.subList(Math.min(files.size(), properties.getMaxFiles()), files.size())) {
+            Files.deleteIfExists(stale);
+        }
+    }
+
+    private static Instant lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path).toInstant();
+        } catch (IOException e) {
+            return Instant.EPOCH;
+        }
+    }
+
+    private static Map<String, Object> describe(Recording recording) {
+        Map<String, Object> description = new LinkedHashMap<>();
+        if (recording == null) {
+            description.put("state", "NOT_STARTED");
+            return description;
+        }
+        description.put("name", recording.getName());
+        description.put("state", recording.getState().name());
+        if (recording.getStartTime() != null) {
+            description.put("startTime", recording.getStartTime().toString());
+        }
+        if (recording.getMaxAge() != null) {
+            description.put("maxAge", recording.getMaxAge().toString());
+        }
+        if (recording.getDuration() != null) {
+            description.put("duration", recording.getDuration().toString());
+        }
+        description.put("maxSize", recording.getMaxSize());
+        return description;
+    }
+
+    /**
+     * Stops and discards any recordings when the application shuts down.
+     */
+    @Override
+    public void destroy() {
+        lock.lock();
+        try {
+            if (continuous != null) {
+                continuous.close();
+                continuous = null;
+            }
+            if (profile != null) {
+                profile.close();
+                profile = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+}
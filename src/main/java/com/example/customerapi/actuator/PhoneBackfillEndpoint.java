@@ -0,0 +1,59 @@
+package com.example.customerapi.actuator;
+
+import com.example.customerapi.service.PhoneBackfillService;
+import com.example.customerapi.service.PhoneBackfillService.BackfillStatus;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint controlling the contact number backfill at /actuator/phonebackfill.
+ * GET reports progress, POST starts a run and DELETE stops it after the chunks in flight.
+ */
+@Component
+@Endpoint(id = "phonebackfill")
+public class PhoneBackfillEndpoint {
+
+    private final PhoneBackfillService backfill;
+
+    /**
+     * Constructor for dependency injection of the PhoneBackfillService.
+     *
+     * @param backfill The service running the backfill
+     */
+    public PhoneBackfillEndpoint(PhoneBackfillService backfill) {
+        this.backfill = backfill;
+    }
+
+    /**
+     * Reports the progress of the current or last run.
+     *
+     * @return The backfill status
+     */
+    @ReadOperation
+    public BackfillStatus status() {
+        return backfill.status();
+    }
+
+    /**
+     * Starts a run unless one is already running.
+     *
+     * @return The backfill status
+     */
+    @WriteOperation
+    public BackfillStatus start() {
+        return backfill.start();
+    }
+
+    /**
+     * Stops the running run; a later run resumes where it left off.
+     *
+     * @return The backfill status
+     */
+    @DeleteOperation
+    public BackfillStatus stop() {
+        return backfill.stop();
+    }
+}
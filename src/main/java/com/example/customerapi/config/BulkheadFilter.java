@@ -0,0 +1,113 @@
+package com.example.customerapi.config;
+
+import com.example.customerapi.exception.ErrorResponseWriter;
+import com.example.customerapi.resilience.BulkheadProperties;
+import com.example.customerapi.resilience.PriorityBulkhead;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filter that admits customer API requests through per route class bulkheads.
+ *
+ * Point reads, writes and bulk reads each get a bounded share of a common pool of worker
+ * slots and a bounded queue, so slow list requests cannot starve millisecond lookups; when
+ * slots free up, queued point reads are dispatched first. Requests that cannot get a slot
+ * in time are rejected with 503 and a Retry-After header.
+ */
+@Component
+@Order(FilterOrders.BULKHEAD)
+public class BulkheadFilter extends OncePerRequestFilter {
+
+    private final BulkheadProperties properties;
+    private final ErrorResponseWriter errorResponseWriter;
+    private final PriorityBulkhead bulkhead;
+    private final Map<RouteClass, Timer> queueTimers = new EnumMap<>(RouteClass.class);
+
+    /**
+     * Constructor for dependency injection.
+     *
+     * @param properties The bulkhead configuration
+     * @param meterRegistry The registry for queue time, active, queued and rejection metrics
+     * @param errorResponseWriter Writer for the rejection body
+     */
+    public BulkheadFilter(BulkheadProperties properties, MeterRegistry meterRegistry,
+            ErrorResponseWriter errorResponseWriter) {
+        this.properties = properties;
+        this.errorResponseWriter = errorResponseWriter;
+        this.bulkhead = new PriorityBulkhead(properties);
+        for (RouteClass routeClass : RouteClass.values()) {
+            String name = routeClass.name().toLowerCase();
+            queueTimers.put(routeClass, Timer.builder("customer.bulkhead.queue.time")
+                    .description("Time requests waited for a bulkhead slot")
+                    .tag("bulkhead", name)
+                    .publishPercentiles(0.5, 0.99)
+                    .register(meterRegistry));
+            Gauge.builder("customer.bulkhead.active", bulkhead, b -> b.getActive(routeClass))
+                    .description("Requests holding a bulkhead slot")
+                    .tag("bulkhead", name)
+                    .register(meterRegistry);
+            Gauge.builder("customer.bulkhead.queued", bulkhead, b -> b.getQueued(routeClass))
+                    .description("Requests waiting for a bulkhead slot")
+                    .tag("bulkhead", name)
+                    .register(meterRegistry);
+            FunctionCounter.builder("customer.bulkhead.rejected", bulkhead, b -> b.getRejected(routeClass))
+                    .description("Requests rejected by the bulkhead")
+                    .tag("bulkhead", name)
+                    .register(meterRegistry);
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled() || RouteClass.of(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        RouteClass routeClass = RouteClass.of(request);
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = bulkhead.acquire(routeClass, properties.getMaxWait().toNanos());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        queueTimers.get(routeClass).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        if (!acquired) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            errorResponseWriter.write(request, response, HttpStatus.SERVICE_UNAVAILABLE,
+                    "Service Overloaded", "No capacity available for " + routeClass.name().toLowerCase()
+                            + " requests, retry later");
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            bulkhead.release(routeClass);
+        }
+    }
+
+    PriorityBulkhead bulkhead() {
+        return bulkhead;
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.customerapi.config;
+
+import com.example.customerapi.exception.ErrorResponseWriter;
+import com.example.customerapi.resilience.AdaptiveConcurrencyLimiter;
+import com.example.customerapi.resilience.ConcurrencyLimitProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Filter that sheds load once a route class reaches its adaptive concurrency limit.
+ * Excess requests are rejected immediately with 503 and a Retry-After header instead of
+ * queueing in Tomcat, which keeps latency bounded for the requests that are admitted.
+ */
+@Component
+@Order(FilterOrders.CONCURRENCY_LIMIT)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final ConcurrencyLimitProperties properties;
+    private final ErrorResponseWriter errorResponseWriter;
+    private final Map<RouteClass, AdaptiveConcurrencyLimiter> limiters = new EnumMap<>(RouteClass.class);
+    private final Map<RouteClass, Counter> rejections = new EnumMap<>(RouteClass.class);
+
+    /**
+     * Constructor for dependency injection.
+     *
+     * @param properties The concurrency limit configuration
+     * @param meterRegistry The registry for limit, in-flight and rejection metrics
+     * @param errorResponseWriter Writer for the rejection body
+     */
+    public ConcurrencyLimitFilter(ConcurrencyLimitProperties properties, MeterRegistry meterRegistry,
+            ErrorResponseWriter errorResponseWriter) {
+        this.properties = properties;
+        this.errorResponseWriter = errorResponseWriter;
+        for (RouteClass routeClass : RouteClass.values()) {
+            ConcurrencyLimitProperties.Limits limits = properties.limitsFor(routeClass);
+            AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(limits.getInitialLimit(),
+                    limits.getMinLimit(), limits.getMaxLimit(), limits.getRttTolerance(), limits.getSmoothing());
+            String route = routeClass.name().toLowerCase();
+            Gauge.builder("customer.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                    .description("Current adaptive concurrency limit")
+                    .tag("route", route)
+                    .register(meterRegistry);
+            Gauge.builder("customer.concurrency.inflight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                    .description("Requests currently admitted by the concurrency limiter")
+                    .tag("route", route)
+                    .register(meterRegistry);
+            rejections.put(routeClass, Counter.builder("customer.concurrency.rejected")
+                    .description("Requests rejected by the concurrency limiter")
+                    .tag("route", route)
+                    .register(meterRegistry));
+            limiters.put(routeClass, limiter);
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled() || RouteClass.of(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        RouteClass routeClass = RouteClass.of(request);
+        AdaptiveConcurrencyLimiter limiter = limiters.get(routeClass);
+        if (!limiter.tryAcquire()) {
+            rejections.get(routeClass).increment();
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(properties.getRetryAfterSeconds()));
+            errorResponseWriter.write(request, response, HttpStatus.SERVICE_UNAVAILABLE,
+                    "Service Overloaded", "Too many concurrent requests, retry later");
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean dropped = true;
+        try {
+            filterChain.doFilter(request, response);
+            dropped = response.getStatus() >= HttpStatus.INTERNAL_SERVER_ERROR.value();
+        } finally {
+            limiter.onComplete(System.nanoTime() - start, dropped);
+        }
+    }
+
+    AdaptiveConcurrencyLimiter limiterFor(RouteClass routeClass) {
+        return limiters.get(routeClass);
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.customerapi.config;
+
+import com.example.customerapi.exception.DeadlineExceededException;
+import com.example.customerapi.exception.ErrorResponse;
+import com.example.customerapi.resilience.RequestDeadline;
+import com.example.customerapi.service.DeadlineTransactions;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Skips serializing the response body of a read once the request's deadline has passed; the
+ * client is no longer waiting for it. The resulting {@link DeadlineExceededException} is turned
+ * into a 504 by the global exception handler. Writes always return their real result, since
+ * their transaction has already committed and a 504 would make the client retry them.
+ */
+@ControllerAdvice
+public class DeadlineResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    private final Counter skippedSerializations;
+
+    /**
+     * Constructor for dependency injection.
+     *
+     * @param meterRegistry The registry for the deadline counters
+     */
+    public DeadlineResponseAdvice(MeterRegistry meterRegistry) {
+        this.skippedSerializations = DeadlineTransactions.exceededCounter(meterRegistry, "serialization");
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+            Class<? extends HttpMessageConverter<?>> selectedConverterType, ServerHttpRequest request,
+            ServerHttpResponse response) {
+        RequestDeadline deadline = RequestDeadline.current();
+        if (deadline != null && deadline.isExpired() && isSafe(request.getMethod()) && body != null
+                && !(body instanceof ErrorResponse)) {
+            skippedSerializations.increment();
+            throw new DeadlineExceededException("Request deadline exceeded before the response was written");
+        }
+        return body;
+    }
+
+    private static boolean isSafe(HttpMethod method) {
+        return HttpMethod.GET.equals(method) || HttpMethod.HEAD.equals(method);
+    }
+}
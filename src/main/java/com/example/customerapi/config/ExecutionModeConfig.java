@@ -0,0 +1,103 @@
+package com.example.customerapi.config;
+
+import org.slf4j.MDC;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Configuration of the threads that handle requests and run asynchronous service work.
+ *
+ * With customer-api.execution.mode=platform (the default) Tomcat's fixed worker pool and
+ * Spring Boot's applicationTaskExecutor are used unchanged. With customer-api.execution.mode=virtual
+ * every request and every async task runs on its own virtual thread, so a request blocked on
+ * JDBC no longer holds an OS thread; concurrency is then bounded by the connection pool and
+ * the protective filters rather than by the worker thread count.
+ */
+@Configuration
+public class ExecutionModeConfig {
+
+    static final String MODE_PROPERTY = "customer-api.execution.mode";
+
+    /**
+     * Copies the submitting thread's MDC (request id, client IP, ...) to async tasks, so that
+     * their log lines correlate with the request, and clears it afterwards.
+     *
+     * @return The decorator, also applied to the platform applicationTaskExecutor by Spring Boot
+     */
+    @Bean
+    public TaskDecorator mdcTaskDecorator() {
+        return task -> {
+            Map<String, String> context = MDC.getCopyOfContextMap();
+            return () -> {
+                Map<String, String> previous = MDC.getCopyOfContextMap();
+                if (context != null) {
+                    MDC.setContextMap(context);
+                } else {
+                    MDC.clear();
+                }
+                try {
+                    task.run();
+                } finally {
+                    if (previous != null) {
+                        MDC.setContextMap(previous);
+                    } else {
+                        MDC.clear();
+                    }
+                }
+            };
+        };
+    }
+
+    /**
+     * Virtual-thread-per-task executor shared by Tomcat and async service work.
+     *
+     * @return The executor, closed on shutdown
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = MODE_PROPERTY, havingValue = "virtual")
+    public ExecutorService virtualThreadExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("vt-", 0).factory());
+    }
+
+    /**
+     * Hands every accepted connection's request processing to a virtual thread.
+     *
+     * @param virtualThreadExecutor The virtual thread executor
+     * @return The Tomcat customizer
+     */
+    @Bean
+    @ConditionalOnProperty(name = MODE_PROPERTY, havingValue = "virtual")
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer(
+            ExecutorService virtualThreadExecutor) {
+        return protocolHandler -> protocolHandler.setExecutor(virtualThreadExecutor);
+    }
+
+    /**
+     * Replaces Spring Boot's bounded applicationTaskExecutor, used for @Async methods and
+     * async MVC, with one that runs each task on a virtual thread.
+     *
+     * @param virtualThreadExecutor The virtual thread executor
+     * @param mdcTaskDecorator The decorator propagating the MDC
+     * @return The task executor
+     */
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+            AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+    @ConditionalOnProperty(name = MODE_PROPERTY, havingValue = "virtual")
+    public AsyncTaskExecutor applicationTaskExecutor(ExecutorService virtualThreadExecutor,
+            TaskDecorator mdcTaskDecorator) {
+        TaskExecutorAdapter executor = new TaskExecutorAdapter(virtualThreadExecutor);
+        executor.setTaskDecorator(mdcTaskDecorator);
+        return executor;
+    }
+}
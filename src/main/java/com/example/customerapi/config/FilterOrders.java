@@ -0,0 +1,23 @@
+package com.example.customerapi.config;
+
+import org.springframework.core.Ordered;
+
+/**
+ * Order of the application's servlet filters.
+ * Request logging wraps everything so that rejected requests are logged too, and the
+ * deadline starts on arrival so time spent queueing counts against it; the protective
+ * filters run from cheapest to most expensive rejection. Idempotent replays are answered
+ * before the concurrency limit and bulkhead, since they don't touch the database.
+ */
+public final class FilterOrders {
+
+    public static final int REQUEST_LOGGING = Ordered.HIGHEST_PRECEDENCE + 100;
+    public static final int DEADLINE = Ordered.HIGHEST_PRECEDENCE + 150;
+    public static final int RATE_LIMIT = Ordered.HIGHEST_PRECEDENCE + 200;
+    public static final int IDEMPOTENCY = Ordered.HIGHEST_PRECEDENCE + 250;
+    public static final int CONCURRENCY_LIMIT = Ordered.HIGHEST_PRECEDENCE + 300;
+    public static final int BULKHEAD = Ordered.HIGHEST_PRECEDENCE + 400;
+
+    private FilterOrders() {
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.customerapi.config;
+
+import com.example.customerapi.resilience.IdempotencyProperties;
+import com.example.customerapi.resilience.IdempotencyStore;
+import com.example.customerapi.resilience.InMemoryIdempotencyStore;
+import com.example.customerapi.resilience.JdbcIdempotencyStore;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Configuration of the store behind Idempotency-Key handling.
+ */
+@Configuration
+public class IdempotencyConfig {
+
+    /**
+     * Creates the configured idempotency store: in memory by default, or in the application
+     * database when several replicas must share keys.
+     *
+     * @param properties The idempotency configuration
+     * @param jdbcTemplate The template for the application database
+     * @return The store
+     */
+    @Bean
+    public IdempotencyStore idempotencyStore(IdempotencyProperties properties,
+            ObjectProvider<JdbcTemplate> jdbcTemplate) {
+        if (properties.getStore() == IdempotencyProperties.Store.JDBC) {
+            return new JdbcIdempotencyStore(jdbcTemplate.getObject(), properties.getClaimTimeout());
+        }
+        return new InMemoryIdempotencyStore(properties.getMaxEntries());
+    }
+}
@@ -0,0 +1,349 @@
+package com.example.customerapi.config;
+
+import com.example.customerapi.exception.ErrorResponseWriter;
+import com.example.customerapi.resilience.IdempotencyProperties;
+import com.example.customerapi.resilience.IdempotencyStore;
+import com.example.customerapi.resilience.IdempotencyStore.IdempotencyRecord;
+import com.example.customerapi.resilience.IdempotencyStore.StoredResponse;
+import com.example.customerapi.resilience.RequestDeadline;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Filter that makes POST requests carrying an Idempotency-Key header safe to retry.
+ *
+ * The first request with a key executes normally and its response is stored; later requests
+ * with the same key get the stored response replayed (marked with {@value #REPLAYED_HEADER})
+ * without reaching the controller or the database, with its status, body, Location and
+ * Preference-Applied headers. Duplicates arriving while the first
+ * request is still executing wait for it. Reusing a key for a different request body is
+ * rejected with 422. Server errors and throttling responses are not stored, so a retry after
+ * one executes again.
+ */
+@Component
+@Order(FilterOrders.IDEMPOTENCY)
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    static final int MAX_KEY_LENGTH = 255;
+    static final List<String> STORED_HEADERS = List.of(HttpHeaders.LOCATION, "Preference-Applied");
+
+    private static final long POLL_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private final IdempotencyProperties properties;
+    private final IdempotencyStore store;
+    private final ErrorResponseWriter errorResponseWriter;
+    private final Clock clock;
+    private final ConcurrentHashMap<String, CompletableFuture<Void>> inFlight = new ConcurrentHashMap<>();
+    private final Counter executed;
+    private final Counter replayed;
+    private final Counter mismatched;
+    private final Counter conflicted;
+
+    /**
+     * Constructor for dependency injection.
+     *
+     * @param properties The idempotency configuration
+     * @param store Where outcomes are stored
+     * @param meterRegistry The registry for the outcome counters
+     * @param errorResponseWriter Writer for the rejection body
+     */
+    @Autowired
+    public IdempotencyFilter(IdempotencyProperties properties, IdempotencyStore store, MeterRegistry meterRegistry,
+            ErrorResponseWriter errorResponseWriter) {
+        this(properties, store, meterRegistry, errorResponseWriter, Clock.systemUTC());
+    }
+
+    IdempotencyFilter(IdempotencyProperties properties, IdempotencyStore store, MeterRegistry meterRegistry,
+            ErrorResponseWriter errorResponseWriter, Clock clock) {
+        this.properties = properties;
+        this.store = store;
+        this.errorResponseWriter = errorResponseWriter;
+        this.clock = clock;
+        this.executed = outcomeCounter(meterRegistry, "executed");
+        this.replayed = outcomeCounter(meterRegistry, "replayed");
+        this.mismatched = outcomeCounter(meterRegistry, "mismatched");
+        this.conflicted = outcomeCounter(meterRegistry, "conflicted");
+    }
+
+    private static Counter outcomeCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("customer.idempotency.requests")
+                .description("POST requests carrying an idempotency key, by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled()
+                || !"POST".equals(request.getMethod())
+                || request.getHeader(properties.getHeader()) == null
+                || RouteClass.of(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        String idempotencyKey = request.getHeader(properties.getHeader());
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            errorResponseWriter.write(request, response, HttpStatus.BAD_REQUEST, "Invalid Idempotency Key",
+                    properties.getHeader() + " must be 1 to " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+
+        CachedBodyRequest cachedRequest = new CachedBodyRequest(request);
+        String key = request.getRequestURI() + ' ' + idempotencyKey;
+        String fingerprint = fingerprint(request, cachedRequest.body);
+        long waitUntil = System.nanoTime() + waitBudgetNanos();
+
+        while (true) {
+            CompletableFuture<Void> claim = new CompletableFuture<>();
+            CompletableFuture<Void> running = inFlight.putIfAbsent(key, claim);
+            if (running != null) {
+                // A duplicate on this replica is executing: wait for it, then look again
+                if (!await(running, waitUntil)) {
+                    rejectInProgress(request, response);
+                    return;
+                }
+                continue;
+            }
+            try {
+                Optional<IdempotencyRecord> existing = store.claim(key, fingerprint, clock.instant(),
+                        properties.getTtl());
+                if (existing.isEmpty()) {
+                    execute(cachedRequest, response, filterChain, key);
+                    return;
+                }
+                IdempotencyRecord record = existing.get();
+                if (!record.fingerprint().equals(fingerprint)) {
+                    mismatched.increment();
+                    errorResponseWriter.write(request, response, HttpStatus.UNPROCESSABLE_ENTITY,
+                            "Idempotency Key Reused", "The idempotency key was already used for a different request");
+                    return;
+                }
+                if (record.isCompleted()) {
+                    replay(response, record.response());
+                    return;
+                }
+            } finally {
+                inFlight.remove(key, claim);
+                claim.complete(null);
+            }
+            // Claimed by another replica: poll until it completes
+            if (!pause(waitUntil)) {
+                rejectInProgress(request, response);
+                return;
+            }
+        }
+    }
+
+    private void execute(CachedBodyRequest request, HttpServletResponse response, FilterChain filterChain,
+            String key) throws ServletException, IOException {
+        ContentCachingResponseWrapper capturing = new ContentCachingResponseWrapper(response);
+        boolean stored = false;
+        try {
+            filterChain.doFilter(request, capturing);
+            executed.increment();
+            if (isReplayable(capturing)) {
+                store.complete(key, new StoredResponse(capturing.getStatus(), capturing.getContentType(),
+                        storedHeaders(capturing), capturing.getContentAsByteArray()));
+                stored = true;
+            }
+        } finally {
+            if (!stored) {
+                store.release(key);
+            }
+            capturing.copyBodyToResponse();
+        }
+    }
+
+    private boolean isReplayable(ContentCachingResponseWrapper response) {
+        int status = response.getStatus();
+        return status < HttpStatus.INTERNAL_SERVER_ERROR.value()
+                && status != HttpStatus.TOO_MANY_REQUESTS.value()
+                && status != HttpStatus.REQUEST_TIMEOUT.value()
+                && response.getContentSize() <= properties.getMaxResponseSize().toBytes();
+    }
+
+    private static Map<String, String> storedHeaders(HttpServletResponse response) {
+        Map<String, String> headers = new LinkedHashMap<>();
+        for (String name : STORED_HEADERS) {
+            String value = response.getHeader(name);
+            if (value != null) {
+                headers.put(name, value);
+            }
+        }
+        return headers;
+    }
+
+    private void replay(HttpServletResponse response, StoredResponse stored) throws IOException {
+        replayed.increment();
+        response.setStatus(stored.status());
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        stored.headers().forEach(response::setHeader);
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+
+    private void rejectInProgress(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        conflicted.increment();
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        errorResponseWriter.write(request, response, HttpStatus.CONFLICT, "Request In Progress",
+                "A request with this idempotency key is still being processed");
+    }
+
+    /**
+     * Duplicates wait at most the configured in-flight timeout, and never past the request deadline.
+     */
+    private long waitBudgetNanos() {
+        long budget = properties.getInFlightTimeout().toNanos();
+        RequestDeadline deadline = RequestDeadline.current();
+        return deadline != null ? Math.min(budget, deadline.remainingNanos()) : budget;
+    }
+
+    private static boolean await(CompletableFuture<Void> running, long waitUntil) {
+        try {
+            running.get(Math.max(0, waitUntil - System.nanoTime()), TimeUnit.NANOSECONDS);
+            return true;
+        } catch (TimeoutException | ExecutionException ex) {
+            return false;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static boolean pause(long waitUntil) {
+        long remaining = waitUntil - System.nanoTime();
+        if (remaining <= 0) {
+            return false;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(Math.min(POLL_INTERVAL_NANOS, remaining));
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static String fingerprint(HttpServletRequest request, byte[] body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            String target = request.getMethod() + ' ' + request.getRequestURI() + '\n';
+            digest.update(target.getBytes(StandardCharsets.UTF_8));
+            digest.update(body);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Drops expired idempotency keys.
+     */
+    @Scheduled(fixedDelayString = "${customer-api.idempotency.eviction-interval:PT1M}")
+    public void evictExpiredKeys() {
+        store.evictExpired(clock.instant());
+    }
+
+    /**
+     * Request whose body has been read up front (to fingerprint it) and can be read again downstream.
+     */
+    static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.body = request.getInputStream().readAllBytes();
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException("Asynchronous reads are not supported");
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return input.read(buffer, offset, length);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.customerapi.config;
+
+import com.example.customerapi.diagnostics.CustomerRequestEvent;
+import com.example.customerapi.diagnostics.DbTimeTracker;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Filter that emits a {@link CustomerRequestEvent} for each request while a
+ * Flight Recorder recording is running. When no recording has the event enabled
+ * the filter only pays for the enabled check.
+ */
+@Component
+public class JfrRequestEventFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        CustomerRequestEvent event = new CustomerRequestEvent();
+        if (!event.isEnabled()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        DbTimeTracker.reset();
+        event.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                event.method = request.getMethod();
+                event.route = route != null ? route.toString() : request.getRequestURI();
+                event.status = response.getStatus();
+                event.customerIdHash = CustomerRequestEvent.hashCustomerId(customerId(request));
+                event.dbTime = DbTimeTracker.elapsedNanos();
+                event.commit();
+            }
+        }
+    }
+
+    private static String customerId(HttpServletRequest request) {
+        Object variables = request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        if (variables instanceof Map<?, ?> map && map.get("id") != null) {
+            return map.get("id").toString();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.customerapi.config;
+
+import com.example.customerapi.exception.ErrorResponseWriter;
+import com.example.customerapi.resilience.ClientRateLimiter;
+import com.example.customerapi.resilience.RateLimitProperties;
+import com.example.customerapi.service.WarmupToken;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filter that rate limits each client per route class with token buckets.
+ *
+ * Clients are identified by API key when a known one is sent and by IP address otherwise.
+ * Every response carries RateLimit-Limit, RateLimit-Remaining and RateLimit-Reset headers;
+ * requests over the limit are rejected with 429 and a Retry-After header. The warm-up's own
+ * requests, marked with the {@link WarmupToken}, are not limited.
+ */
+@Component
+@Order(FilterOrders.RATE_LIMIT)
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    static final String LIMIT_HEADER = "RateLimit-Limit";
+    static final String REMAINING_HEADER = "RateLimit-Remaining";
+    static final String RESET_HEADER = "RateLimit-Reset";
+
+    private final RateLimitProperties properties;
+    private final ErrorResponseWriter errorResponseWriter;
+    private final WarmupToken warmupToken;
+    private final ClientRateLimiter limiter;
+    private final Map<RouteClass, Counter> rejections = new EnumMap<>(RouteClass.class);
+
+    /**
+     * Constructor for dependency injection.
+     *
+     * @param properties The rate limit configuration
+     * @param meterRegistry The registry for bucket and rejection metrics
+     * @param errorResponseWriter Writer for the rejection body
+     * @param warmupToken The token that marks the warm-up's requests
+     */
+    public RateLimitFilter(RateLimitProperties properties, MeterRegistry meterRegistry,
+            ErrorResponseWriter errorResponseWriter, WarmupToken warmupToken) {
+        this.properties = properties;
+        this.errorResponseWriter = errorResponseWriter;
+        this.warmupToken = warmupToken;
+        this.limiter = new ClientRateLimiter(properties.getMaxBuckets());
+        for (RouteClass routeClass : RouteClass.values()) {
+            rejections.put(routeClass, Counter.builder("customer.ratelimit.rejected")
+                    .description("Requests rejected by the per-client rate limiter")
+                    .tag("route", routeClass.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+        Gauge.builder("customer.ratelimit.buckets", limiter, ClientRateLimiter::size)
+                .description("Client token buckets currently held")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled() || RouteClass.of(request) == null
+                || warmupToken.matches(request.getHeader(WarmupToken.HEADER));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        RouteClass routeClass = RouteClass.of(request);
+        RateLimitProperties.Limit limit = properties.limitFor(routeClass);
+        ClientRateLimiter.Decision decision = limiter.tryAcquire(routeClass.name() + ':' + clientKey(request),
+                limit.getPermitsPerSecond(), limit.getBurst(), System.nanoTime());
+
+        response.setHeader(LIMIT_HEADER, String.valueOf(limit.getBurst()));
+        response.setHeader(REMAINING_HEADER, String.valueOf(decision.remaining()));
+        response.setHeader(RESET_HEADER, String.valueOf(toSeconds(decision.resetNanos())));
+
+        if (!decision.allowed()) {
+            rejections.get(routeClass).increment();
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(toSeconds(decision.retryAfterNanos())));
+            errorResponseWriter.write(request, response, HttpStatus.TOO_MANY_REQUESTS,
+                    "Rate Limit Exceeded", "Request rate limit exceeded, retry later");
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private String clientKey(HttpServletRequest request) {
+        String apiKey = request.getHeader(properties.getApiKeyHeader());
+        return apiKey != null && properties.getApiKeys().contains(apiKey) ? "key:" + apiKey
+                : "ip:" + request.getRemoteAddr();
+    }
+
+    private static long toSeconds(long nanos) {
+        return (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+    }
+
+    /**
+     * Drops buckets of clients that have been idle long enough for their bucket to refill.
+     */
+    @Scheduled(fixedDelayString = "${customer-api.rate-limit.eviction-interval:PT1M}")
+    public void evictIdleBuckets() {
+        limiter.evictIdle(System.nanoTime(), properties.getIdleTimeout().toNanos());
+    }
+}
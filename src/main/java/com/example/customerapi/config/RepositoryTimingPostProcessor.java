@@ -0,0 +1,25 @@
+package com.example.customerapi.config;
+
+import com.example.customerapi.diagnostics.DbTimeTracker;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registers a repository invocation listener on every Spring Data repository so that
+ * the time spent in repository calls is accumulated per thread in {@link DbTimeTracker}.
+ */
+@Component
+public class RepositoryTimingPostProcessor implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+            factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addInvocationListener(
+                    invocation -> DbTimeTracker.add(invocation.getDuration(TimeUnit.NANOSECONDS))));
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.customerapi.config;
+
+import com.example.customerapi.exception.ErrorResponseWriter;
+import com.example.customerapi.resilience.DeadlineProperties;
+import com.example.customerapi.resilience.RequestDeadline;
+import com.example.customerapi.service.DeadlineTransactions;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Filter that binds a deadline to every API request.
+ *
+ * The budget comes from the client, either as an absolute {@value #DEADLINE_HEADER} (epoch
+ * milliseconds or an ISO-8601 instant) or as a relative {@value #GRPC_TIMEOUT_HEADER} (e.g. 2S,
+ * 500m), capped at the configured maximum; requests without either get the default of their
+ * route class. A request whose deadline has already passed on arrival is answered with 504.
+ */
+@Component
+@Order(FilterOrders.DEADLINE)
+public class RequestDeadlineFilter extends OncePerRequestFilter {
+
+    static final String DEADLINE_HEADER = "X-Request-Deadline";
+    static final String GRPC_TIMEOUT_HEADER = "grpc-timeout";
+
+    private static final Pattern GRPC_TIMEOUT = Pattern.compile("(\\d{1,8})([HMSmun])");
+
+    private final DeadlineProperties properties;
+    private final ErrorResponseWriter errorResponseWriter;
+    private final Counter expiredOnArrival;
+
+    /**
+     * Constructor for dependency injection.
+     *
+     * @param properties The deadline configuration
+     * @param meterRegistry The registry for the deadline counters
+     * @param errorResponseWriter Writer for the rejection body
+     */
+    public RequestDeadlineFilter(DeadlineProperties properties, MeterRegistry meterRegistry,
+            ErrorResponseWriter errorResponseWriter) {
+        this.properties = properties;
+        this.errorResponseWriter = errorResponseWriter;
+        this.expiredOnArrival = DeadlineTransactions.exceededCounter(meterRegistry, "admission");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled() || RouteClass.of(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        Duration budget = budgetFor(request);
+        if (budget.isNegative() || budget.isZero()) {
+            expiredOnArrival.increment();
+            errorResponseWriter.write(request, response, HttpStatus.GATEWAY_TIMEOUT,
+                    "Deadline Exceeded", "Request deadline passed before the request was processed");
+            return;
+        }
+
+        RequestDeadline.set(RequestDeadline.after(budget));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestDeadline.clear();
+        }
+    }
+
+    /**
+     * Resolves the budget of a request from its headers, falling back to the route default.
+     * Malformed headers are ignored rather than rejected.
+     */
+    Duration budgetFor(HttpServletRequest request) {
+        Duration requested = parseDeadline(request.getHeader(DEADLINE_HEADER));
+        if (requested == null) {
+            requested = parseGrpcTimeout(request.getHeader(GRPC_TIMEOUT_HEADER));
+        }
+        if (requested == null) {
+            return properties.timeoutFor(RouteClass.of(request));
+        }
+        return requested.compareTo(properties.getMaxTimeout()) > 0 ? properties.getMaxTimeout() : requested;
+    }
+
+    private static Duration parseDeadline(String header) {
+        if (header == null || header.isBlank()) {
+            return null;
+        }
+        try {
+            Instant deadline = header.chars().allMatch(Character::isDigit)
+                    ? Instant.ofEpochMilli(Long.parseLong(header))
+                    : Instant.parse(header.trim());
+            return Duration.between(Instant.now(), deadline);
+        } catch (NumberFormatException | DateTimeParseException ex) {
+            return null;
+        }
+    }
+
+    private static Duration parseGrpcTimeout(String header) {
+        if (header == null) {
+            return null;
+        }
+        Matcher matcher = GRPC_TIMEOUT.matcher(header.trim());
+        if (!matcher.matches()) {
+            return null;
+        }
+        long value = Long.parseLong(matcher.group(1));
+        TimeUnit unit = switch (matcher.group(2)) {
+            case "H" -> TimeUnit.HOURS;
+            case "M" -> TimeUnit.MINUTES;
+            case "S" -> TimeUnit.SECONDS;
+            case "m" -> TimeUnit.MILLISECONDS;
+            case "u" -> TimeUnit.MICROSECONDS;
+            default -> TimeUnit.NANOSECONDS;
+        };
+        return Duration.ofNanos(unit.toNanos(value));
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.customerapi.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Filter that measures the CPU time and heap bytes allocated by the request thread
+ * and publishes them as distribution summaries tagged by route template.
+ *
+ * The filter is disabled by default; when disabled it is skipped entirely so the
+ * request path pays nothing beyond a single boolean check.
+ *
+ * Requests served on virtual threads (see customer-api.execution.mode) are not measured: the
+ * JVM reports neither CPU time nor allocated bytes for a virtual thread and returns -1 instead.
+ */
+@Component
+public class RequestResourceMetricsFilter extends OncePerRequestFilter {
+
+    static final String CPU_METRIC = "http.server.requests.cpu";
+    static final String ALLOCATION_METRIC = "http.server.requests.allocated";
+    static final String UNKNOWN_ROUTE = "UNKNOWN";
+
+    private final MeterRegistry meterRegistry;
+    private final ThreadMXBean threadMXBean;
+    private final boolean cpuTimeEnabled;
+    private final boolean allocationEnabled;
+    private final Map<String, RouteSummaries> summaries = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor for dependency injection.
+     *
+     * @param meterRegistry The registry the summaries are published to
+     * @param enabled Whether per-request resource metrics are collected
+     */
+    @Autowired
+    public RequestResourceMetricsFilter(MeterRegistry meterRegistry,
+            @Value("${customer-api.metrics.request-resources.enabled:false}") boolean enabled) {
+        this(meterRegistry, ManagementFactory.getThreadMXBean(), enabled);
+    }
+
+    RequestResourceMetricsFilter(MeterRegistry meterRegistry, ThreadMXBean threadMXBean, boolean enabled) {
+        this.meterRegistry = meterRegistry;
+        this.threadMXBean = threadMXBean;
+        this.cpuTimeEnabled = enabled && isCpuTimeSupported(threadMXBean);
+        this.allocationEnabled = enabled && isAllocationSupported(threadMXBean);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !cpuTimeEnabled && !allocationEnabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        if (Thread.currentThread().isVirtual()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        long startCpu = cpuTimeEnabled ? threadMXBean.getCurrentThreadCpuTime() : 0L;
+        long startAllocated = allocationEnabled ? allocatedBytes() : 0L;
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RouteSummaries route = summariesFor(request.getMethod(), routeTemplate(request));
+            if (cpuTimeEnabled) {
+                route.cpu.record(threadMXBean.getCurrentThreadCpuTime() - startCpu);
+            }
+            if (allocationEnabled) {
+                route.allocated.record(allocatedBytes() - startAllocated);
+            }
+        }
+    }
+
+    private RouteSummaries summariesFor(String method, String uri) {
+        return summaries.computeIfAbsent(method + ' ' + uri, key -> new RouteSummaries(
+                DistributionSummary.builder(CPU_METRIC)
+                        .description("CPU time consumed by the request thread")
+                        .baseUnit("nanoseconds")
+                        .tag("method", method)
+                        .tag("uri", uri)
+                        .publishPercentiles(0.5, 0.99)
+                        .register(meterRegistry),
+                DistributionSummary.builder(ALLOCATION_METRIC)
+                        .description("Heap bytes allocated by the request thread")
+                        .baseUnit("bytes")
+                        .tag("method", method)
+                        .tag("uri", uri)
+                        .publishPercentiles(0.5, 0.99)
+                        .register(meterRegistry)));
+    }
+
+    /**
+     * Resolves the route template (e.g. /api/customers/{id}) rather than the raw URI,
+     * so customer ids don't explode the tag cardinality.
+     */
+    private static String routeTemplate(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : UNKNOWN_ROUTE;
+    }
+
+    private long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) threadMXBean).getCurrentThreadAllocatedBytes();
+    }
+
+    private static boolean isCpuTimeSupported(ThreadMXBean bean) {
+        return bean.isCurrentThreadCpuTimeSupported() && bean.isThreadCpuTimeEnabled();
+    }
+
+    private static boolean isAllocationSupported(ThreadMXBean bean) {
+        return bean instanceof com.sun.management.ThreadMXBean sunBean
+                && sunBean.isThreadAllocatedMemorySupported()
+                && sunBean.isThreadAllocatedMemoryEnabled();
+    }
+
+    private record RouteSummaries(DistributionSummary cpu, DistributionSummary allocated) {
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.customerapi.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Classes of customer API routes with different cost profiles.
+ * Used to apply separate limits to cheap point lookups, writes and bulk reads.
+ */
+public enum RouteClass {
+
+    /** Single-customer reads such as GET /api/customers/{id}, and HEAD requests. */
+    POINT_READ,
+
+    /** Creates, updates and deletes. */
+    WRITE,
+
+    /** Reads returning many customers, such as listing all customers, and batch writes. */
+    BULK;
+
+    private static final String API_PREFIX = "/api/customers";
+    private static final String BATCH_PATH = API_PREFIX + "/batch";
+
+    /**
+     * Classifies a request.
+     *
+     * @param request The incoming request
+     * @return The route class, or null if the request is not a customer API call
+     */
+    public static RouteClass of(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (!path.startsWith(API_PREFIX)) {
+            return null;
+        }
+        String method = request.getMethod();
+        if ("HEAD".equals(method)) {
+            // HEAD on the collection only reports the counted total, so it is as cheap as a point read
+            return POINT_READ;
+        }
+        if ("GET".equals(method)) {
+            return isCollection(path) ? BULK : POINT_READ;
+        }
+        return path.equals(BATCH_PATH) ? BULK : WRITE;
+    }
+
+    private static boolean isCollection(String path) {
+        return path.length() == API_PREFIX.length()
+                || (path.length() == API_PREFIX.length() + 1 && path.endsWith("/"));
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.customerapi.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables scheduled background tasks such as hot-key decay.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
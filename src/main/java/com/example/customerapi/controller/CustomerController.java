@@ -1,8 +1,16 @@
 
 package com.example.customerapi.controller;
 
+import com.example.customerapi.jobs.CustomerJob;
+import com.example.customerapi.jobs.CustomerJob.JobView;
+import com.example.customerapi.jobs.CustomerJobService;
 import com.example.customerapi.model.Customer;
+import com.example.customerapi.model.PhoneNumbers;
+import com.example.customerapi.repository.CustomerFilter;
+import com.example.customerapi.repository.CustomerRepositoryCustom.UpsertResult;
 import com.example.customerapi.service.CustomerService;
+import com.example.customerapi.service.CustomerStats;
+import com.example.customerapi.service.WarmupToken;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -10,7 +18,10 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.ConstraintViolationException;
 import jakarta.validation.Valid;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -18,10 +29,17 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.TreeSet;
 import java.util.UUID;
 
 /**
@@ -35,57 +53,269 @@ import java.util.UUID;
 @Tag(name = "Customer API", description = "API for managing customer information")
 public class CustomerController {
 
+    static final String PREFER_HEADER = "Prefer";
+    static final String RESPOND_ASYNC = "respond-async";
+    static final int MAX_SEARCH_TEXT_LENGTH = 100;
+    static final int MAX_SEARCH_LIMIT = 50;
+    static final int DEFAULT_PAGE_SIZE = 10;
+    static final int MAX_PAGE_SIZE = 100;
+    static final int MAX_LIST_OFFSET = 10_000;
+    static final int MAX_STATS_DOMAINS = 1_000;
+    static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+
     private final CustomerService service;
+    private final CustomerJobService jobService;
+    private final WarmupToken warmupToken;
 
     /**
      * Constructor for dependency injection of the CustomerService.
      *
      * @param service The customer service to be used by this controller
+     * @param jobService Runs creates in the background when the client prefers an asynchronous response
+     * @param warmupToken Marks the warm-up's reads, which don't count towards the hot keys
      */
-    public CustomerController(CustomerService service) {
+    public CustomerController(CustomerService service, CustomerJobService jobService, WarmupToken warmupToken) {
         this.service = service;
+        this.jobService = jobService;
+        this.warmupToken = warmupToken;
     }
 
     /**
      * Creates a new customer.
      *
+     * @param prefer The Prefer header; "respond-async" queues the create as a background job
      * @param customer The customer object to create, validated using Bean Validation
-     * @return ResponseEntity containing the created customer with HTTP 200 OK status
+     * @return ResponseEntity containing the created customer with HTTP 200 OK status,
+     *         or the queued job with HTTP 202 Accepted
      */
     @PostMapping
     @Operation(summary = "Create a new customer", description = "Creates a new customer with the provided information")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Customer created successfully",
                 content = @Content(mediaType = "application/json", schema = @Schema(implementation = Customer.class))),
-        @ApiResponse(responseCode = "400", description = "Invalid input data", content = @Content)
+        @ApiResponse(responseCode = "202", description = "Create queued as a job (Prefer: respond-async)",
+                content = @Content(mediaType = "application/json", schema = @Schema(implementation = JobView.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid input data", content = @Content),
+        @ApiResponse(responseCode = "503", description = "Job queue is full", content = @Content)
     })
-    public ResponseEntity<Customer> createCustomer(
+    public ResponseEntity<?> createCustomer(
+            @Parameter(description = "Send respond-async to get 202 and a job instead of waiting for the write")
+            @RequestHeader(value = PREFER_HEADER, required = false) String prefer,
             @Valid @RequestBody @io.swagger.v3.oas.annotations.parameters.RequestBody(
                 description = "Customer information", required = true,
                 content = @Content(schema = @Schema(implementation = Customer.class)))
             Customer customer) {
+        if (prefersAsync(prefer)) {
+            return accepted(jobService.submitCreate(List.of(customer)));
+        }
         return ResponseEntity.ok(service.createCustomer(customer));
     }
 
     /**
-     * Retrieves all customers.
+     * Creates many customers. Each customer is validated and created on its own, so failures
+     * are reported per item without rolling back the others.
+     *
+     * @param prefer The Prefer header; "respond-async" queues the batch as a background job
+     * @param customers The customers to create
+     * @return ResponseEntity containing the outcome with HTTP 200 OK status,
+     *         or the queued job with HTTP 202 Accepted
+     */
+    @PostMapping("/batch")
+    @Operation(summary = "Create customers in bulk",
+            description = "Creates many customers, reporting failures per item; large batches should use "
+                    + "Prefer: respond-async and poll the returned job")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Batch processed",
+                content = @Content(mediaType = "application/json", schema = @Schema(implementation = JobView.class))),
+        @ApiResponse(responseCode = "202", description = "Batch queued as a job",
+                content = @Content(mediaType = "application/json", schema = @Schema(implementation = JobView.class))),
+        @ApiResponse(responseCode = "400", description = "Empty or oversized batch", content = @Content),
+        @ApiResponse(responseCode = "503", description = "Job queue is full", content = @Content)
+    })
+    public ResponseEntity<JobView> createCustomers(
+            @Parameter(description = "Send respond-async to get 202 and a job instead of waiting for the writes")
+            @RequestHeader(value = PREFER_HEADER, required = false) String prefer,
+            @RequestBody List<Customer> customers) {
+        if (prefersAsync(prefer)) {
+            return accepted(jobService.submitCreate(customers));
+        }
+        return ResponseEntity.ok(jobService.runCreate(customers));
+    }
+
+    private static boolean prefersAsync(String prefer) {
+        return prefer != null && Arrays.stream(prefer.split(","))
+                .map(String::trim)
+                .anyMatch(RESPOND_ASYNC::equalsIgnoreCase);
+    }
+
+    private static ResponseEntity<JobView> accepted(CustomerJob job) {
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/customers/jobs/" + job.getId()))
+                .header("Preference-Applied", RESPOND_ASYNC)
+                .body(job.view());
+    }
+
+    /**
+     * Retrieves all customers, or one page of the customers matching optional filters.
+     * Without any filter or paging parameter every customer is returned, as before.
      *
-     * @return ResponseEntity containing a list of all customers with HTTP 200 OK status
+     * @param surname Only customers with exactly this surname
+     * @param namePrefix Only customers whose surname starts with this
+     * @param emailDomain Only customers whose primary email is at this domain
+     * @param page The page number, 0-based
+     * @param size The page size
+     * @param sort The property to sort by; which are allowed depends on the filters
+     * @param direction The sort direction, ASC or DESC
+     * @return ResponseEntity containing the customers with HTTP 200 OK status
      */
     @GetMapping
-    @Operation(summary = "Get all customers", description = "Retrieves a list of all customers")
+    @Operation(summary = "Get all customers",
+            description = "Retrieves all customers, or a page of customers filtered by surname, surname prefix "
+                    + "and/or email domain. Only filter and sort combinations served by an index are accepted.")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "List of customers retrieved successfully",
-                content = @Content(mediaType = "application/json", schema = @Schema(implementation = Customer.class)))
+                content = @Content(mediaType = "application/json", schema = @Schema(implementation = Customer.class))),
+        @ApiResponse(responseCode = "400", description = "Unsupported filter, sort or page", content = @Content)
+    })
+    public ResponseEntity<List<Customer>> getAllCustomers(
+            @Parameter(description = "Exact surname", example = "Smith")
+            @RequestParam(required = false) String surname,
+            @Parameter(description = "Start of the surname", example = "Sm")
+            @RequestParam(required = false) String namePrefix,
+            @Parameter(description = "Domain of the primary email, ignoring case", example = "example.com")
+            @RequestParam(required = false) String emailDomain,
+            @Parameter(description = "Page number, 0-based", example = "0")
+            @RequestParam(required = false) Integer page,
+            @Parameter(description = "Page size (1-" + MAX_PAGE_SIZE + ")", example = "10")
+            @RequestParam(required = false) Integer size,
+            @Parameter(description = "Property to sort by: customerId or surname without filters, "
+                    + "surname or givenName with a surname filter, otherwise surname", example = "surname")
+            @RequestParam(required = false) String sort,
+            @Parameter(description = "Sort direction", example = "ASC")
+            @RequestParam(required = false) String direction) {
+        CustomerFilter filter = new CustomerFilter(surname, namePrefix, emailDomain);
+        if (filter.isEmpty() && page == null && size == null && sort == null && direction == null) {
+            return ResponseEntity.ok(service.getAllCustomers());
+        }
+        return ResponseEntity.ok(service.findCustomers(filter, pageRequest(filter, page, size, sort, direction))
+                .getContent());
+    }
+
+    /**
+     * Reports the number of customers in a header, without listing them or counting in the database.
+     *
+     * @return ResponseEntity with the {@value #TOTAL_COUNT_HEADER} header and HTTP 200 OK status
+     */
+    @RequestMapping(method = RequestMethod.HEAD)
+    @Operation(summary = "Count customers",
+            description = "Returns the number of customers in the " + TOTAL_COUNT_HEADER + " header, "
+                    + "from a counter maintained in memory")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Number of customers in the " + TOTAL_COUNT_HEADER
+                + " header", content = @Content)
+    })
+    public ResponseEntity<Void> countCustomers() {
+        return ResponseEntity.ok()
+                .header(TOTAL_COUNT_HEADER, String.valueOf(service.countCustomers()))
+                .build();
+    }
+
+    /**
+     * Retrieves customer counts in total, by email domain and by surname initial.
+     *
+     * @param limit The maximum number of email domains listed, largest first
+     * @return ResponseEntity containing the counts with HTTP 200 OK status
+     */
+    @GetMapping("/stats")
+    @Operation(summary = "Get customer statistics",
+            description = "Customer counts in total, by email domain and by surname initial, maintained in memory "
+                    + "as customers are written and periodically reconciled with the database")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Customer counts",
+                content = @Content(mediaType = "application/json",
+                        schema = @Schema(implementation = CustomerStats.Snapshot.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid limit", content = @Content)
+    })
+    public ResponseEntity<CustomerStats.Snapshot> getCustomerStats(
+            @Parameter(description = "Maximum number of email domains listed, largest first (1-"
+                    + MAX_STATS_DOMAINS + ")", example = "100")
+            @RequestParam(defaultValue = "100") int limit) {
+        if (limit < 1 || limit > MAX_STATS_DOMAINS) {
+            throw new ConstraintViolationException("limit must be between 1 and " + MAX_STATS_DOMAINS,
+                    Collections.emptySet());
+        }
+        return ResponseEntity.ok(service.getStats(limit));
+    }
+
+    /**
+     * Finds customers for type-ahead by the start of their given name, surname or email address.
+     *
+     * @param prefix The prefix to match, ignoring case
+     * @param limit The maximum number of customers returned
+     * @return ResponseEntity containing the matching customers with HTTP 200 OK status
+     */
+    @GetMapping("/search")
+    @Operation(summary = "Search customers by prefix",
+            description = "Type-ahead search over given name, surname and email address, served from memory")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Matching customers",
+                content = @Content(mediaType = "application/json", schema = @Schema(implementation = Customer.class))),
+        @ApiResponse(responseCode = "400", description = "Missing or invalid prefix or limit", content = @Content)
+    })
+    public ResponseEntity<List<Customer>> searchCustomers(
+            @Parameter(description = "Start of the given name, surname or email address", required = true,
+                    example = "jo")
+            @RequestParam String prefix,
+            @Parameter(description = "Maximum number of customers returned (1-50)", example = "10")
+            @RequestParam(defaultValue = "10") int limit) {
+        if (prefix.isBlank() || prefix.length() > MAX_SEARCH_TEXT_LENGTH) {
+            throw new ConstraintViolationException(
+                    "prefix must be between 1 and " + MAX_SEARCH_TEXT_LENGTH + " characters", Collections.emptySet());
+        }
+        if (limit < 1 || limit > MAX_SEARCH_LIMIT) {
+            throw new ConstraintViolationException("limit must be between 1 and " + MAX_SEARCH_LIMIT,
+                    Collections.emptySet());
+        }
+        return ResponseEntity.ok(service.searchCustomers(prefix, limit));
+    }
+
+    /**
+     * Finds customers whose name sounds like the query, for names taken down by ear.
+     *
+     * @param name One or more words of the given name and/or surname, possibly misspelled
+     * @param limit The maximum number of customers returned
+     * @return ResponseEntity containing the matching customers, closest spelling first, with HTTP 200 OK status
+     */
+    @GetMapping("/fuzzy")
+    @Operation(summary = "Search customers by how their name sounds",
+            description = "Phonetic (Double Metaphone) match on given name and surname, ranked by edit distance")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Matching customers, closest first",
+                content = @Content(mediaType = "application/json", schema = @Schema(implementation = Customer.class))),
+        @ApiResponse(responseCode = "400", description = "Missing or invalid name or limit", content = @Content)
     })
-    public ResponseEntity<List<Customer>> getAllCustomers() {
-        return ResponseEntity.ok(service.getAllCustomers());
+    public ResponseEntity<List<Customer>> findCustomersByNameSound(
+            @Parameter(description = "Name as heard, e.g. given name and surname", required = true,
+                    example = "jon smyth")
+            @RequestParam String name,
+            @Parameter(description = "Maximum number of customers returned (1-50)", example = "10")
+            @RequestParam(defaultValue = "10") int limit) {
+        if (name.isBlank() || name.length() > MAX_SEARCH_TEXT_LENGTH) {
+            throw new ConstraintViolationException(
+                    "name must be between 1 and " + MAX_SEARCH_TEXT_LENGTH + " characters", Collections.emptySet());
+        }
+        if (limit < 1 || limit > MAX_SEARCH_LIMIT) {
+            throw new ConstraintViolationException("limit must be between 1 and " + MAX_SEARCH_LIMIT,
+                    Collections.emptySet());
+        }
+        return ResponseEntity.ok(service.findCustomersByNameSound(name, limit));
     }
 
     /**
      * Retrieves a specific customer by ID.
      *
      * @param id The UUID of the customer to retrieve
+     * @param warmup The warm-up token, sent only by the application's own warm-up
      * @return ResponseEntity containing the customer if found with HTTP 200 OK status,
      *         or HTTP 404 Not Found if the customer doesn't exist
      */
@@ -101,12 +331,66 @@ public class CustomerController {
             @Parameter(description = "ID of the customer to retrieve",
                     required = true,
                     example = "123e4567-e89b-12d3-a456-426614174000")
-            @PathVariable UUID id) {
-        return service.getCustomerById(id)
+            @PathVariable UUID id,
+            @Parameter(hidden = true) @RequestHeader(value = WarmupToken.HEADER, required = false) String warmup) {
+        return service.getCustomerById(id, !warmupToken.matches(warmup))
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * Retrieves a specific customer by primary email address.
+     *
+     * @param email The email address of the customer to retrieve
+     * @return ResponseEntity containing the customer if found with HTTP 200 OK status,
+     *         or HTTP 404 Not Found if the customer doesn't exist
+     */
+    @GetMapping("/by-email/{email}")
+    @Operation(summary = "Get customer by email", description = "Retrieves a specific customer by their email address")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Customer found",
+                content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = Customer.class))),
+        @ApiResponse(responseCode = "404", description = "Customer not found", content = @Content)
+    })
+    public ResponseEntity<Customer> getCustomerByEmail(
+            @Parameter(description = "Email address of the customer to retrieve",
+                    required = true,
+                    example = "john.doe@example.com")
+            @PathVariable String email) {
+        return service.getCustomerByEmail(email)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Retrieves the customers with a contact number, in whatever format it is given.
+     *
+     * @param phone The contact number, e.g. "(555) 123-4567" or "+1 555 123 4567"
+     * @return ResponseEntity containing the customers with that number with HTTP 200 OK status,
+     *         possibly none
+     */
+    @GetMapping("/by-phone/{phone}")
+    @Operation(summary = "Get customers by phone number",
+            description = "Normalizes the number to E.164 and looks it up through the indexed column")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Customers with the number, possibly none",
+                content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = Customer.class))),
+        @ApiResponse(responseCode = "400", description = "Not a recognizable phone number", content = @Content)
+    })
+    public ResponseEntity<List<Customer>> getCustomersByPhone(
+            @Parameter(description = "Phone number of the customers to retrieve",
+                    required = true,
+                    example = "+15551234567")
+            @PathVariable String phone) {
+        String e164 = PhoneNumbers.toE164(phone);
+        if (e164 == null) {
+            throw new ConstraintViolationException("phone must be a valid phone number", Collections.emptySet());
+        }
+        return ResponseEntity.ok(service.getCustomersByPhone(e164));
+    }
+
     /**
      * Updates an existing customer.
      *
@@ -136,6 +420,47 @@ public class CustomerController {
         return ResponseEntity.ok(service.updateCustomer(id, customer));
     }
 
+    /**
+     * Creates or updates the customer with the given email address in one atomic operation.
+     *
+     * @param email The email address identifying the customer
+     * @param customer The customer data, validated using Bean Validation; its email must match the path
+     * @return ResponseEntity containing the customer with HTTP 201 Created if it was created,
+     *         or HTTP 200 OK if an existing customer was updated
+     */
+    @PutMapping("/by-email/{email}")
+    @Operation(summary = "Create or update customer by email",
+            description = "Creates the customer with the given email address, or updates it if it already exists")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Existing customer updated",
+                content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = Customer.class))),
+        @ApiResponse(responseCode = "201", description = "Customer created",
+                content = @Content(mediaType = "application/json",
+                schema = @Schema(implementation = Customer.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid input data", content = @Content)
+    })
+    public ResponseEntity<Customer> upsertCustomerByEmail(
+            @Parameter(description = "Email address of the customer to create or update",
+                    required = true,
+                    example = "john.doe@example.com")
+            @PathVariable String email,
+            @Valid @RequestBody @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                description = "Customer information", required = true,
+                content = @Content(schema = @Schema(implementation = Customer.class)))
+            Customer customer) {
+        if (!email.equals(customer.getPrimaryEmail())) {
+            throw new ConstraintViolationException("primaryEmail must match the email address in the path",
+                    Collections.emptySet());
+        }
+        UpsertResult result = service.upsertCustomerByEmail(customer);
+        if (result.created()) {
+            return ResponseEntity.created(URI.create("/api/customers/" + result.customer().getCustomerId()))
+                    .body(result.customer());
+        }
+        return ResponseEntity.ok(result.customer());
+    }
+
     /**
      * Deletes a customer by ID.
      *
@@ -156,4 +481,35 @@ public class CustomerController {
         service.deleteCustomer(id);
         return ResponseEntity.noContent().build();
     }
+
+    /**
+     * Validates the paging parameters of a list request against what the indexes can serve.
+     * Deep pages are refused because every skipped row is still read.
+     */
+    private static PageRequest pageRequest(CustomerFilter filter, Integer page, Integer size, String sort,
+            String direction) {
+        String filterProblem = filter.unsupportedReason();
+        if (filterProblem != null) {
+            throw new ConstraintViolationException(filterProblem, Collections.emptySet());
+        }
+        int pageSize = size != null ? size : DEFAULT_PAGE_SIZE;
+        int pageNumber = page != null ? page : 0;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new ConstraintViolationException("size must be between 1 and " + MAX_PAGE_SIZE,
+                    Collections.emptySet());
+        }
+        if (pageNumber < 0 || (long) pageNumber * pageSize > MAX_LIST_OFFSET) {
+            throw new ConstraintViolationException("page must be between 0 and " + MAX_LIST_OFFSET / pageSize
+                    + " for this size", Collections.emptySet());
+        }
+        String property = sort != null ? sort : filter.isEmpty() ? "customerId" : "surname";
+        if (!filter.sortProperties().contains(property)) {
+            throw new ConstraintViolationException("sort must be one of " + new TreeSet<>(filter.sortProperties())
+                    + " with these filters", Collections.emptySet());
+        }
+        Sort.Direction sortDirection = Sort.Direction.fromOptionalString(direction != null ? direction : "ASC")
+                .orElseThrow(() -> new ConstraintViolationException("direction must be ASC or DESC",
+                        Collections.emptySet()));
+        return PageRequest.of(pageNumber, pageSize, filter.indexOrder(property, sortDirection));
+    }
 }
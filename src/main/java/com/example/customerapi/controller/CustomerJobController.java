@@ -0,0 +1,88 @@
+package com.example.customerapi.controller;
+
+import com.example.customerapi.jobs.CustomerJob;
+import com.example.customerapi.jobs.CustomerJob.JobView;
+import com.example.customerapi.jobs.CustomerJobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.UUID;
+
+/**
+ * REST controller for background customer jobs.
+ * Jobs are created by sending "Prefer: respond-async" to the create endpoints.
+ *
+ * All endpoints are prefixed with "/api/customers/jobs".
+ */
+@RestController
+@RequestMapping("/api/customers/jobs")
+@Tag(name = "Customer Jobs", description = "Status and cancellation of background customer jobs")
+public class CustomerJobController {
+
+    private final CustomerJobService jobService;
+
+    /**
+     * Constructor for dependency injection of the CustomerJobService.
+     *
+     * @param jobService The job service to be used by this controller
+     */
+    public CustomerJobController(CustomerJobService jobService) {
+        this.jobService = jobService;
+    }
+
+    /**
+     * Retrieves the status of a job.
+     *
+     * @param id The job id
+     * @return ResponseEntity containing the job status with HTTP 200 OK status,
+     *         or HTTP 404 Not Found if the job is unknown or no longer retained
+     */
+    @GetMapping("/{id}")
+    @Operation(summary = "Get job status", description = "Retrieves the progress and per-item errors of a job")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Job found",
+                content = @Content(mediaType = "application/json", schema = @Schema(implementation = JobView.class))),
+        @ApiResponse(responseCode = "404", description = "Job not found or expired", content = @Content)
+    })
+    public ResponseEntity<JobView> getJob(
+            @Parameter(description = "ID of the job", required = true) @PathVariable UUID id) {
+        return jobService.findJob(id)
+                .map(CustomerJob::view)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Cancels a job. Customers already created by the job are kept.
+     *
+     * @param id The job id
+     * @return ResponseEntity containing the job status with HTTP 200 OK status,
+     *         or HTTP 404 Not Found if the job is unknown or no longer retained
+     */
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Cancel job",
+            description = "Stops a queued or running job; customers it already created are kept")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Cancellation requested",
+                content = @Content(mediaType = "application/json", schema = @Schema(implementation = JobView.class))),
+        @ApiResponse(responseCode = "404", description = "Job not found or expired", content = @Content)
+    })
+    public ResponseEntity<JobView> cancelJob(
+            @Parameter(description = "ID of the job", required = true) @PathVariable UUID id) {
+        return jobService.cancelJob(id)
+                .map(CustomerJob::view)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
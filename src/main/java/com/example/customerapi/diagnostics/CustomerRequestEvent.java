@@ -0,0 +1,62 @@
+package com.example.customerapi.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * JDK Flight Recorder event emitted for every customer API request.
+ * Customer ids are recorded as a truncated hash so recordings can be shared
+ * without exposing identifiers.
+ */
+@Name("com.example.customerapi.CustomerRequest")
+@Label("Customer Request")
+@Category("Customer API")
+@Description("A request handled by the Customer API")
+@StackTrace(false)
+public class CustomerRequestEvent extends Event {
+
+    @Label("Method")
+    public String method;
+
+    @Label("Route")
+    public String route;
+
+    @Label("Status")
+    public int status;
+
+    @Label("Customer Id Hash")
+    public String customerIdHash;
+
+    @Label("DB Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long dbTime;
+
+    /**
+     * Hashes a customer id for inclusion in the event.
+     *
+     * @param customerId The raw customer id, may be null
+     * @return The first 8 bytes of the SHA-256 digest in hex, or null if no id was given
+     */
+    public static String hashCustomerId(String customerId) {
+        if (customerId == null) {
+            return null;
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(customerId.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.customerapi.diagnostics;
+
+/**
+ * Accumulates the time the current thread spends inside repository calls.
+ * The request path resets the tracker when a request starts and reads it back
+ * once the request completes, which gives the per-request database time.
+ */
+public final class DbTimeTracker {
+
+    private static final ThreadLocal<long[]> ELAPSED = ThreadLocal.withInitial(() -> new long[1]);
+
+    private DbTimeTracker() {
+    }
+
+    /**
+     * Resets the accumulated time for the current thread.
+     */
+    public static void reset() {
+        ELAPSED.get()[0] = 0L;
+    }
+
+    /**
+     * Adds time spent in a repository call to the current thread's total.
+     *
+     * @param nanos The duration of the call in nanoseconds
+     */
+    public static void add(long nanos) {
+        ELAPSED.get()[0] += nanos;
+    }
+
+    /**
+     * Returns the time accumulated since the last reset.
+     *
+     * @return The accumulated repository time in nanoseconds
+     */
+    public static long elapsedNanos() {
+        return ELAPSED.get()[0];
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.customerapi.diagnostics;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Configuration for the JDK Flight Recorder integration.
+ * Bound from properties prefixed with "customer-api.jfr".
+ */
+@Data
+@ConfigurationProperties(prefix = "customer-api.jfr")
+public class JfrProperties {
+
+    /**
+     * Whether the continuous low-overhead recording is started with the application.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Local directory that recording dumps are written to.
+     */
+    private String directory = "jfr";
+
+    /**
+     * How much history the continuous recording keeps in its ring.
+     */
+    private Duration maxAge = Duration.ofMinutes(30);
+
+    /**
+     * Upper bound on the disk space used by the continuous recording's ring.
+     */
+    private DataSize maxSize = DataSize.ofMegabytes(64);
+
+    /**
+     * Upper bound on the size of any single dump file.
+     */
+    private DataSize maxFileSize = DataSize.ofMegabytes(100);
+
+    /**
+     * Longest high-detail profiling recording that may be requested.
+     */
+    private Duration maxProfileDuration = Duration.ofMinutes(2);
+
+    /**
+     * Number of dump files kept in the directory before the oldest are deleted.
+     */
+    private int maxFiles = 10;
+}
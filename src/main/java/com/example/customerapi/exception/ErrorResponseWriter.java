@@ -0,0 +1,54 @@
+package com.example.customerapi.exception;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * Writes the standard {@link ErrorResponse} body from servlet filters, which run
+ * outside the reach of {@link GlobalExceptionHandler}.
+ */
+@Component
+public class ErrorResponseWriter {
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Constructor for dependency injection of the ObjectMapper.
+     *
+     * @param objectMapper The mapper used to serialize the error body
+     */
+    public ErrorResponseWriter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Writes an error response.
+     *
+     * @param request The request being rejected
+     * @param response The response to write to
+     * @param status The HTTP status
+     * @param error A short error title
+     * @param message The error message
+     * @throws IOException if the body cannot be written
+     */
+    public void write(HttpServletRequest request, HttpServletResponse response, HttpStatus status,
+            String error, String message) throws IOException {
+        ErrorResponse errorResponse = new ErrorResponse(
+                LocalDateTime.now(),
+                status.value(),
+                error,
+                message,
+                "uri=" + request.getRequestURI()
+        );
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), errorResponse);
+    }
+}
@@ -4,8 +4,11 @@ import jakarta.validation.ConstraintViolationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.TransactionTimedOutException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -133,6 +136,58 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
     }
     
+    /**
+     * Handles requests that ran out of their deadline, including query and transaction
+     * timeouts raised by the data layer.
+     * 
+     * @param ex The deadline or timeout exception
+     * @param request The web request
+     * @return ResponseEntity with error details
+     */
+    @ExceptionHandler({DeadlineExceededException.class, QueryTimeoutException.class,
+            TransactionTimedOutException.class})
+    public ResponseEntity<Object> handleDeadlineExceededException(
+            RuntimeException ex, WebRequest request) {
+        
+        logger.warn("Deadline exceeded: {}", ex.getMessage());
+        
+        ErrorResponse errorResponse = new ErrorResponse(
+                LocalDateTime.now(),
+                HttpStatus.GATEWAY_TIMEOUT.value(),
+                "Deadline Exceeded",
+                ex.getMessage(),
+                request.getDescription(false)
+        );
+        
+        return new ResponseEntity<>(errorResponse, HttpStatus.GATEWAY_TIMEOUT);
+    }
+    
+    /**
+     * Handles background jobs rejected because the job queue or store is full.
+     * 
+     * @param ex The job rejection
+     * @param request The web request
+     * @return ResponseEntity with error details and a Retry-After header
+     */
+    @ExceptionHandler(JobRejectedException.class)
+    public ResponseEntity<Object> handleJobRejectedException(
+            JobRejectedException ex, WebRequest request) {
+        
+        logger.warn("Job rejected: {}", ex.getMessage());
+        
+        ErrorResponse errorResponse = new ErrorResponse(
+                LocalDateTime.now(),
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "Service Unavailable",
+                ex.getMessage(),
+                request.getDescription(false)
+        );
+        
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(errorResponse);
+    }
+    
     /**
      * Handles all other exceptions.
      * 
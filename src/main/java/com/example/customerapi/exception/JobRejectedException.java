@@ -0,0 +1,21 @@
+package com.example.customerapi.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when a background job cannot be accepted because the job queue or the
+ * job store is full. Clients should retry later.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class JobRejectedException extends RuntimeException {
+
+    /**
+     * Constructs a new JobRejectedException with the specified detail message.
+     *
+     * @param message The detail message
+     */
+    public JobRejectedException(String message) {
+        super(message);
+    }
+}
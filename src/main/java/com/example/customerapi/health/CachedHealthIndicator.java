@@ -0,0 +1,73 @@
+package com.example.customerapi.health;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Health indicator that serves the last result of a delegate evaluated in the background.
+ *
+ * Probes and health endpoint requests read the cached result, so they never block on the
+ * delegate (e.g. a database round trip). If the result is older than the maximum staleness
+ * the background evaluation is assumed to be stuck and DOWN is reported.
+ */
+public class CachedHealthIndicator implements HealthIndicator {
+
+    private final HealthIndicator delegate;
+    private final Duration maxStaleness;
+    private final Clock clock;
+    private volatile Snapshot snapshot;
+
+    /**
+     * Creates a cached indicator.
+     *
+     * @param delegate The indicator evaluated in the background
+     * @param maxStaleness How old a cached result may be before DOWN is reported
+     */
+    public CachedHealthIndicator(HealthIndicator delegate, Duration maxStaleness) {
+        this(delegate, maxStaleness, Clock.systemUTC());
+    }
+
+    CachedHealthIndicator(HealthIndicator delegate, Duration maxStaleness, Clock clock) {
+        this.delegate = delegate;
+        this.maxStaleness = maxStaleness;
+        this.clock = clock;
+    }
+
+    /**
+     * Evaluates the delegate and caches its result.
+     */
+    public void refresh() {
+        Health health;
+        try {
+            health = delegate.health();
+        } catch (Exception e) {
+            health = Health.down(e).build();
+        }
+        snapshot = new Snapshot(health, clock.instant());
+    }
+
+    @Override
+    public Health health() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return Health.unknown().withDetail("reason", "Not evaluated yet").build();
+        }
+        if (Duration.between(current.evaluatedAt(), clock.instant()).compareTo(maxStaleness) > 0) {
+            return Health.down()
+                    .withDetail("reason", "Cached result is stale")
+                    .withDetail("lastEvaluated", current.evaluatedAt().toString())
+                    .build();
+        }
+        return Health.status(current.health().getStatus())
+                .withDetails(current.health().getDetails())
+                .withDetail("lastEvaluated", current.evaluatedAt().toString())
+                .build();
+    }
+
+    private record Snapshot(Health health, Instant evaluatedAt) {
+    }
+}
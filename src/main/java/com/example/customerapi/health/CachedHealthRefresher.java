@@ -0,0 +1,69 @@
+package com.example.customerapi.health;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Re-evaluates all {@link CachedHealthIndicator}s on a background schedule.
+ *
+ * The refresh runs on its own single thread rather than the shared task scheduler, so slow
+ * scheduled jobs (purges, evictions) can't delay it until the cached results go stale and the
+ * probes report DOWN.
+ */
+@Component
+public class CachedHealthRefresher implements ApplicationRunner, DisposableBean {
+
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 10_000;
+
+    private final List<CachedHealthIndicator> indicators;
+    private final Duration refreshInterval;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("health-refresh").daemon(true).factory());
+
+    /**
+     * Constructor for dependency injection of the cached indicators to refresh.
+     *
+     * @param indicators All cached health indicators in the context
+     * @param refreshInterval The delay between the end of one refresh and the start of the next
+     */
+    public CachedHealthRefresher(List<CachedHealthIndicator> indicators,
+            @Value("${customer-api.health.refresh-interval:PT10S}") Duration refreshInterval) {
+        this.indicators = indicators;
+        this.refreshInterval = refreshInterval;
+    }
+
+    /**
+     * Starts refreshing the indicators.
+     *
+     * @param args The application arguments
+     */
+    @Override
+    public void run(ApplicationArguments args) {
+        scheduler.scheduleWithFixedDelay(this::refresh, 0, refreshInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops refreshing.
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        scheduler.shutdownNow();
+        scheduler.awaitTermination(SHUTDOWN_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Re-evaluates all cached health indicators.
+     */
+    public void refresh() {
+        indicators.forEach(CachedHealthIndicator::refresh);
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.customerapi.health;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.jdbc.DataSourceHealthIndicator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Health configuration.
+ *
+ * The synchronous auto-configured "db" indicator is disabled (management.health.db.enabled=false)
+ * and replaced by a cached one that is refreshed on a background schedule, so liveness and
+ * readiness probes across all replicas never trigger a database round trip themselves.
+ */
+@Configuration
+public class HealthConfig {
+
+    /**
+     * Database health, evaluated in the background and reported under the name "db".
+     *
+     * @param dataSource The application data source
+     * @param maxStaleness How old a cached result may be before DOWN is reported
+     * @return The cached database health indicator
+     */
+    @Bean
+    public CachedHealthIndicator dbHealthIndicator(DataSource dataSource,
+            @Value("${customer-api.health.max-staleness:PT45S}") Duration maxStaleness) {
+        return new CachedHealthIndicator(new DataSourceHealthIndicator(dataSource), maxStaleness);
+    }
+}
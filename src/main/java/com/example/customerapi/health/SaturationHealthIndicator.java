@@ -0,0 +1,90 @@
+package com.example.customerapi.health;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.apache.tomcat.util.threads.ThreadPoolExecutor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.web.context.WebServerInitializedEvent;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.concurrent.Executor;
+import java.util.function.IntSupplier;
+
+/**
+ * Readiness contributor reporting OUT_OF_SERVICE while the pod is saturated, so that
+ * Kubernetes stops routing new traffic to it instead of letting requests time out.
+ *
+ * Saturation is measured by the number of threads waiting for a pooled database connection
+ * and the number of requests queued in Tomcat's worker executor. Both are read from
+ * in-memory counters; evaluating this indicator never touches the database.
+ */
+@Component
+public class SaturationHealthIndicator implements HealthIndicator, ApplicationListener<WebServerInitializedEvent> {
+
+    private final DataSource dataSource;
+    private final int maxPendingConnections;
+    private final int maxQueuedRequests;
+    private volatile IntSupplier queuedRequests = () -> 0;
+
+    /**
+     * Constructor for dependency injection.
+     *
+     * @param dataSource The application data source
+     * @param maxPendingConnections Threads waiting for a connection above which the pod is saturated
+     * @param maxQueuedRequests Queued requests above which the pod is saturated
+     */
+    public SaturationHealthIndicator(DataSource dataSource,
+            @Value("${customer-api.health.saturation.max-pending-connections:10}") int maxPendingConnections,
+            @Value("${customer-api.health.saturation.max-queued-requests:50}") int maxQueuedRequests) {
+        this.dataSource = dataSource;
+        this.maxPendingConnections = maxPendingConnections;
+        this.maxQueuedRequests = maxQueuedRequests;
+    }
+
+    @Override
+    public void onApplicationEvent(WebServerInitializedEvent event) {
+        if (event.getWebServer() instanceof TomcatWebServer tomcat) {
+            Executor executor = tomcat.getTomcat().getConnector().getProtocolHandler().getExecutor();
+            if (executor instanceof ThreadPoolExecutor pool) {
+                queuedRequests = () -> pool.getQueue().size();
+            }
+        }
+    }
+
+    void setQueuedRequests(IntSupplier queuedRequests) {
+        this.queuedRequests = queuedRequests;
+    }
+
+    @Override
+    public Health health() {
+        int pending = pendingConnections();
+        int queued = queuedRequests.getAsInt();
+        Health.Builder builder = pending > maxPendingConnections || queued > maxQueuedRequests
+                ? Health.outOfService()
+                : Health.up();
+        return builder
+                .withDetail("pendingConnections", pending)
+                .withDetail("maxPendingConnections", maxPendingConnections)
+                .withDetail("queuedRequests", queued)
+                .withDetail("maxQueuedRequests", maxQueuedRequests)
+                .build();
+    }
+
+    private int pendingConnections() {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                HikariPoolMXBean pool = dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean();
+                return pool != null ? pool.getThreadsAwaitingConnection() : 0;
+            }
+        } catch (SQLException e) {
+            // Not a Hikari pool; connection wait is not observable
+        }
+        return 0;
+    }
+}
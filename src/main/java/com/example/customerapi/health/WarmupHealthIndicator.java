@@ -0,0 +1,40 @@
+package com.example.customerapi.health;
+
+import com.example.customerapi.service.WarmupService;
+import com.example.customerapi.service.WarmupService.WarmupStatus;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Readiness contributor reporting OUT_OF_SERVICE while the startup warm-up is running, so that
+ * Kubernetes only routes traffic to the pod once its cache is preloaded and its hot paths are
+ * compiled. Readiness is released once the warm-up finishes, fails or times out.
+ */
+@Component
+public class WarmupHealthIndicator implements HealthIndicator {
+
+    private final WarmupService warmup;
+
+    /**
+     * Constructor for dependency injection.
+     *
+     * @param warmup The startup warm-up
+     */
+    public WarmupHealthIndicator(WarmupService warmup) {
+        this.warmup = warmup;
+    }
+
+    @Override
+    public Health health() {
+        WarmupStatus status = warmup.status();
+        Health.Builder builder = warmup.isHoldingReadiness() ? Health.outOfService() : Health.up();
+        return builder
+                .withDetail("state", status.state())
+                .withDetail("preloaded", status.preloaded())
+                .withDetail("requests", status.requests())
+                .withDetail("cacheHitRate", status.cacheHitRate())
+                .withDetail("duration", status.duration().toString())
+                .build();
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.customerapi.jobs;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Progress of a background job writing a batch of customers.
+ *
+ * Counters are updated by the worker thread and read by status requests at any time, so a
+ * status is a consistent-enough snapshot rather than an exact point in time.
+ */
+public class CustomerJob {
+
+    /**
+     * Lifecycle of a job.
+     */
+    public enum Status {
+        /** Waiting for a worker. */
+        QUEUED,
+        /** Being processed. */
+        RUNNING,
+        /** Every item was processed; some may have failed, see the item errors. */
+        COMPLETED,
+        /** Stopped on request before every item was processed. */
+        CANCELLED,
+        /** Stopped by an unexpected error. */
+        FAILED;
+
+        /**
+         * Returns whether the job has stopped and will not change any more.
+         *
+         * @return true for COMPLETED, CANCELLED and FAILED
+         */
+        public boolean isFinished() {
+            return this != QUEUED && this != RUNNING;
+        }
+    }
+
+    private final UUID id;
+    private final int total;
+    private final int maxReportedErrors;
+    private final Instant createdAt;
+    private final AtomicReference<Status> status = new AtomicReference<>(Status.QUEUED);
+    private final AtomicInteger succeeded = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final List<ItemError> errors = new ArrayList<>();
+    private volatile boolean cancelRequested;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+
+    /**
+     * Creates a queued job.
+     *
+     * @param id The job id
+     * @param total The number of items to process
+     * @param maxReportedErrors The maximum number of item errors kept
+     * @param createdAt When the job was submitted
+     */
+    public CustomerJob(UUID id, int total, int maxReportedErrors, Instant createdAt) {
+        this.id = id;
+        this.total = total;
+        this.maxReportedErrors = maxReportedErrors;
+        this.createdAt = createdAt;
+    }
+
+    /**
+     * Returns the job id.
+     *
+     * @return The id the job is polled with
+     */
+    public UUID getId() {
+        return id;
+    }
+
+    /**
+     * Returns where the job is in its lifecycle.
+     *
+     * @return The current status
+     */
+    public Status getStatus() {
+        return status.get();
+    }
+
+    /**
+     * Returns when the job stopped.
+     *
+     * @return When the job reached its final status, or null while it is queued or running
+     */
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    /**
+     * Returns whether the job has stopped and will not change any more.
+     *
+     * @return true once the job has a final status and finish time
+     */
+    public boolean isFinished() {
+        return finishedAt != null && status.get().isFinished();
+    }
+
+    boolean isCancelRequested() {
+        return cancelRequested;
+    }
+
+    /**
+     * Moves the job to RUNNING unless it was cancelled while queued.
+     *
+     * @param now The current time
+     * @return true if the job should be processed
+     */
+    boolean start(Instant now) {
+        if (!status.compareAndSet(Status.QUEUED, Status.RUNNING)) {
+            return false;
+        }
+        startedAt = now;
+        return true;
+    }
+
+    void recordSuccess() {
+        succeeded.incrementAndGet();
+    }
+
+    void recordFailure(int index, String message) {
+        failed.incrementAndGet();
+        synchronized (errors) {
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new ItemError(index, message));
+            }
+        }
+    }
+
+    void finish(Status outcome, Instant now) {
+        finishedAt = now;
+        status.set(outcome);
+    }
+
+    /**
+     * Asks the job to stop. A queued job is cancelled at once; a running job stops after the
+     * item it is processing, keeping the items already written.
+     *
+     * @param now The current time
+     * @return false if the job had already finished
+     */
+    public boolean cancel(Instant now) {
+        if (status.compareAndSet(Status.QUEUED, Status.CANCELLED)) {
+            finishedAt = now;
+            return true;
+        }
+        cancelRequested = true;
+        return !status.get().isFinished();
+    }
+
+    /**
+     * Returns a snapshot of the job's progress.
+     *
+     * @return The job status as returned by the API
+     */
+    public JobView view() {
+        List<ItemError> reported;
+        synchronized (errors) {
+            reported = List.copyOf(errors);
+        }
+        int ok = succeeded.get();
+        int ko = failed.get();
+        return new JobView(id, status.get(), total, ok + ko, ok, ko, reported, createdAt, startedAt, finishedAt);
+    }
+
+    /**
+     * An item that could not be written.
+     *
+     * @param index Position of the item in the submitted batch
+     * @param message Why it failed
+     */
+    public record ItemError(int index, String message) {
+    }
+
+    /**
+     * Status of a job as returned by the API.
+     *
+     * @param id The job id
+     * @param status The lifecycle state
+     * @param total Number of items submitted
+     * @param processed Number of items processed so far
+     * @param succeeded Number of customers created
+     * @param failed Number of items that failed
+     * @param errors The first item errors, up to customer-api.jobs.max-reported-errors
+     * @param createdAt When the job was submitted
+     * @param startedAt When a worker picked the job up, or null
+     * @param finishedAt When the job finished, or null
+     */
+    public record JobView(UUID id, Status status, int total, int processed, int succeeded, int failed,
+            List<ItemError> errors, Instant createdAt, Instant startedAt, Instant finishedAt) {
+    }
+}
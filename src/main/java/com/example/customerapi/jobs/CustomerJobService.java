@@ -0,0 +1,223 @@
+package com.example.customerapi.jobs;
+
+import com.example.customerapi.exception.JobRejectedException;
+import com.example.customerapi.jobs.CustomerJob.JobView;
+import com.example.customerapi.jobs.CustomerJob.Status;
+import com.example.customerapi.model.Customer;
+import com.example.customerapi.service.CustomerService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Runs customer batches as background jobs so the HTTP connection is released as soon as the
+ * job is accepted.
+ *
+ * Jobs run on a fixed number of worker threads behind a bounded queue; when the queue is full
+ * new jobs are rejected rather than piling up. Each item is validated and created on its own,
+ * so one bad item is reported against its index without failing the rest. Job status is kept
+ * in memory on the node that accepted the job, for a bounded time and number of jobs.
+ */
+@Service
+public class CustomerJobService implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(CustomerJobService.class);
+
+    private final CustomerService customerService;
+    private final Validator validator;
+    private final JobProperties properties;
+    private final ThreadPoolExecutor executor;
+    private final Map<UUID, CustomerJob> jobs = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor for dependency injection.
+     *
+     * @param customerService The service creating each customer
+     * @param validator Validates each item before it is written
+     * @param properties The job configuration
+     * @param meterRegistry The registry for the job gauges
+     */
+    public CustomerJobService(CustomerService customerService, Validator validator, JobProperties properties,
+            MeterRegistry meterRegistry) {
+        this.customerService = customerService;
+        this.validator = validator;
+        this.properties = properties;
+        this.executor = new ThreadPoolExecutor(properties.getWorkers(), properties.getWorkers(),
+                0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                Thread.ofPlatform().name("customer-job-", 0).daemon(true).factory());
+        Gauge.builder("customer.jobs.queued", executor, e -> e.getQueue().size())
+                .description("Jobs waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("customer.jobs.retained", jobs, Map::size)
+                .description("Jobs whose status is held in memory")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Accepts a batch of customers for creation in the background.
+     *
+     * @param customers The customers to create
+     * @return The queued job
+     * @throws ConstraintViolationException if the batch is empty or too large
+     * @throws JobRejectedException if the job queue or the job store is full
+     */
+    public CustomerJob submitCreate(List<Customer> customers) {
+        checkSize(customers);
+        makeRoom();
+        CustomerJob job = new CustomerJob(UUID.randomUUID(), customers.size(), properties.getMaxReportedErrors(),
+                Instant.now());
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(() -> process(job, customers));
+        } catch (RejectedExecutionException ex) {
+            jobs.remove(job.getId());
+            throw new JobRejectedException("Job queue is full, retry later");
+        }
+        return job;
+    }
+
+    /**
+     * Creates a batch of customers on the calling thread, with the same per-item reporting as
+     * a background job.
+     *
+     * @param customers The customers to create
+     * @return The final status of the batch
+     * @throws ConstraintViolationException if the batch is empty or too large
+     */
+    public JobView runCreate(List<Customer> customers) {
+        checkSize(customers);
+        CustomerJob job = new CustomerJob(UUID.randomUUID(), customers.size(), properties.getMaxReportedErrors(),
+                Instant.now());
+        process(job, customers);
+        return job.view();
+    }
+
+    /**
+     * Looks up a job accepted by this node.
+     *
+     * @param id The job id
+     * @return The job, or empty if it is unknown or no longer retained
+     */
+    public Optional<CustomerJob> findJob(UUID id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    /**
+     * Asks a job to stop.
+     *
+     * @param id The job id
+     * @return The job, or empty if it is unknown or no longer retained
+     */
+    public Optional<CustomerJob> cancelJob(UUID id) {
+        Optional<CustomerJob> job = findJob(id);
+        job.ifPresent(found -> found.cancel(Instant.now()));
+        return job;
+    }
+
+    /**
+     * Drops finished jobs older than the retention period.
+     */
+    @Scheduled(fixedDelayString = "${customer-api.jobs.eviction-interval:PT1M}")
+    public void evictExpiredJobs() {
+        Instant cutoff = Instant.now().minus(properties.getRetention());
+        jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt().isBefore(cutoff));
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private void checkSize(List<Customer> customers) {
+        if (customers.isEmpty() || customers.size() > properties.getMaxItems()) {
+            throw new ConstraintViolationException(
+                    "A batch must contain between 1 and " + properties.getMaxItems() + " customers",
+                    Collections.emptySet());
+        }
+    }
+
+    /**
+     * Drops the oldest finished jobs until there is room for one more. Running and queued jobs
+     * are never dropped; if they alone fill the store the new job is rejected.
+     */
+    private void makeRoom() {
+        if (jobs.size() < properties.getMaxRetained()) {
+            return;
+        }
+        evictExpiredJobs();
+        while (jobs.size() >= properties.getMaxRetained()) {
+            Optional<CustomerJob> oldest = jobs.values().stream()
+                    .filter(CustomerJob::isFinished)
+                    .min(Comparator.comparing(CustomerJob::getFinishedAt));
+            if (oldest.isEmpty()) {
+                throw new JobRejectedException("Too many jobs in progress, retry later");
+            }
+            jobs.remove(oldest.get().getId());
+        }
+    }
+
+    void process(CustomerJob job, List<Customer> customers) {
+        if (!job.start(Instant.now())) {
+            return;
+        }
+        try {
+            for (int i = 0; i < customers.size(); i++) {
+                if (job.isCancelRequested()) {
+                    job.finish(Status.CANCELLED, Instant.now());
+                    return;
+                }
+                createItem(job, i, customers.get(i));
+            }
+            job.finish(Status.COMPLETED, Instant.now());
+        } catch (RuntimeException ex) {
+            logger.error("Job {} failed", job.getId(), ex);
+            job.finish(Status.FAILED, Instant.now());
+        }
+    }
+
+    private void createItem(CustomerJob job, int index, Customer customer) {
+        if (customer == null) {
+            job.recordFailure(index, "Customer is required");
+            return;
+        }
+        Set<ConstraintViolation<Customer>> violations = validator.validate(customer);
+        if (!violations.isEmpty()) {
+            job.recordFailure(index, violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+            return;
+        }
+        try {
+            customerService.createCustomer(customer);
+            job.recordSuccess();
+        } catch (DataIntegrityViolationException ex) {
+            job.recordFailure(index, "Email address is already in use");
+        } catch (RuntimeException ex) {
+            job.recordFailure(index, ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.customerapi.jobs;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration for asynchronous customer jobs.
+ * Bound from properties prefixed with "customer-api.jobs".
+ */
+@Data
+@ConfigurationProperties(prefix = "customer-api.jobs")
+public class JobProperties {
+
+    /**
+     * Number of background threads processing jobs.
+     */
+    private int workers = 2;
+
+    /**
+     * Maximum number of jobs waiting for a worker. Further submissions are rejected with 503.
+     */
+    private int queueCapacity = 100;
+
+    /**
+     * Maximum number of customers in one batch request.
+     */
+    private int maxItems = 10_000;
+
+    /**
+     * Maximum number of per-item errors reported for a job; further failures are only counted.
+     */
+    private int maxReportedErrors = 100;
+
+    /**
+     * How long a finished job's status stays available.
+     */
+    private Duration retention = Duration.ofHours(1);
+
+    /**
+     * Maximum number of jobs kept in memory. The oldest finished jobs are dropped first.
+     */
+    private int maxRetained = 1_000;
+}
@@ -0,0 +1,165 @@
+package com.example.customerapi.repository;
+
+import com.example.customerapi.model.Customer;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Filters for listing customers, translated to a JPA {@link Specification}.
+ *
+ * Only filter and sort combinations that one of the customers table indexes can answer in
+ * index order are offered, so a filtered page never sorts or scans more than it returns:
+ * <ul>
+ *   <li>no filter: by customerId (primary key) or by surname (surname, given_name, customer_id)</li>
+ *   <li>surname, exact: by surname or givenName (surname, given_name, customer_id)</li>
+ *   <li>namePrefix, the start of the surname: by surname (surname, given_name, customer_id)</li>
+ *   <li>emailDomain, optionally with surname or namePrefix: by surname
+ *       (email_domain, surname, customer_id)</li>
+ * </ul>
+ * {@link #indexOrder} expands the requested sort to the full column order of the index, with
+ * the equality-filtered columns first, which is what lets the database read rows in index order
+ * and makes paging stable.
+ *
+ * @param surname The exact surname, or null
+ * @param namePrefix The start of the surname, or null
+ * @param emailDomain The domain of the primary email, or null; matched ignoring case
+ */
+public record CustomerFilter(String surname, String namePrefix, String emailDomain) {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    /**
+     * Creates a filter, treating blank values as absent.
+     */
+    public CustomerFilter {
+        surname = blankToNull(surname);
+        namePrefix = blankToNull(namePrefix);
+        emailDomain = blankToNull(emailDomain);
+        if (emailDomain != null) {
+            emailDomain = (emailDomain.startsWith("@") ? emailDomain.substring(1) : emailDomain)
+                    .toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * Whether no filter is set.
+     *
+     * @return true if every customer matches
+     */
+    public boolean isEmpty() {
+        return surname == null && namePrefix == null && emailDomain == null;
+    }
+
+    /**
+     * Describes why this combination of filters cannot be answered from an index.
+     *
+     * @return The reason, or null if the combination is supported
+     */
+    public String unsupportedReason() {
+        return surname != null && namePrefix != null ? "surname and namePrefix cannot be combined" : null;
+    }
+
+    /**
+     * The customer properties a filtered list may be sorted by.
+     *
+     * @return The sortable properties for this combination of filters
+     */
+    public Set<String> sortProperties() {
+        if (isEmpty()) {
+            return Set.of("customerId", "surname");
+        }
+        return surname != null && emailDomain == null ? Set.of("surname", "givenName") : Set.of("surname");
+    }
+
+    /**
+     * Expands a sort by one of {@link #sortProperties()} to the column order of the index
+     * serving this filter.
+     *
+     * @param property The property to sort by
+     * @param direction The sort direction, applied to every column
+     * @return The sort to query with
+     * @throws IllegalArgumentException if the property is not sortable with this filter
+     */
+    public Sort indexOrder(String property, Sort.Direction direction) {
+        if (!sortProperties().contains(property)) {
+            throw new IllegalArgumentException("Cannot sort by " + property + " with this filter");
+        }
+        if ("customerId".equals(property)) {
+            return Sort.by(direction, "customerId");
+        }
+        return emailDomain != null
+                ? Sort.by(direction, "emailDomain", "surname", "customerId")
+                : Sort.by(direction, "surname", "givenName", "customerId");
+    }
+
+    /**
+     * Translates the filter to a specification.
+     *
+     * @return The specification matching the filtered customers
+     */
+    public Specification<Customer> toSpecification() {
+        return new FilterSpecification(this);
+    }
+
+    /**
+     * Evaluates the filter on a customer in memory, as the specification does in the database.
+     *
+     * @param customer The customer, with its derived lookup columns set
+     * @return true if the customer matches
+     */
+    public boolean matches(Customer customer) {
+        return (emailDomain == null || emailDomain.equals(customer.getEmailDomain()))
+                && (surname == null || surname.equals(customer.getSurname()))
+                && (namePrefix == null
+                        || (customer.getSurname() != null && customer.getSurname().startsWith(namePrefix)));
+    }
+
+    /**
+     * The specification of a filter, which keeps the filter so that a repository without
+     * a database can evaluate it with {@link #matches(Customer)} instead.
+     *
+     * @param filter The filter
+     */
+    record FilterSpecification(CustomerFilter filter) implements Specification<Customer> {
+
+        @Override
+        public Predicate toPredicate(Root<Customer> root, CriteriaQuery<?> query, CriteriaBuilder cb) {
+            List<Predicate> predicates = new ArrayList<>(3);
+            if (filter.emailDomain() != null) {
+                predicates.add(cb.equal(root.get("emailDomain"), filter.emailDomain()));
+            }
+            if (filter.surname() != null) {
+                predicates.add(cb.equal(root.get("surname"), filter.surname()));
+            }
+            if (filter.namePrefix() != null) {
+                predicates.add(cb.like(root.get("surname"), escapeLike(filter.namePrefix()) + "%", LIKE_ESCAPE));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        }
+    }
+
+    private static String escapeLike(String value) {
+        StringBuilder escaped = new StringBuilder(value.length() + 4);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+                escaped.append(LIKE_ESCAPE);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+}
@@ -3,16 +3,21 @@ package com.example.customerapi.repository;
 
 import com.example.customerapi.model.Customer;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 /**
  * Repository interface for Customer entities.
- * Extends JpaRepository to inherit standard CRUD operations.
+ * Extends JpaRepository to inherit standard CRUD operations, JpaSpecificationExecutor
+ * for filtered lists (see {@link CustomerFilter}), and {@link CustomerRepositoryCustom}
+ * for operations written in native SQL.
  * Uses UUID as the ID type for Customer entities.
  */
-public interface CustomerRepository extends JpaRepository<Customer, UUID> {
+public interface CustomerRepository extends JpaRepository<Customer, UUID>, JpaSpecificationExecutor<Customer>,
+        CustomerRepositoryCustom {
 
     /**
      * Finds a customer by their primary email address.
@@ -21,4 +26,12 @@ public interface CustomerRepository extends JpaRepository<Customer, UUID> {
      * @return An Optional containing the customer if found, or empty if not found
      */
     Optional<Customer> findByPrimaryEmail(String email);
+
+    /**
+     * Finds the customers with a contact number, using its normalized E.164 form.
+     *
+     * @param contactNumberE164 The contact number in E.164 form, e.g. "+15551234567"
+     * @return The customers with that number, possibly none
+     */
+    List<Customer> findByContactNumberE164(String contactNumberE164);
 }
@@ -0,0 +1,47 @@
+package com.example.customerapi.repository;
+
+import com.example.customerapi.model.Customer;
+
+import java.util.List;
+
+/**
+ * Customer repository operations implemented with native SQL rather than derived queries.
+ */
+public interface CustomerRepositoryCustom {
+
+    /**
+     * Inserts a customer, or updates the customer with the same primary email, in a single
+     * atomic statement. The existing customer keeps its id.
+     *
+     * @param customer The customer data, keyed by its primary email
+     * @return The stored customer and the customer it replaced, if any
+     */
+    UpsertResult upsertByPrimaryEmail(Customer customer);
+
+    /**
+     * Inserts new customers with a single multi-row INSERT statement. Either all rows are
+     * inserted or, if any violates a constraint, none are.
+     *
+     * @param customers The customers to insert; their ids are ignored
+     * @return The stored customers with their generated ids, in the same order
+     */
+    List<Customer> insertAll(List<Customer> customers);
+
+    /**
+     * Outcome of an upsert.
+     *
+     * @param customer The customer as stored
+     * @param previous The customer as it was before the update, or null if it was inserted
+     */
+    record UpsertResult(Customer customer, Customer previous) {
+
+        /**
+         * Whether the upsert inserted a new customer.
+         *
+         * @return true if the customer was inserted, false if an existing one was updated
+         */
+        public boolean created() {
+            return previous == null;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.customerapi.repository;
+
+import com.example.customerapi.model.Customer;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Native SQL implementation of {@link CustomerRepositoryCustom}.
+ *
+ * The upsert is one H2 MERGE keyed on the unique primary_email column, wrapped in an
+ * OLD TABLE query so the row it replaced comes back in the same round trip. The MERGE writes
+ * every column from the given customer, so the stored row is known without reading it back:
+ * it keeps the replaced row's id, or takes the fresh id offered for the insert branch.
+ * Batch inserts send all rows in one INSERT so a group of creates costs one round trip.
+ */
+public class CustomerRepositoryCustomImpl implements CustomerRepositoryCustom {
+
+    private static final String UPSERT_BY_PRIMARY_EMAIL = "SELECT customer_id, given_name, middle_initial, surname, "
+            + "primary_email, contact_number, contact_number_e164, email_domain FROM OLD TABLE ("
+            + "MERGE INTO customers c USING (VALUES (CAST(? AS UUID), CAST(? AS VARCHAR(255)), "
+            + "CAST(? AS VARCHAR(255)), CAST(? AS VARCHAR(255)), CAST(? AS VARCHAR(255)), CAST(? AS VARCHAR(255)), "
+            + "CAST(? AS VARCHAR(255)), CAST(? AS VARCHAR(255)))) "
+            + "AS s (customer_id, given_name, middle_initial, surname, primary_email, contact_number, "
+            + "contact_number_e164, email_domain) "
+            + "ON c.primary_email = s.primary_email "
+            + "WHEN MATCHED THEN UPDATE SET given_name = s.given_name, middle_initial = s.middle_initial, "
+            + "surname = s.surname, contact_number = s.contact_number, contact_number_e164 = s.contact_number_e164, "
+            + "email_domain = s.email_domain "
+            + "WHEN NOT MATCHED THEN INSERT (customer_id, given_name, middle_initial, surname, primary_email, "
+            + "contact_number, contact_number_e164, email_domain) VALUES (s.customer_id, s.given_name, "
+            + "s.middle_initial, s.surname, s.primary_email, s.contact_number, s.contact_number_e164, "
+            + "s.email_domain))";
+
+    private static final String INSERT_PREFIX = "INSERT INTO customers (customer_id, given_name, middle_initial, "
+            + "surname, primary_email, contact_number, contact_number_e164, email_domain) VALUES ";
+    private static final String INSERT_ROW = "(?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final int INSERT_COLUMNS = 8;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Constructor for dependency injection of the JdbcTemplate.
+     *
+     * @param jdbcTemplate The template for the application database
+     */
+    public CustomerRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public UpsertResult upsertByPrimaryEmail(Customer customer) {
+        UUID candidateId = UUID.randomUUID();
+        try {
+            return upsert(customer, candidateId);
+        } catch (DuplicateKeyException ex) {
+            // Another replica inserted the same email between our match and insert; it now matches
+            return upsert(customer, candidateId);
+        }
+    }
+
+    @Override
+    public List<Customer> insertAll(List<Customer> customers) {
+        if (customers.isEmpty()) {
+            return List.of();
+        }
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + customers.size() * (INSERT_ROW.length() + 2))
+                .append(INSERT_PREFIX);
+        Object[] args = new Object[customers.size() * INSERT_COLUMNS];
+        List<Customer> stored = new ArrayList<>(customers.size());
+        int i = 0;
+        for (Customer customer : customers) {
+            if (!stored.isEmpty()) {
+                sql.append(", ");
+            }
+            sql.append(INSERT_ROW);
+            Customer row = Customer.builder()
+                    .customerId(UUID.randomUUID())
+                    .givenName(customer.getGivenName())
+                    .middleInitial(customer.getMiddleInitial())
+                    .surname(customer.getSurname())
+                    .primaryEmail(customer.getPrimaryEmail())
+                    .contactNumber(customer.getContactNumber())
+                    .build();
+            row.deriveLookupColumns();
+            args[i++] = row.getCustomerId();
+            args[i++] = row.getGivenName();
+            args[i++] = row.getMiddleInitial();
+            args[i++] = row.getSurname();
+            args[i++] = row.getPrimaryEmail();
+            args[i++] = row.getContactNumber();
+            args[i++] = row.getContactNumberE164();
+            args[i++] = row.getEmailDomain();
+            stored.add(row);
+        }
+        jdbcTemplate.update(sql.toString(), args);
+        return stored;
+    }
+
+    private UpsertResult upsert(Customer customer, UUID candidateId) {
+        Customer stored = Customer.builder()
+                .givenName(customer.getGivenName())
+                .middleInitial(customer.getMiddleInitial())
+                .surname(customer.getSurname())
+                .primaryEmail(customer.getPrimaryEmail())
+                .contactNumber(customer.getContactNumber())
+                .build();
+        stored.deriveLookupColumns();
+        // The insert branch replaces no row, so an empty result means the customer was created
+        List<Customer> replaced = jdbcTemplate.query(UPSERT_BY_PRIMARY_EMAIL, CustomerRepositoryCustomImpl::toCustomer,
+                candidateId, stored.getGivenName(), stored.getMiddleInitial(), stored.getSurname(),
+                stored.getPrimaryEmail(), stored.getContactNumber(), stored.getContactNumberE164(),
+                stored.getEmailDomain());
+        Customer previous = replaced.isEmpty() ? null : replaced.get(0);
+        stored.setCustomerId(previous != null ? previous.getCustomerId() : candidateId);
+        return new UpsertResult(stored, previous);
+    }
+
+    private static Customer toCustomer(ResultSet rs, int rowNum) throws SQLException {
+        return Customer.builder()
+                .customerId(rs.getObject("customer_id", UUID.class))
+                .givenName(rs.getString("given_name"))
+                .middleInitial(rs.getString("middle_initial"))
+                .surname(rs.getString("surname"))
+                .primaryEmail(rs.getString("primary_email"))
+                .contactNumber(rs.getString("contact_number"))
+                .contactNumberE164(rs.getString("contact_number_e164"))
+                .emailDomain(rs.getString("email_domain"))
+                .build();
+    }
+}
@@ -0,0 +1,431 @@
+package com.example.customerapi.repository;
+
+import com.example.customerapi.model.Customer;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.repository.query.FluentQuery;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * {@link CustomerRepository} backed by a {@link MappedCustomerStore} on local disk instead of
+ * the database, for read-heavy edge deployments. Enabled by the "mmap" profile, in which it
+ * replaces the JPA repository for everything using the CustomerRepository contract.
+ *
+ * Lookups by id and primary email use the store's off-heap indexes. Lists, phone lookups and
+ * {@link CustomerFilter} specifications scan the store and sort in memory, which suits the number
+ * of customers an edge node holds. Query by example and other specifications are not supported.
+ * Each write is durable when it returns and is not part of any transaction, so it stays applied
+ * even if a surrounding transaction rolls back. Components working on the customers table with
+ * SQL, such as the phone backfill and duplicate detection, do not see these customers.
+ */
+@Component
+@Primary
+@Profile("mmap")
+public class MappedCustomerRepository implements CustomerRepository, DisposableBean {
+
+    private static final Predicate<Customer> ALL = customer -> true;
+    private static final Comparator<UUID> ID_ORDER = MappedCustomerRepository::compareIds;
+
+    private final MappedCustomerStore store;
+
+    /**
+     * Constructor for dependency injection; opens the store.
+     *
+     * @param properties The store location and limits
+     * @throws IOException if the store cannot be opened
+     */
+    @Autowired
+    public MappedCustomerRepository(MappedStoreProperties properties) throws IOException {
+        this(new MappedCustomerStore(Path.of(properties.getDirectory()), properties.getCapacity(),
+                properties.getCheckpointLogSize().toBytes(), properties.isSyncWrites()));
+    }
+
+    MappedCustomerRepository(MappedCustomerStore store) {
+        this.store = store;
+    }
+
+    /**
+     * Passes every customer to an action, for callers that would otherwise aggregate over the table.
+     *
+     * @param action The action
+     */
+    public void forEach(Consumer<? super Customer> action) {
+        store.forEach(action);
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        store.close();
+    }
+
+    @Override
+    public Optional<Customer> findByPrimaryEmail(String email) {
+        return Optional.ofNullable(store.getByEmail(email));
+    }
+
+    @Override
+    public List<Customer> findByContactNumberE164(String contactNumberE164) {
+        return list(customer -> Objects.equals(contactNumberE164, customer.getContactNumberE164()), Sort.unsorted());
+    }
+
+    @Override
+    public UpsertResult upsertByPrimaryEmail(Customer customer) {
+        return store.upsertByEmail(customer);
+    }
+
+    @Override
+    public List<Customer> insertAll(List<Customer> customers) {
+        List<Customer> stored = new ArrayList<>(customers.size());
+        for (Customer customer : customers) {
+            Customer row = Customer.builder()
+                    .customerId(UUID.randomUUID())
+                    .givenName(customer.getGivenName())
+                    .middleInitial(customer.getMiddleInitial())
+                    .surname(customer.getSurname())
+                    .primaryEmail(customer.getPrimaryEmail())
+                    .contactNumber(customer.getContactNumber())
+                    .build();
+            row.deriveLookupColumns();
+            stored.add(row);
+        }
+        store.putAll(stored);
+        return stored;
+    }
+
+    @Override
+    public <S extends Customer> S save(S entity) {
+        saveAll(List.of(entity));
+        return entity;
+    }
+
+    @Override
+    public <S extends Customer> List<S> saveAll(Iterable<S> entities) {
+        List<S> saved = new ArrayList<>();
+        for (S entity : entities) {
+            if (entity.getCustomerId() == null) {
+                entity.setCustomerId(UUID.randomUUID());
+            }
+            entity.deriveLookupColumns();
+            saved.add(entity);
+        }
+        store.putAll(List.copyOf(saved));
+        return saved;
+    }
+
+    @Override
+    public <S extends Customer> S saveAndFlush(S entity) {
+        return save(entity);
+    }
+
+    @Override
+    public <S extends Customer> List<S> saveAllAndFlush(Iterable<S> entities) {
+        return saveAll(entities);
+    }
+
+    @Override
+    public void flush() {
+        // Every write is logged durably before it returns
+    }
+
+    @Override
+    public Optional<Customer> findById(UUID id) {
+        return Optional.ofNullable(store.get(id));
+    }
+
+    @Override
+    public boolean existsById(UUID id) {
+        return store.contains(id);
+    }
+
+    @Override
+    public List<Customer> findAllById(Iterable<UUID> ids) {
+        List<Customer> customers = new ArrayList<>();
+        for (UUID id : ids) {
+            Customer customer = store.get(id);
+            if (customer != null) {
+                customers.add(customer);
+            }
+        }
+        return customers;
+    }
+
+    @Override
+    public Customer getReferenceById(UUID id) {
+        return findById(id).orElseThrow(() -> new EntityNotFoundException("No customer with id " + id));
+    }
+
+    @Override
+    @Deprecated
+    public Customer getById(UUID id) {
+        return getReferenceById(id);
+    }
+
+    @Override
+    @Deprecated
+    public Customer getOne(UUID id) {
+        return getReferenceById(id);
+    }
+
+    @Override
+    public long count() {
+        return store.size();
+    }
+
+    @Override
+    public List<Customer> findAll() {
+        return list(ALL, Sort.unsorted());
+    }
+
+    @Override
+    public List<Customer> findAll(Sort sort) {
+        return list(ALL, sort);
+    }
+
+    @Override
+    public Page<Customer> findAll(Pageable pageable) {
+        if (pageable.isPaged() && sortsByIdOnly(pageable.getSort())) {
+            // Pages in id order, e.g. the index loads at startup, only decode the customers on the page
+            List<UUID> ids = store.ids();
+            Sort.Order order = pageable.getSort().getOrderFor("customerId");
+            ids.sort(order != null && order.isDescending() ? ID_ORDER.reversed() : ID_ORDER);
+            List<Customer> content = findAllById(slice(ids, pageable));
+            return new PageImpl<>(content, pageable, ids.size());
+        }
+        return page(ALL, pageable);
+    }
+
+    @Override
+    public void deleteById(UUID id) {
+        store.removeAll(List.of(id));
+    }
+
+    @Override
+    public void delete(Customer entity) {
+        if (entity.getCustomerId() != null) {
+            store.removeAll(List.of(entity.getCustomerId()));
+        }
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends UUID> ids) {
+        List<UUID> removed = new ArrayList<>();
+        ids.forEach(removed::add);
+        store.removeAll(removed);
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends Customer> entities) {
+        List<UUID> removed = new ArrayList<>();
+        entities.forEach(entity -> removed.add(entity.getCustomerId()));
+        store.removeAll(removed);
+    }
+
+    @Override
+    public void deleteAll() {
+        store.clear();
+    }
+
+    @Override
+    public void deleteAllInBatch(Iterable<Customer> entities) {
+        deleteAll(entities);
+    }
+
+    @Override
+    public void deleteAllByIdInBatch(Iterable<UUID> ids) {
+        deleteAllById(ids);
+    }
+
+    @Override
+    public void deleteAllInBatch() {
+        deleteAll();
+    }
+
+    @Override
+    public Optional<Customer> findOne(Specification<Customer> spec) {
+        List<Customer> matches = list(predicate(spec), Sort.unsorted());
+        if (matches.size() > 1) {
+            throw new InvalidDataAccessApiUsageException(matches.size() + " customers match, expected at most one");
+        }
+        return matches.stream().findFirst();
+    }
+
+    @Override
+    public List<Customer> findAll(Specification<Customer> spec) {
+        return list(predicate(spec), Sort.unsorted());
+    }
+
+    @Override
+    public Page<Customer> findAll(Specification<Customer> spec, Pageable pageable) {
+        return page(predicate(spec), pageable);
+    }
+
+    @Override
+    public List<Customer> findAll(Specification<Customer> spec, Sort sort) {
+        return list(predicate(spec), sort);
+    }
+
+    @Override
+    public long count(Specification<Customer> spec) {
+        return list(predicate(spec), Sort.unsorted()).size();
+    }
+
+    @Override
+    public boolean exists(Specification<Customer> spec) {
+        return count(spec) > 0;
+    }
+
+    @Override
+    public long delete(Specification<Customer> spec) {
+        return store.removeAll(findAll(spec).stream().map(Customer::getCustomerId).toList());
+    }
+
+    @Override
+    public <S extends Customer, R> R findBy(Specification<Customer> spec,
+            Function<FluentQuery.FetchableFluentQuery<S>, R> queryFunction) {
+        throw unsupported("Fluent querying");
+    }
+
+    @Override
+    public <S extends Customer> Optional<S> findOne(Example<S> example) {
+        throw unsupported("Query by example");
+    }
+
+    @Override
+    public <S extends Customer> List<S> findAll(Example<S> example) {
+        throw unsupported("Query by example");
+    }
+
+    @Override
+    public <S extends Customer> List<S> findAll(Example<S> example, Sort sort) {
+        throw unsupported("Query by example");
+    }
+
+    @Override
+    public <S extends Customer> Page<S> findAll(Example<S> example, Pageable pageable) {
+        throw unsupported("Query by example");
+    }
+
+    @Override
+    public <S extends Customer> long count(Example<S> example) {
+        throw unsupported("Query by example");
+    }
+
+    @Override
+    public <S extends Customer> boolean exists(Example<S> example) {
+        throw unsupported("Query by example");
+    }
+
+    @Override
+    public <S extends Customer, R> R findBy(Example<S> example,
+            Function<FluentQuery.FetchableFluentQuery<S>, R> queryFunction) {
+        throw unsupported("Query by example");
+    }
+
+    private List<Customer> list(Predicate<Customer> filter, Sort sort) {
+        List<Customer> customers = new ArrayList<>();
+        store.forEach(customer -> {
+            if (filter.test(customer)) {
+                customers.add(customer);
+            }
+        });
+        if (sort.isSorted()) {
+            customers.sort(comparator(sort));
+        }
+        return customers;
+    }
+
+    private Page<Customer> page(Predicate<Customer> filter, Pageable pageable) {
+        List<Customer> customers = list(filter, pageable.getSort());
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(customers);
+        }
+        return new PageImpl<>(slice(customers, pageable), pageable, customers.size());
+    }
+
+    private static <T> List<T> slice(List<T> all, Pageable pageable) {
+        int from = (int) Math.min(pageable.getOffset(), all.size());
+        int to = Math.min(from + pageable.getPageSize(), all.size());
+        return new ArrayList<>(all.subList(from, to));
+    }
+
+    private static boolean sortsByIdOnly(Sort sort) {
+        return sort.isUnsorted() || (sort.stream().count() == 1 && sort.getOrderFor("customerId") != null);
+    }
+
+    private static Predicate<Customer> predicate(Specification<Customer> spec) {
+        if (spec == null) {
+            return ALL;
+        }
+        if (spec instanceof CustomerFilter.FilterSpecification filterSpecification) {
+            return filterSpecification.filter()::matches;
+        }
+        throw unsupported("Evaluating specifications other than CustomerFilter's");
+    }
+
+    private static Comparator<Customer> comparator(Sort sort) {
+        Comparator<Customer> comparator = null;
+        for (Sort.Order order : sort) {
+            Comparator<Customer> next;
+            if ("customerId".equals(order.getProperty())) {
+                next = Comparator.comparing(Customer::getCustomerId, ID_ORDER);
+            } else {
+                Comparator<String> values = order.isIgnoreCase()
+                        ? String.CASE_INSENSITIVE_ORDER
+                        : Comparator.naturalOrder();
+                // Nulls sort low, as in H2
+                next = Comparator.comparing(property(order.getProperty()), Comparator.nullsFirst(values));
+            }
+            if (order.isDescending()) {
+                next = next.reversed();
+            }
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        return comparator;
+    }
+
+    private static Function<Customer, String> property(String name) {
+        return switch (name) {
+            case "givenName" -> Customer::getGivenName;
+            case "middleInitial" -> Customer::getMiddleInitial;
+            case "surname" -> Customer::getSurname;
+            case "primaryEmail" -> Customer::getPrimaryEmail;
+            case "contactNumber" -> Customer::getContactNumber;
+            case "contactNumberE164" -> Customer::getContactNumberE164;
+            case "emailDomain" -> Customer::getEmailDomain;
+            default -> throw new InvalidDataAccessApiUsageException("Cannot sort customers by " + name);
+        };
+    }
+
+    // Unsigned, as H2 orders UUID columns
+    private static int compareIds(UUID first, UUID second) {
+        int high = Long.compareUnsigned(first.getMostSignificantBits(), second.getMostSignificantBits());
+        return high != 0 ? high
+                : Long.compareUnsigned(first.getLeastSignificantBits(), second.getLeastSignificantBits());
+    }
+
+    private static UnsupportedOperationException unsupported(String feature) {
+        return new UnsupportedOperationException(feature + " is not supported by the memory-mapped customer store");
+    }
+}
@@ -0,0 +1,891 @@
+package com.example.customerapi.repository;
+
+import com.example.customerapi.model.Customer;
+import com.example.customerapi.repository.CustomerRepositoryCustom.UpsertResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+
+/**
+ * Customers stored off-heap in a memory-mapped file of fixed-size slots, for serving reads
+ * without a database.
+ *
+ * Each slot holds one customer: a state byte, a CRC-32 and the encoded fields, written in place
+ * on update. Two open-addressing hash tables in direct memory map customer ids and email hashes
+ * to slots, so a lookup allocates little more than the customer it returns and the heap holds no
+ * per-customer objects at all.
+ *
+ * Readers run concurrently with one writer at a time. They read optimistically under a
+ * {@link StampedLock} and only retry under its read lock if a write overlapped. Writers are
+ * serialized; each appends its change to a checksummed log, forced to disk, before applying it to
+ * the mapped file, which is only forced at checkpoints. On open, slots failing their checksum are
+ * dropped and the log is replayed up to its first incomplete record, so a crash loses at most
+ * writes that had not returned yet.
+ */
+public class MappedCustomerStore implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(MappedCustomerStore.class);
+
+    static final int SLOT_SIZE = 1024;
+    static final String DATA_FILE = "customers.slots";
+    static final String LOG_FILE = "customers.log";
+
+    // Slot layout: state byte, 3 bytes padding, CRC-32 of the body, body length, body
+    private static final int CRC_OFFSET = 4;
+    private static final int LENGTH_OFFSET = 8;
+    private static final int BODY_OFFSET = 10;
+    private static final int MAX_BODY = SLOT_SIZE - BODY_OFFSET;
+    private static final byte FREE = 0;
+    private static final byte USED = 1;
+
+    // Log record: payload length, CRC-32 of the payload, then operations
+    private static final int RECORD_HEADER = 8;
+    private static final byte OP_PUT = 1;
+    private static final byte OP_DELETE = 2;
+    private static final byte OP_CLEAR = 3;
+
+    private static final int SCAN_CHUNK = 1024;
+    private static final IntPredicate ANY_SLOT = slot -> true;
+
+    private final int capacity;
+    private final long checkpointLogBytes;
+    private final boolean syncWrites;
+    private final FileChannel dataChannel;
+    private final MappedByteBuffer data;
+    private final FileChannel logChannel;
+    private final HashIndex ids;
+    private final HashIndex emails;
+    // Guards the slots and indexes between readers and the writer applying a change
+    private final StampedLock lock = new StampedLock();
+    // Serializes writers, from validating a change through logging it to applying it
+    private final ReentrantLock writeLock = new ReentrantLock();
+    // Written only under writeLock
+    private final BitSet usedSlots;
+    private volatile int size;
+    private long logSize;
+    private boolean closed;
+
+    /**
+     * Opens the store in a directory, creating it if needed, and recovers from the log.
+     *
+     * @param directory The directory holding the slot file and the log
+     * @param capacity The maximum number of customers
+     * @param checkpointLogBytes The log size at which a checkpoint truncates it
+     * @param syncWrites Whether each write forces the log to disk before returning
+     * @throws IOException if the files cannot be opened or read
+     */
+    public MappedCustomerStore(Path directory, int capacity, long checkpointLogBytes, boolean syncWrites)
+            throws IOException {
+        if (capacity < 1 || capacity > Integer.MAX_VALUE / SLOT_SIZE) {
+            throw new IllegalArgumentException("capacity must be between 1 and " + Integer.MAX_VALUE / SLOT_SIZE);
+        }
+        this.capacity = capacity;
+        this.checkpointLogBytes = checkpointLogBytes;
+        this.syncWrites = syncWrites;
+        Files.createDirectories(directory);
+        long mappedSize = (long) capacity * SLOT_SIZE;
+        dataChannel = FileChannel.open(directory.resolve(DATA_FILE), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (dataChannel.size() > mappedSize) {
+            long existing = dataChannel.size() / SLOT_SIZE;
+            dataChannel.close();
+            throw new IllegalStateException("The customer store in " + directory + " has room for " + existing
+                    + " customers; its capacity cannot be lowered to " + capacity);
+        }
+        data = dataChannel.map(FileChannel.MapMode.READ_WRITE, 0, mappedSize);
+        logChannel = FileChannel.open(directory.resolve(LOG_FILE), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        ids = new HashIndex(capacity);
+        emails = new HashIndex(capacity);
+        usedSlots = new BitSet(capacity);
+        loadSlots();
+        replayLog();
+        checkpoint();
+        logger.info("Opened customer store in {} with {} of {} customers", directory, size, capacity);
+    }
+
+    /**
+     * Looks a customer up by id.
+     *
+     * @param id The customer id
+     * @return The customer, or null if there is none
+     */
+    public Customer get(UUID id) {
+        return read(() -> {
+            int slot = ids.find(id.getMostSignificantBits(), id.getLeastSignificantBits(), ANY_SLOT);
+            return slot >= 0 ? decode(slotBody(slot)) : null;
+        });
+    }
+
+    /**
+     * Looks a customer up by primary email, matched exactly.
+     *
+     * @param email The primary email
+     * @return The customer, or null if there is none
+     */
+    public Customer getByEmail(String email) {
+        if (email == null) {
+            return null;
+        }
+        byte[] key = email.getBytes(StandardCharsets.UTF_8);
+        return read(() -> {
+            int slot = findEmail(key);
+            return slot >= 0 ? decode(slotBody(slot)) : null;
+        });
+    }
+
+    /**
+     * Whether a customer is stored.
+     *
+     * @param id The customer id
+     * @return true if a customer with that id is stored
+     */
+    public boolean contains(UUID id) {
+        return read(() -> ids.find(id.getMostSignificantBits(), id.getLeastSignificantBits(), ANY_SLOT) >= 0);
+    }
+
+    /**
+     * Returns the number of customers stored.
+     *
+     * @return The number of customers
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the maximum number of customers.
+     *
+     * @return The capacity
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Passes every stored customer to an action. The slots are read in chunks, each consistent
+     * in itself, so writes made during the scan may or may not be seen, as with a concurrent map.
+     *
+     * @param action The action, called outside any lock
+     */
+    public void forEach(Consumer<? super Customer> action) {
+        for (int from = 0; from < capacity; from += SCAN_CHUNK) {
+            int start = from;
+            int end = Math.min(capacity, from + SCAN_CHUNK);
+            List<Customer> chunk = read(() -> {
+                List<Customer> customers = new ArrayList<>();
+                for (int slot = start; slot < end; slot++) {
+                    if (data.get(slot * SLOT_SIZE) == USED) {
+                        customers.add(decode(slotBody(slot)));
+                    }
+                }
+                return customers;
+            });
+            chunk.forEach(action);
+        }
+    }
+
+    /**
+     * Returns the ids of all stored customers without decoding the customers, with the same
+     * consistency as {@link #forEach(Consumer)}.
+     *
+     * @return The ids, in slot order
+     */
+    public List<UUID> ids() {
+        List<UUID> result = new ArrayList<>(size);
+        for (int from = 0; from < capacity; from += SCAN_CHUNK) {
+            int start = from;
+            int end = Math.min(capacity, from + SCAN_CHUNK);
+            result.addAll(read(() -> {
+                List<UUID> chunk = new ArrayList<>();
+                for (int slot = start; slot < end; slot++) {
+                    if (data.get(slot * SLOT_SIZE) == USED) {
+                        chunk.add(idAt(slot));
+                    }
+                }
+                return chunk;
+            }));
+        }
+        return result;
+    }
+
+    /**
+     * Stores customers, each inserted or replacing the customer with the same id. Either all
+     * are stored or, if any would break the store's constraints, none are.
+     *
+     * @param customers The customers, with ids and derived lookup columns set
+     * @throws DataIntegrityViolationException if a primary email belongs to another customer or a
+     *         customer is too large for a slot
+     * @throws DataAccessResourceFailureException if the store is full or the log cannot be written
+     */
+    public void putAll(List<Customer> customers) {
+        writeLock.lock();
+        try {
+            List<Op> ops = new ArrayList<>(customers.size());
+            Map<String, UUID> batchEmails = new HashMap<>();
+            Set<UUID> added = new HashSet<>();
+            for (Customer customer : customers) {
+                UUID id = customer.getCustomerId();
+                String email = customer.getPrimaryEmail();
+                if (email != null) {
+                    UUID batchOwner = batchEmails.put(email, id);
+                    int slot = findEmail(email.getBytes(StandardCharsets.UTF_8));
+                    if ((batchOwner != null && !batchOwner.equals(id)) || (slot >= 0 && !idAt(slot).equals(id))) {
+                        throw new DataIntegrityViolationException("Duplicate primaryEmail " + email);
+                    }
+                }
+                if (!containsUnlocked(id)) {
+                    added.add(id);
+                }
+                ops.add(Op.put(id, encode(customer)));
+            }
+            if (size + added.size() > capacity) {
+                throw new DataAccessResourceFailureException("The customer store is full (" + capacity + " customers)");
+            }
+            commit(ops);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Inserts a customer, or updates the customer with the same primary email, which keeps its id.
+     *
+     * @param customer The customer data, keyed by its primary email
+     * @return The stored customer and the customer it replaced, if any
+     */
+    public UpsertResult upsertByEmail(Customer customer) {
+        writeLock.lock();
+        try {
+            // Only this thread changes the slots, so the match stays valid without the read lock
+            int slot = customer.getPrimaryEmail() != null
+                    ? findEmail(customer.getPrimaryEmail().getBytes(StandardCharsets.UTF_8))
+                    : -1;
+            Customer previous = slot >= 0 ? decode(slotBody(slot)) : null;
+            Customer stored = Customer.builder()
+                    .customerId(previous != null ? previous.getCustomerId() : UUID.randomUUID())
+                    .givenName(customer.getGivenName())
+                    .middleInitial(customer.getMiddleInitial())
+                    .surname(customer.getSurname())
+                    .primaryEmail(customer.getPrimaryEmail())
+                    .contactNumber(customer.getContactNumber())
+                    .build();
+            stored.deriveLookupColumns();
+            putAll(List.of(stored));
+            return new UpsertResult(stored, previous);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Removes customers.
+     *
+     * @param customerIds The ids of the customers; ids not stored are ignored
+     * @return The number of customers removed
+     */
+    public int removeAll(Collection<UUID> customerIds) {
+        writeLock.lock();
+        try {
+            List<Op> ops = new ArrayList<>(customerIds.size());
+            for (UUID id : new HashSet<>(customerIds)) {
+                if (id != null && containsUnlocked(id)) {
+                    ops.add(Op.delete(id));
+                }
+            }
+            if (!ops.isEmpty()) {
+                commit(ops);
+            }
+            return ops.size();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Removes all customers.
+     */
+    public void clear() {
+        writeLock.lock();
+        try {
+            commit(List.of(Op.clear()));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Forces the slot file to disk and truncates the log, whose changes it now contains.
+     *
+     * @throws DataAccessResourceFailureException if the files cannot be written
+     */
+    public void checkpoint() {
+        writeLock.lock();
+        try {
+            data.force();
+            logChannel.truncate(0);
+            logChannel.force(true);
+            logSize = 0;
+        } catch (IOException ex) {
+            throw new DataAccessResourceFailureException("Could not checkpoint the customer store", ex);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Checkpoints and closes the files. The store cannot be used afterwards.
+     *
+     * @throws IOException if the files cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        writeLock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            checkpoint();
+            closed = true;
+            logChannel.close();
+            dataChannel.close();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private <T> T read(Supplier<T> reader) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                T result = reader.get();
+                if (lock.validate(stamp)) {
+                    return result;
+                }
+            } catch (RuntimeException ex) {
+                // A write changed the slots while they were read; the result is discarded and read again
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return reader.get();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private void commit(List<Op> ops) {
+        if (closed) {
+            throw new DataAccessResourceFailureException("The customer store is closed");
+        }
+        ByteBuffer record = encodeRecord(ops);
+        long start = logSize;
+        try {
+            long position = start;
+            while (record.hasRemaining()) {
+                position += logChannel.write(record, position);
+            }
+            if (syncWrites) {
+                logChannel.force(false);
+            }
+            logSize = position;
+        } catch (IOException ex) {
+            truncateLog(start);
+            throw new DataAccessResourceFailureException("Could not write the customer log", ex);
+        }
+        long stamp = lock.writeLock();
+        try {
+            ops.forEach(this::apply);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        if (logSize >= checkpointLogBytes) {
+            checkpoint();
+        }
+    }
+
+    private void truncateLog(long length) {
+        try {
+            logChannel.truncate(length);
+        } catch (IOException ex) {
+            // Replay stops at the incomplete record, so later records would be lost; stop writing instead
+            closed = true;
+            logger.error("Could not truncate the customer log after a failed write; the store is closed", ex);
+        }
+    }
+
+    private void apply(Op op) {
+        switch (op.type()) {
+            case OP_PUT -> applyPut(op.id(), op.body());
+            case OP_DELETE -> applyDelete(op.id());
+            case OP_CLEAR -> applyClear();
+            default -> throw new IllegalStateException("Unknown log operation " + op.type());
+        }
+    }
+
+    private void applyPut(UUID id, byte[] body) {
+        long msb = id.getMostSignificantBits();
+        long lsb = id.getLeastSignificantBits();
+        int slot = ids.find(msb, lsb, ANY_SLOT);
+        if (slot >= 0) {
+            unindexEmail(slot);
+        } else {
+            slot = usedSlots.nextClearBit(0);
+            if (slot >= capacity) {
+                throw new IllegalStateException("No free slot for customer " + id);
+            }
+            usedSlots.set(slot);
+            ids.insert(msb, lsb, slot);
+            size++;
+        }
+        int offset = slot * SLOT_SIZE;
+        data.putShort(offset + LENGTH_OFFSET, (short) body.length);
+        data.put(offset + BODY_OFFSET, body);
+        data.putInt(offset + CRC_OFFSET, crc(body));
+        data.put(offset, USED);
+        byte[] email = emailAt(slot);
+        if (email != null) {
+            emails.insert(hash(email), 0, slot);
+        }
+    }
+
+    private void applyDelete(UUID id) {
+        int slot = ids.find(id.getMostSignificantBits(), id.getLeastSignificantBits(), ANY_SLOT);
+        if (slot < 0) {
+            return;
+        }
+        unindexEmail(slot);
+        ids.remove(id.getMostSignificantBits(), id.getLeastSignificantBits(), slot);
+        data.put(slot * SLOT_SIZE, FREE);
+        usedSlots.clear(slot);
+        size--;
+    }
+
+    private void applyClear() {
+        for (int slot = usedSlots.nextSetBit(0); slot >= 0; slot = usedSlots.nextSetBit(slot + 1)) {
+            data.put(slot * SLOT_SIZE, FREE);
+        }
+        usedSlots.clear();
+        ids.clear();
+        emails.clear();
+        size = 0;
+    }
+
+    private void unindexEmail(int slot) {
+        byte[] email = emailAt(slot);
+        if (email != null) {
+            emails.remove(hash(email), 0, slot);
+        }
+    }
+
+    private boolean containsUnlocked(UUID id) {
+        return ids.find(id.getMostSignificantBits(), id.getLeastSignificantBits(), ANY_SLOT) >= 0;
+    }
+
+    private int findEmail(byte[] email) {
+        return emails.find(hash(email), 0, slot -> emailEquals(slot, email));
+    }
+
+    private void loadSlots() {
+        int dropped = 0;
+        for (int slot = 0; slot < capacity; slot++) {
+            int offset = slot * SLOT_SIZE;
+            if (data.get(offset) != USED) {
+                continue;
+            }
+            byte[] body = validBody(slot);
+            UUID id = body != null ? idAt(slot) : null;
+            byte[] email = body != null ? emailAt(slot) : null;
+            if (body == null || containsUnlocked(id) || (email != null && findEmail(email) >= 0)) {
+                // Torn or stale slots left by a crash; replaying the log restores their current contents
+                data.put(offset, FREE);
+                dropped++;
+                continue;
+            }
+            usedSlots.set(slot);
+            ids.insert(id.getMostSignificantBits(), id.getLeastSignificantBits(), slot);
+            if (email != null) {
+                emails.insert(hash(email), 0, slot);
+            }
+            size++;
+        }
+        if (dropped > 0) {
+            logger.warn("Dropped {} incomplete or duplicated customer slots left by a crash", dropped);
+        }
+    }
+
+    private void replayLog() throws IOException {
+        long length = logChannel.size();
+        long position = 0;
+        int records = 0;
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER);
+        while (position + RECORD_HEADER <= length) {
+            header.clear();
+            readFully(header, position);
+            int payloadLength = header.getInt(0);
+            int checksum = header.getInt(Integer.BYTES);
+            if (payloadLength <= 0 || position + RECORD_HEADER + payloadLength > length) {
+                break;
+            }
+            ByteBuffer payload = ByteBuffer.allocate(payloadLength);
+            readFully(payload, position + RECORD_HEADER);
+            if (crc(payload.array()) != checksum) {
+                break;
+            }
+            payload.flip();
+            decodeOps(payload).forEach(this::apply);
+            position += RECORD_HEADER + payloadLength;
+            records++;
+        }
+        if (position < length) {
+            logger.warn("Discarded {} bytes of an incomplete record at the end of the customer log", length - position);
+        }
+        if (records > 0) {
+            logger.info("Replayed {} records of the customer log", records);
+        }
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        long next = position;
+        while (buffer.hasRemaining()) {
+            int read = logChannel.read(buffer, next);
+            if (read < 0) {
+                throw new EOFException("Unexpected end of the customer log at " + next);
+            }
+            next += read;
+        }
+    }
+
+    private byte[] slotBody(int slot) {
+        int offset = slot * SLOT_SIZE;
+        int length = data.getShort(offset + LENGTH_OFFSET);
+        if (length < 2 * Long.BYTES || length > MAX_BODY) {
+            throw new IllegalStateException("Corrupt customer slot " + slot);
+        }
+        byte[] body = new byte[length];
+        data.get(offset + BODY_OFFSET, body);
+        return body;
+    }
+
+    private byte[] validBody(int slot) {
+        try {
+            byte[] body = slotBody(slot);
+            return crc(body) == data.getInt(slot * SLOT_SIZE + CRC_OFFSET) ? body : null;
+        } catch (IllegalStateException ex) {
+            return null;
+        }
+    }
+
+    private UUID idAt(int slot) {
+        int offset = slot * SLOT_SIZE + BODY_OFFSET;
+        return new UUID(data.getLong(offset), data.getLong(offset + Long.BYTES));
+    }
+
+    // The email is the first field of the body, so it is compared and hashed without decoding the rest
+    private byte[] emailAt(int slot) {
+        int offset = slot * SLOT_SIZE + BODY_OFFSET + 2 * Long.BYTES;
+        int length = data.getShort(offset);
+        if (length < 0) {
+            return null;
+        }
+        byte[] email = new byte[length];
+        data.get(offset + Short.BYTES, email);
+        return email;
+    }
+
+    private boolean emailEquals(int slot, byte[] email) {
+        int offset = slot * SLOT_SIZE + BODY_OFFSET + 2 * Long.BYTES;
+        if (data.getShort(offset) != email.length) {
+            return false;
+        }
+        for (int i = 0; i < email.length; i++) {
+            if (data.get(offset + Short.BYTES + i) != email[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Encodes a customer's stored fields: the id, then the primary email, given name, middle
+     * initial, surname and contact number, each as a length (-1 for null) and UTF-8 bytes.
+     * The derived lookup columns are recomputed when decoding.
+     *
+     * @param customer The customer
+     * @return The encoded customer
+     * @throws DataIntegrityViolationException if the encoded customer does not fit in a slot
+     */
+    static byte[] encode(Customer customer) {
+        byte[][] fields = {utf8(customer.getPrimaryEmail()), utf8(customer.getGivenName()),
+            utf8(customer.getMiddleInitial()), utf8(customer.getSurname()), utf8(customer.getContactNumber())};
+        int length = 2 * Long.BYTES;
+        for (byte[] field : fields) {
+            length += Short.BYTES + (field != null ? field.length : 0);
+        }
+        if (length > MAX_BODY) {
+            throw new DataIntegrityViolationException("Customer " + customer.getCustomerId() + " takes " + length
+                    + " bytes, more than the " + MAX_BODY + " a slot holds");
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(length)
+                .putLong(customer.getCustomerId().getMostSignificantBits())
+                .putLong(customer.getCustomerId().getLeastSignificantBits());
+        for (byte[] field : fields) {
+            if (field == null) {
+                buffer.putShort((short) -1);
+            } else {
+                buffer.putShort((short) field.length).put(field);
+            }
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Decodes a customer written by {@link #encode(Customer)}.
+     *
+     * @param body The encoded customer
+     * @return The customer, with its derived lookup columns set
+     */
+    static Customer decode(byte[] body) {
+        ByteBuffer buffer = ByteBuffer.wrap(body);
+        Customer customer = new Customer();
+        customer.setCustomerId(new UUID(buffer.getLong(), buffer.getLong()));
+        customer.setPrimaryEmail(readString(buffer));
+        customer.setGivenName(readString(buffer));
+        customer.setMiddleInitial(readString(buffer));
+        customer.setSurname(readString(buffer));
+        customer.setContactNumber(readString(buffer));
+        customer.deriveLookupColumns();
+        return customer;
+    }
+
+    private static byte[] utf8(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getShort();
+        if (length < 0) {
+            return null;
+        }
+        String value = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    private static ByteBuffer encodeRecord(List<Op> ops) {
+        int payloadLength = 0;
+        for (Op op : ops) {
+            payloadLength += 1 + switch (op.type()) {
+                case OP_PUT -> Short.BYTES + op.body().length;
+                case OP_DELETE -> 2 * Long.BYTES;
+                default -> 0;
+            };
+        }
+        ByteBuffer payload = ByteBuffer.allocate(payloadLength);
+        for (Op op : ops) {
+            payload.put(op.type());
+            if (op.type() == OP_PUT) {
+                payload.putShort((short) op.body().length).put(op.body());
+            } else if (op.type() == OP_DELETE) {
+                payload.putLong(op.id().getMostSignificantBits()).putLong(op.id().getLeastSignificantBits());
+            }
+        }
+        return ByteBuffer.allocate(RECORD_HEADER + payloadLength)
+                .putInt(payloadLength)
+                .putInt(crc(payload.array()))
+                .put(payload.array())
+                .flip();
+    }
+
+    private static List<Op> decodeOps(ByteBuffer payload) {
+        List<Op> ops = new ArrayList<>();
+        while (payload.hasRemaining()) {
+            byte type = payload.get();
+            if (type == OP_PUT) {
+                byte[] body = new byte[payload.getShort()];
+                payload.get(body);
+                ByteBuffer id = ByteBuffer.wrap(body);
+                ops.add(Op.put(new UUID(id.getLong(), id.getLong()), body));
+            } else if (type == OP_DELETE) {
+                ops.add(Op.delete(new UUID(payload.getLong(), payload.getLong())));
+            } else {
+                ops.add(Op.clear());
+            }
+        }
+        return ops;
+    }
+
+    private static int crc(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return (int) crc.getValue();
+    }
+
+    private static long hash(byte[] bytes) {
+        // FNV-1a, finished with the 64-bit mixer of MurmurHash3 so that the low bits are well spread
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : bytes) {
+            hash = (hash ^ (b & 0xff)) * 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long value) {
+        long h = value;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * One change in a log record.
+     *
+     * @param type The operation
+     * @param id The customer id, for puts and deletes
+     * @param body The encoded customer, for puts
+     */
+    private record Op(byte type, UUID id, byte[] body) {
+
+        static Op put(UUID id, byte[] body) {
+            return new Op(OP_PUT, id, body);
+        }
+
+        static Op delete(UUID id) {
+            return new Op(OP_DELETE, id, null);
+        }
+
+        static Op clear() {
+            return new Op(OP_CLEAR, null, null);
+        }
+    }
+
+    /**
+     * An open-addressing hash table with linear probing in direct memory, mapping a 128-bit key
+     * to a slot number. Keys may repeat, so the email index can hold colliding hashes; lookups
+     * tell matching entries apart with a predicate on the slot. Deletion shifts later entries of
+     * the probe sequence back instead of leaving tombstones. The table is at least twice the
+     * capacity, so probe sequences stay short.
+     */
+    static final class HashIndex {
+
+        // Entry layout: two key longs, slot + 1 (0 marks an empty entry), 4 bytes padding
+        private static final int ENTRY = 24;
+        private static final int VALUE = 16;
+
+        private final ByteBuffer table;
+        private final int mask;
+
+        HashIndex(int capacity) {
+            int entries = Integer.highestOneBit(Math.max(1, capacity) * 2 - 1) << 1;
+            table = ByteBuffer.allocateDirect(entries * ENTRY);
+            mask = entries - 1;
+        }
+
+        int find(long key1, long key2, IntPredicate accept) {
+            int index = home(key1, key2);
+            for (int probes = 0; probes <= mask; probes++) {
+                int offset = index * ENTRY;
+                int value = table.getInt(offset + VALUE);
+                if (value == 0) {
+                    return -1;
+                }
+                if (table.getLong(offset) == key1 && table.getLong(offset + Long.BYTES) == key2
+                        && accept.test(value - 1)) {
+                    return value - 1;
+                }
+                index = (index + 1) & mask;
+            }
+            return -1;
+        }
+
+        void insert(long key1, long key2, int slot) {
+            int index = home(key1, key2);
+            while (table.getInt(index * ENTRY + VALUE) != 0) {
+                index = (index + 1) & mask;
+            }
+            int offset = index * ENTRY;
+            table.putLong(offset, key1);
+            table.putLong(offset + Long.BYTES, key2);
+            table.putInt(offset + VALUE, slot + 1);
+        }
+
+        boolean remove(long key1, long key2, int slot) {
+            int index = home(key1, key2);
+            while (true) {
+                int offset = index * ENTRY;
+                int value = table.getInt(offset + VALUE);
+                if (value == 0) {
+                    return false;
+                }
+                if (value == slot + 1 && table.getLong(offset) == key1 && table.getLong(offset + Long.BYTES) == key2) {
+                    removeAt(index);
+                    return true;
+                }
+                index = (index + 1) & mask;
+            }
+        }
+
+        void clear() {
+            for (int index = 0; index <= mask; index++) {
+                table.putInt(index * ENTRY + VALUE, 0);
+            }
+        }
+
+        private void removeAt(int removed) {
+            int hole = removed;
+            int index = removed;
+            while (true) {
+                index = (index + 1) & mask;
+                int offset = index * ENTRY;
+                if (table.getInt(offset + VALUE) == 0) {
+                    break;
+                }
+                int home = home(table.getLong(offset), table.getLong(offset + Long.BYTES));
+                // An entry whose home lies cyclically in (hole, index] is still reachable; others move into the hole
+                boolean reachable = hole <= index ? hole < home && home <= index : hole < home || home <= index;
+                if (!reachable) {
+                    int holeOffset = hole * ENTRY;
+                    table.putLong(holeOffset, table.getLong(offset));
+                    table.putLong(holeOffset + Long.BYTES, table.getLong(offset + Long.BYTES));
+                    table.putInt(holeOffset + VALUE, table.getInt(offset + VALUE));
+                    hole = index;
+                }
+            }
+            table.putInt(hole * ENTRY + VALUE, 0);
+        }
+
+        private int home(long key1, long key2) {
+            return (int) mix(key1 * 31 + key2) & mask;
+        }
+    }
+}
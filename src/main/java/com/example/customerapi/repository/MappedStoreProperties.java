@@ -0,0 +1,39 @@
+package com.example.customerapi.repository;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Configuration for the memory-mapped customer store used with the "mmap" profile.
+ * Bound from properties prefixed with "customer-api.mapped-store".
+ */
+@Data
+@ConfigurationProperties(prefix = "customer-api.mapped-store")
+public class MappedStoreProperties {
+
+    /**
+     * Local directory holding the slot file and the change log.
+     */
+    private String directory = "customer-store";
+
+    /**
+     * Maximum number of customers. The slot file is mapped at its full size of 1 KiB per
+     * customer up front; the indexes take another 100 to 200 bytes per customer of direct memory.
+     * The capacity of an existing store can be raised but not lowered.
+     */
+    private int capacity = 100_000;
+
+    /**
+     * Size the change log may grow to before the slot file is forced to disk and the log
+     * truncated. A larger log means fewer forced writes of the mapped file and a longer replay
+     * after a crash.
+     */
+    private DataSize checkpointLogSize = DataSize.ofMegabytes(64);
+
+    /**
+     * Whether each write forces the change log to disk before returning. Without it a power
+     * failure can lose the writes of the last few seconds, though not corrupt the store.
+     */
+    private boolean syncWrites = true;
+}
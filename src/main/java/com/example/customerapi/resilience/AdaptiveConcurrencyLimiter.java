@@ -0,0 +1,147 @@
+package com.example.customerapi.resilience;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency limit that adapts to measured latency, following the gradient approach.
+ *
+ * A long-term average of request latency approximates the latency without queueing; a
+ * short-term average tracks the current latency. Their ratio (the gradient) shrinks the
+ * limit as soon as requests start to queue and lets it grow by a small amount
+ * ({@code sqrt(limit)}) while latency stays at its baseline. Requests beyond the limit are
+ * rejected immediately instead of waiting, which keeps latency for admitted requests bounded.
+ *
+ * Admission is a single CAS on the in-flight counter. Limit updates take a lock but use
+ * tryLock, so a completing request never waits on another one's update.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final int WARMUP_SAMPLES = 10;
+    private static final double LONG_WINDOW = 600;
+    private static final double SHORT_WINDOW = 10;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double rttTolerance;
+    private final double smoothing;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+    private final ReentrantLock sampleLock = new ReentrantLock();
+    private volatile int limit;
+
+    private double estimatedLimit;
+    private double longRtt;
+    private double shortRtt;
+    private long samples;
+
+    /**
+     * Creates a limiter.
+     *
+     * @param initialLimit The limit before any latency has been measured
+     * @param minLimit The limit never drops below this
+     * @param maxLimit The limit never grows above this
+     * @param rttTolerance How much latency may rise above baseline before the limit shrinks (e.g. 1.5)
+     * @param smoothing Weight of each new limit estimate, between 0 and 1
+     */
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit,
+            double rttTolerance, double smoothing) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.rttTolerance = rttTolerance;
+        this.smoothing = smoothing;
+        this.estimatedLimit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.limit = (int) estimatedLimit;
+    }
+
+    /**
+     * Tries to admit a request.
+     *
+     * @return true if the request may proceed and must later be completed with {@link #onComplete}
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                rejected.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Completes an admitted request.
+     *
+     * @param rttNanos How long the request took
+     * @param dropped Whether the request failed; failed requests don't contribute latency samples
+     */
+    public void onComplete(long rttNanos, boolean dropped) {
+        int inFlightAtCompletion = inFlight.getAndDecrement();
+        if (dropped || rttNanos <= 0 || !sampleLock.tryLock()) {
+            return;
+        }
+        try {
+            sample(rttNanos, inFlightAtCompletion);
+        } finally {
+            sampleLock.unlock();
+        }
+    }
+
+    private void sample(double rtt, int inFlightAtCompletion) {
+        samples++;
+        if (samples <= WARMUP_SAMPLES) {
+            longRtt += (rtt - longRtt) / samples;
+            shortRtt = longRtt;
+            return;
+        }
+        longRtt += (rtt - longRtt) * (2.0 / (LONG_WINDOW + 1));
+        shortRtt += (rtt - shortRtt) * (2.0 / (SHORT_WINDOW + 1));
+
+        // After a sustained latency increase the baseline would otherwise take very long to
+        // come back down; pull it towards the current latency so the limit can recover.
+        if (longRtt / shortRtt > 2) {
+            longRtt *= 0.95;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, rttTolerance * longRtt / shortRtt));
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        // Don't grow the limit while the application isn't using it, but still shrink it when latency rises.
+        if (inFlightAtCompletion < estimatedLimit / 2) {
+            newLimit = Math.min(newLimit, estimatedLimit);
+        }
+        newLimit = estimatedLimit * (1 - smoothing) + newLimit * smoothing;
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        limit = (int) estimatedLimit;
+    }
+
+    /**
+     * Returns the current concurrency limit.
+     *
+     * @return The limit
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Returns the number of admitted requests that have not completed.
+     *
+     * @return The in-flight count
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Returns the number of requests rejected so far.
+     *
+     * @return The rejection count
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.customerapi.resilience;
+
+import com.example.customerapi.config.RouteClass;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Configuration for the per route class bulkheads.
+ * Bound from properties prefixed with "customer-api.bulkhead".
+ */
+@Data
+@ConfigurationProperties(prefix = "customer-api.bulkhead")
+public class BulkheadProperties {
+
+    /**
+     * Whether requests are admitted through the bulkheads.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Worker slots shared by all bulkheads; should stay below the Tomcat thread count.
+     */
+    private int totalPermits = 64;
+
+    /**
+     * Longest a request waits in a bulkhead queue before it is rejected with 503.
+     */
+    private Duration maxWait = Duration.ofMillis(500);
+
+    /**
+     * Compartment used for route classes without an explicit entry in {@link #compartments}.
+     */
+    private Compartment defaults = new Compartment();
+
+    /**
+     * Per route class compartments, e.g. customer-api.bulkhead.compartments.bulk.max-concurrent=4.
+     */
+    private Map<RouteClass, Compartment> compartments = new EnumMap<>(RouteClass.class);
+
+    /**
+     * Returns the compartment configuration for a route class.
+     *
+     * @param routeClass The route class
+     * @return The configured compartment, or the default
+     */
+    public Compartment compartmentFor(RouteClass routeClass) {
+        return compartments.getOrDefault(routeClass, defaults);
+    }
+
+    /**
+     * Size of one bulkhead.
+     */
+    @Data
+    public static class Compartment {
+        private int maxConcurrent = 32;
+        private int maxQueued = 100;
+    }
+}
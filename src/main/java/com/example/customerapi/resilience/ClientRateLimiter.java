@@ -0,0 +1,101 @@
+package com.example.customerapi.resilience;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-client token buckets implemented with the generic cell rate algorithm (GCRA).
+ *
+ * Each bucket is a single {@link AtomicLong} holding the theoretical arrival time of the
+ * next request; a request is admitted if that time is within the burst tolerance of now and
+ * the new arrival time is installed with one CAS. There are no locks and no per-bucket
+ * refill timers, and buckets are spread over the striped bins of a {@link ConcurrentHashMap},
+ * so unrelated clients never contend with each other. The number of buckets is capped; once it
+ * is reached, new clients share one overflow bucket until idle buckets are evicted, so clients
+ * that keep changing identity can't grow the map without bound.
+ */
+public class ClientRateLimiter {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final String OVERFLOW_KEY = "overflow";
+
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final int maxBuckets;
+
+    /**
+     * Creates a limiter holding at most the given number of client buckets.
+     *
+     * @param maxBuckets The bucket cap, beyond which new clients share the overflow bucket
+     */
+    public ClientRateLimiter(int maxBuckets) {
+        if (maxBuckets < 1) {
+            throw new IllegalArgumentException("Rate limiter max buckets must be at least 1");
+        }
+        this.maxBuckets = maxBuckets;
+    }
+
+    /**
+     * Tries to take a token from a client's bucket.
+     *
+     * @param key The bucket key (route class and client identity)
+     * @param permitsPerSecond The sustained refill rate
+     * @param burst The bucket capacity
+     * @param nowNanos The current {@link System#nanoTime()}
+     * @return Whether the request is admitted, with the values for the rate limit headers
+     */
+    public Decision tryAcquire(String key, double permitsPerSecond, int burst, long nowNanos) {
+        long interval = (long) (NANOS_PER_SECOND / permitsPerSecond);
+        long tolerance = interval * burst;
+        AtomicLong arrival = buckets.get(key);
+        if (arrival == null) {
+            // The size check races with other new clients, so the cap can be passed by a few buckets
+            String bucketKey = buckets.size() < maxBuckets ? key : OVERFLOW_KEY;
+            arrival = buckets.computeIfAbsent(bucketKey, k -> new AtomicLong(nowNanos));
+        }
+        while (true) {
+            long current = arrival.get();
+            long next = Math.max(current, nowNanos) + interval;
+            long allowAt = next - tolerance;
+            if (allowAt > nowNanos) {
+                return new Decision(false, 0, Math.max(0, current - nowNanos), allowAt - nowNanos);
+            }
+            if (arrival.compareAndSet(current, next)) {
+                return new Decision(true, (tolerance - (next - nowNanos)) / interval, next - nowNanos, 0);
+            }
+        }
+    }
+
+    /**
+     * Removes buckets that have been full (i.e. unused) for at least the given idle time.
+     *
+     * @param nowNanos The current {@link System#nanoTime()}
+     * @param idleNanos How long a bucket must have been full before it is removed
+     * @return The number of buckets removed
+     */
+    public int evictIdle(long nowNanos, long idleNanos) {
+        int before = buckets.size();
+        buckets.values().removeIf(arrival -> nowNanos - arrival.get() >= idleNanos);
+        return before - buckets.size();
+    }
+
+    /**
+     * Returns the number of buckets currently held.
+     *
+     * @return The bucket count
+     */
+    public int size() {
+        return buckets.size();
+    }
+
+    /**
+     * Outcome of a rate limit check.
+     *
+     * @param allowed Whether the request is admitted
+     * @param remaining Tokens left in the bucket after this request
+     * @param resetNanos Time until the bucket is full again
+     * @param retryAfterNanos Time until a rejected request could be admitted
+     */
+    public record Decision(boolean allowed, long remaining, long resetNanos, long retryAfterNanos) {
+    }
+}
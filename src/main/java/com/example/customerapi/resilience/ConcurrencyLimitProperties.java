@@ -0,0 +1,59 @@
+package com.example.customerapi.resilience;
+
+import com.example.customerapi.config.RouteClass;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Configuration for the adaptive concurrency limit.
+ * Bound from properties prefixed with "customer-api.concurrency-limit".
+ */
+@Data
+@ConfigurationProperties(prefix = "customer-api.concurrency-limit")
+public class ConcurrencyLimitProperties {
+
+    /**
+     * Whether excess requests are rejected with 503.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Value of the Retry-After header sent with rejections.
+     */
+    private int retryAfterSeconds = 1;
+
+    /**
+     * Limits used for route classes without an explicit entry in {@link #routes}.
+     */
+    private Limits defaults = new Limits();
+
+    /**
+     * Per route class limits, e.g. customer-api.concurrency-limit.routes.bulk.max-limit=10.
+     */
+    private Map<RouteClass, Limits> routes = new EnumMap<>(RouteClass.class);
+
+    /**
+     * Returns the limits that apply to a route class.
+     *
+     * @param routeClass The route class
+     * @return The configured limits, or the defaults
+     */
+    public Limits limitsFor(RouteClass routeClass) {
+        return routes.getOrDefault(routeClass, defaults);
+    }
+
+    /**
+     * Limits for one route class.
+     */
+    @Data
+    public static class Limits {
+        private int initialLimit = 20;
+        private int minLimit = 4;
+        private int maxLimit = 200;
+        private double rttTolerance = 1.5;
+        private double smoothing = 0.2;
+    }
+}
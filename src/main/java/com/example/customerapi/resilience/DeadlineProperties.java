@@ -0,0 +1,48 @@
+package com.example.customerapi.resilience;
+
+import com.example.customerapi.config.RouteClass;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Configuration for request deadlines.
+ * Bound from properties prefixed with "customer-api.deadline".
+ */
+@Data
+@ConfigurationProperties(prefix = "customer-api.deadline")
+public class DeadlineProperties {
+
+    /**
+     * Whether request deadlines are enforced.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Budget for route classes without an explicit entry in {@link #routes}.
+     */
+    private Duration defaultTimeout = Duration.ofSeconds(5);
+
+    /**
+     * Upper bound on the budget a client may ask for through the deadline headers.
+     */
+    private Duration maxTimeout = Duration.ofSeconds(30);
+
+    /**
+     * Per route class budgets, e.g. customer-api.deadline.routes.point-read=2s.
+     */
+    private Map<RouteClass, Duration> routes = new EnumMap<>(RouteClass.class);
+
+    /**
+     * Returns the budget that applies to a route class when the client sends no deadline.
+     *
+     * @param routeClass The route class
+     * @return The configured budget, or the default
+     */
+    public Duration timeoutFor(RouteClass routeClass) {
+        return routes.getOrDefault(routeClass, defaultTimeout);
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.customerapi.resilience;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Configuration for Idempotency-Key handling of POST requests.
+ * Bound from properties prefixed with "customer-api.idempotency".
+ */
+@Data
+@ConfigurationProperties(prefix = "customer-api.idempotency")
+public class IdempotencyProperties {
+
+    /**
+     * Whether POST requests carrying the idempotency header are deduplicated.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Request header carrying the client-chosen idempotency key.
+     */
+    private String header = "Idempotency-Key";
+
+    /**
+     * Where outcomes are kept: MEMORY (per replica) or JDBC (shared by all replicas).
+     */
+    private Store store = Store.MEMORY;
+
+    /**
+     * How long an outcome is replayed for.
+     */
+    private Duration ttl = Duration.ofHours(24);
+
+    /**
+     * Maximum number of keys held by the in-memory store; the oldest are evicted first.
+     */
+    private int maxEntries = 10_000;
+
+    /**
+     * Responses larger than this are not stored, so the key can be retried.
+     */
+    private DataSize maxResponseSize = DataSize.ofKilobytes(64);
+
+    /**
+     * How long a duplicate waits for the in-flight execution before getting 409.
+     */
+    private Duration inFlightTimeout = Duration.ofSeconds(10);
+
+    /**
+     * How long a claim may stay unfinished before another replica may take it over
+     * (e.g. after the claiming replica crashed). Used by the JDBC store.
+     */
+    private Duration claimTimeout = Duration.ofSeconds(30);
+
+    /**
+     * Storage options for idempotency outcomes.
+     */
+    public enum Store {
+        MEMORY,
+        JDBC
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.customerapi.resilience;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Storage of idempotency keys and the outcome of the request that first used them.
+ *
+ * A key is first claimed, while its request executes, and then either completed with the
+ * response to replay or released so that a retry executes again.
+ */
+public interface IdempotencyStore {
+
+    /**
+     * Claims a key for execution unless it is already known.
+     *
+     * @param key The idempotency key
+     * @param fingerprint Hash of the request the key was sent with
+     * @param now The current time
+     * @param ttl How long the outcome is kept
+     * @return Empty if the caller now owns the key, otherwise the existing record
+     */
+    Optional<IdempotencyRecord> claim(String key, String fingerprint, Instant now, Duration ttl);
+
+    /**
+     * Looks up an unexpired key.
+     *
+     * @param key The idempotency key
+     * @param now The current time
+     * @return The record, or empty if the key is unknown or expired
+     */
+    Optional<IdempotencyRecord> find(String key, Instant now);
+
+    /**
+     * Stores the outcome of a claimed key.
+     *
+     * @param key The idempotency key
+     * @param response The response to replay
+     */
+    void complete(String key, StoredResponse response);
+
+    /**
+     * Forgets a claimed key whose outcome must not be replayed.
+     *
+     * @param key The idempotency key
+     */
+    void release(String key);
+
+    /**
+     * Removes expired keys.
+     *
+     * @param now The current time
+     * @return The number of keys removed
+     */
+    int evictExpired(Instant now);
+
+    /**
+     * The state of a key: claimed (no response yet) or completed.
+     *
+     * @param fingerprint Hash of the request the key was first sent with
+     * @param response The stored response, or null while the first request is executing
+     * @param expiresAt When the key is forgotten
+     */
+    record IdempotencyRecord(String fingerprint, StoredResponse response, Instant expiresAt) {
+
+        /**
+         * Returns whether the first request has finished and its response can be replayed.
+         *
+         * @return true if a response is stored
+         */
+        public boolean isCompleted() {
+            return response != null;
+        }
+    }
+
+    /**
+     * A response captured for replay.
+     *
+     * @param status The HTTP status
+     * @param contentType The content type, may be null
+     * @param headers Other headers replayed with the response, by name
+     * @param body The response body
+     */
+    record StoredResponse(int status, String contentType, Map<String, String> headers, byte[] body) {
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.customerapi.resilience;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Idempotency store kept in the memory of a single replica.
+ * Holds at most a fixed number of keys; once full, the oldest key is evicted.
+ */
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<String, IdempotencyRecord> records;
+
+    /**
+     * Creates a store.
+     *
+     * @param maxEntries Maximum number of keys held
+     */
+    public InMemoryIdempotencyStore(int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be positive");
+        }
+        this.records = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, IdempotencyRecord> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public Optional<IdempotencyRecord> claim(String key, String fingerprint, Instant now, Duration ttl) {
+        lock.lock();
+        try {
+            IdempotencyRecord existing = records.get(key);
+            if (existing != null && existing.expiresAt().isAfter(now)) {
+                return Optional.of(existing);
+            }
+            records.remove(key);
+            records.put(key, new IdempotencyRecord(fingerprint, null, now.plus(ttl)));
+            return Optional.empty();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Optional<IdempotencyRecord> find(String key, Instant now) {
+        lock.lock();
+        try {
+            IdempotencyRecord existing = records.get(key);
+            return existing != null && existing.expiresAt().isAfter(now) ? Optional.of(existing) : Optional.empty();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void complete(String key, StoredResponse response) {
+        lock.lock();
+        try {
+            records.computeIfPresent(key,
+                    (k, claimed) -> new IdempotencyRecord(claimed.fingerprint(), response, claimed.expiresAt()));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void release(String key) {
+        lock.lock();
+        try {
+            IdempotencyRecord existing = records.get(key);
+            if (existing != null && !existing.isCompleted()) {
+                records.remove(key);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int evictExpired(Instant now) {
+        lock.lock();
+        try {
+            int before = records.size();
+            records.values().removeIf(record -> !record.expiresAt().isAfter(now));
+            return before - records.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of keys held.
+     *
+     * @return The number of keys
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return records.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.customerapi.resilience;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Idempotency store backed by a database table, so that a retry landing on another replica
+ * still finds the key. The primary key on the idempotency key makes claiming atomic across
+ * replicas; a claim left unfinished for longer than the claim timeout (the claiming replica
+ * died) may be taken over. Replayed headers are kept one "name: value" per line, which is
+ * unambiguous since header values can't contain line breaks.
+ */
+public class JdbcIdempotencyStore implements IdempotencyStore {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration claimTimeout;
+
+    /**
+     * Creates the store, and its table if it doesn't exist yet.
+     *
+     * @param jdbcTemplate The template for the application database
+     * @param claimTimeout How long an unfinished claim is honored
+     */
+    public JdbcIdempotencyStore(JdbcTemplate jdbcTemplate, Duration claimTimeout) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.claimTimeout = claimTimeout;
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS idempotency_keys ("
+                + "idempotency_key VARCHAR(512) PRIMARY KEY, "
+                + "fingerprint VARCHAR(64) NOT NULL, "
+                + "status INT, "
+                + "content_type VARCHAR(255), "
+                + "headers VARCHAR(4096), "
+                + "body VARBINARY, "
+                + "claimed_at TIMESTAMP NOT NULL, "
+                + "expires_at TIMESTAMP NOT NULL)");
+    }
+
+    @Override
+    public Optional<IdempotencyRecord> claim(String key, String fingerprint, Instant now, Duration ttl) {
+        Timestamp claimedAt = Timestamp.from(now);
+        Timestamp expiresAt = Timestamp.from(now.plus(ttl));
+        try {
+            jdbcTemplate.update("INSERT INTO idempotency_keys (idempotency_key, fingerprint, claimed_at, expires_at) "
+                    + "VALUES (?, ?, ?, ?)", key, fingerprint, claimedAt, expiresAt);
+            return Optional.empty();
+        } catch (DuplicateKeyException ex) {
+            // Take over the key if it expired or its claim was abandoned
+            int taken = jdbcTemplate.update("UPDATE idempotency_keys SET fingerprint = ?, status = NULL, "
+                    + "content_type = NULL, headers = NULL, body = NULL, claimed_at = ?, expires_at = ? "
+                    + "WHERE idempotency_key = ? AND (expires_at <= ? OR (status IS NULL AND claimed_at <= ?))",
+                    fingerprint, claimedAt, expiresAt, key, claimedAt, Timestamp.from(now.minus(claimTimeout)));
+            return taken == 1 ? Optional.empty() : find(key, now);
+        }
+    }
+
+    @Override
+    public Optional<IdempotencyRecord> find(String key, Instant now) {
+        return jdbcTemplate.query("SELECT fingerprint, status, content_type, headers, body, expires_at "
+                + "FROM idempotency_keys WHERE idempotency_key = ? AND expires_at > ?", (rs, rowNum) -> {
+                    int status = rs.getInt("status");
+                    StoredResponse response = rs.wasNull()
+                            ? null
+                            : new StoredResponse(status, rs.getString("content_type"),
+                                    decodeHeaders(rs.getString("headers")), rs.getBytes("body"));
+                    return new IdempotencyRecord(rs.getString("fingerprint"), response,
+                            rs.getTimestamp("expires_at").toInstant());
+                }, key, Timestamp.from(now)).stream().findFirst();
+    }
+
+    @Override
+    public void complete(String key, StoredResponse response) {
+        jdbcTemplate.update("UPDATE idempotency_keys SET status = ?, content_type = ?, headers = ?, body = ? "
+                + "WHERE idempotency_key = ?", response.status(), response.contentType(),
+                encodeHeaders(response.headers()), response.body(), key);
+    }
+
+    @Override
+    public void release(String key) {
+        jdbcTemplate.update("DELETE FROM idempotency_keys WHERE idempotency_key = ? AND status IS NULL", key);
+    }
+
+    @Override
+    public int evictExpired(Instant now) {
+        return jdbcTemplate.update("DELETE FROM idempotency_keys WHERE expires_at <= ?", Timestamp.from(now));
+    }
+
+    private static String encodeHeaders(Map<String, String> headers) {
+        return headers.entrySet().stream()
+                .map(header -> header.getKey() + ": " + header.getValue())
+                .collect(Collectors.joining("\n"));
+    }
+
+    private static Map<String, String> decodeHeaders(String encoded) {
+        Map<String, String> headers = new LinkedHashMap<>();
+        if (encoded != null) {
+            for (String line : encoded.split("\n")) {
+                int colon = line.indexOf(": ");
+                if (colon > 0) {
+                    headers.put(line.substring(0, colon), line.substring(colon + 2));
+                }
+            }
+        }
+        return headers;
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.customerapi.resilience;
+
+import com.example.customerapi.config.RouteClass;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bulkheads for the route classes, drawing on a shared pool of worker slots.
+ *
+ * Each route class has its own bounded concurrency and bounded queue, so a burst of slow
+ * bulk requests can occupy at most its own compartment. When a slot frees up, queued
+ * requests are dispatched in priority order (the declaration order of {@link RouteClass},
+ * point reads first) and FIFO within a class. Requests that find their queue full, or wait
+ * longer than the allowed time, are rejected.
+ */
+public class PriorityBulkhead {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<RouteClass, Compartment> compartments = new EnumMap<>(RouteClass.class);
+    private int available;
+
+    /**
+     * Creates the bulkheads.
+     *
+     * @param properties The bulkhead configuration
+     */
+    public PriorityBulkhead(BulkheadProperties properties) {
+        this.available = properties.getTotalPermits();
+        for (RouteClass routeClass : RouteClass.values()) {
+            BulkheadProperties.Compartment config = properties.compartmentFor(routeClass);
+            compartments.put(routeClass, new Compartment(config.getMaxConcurrent(), config.getMaxQueued()));
+        }
+    }
+
+    /**
+     * Acquires a slot in a route class's bulkhead, waiting up to the given time.
+     *
+     * @param routeClass The route class of the request
+     * @param maxWaitNanos How long to wait for a slot
+     * @return true if a slot was acquired and must be released, false if the request was rejected
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean acquire(RouteClass routeClass, long maxWaitNanos) throws InterruptedException {
+        Compartment compartment = compartments.get(routeClass);
+        lock.lock();
+        try {
+            if (available > 0 && compartment.active < compartment.maxConcurrent && compartment.queue.isEmpty()) {
+                grant(compartment);
+                return true;
+            }
+            if (compartment.queue.size() >= compartment.maxQueued) {
+                compartment.rejected++;
+                return false;
+            }
+            Waiter waiter = new Waiter(lock.newCondition());
+            compartment.queue.addLast(waiter);
+            long remaining = maxWaitNanos;
+            try {
+                while (!waiter.granted && remaining > 0) {
+                    remaining = waiter.condition.awaitNanos(remaining);
+                }
+            } catch (InterruptedException e) {
+                abandon(compartment, waiter);
+                throw e;
+            }
+            if (!waiter.granted) {
+                compartment.queue.remove(waiter);
+                compartment.rejected++;
+                return false;
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Releases a slot acquired with {@link #acquire}.
+     *
+     * @param routeClass The route class the slot was acquired for
+     */
+    public void release(RouteClass routeClass) {
+        lock.lock();
+        try {
+            compartments.get(routeClass).active--;
+            available++;
+            dispatch();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void abandon(Compartment compartment, Waiter waiter) {
+        if (waiter.granted) {
+            // The slot was handed over just before the interrupt; pass it on.
+            compartment.active--;
+            available++;
+            dispatch();
+        } else {
+            compartment.queue.remove(waiter);
+        }
+    }
+
+    private void dispatch() {
+        while (available > 0) {
+            Compartment next = null;
+            for (Compartment compartment : compartments.values()) {
+                if (!compartment.queue.isEmpty() && compartment.active < compartment.maxConcurrent) {
+                    next = compartment;
+                    break;
+                }
+            }
+            if (next == null) {
+                return;
+            }
+            Waiter waiter = next.queue.pollFirst();
+            grant(next);
+            waiter.granted = true;
+            waiter.condition.signal();
+        }
+    }
+
+    private void grant(Compartment compartment) {
+        compartment.active++;
+        available--;
+    }
+
+    /**
+     * Returns the number of requests currently holding a slot in a route class's bulkhead.
+     *
+     * @param routeClass The route class
+     * @return The active count
+     */
+    public int getActive(RouteClass routeClass) {
+        lock.lock();
+        try {
+            return compartments.get(routeClass).active;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of requests waiting in a route class's bulkhead queue.
+     *
+     * @param routeClass The route class
+     * @return The queue length
+     */
+    public int getQueued(RouteClass routeClass) {
+        lock.lock();
+        try {
+            return compartments.get(routeClass).queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of requests a route class's bulkhead has rejected.
+     *
+     * @param routeClass The route class
+     * @return The rejection count
+     */
+    public long getRejected(RouteClass routeClass) {
+        lock.lock();
+        try {
+            return compartments.get(routeClass).rejected;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static final class Compartment {
+        private final int maxConcurrent;
+        private final int maxQueued;
+        private final Deque<Waiter> queue = new ArrayDeque<>();
+        private int active;
+        private long rejected;
+
+        private Compartment(int maxConcurrent, int maxQueued) {
+            this.maxConcurrent = maxConcurrent;
+            this.maxQueued = maxQueued;
+        }
+    }
+
+    private static final class Waiter {
+        private final Condition condition;
+        private boolean granted;
+
+        private Waiter(Condition condition) {
+            this.condition = condition;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.customerapi.resilience;
+
+import com.example.customerapi.config.RouteClass;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Configuration for per-client rate limiting.
+ * Bound from properties prefixed with "customer-api.rate-limit".
+ */
+@Data
+@ConfigurationProperties(prefix = "customer-api.rate-limit")
+public class RateLimitProperties {
+
+    /**
+     * Whether requests over a client's rate are rejected with 429.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Header identifying an integration partner; clients without a known key in it are keyed by IP address.
+     */
+    private String apiKeyHeader = "X-API-Key";
+
+    /**
+     * API keys of the known integration partners. Any other key is ignored, so a client can't
+     * get fresh buckets by sending made-up keys.
+     */
+    private Set<String> apiKeys = new HashSet<>();
+
+    /**
+     * Maximum number of client buckets held; beyond it, new clients share one overflow bucket.
+     */
+    private int maxBuckets = 100_000;
+
+    /**
+     * How long a bucket must have been full before it is evicted.
+     */
+    private Duration idleTimeout = Duration.ofMinutes(5);
+
+    /**
+     * Limit used for route classes without an explicit entry in {@link #routes}.
+     */
+    private Limit defaults = new Limit();
+
+    /**
+     * Per route class limits, e.g. customer-api.rate-limit.routes.bulk.permits-per-second=1.
+     */
+    private Map<RouteClass, Limit> routes = new EnumMap<>(RouteClass.class);
+
+    /**
+     * Returns the limit that applies to a route class.
+     *
+     * @param routeClass The route class
+     * @return The configured limit, or the default
+     */
+    public Limit limitFor(RouteClass routeClass) {
+        return routes.getOrDefault(routeClass, defaults);
+    }
+
+    /**
+     * Sustained rate and burst size for one route class.
+     */
+    @Data
+    public static class Limit {
+        private double permitsPerSecond = 50;
+        private int burst = 100;
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.customerapi.resilience;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The point in time by which the current request must have been answered.
+ * The deadline is bound to the request thread by the deadline filter so that the service
+ * and data layers can size their timeouts to the budget the client has left.
+ */
+public final class RequestDeadline {
+
+    private static final ThreadLocal<RequestDeadline> CURRENT = new ThreadLocal<>();
+
+    private final long deadlineNanos;
+
+    private RequestDeadline(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * Creates a deadline that expires after the given budget, measured from now.
+     *
+     * @param budget The time the request may take
+     * @return The deadline
+     */
+    public static RequestDeadline after(Duration budget) {
+        return new RequestDeadline(System.nanoTime() + budget.toNanos());
+    }
+
+    /**
+     * Returns the deadline bound to the current thread.
+     *
+     * @return The deadline, or null if the request has none
+     */
+    public static RequestDeadline current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Binds a deadline to the current thread.
+     *
+     * @param deadline The deadline of the request being served
+     */
+    public static void set(RequestDeadline deadline) {
+        CURRENT.set(deadline);
+    }
+
+    /**
+     * Removes the deadline from the current thread.
+     */
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Returns the time left before the deadline; zero or negative once it has passed.
+     *
+     * @return The remaining budget in nanoseconds
+     */
+    public long remainingNanos() {
+        return deadlineNanos - System.nanoTime();
+    }
+
+    /**
+     * Returns the remaining budget rounded up to whole seconds, the granularity of JDBC
+     * query timeouts and transaction timeouts.
+     *
+     * @return The remaining budget in seconds, at least 1
+     */
+    public int remainingSeconds() {
+        long seconds = TimeUnit.NANOSECONDS.toSeconds(remainingNanos() + TimeUnit.SECONDS.toNanos(1) - 1);
+        return (int) Math.max(1, Math.min(Integer.MAX_VALUE, seconds));
+    }
+
+    /**
+     * Returns whether the deadline has passed.
+     *
+     * @return true if no budget is left
+     */
+    public boolean isExpired() {
+        return remainingNanos() <= 0;
+    }
+}
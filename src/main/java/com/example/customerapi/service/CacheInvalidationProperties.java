@@ -0,0 +1,42 @@
+package com.example.customerapi.service;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration for invalidating the customer cache across replicas through the
+ * customer_cache_changes table. Bound from properties prefixed with "customer-api.cache-invalidation".
+ */
+@Data
+@ConfigurationProperties(prefix = "customer-api.cache-invalidation")
+public class CacheInvalidationProperties {
+
+    /**
+     * Whether writes are recorded in the change table and other replicas' changes are polled.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Pause between polls of the change table.
+     */
+    private Duration pollInterval = Duration.ofMillis(100);
+
+    /**
+     * Maximum number of changes read per query; a full batch is followed by another query at once.
+     */
+    private int batchSize = 500;
+
+    /**
+     * How long an id skipped by the watermark is still looked for, in case the insert that
+     * took it commits late. Ids of rolled-back inserts are never filled and are dropped after this.
+     */
+    private Duration gapTimeout = Duration.ofSeconds(5);
+
+    /**
+     * How long changes are kept in the table before they are purged. Must be well above the poll
+     * interval, or a replica that pauses briefly misses changes.
+     */
+    private Duration retention = Duration.ofMinutes(10);
+}
@@ -0,0 +1,96 @@
+package com.example.customerapi.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free Count-Min sketch for estimating access frequencies in fixed memory.
+ *
+ * Each of the {@code depth} rows maps a key to one of {@code width} counters using an
+ * independent hash; the estimate is the minimum over the rows, so it never undercounts
+ * and overcounts by at most {@code total / width} with high probability.
+ * Counters are updated with atomic increments, so concurrent writers never block.
+ */
+public class CountMinSketch {
+
+    private static final long[] SEEDS = {
+        0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L,
+        0xFF51AFD7ED558CCDL, 0xC4CEB9FE1A85EC53L, 0x94D049BB133111EBL, 0xBF58476D1CE4E5B9L
+    };
+
+    private final int depth;
+    private final int mask;
+    private final int width;
+    private final AtomicLongArray counters;
+
+    /**
+     * Creates a sketch.
+     *
+     * @param width Counters per row, rounded up to a power of two
+     * @param depth Number of rows (independent hashes), between 1 and 8
+     */
+    public CountMinSketch(int width, int depth) {
+        if (depth < 1 || depth > SEEDS.length) {
+            throw new IllegalArgumentException("depth must be between 1 and " + SEEDS.length);
+        }
+        this.width = Integer.highestOneBit(Math.max(2, width - 1)) << 1;
+        this.mask = this.width - 1;
+        this.depth = depth;
+        this.counters = new AtomicLongArray(this.width * depth);
+    }
+
+    /**
+     * Increments the counters for a key and returns its updated estimate.
+     *
+     * @param hash A 64-bit hash of the key
+     * @return The estimated frequency of the key including this increment
+     */
+    public long add(long hash) {
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.incrementAndGet(index(row, hash)));
+        }
+        return estimate;
+    }
+
+    /**
+     * Returns the estimated frequency of a key.
+     *
+     * @param hash A 64-bit hash of the key
+     * @return The estimated frequency
+     */
+    public long estimate(long hash) {
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.get(index(row, hash)));
+        }
+        return estimate;
+    }
+
+    /**
+     * Halves every counter so that old accesses age out and recent traffic dominates.
+     */
+    public void decay() {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.getAndUpdate(i, count -> count >>> 1);
+        }
+    }
+
+    /**
+     * Returns the number of counters per row.
+     *
+     * @return The row width
+     */
+    public int width() {
+        return width;
+    }
+
+    private int index(int row, long hash) {
+        return row * width + (int) (mix(hash ^ SEEDS[row]) & mask);
+    }
+
+    private static long mix(long value) {
+        value = (value ^ (value >>> 33)) * 0xFF51AFD7ED558CCDL;
+        value = (value ^ (value >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return value ^ (value >>> 33);
+    }
+}
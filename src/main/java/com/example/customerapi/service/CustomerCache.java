@@ -0,0 +1,152 @@
+package com.example.customerapi.service;
+
+import com.example.customerapi.model.Customer;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded in-memory cache of customers by id, in front of the repository.
+ *
+ * Entries are written by {@link CustomerService} after each committed write on this node and
+ * filled on a read miss. A read only adds an entry if none is present, and only if the customer
+ * wasn't written or invalidated since the read started: every write and invalidation stamps the
+ * customer with the next value of a counter, and a read compares those stamps with the counter
+ * value taken before it. So a customer loaded before a concurrent update or delete can't replace
+ * the updated one or bring the deleted one back. The stamps are bounded by the cache size; when
+ * one is evicted, its value becomes a floor that reads started earlier can't cache below.
+ * Entries expire a fixed time after they were written, which bounds how stale a customer written
+ * elsewhere can be. Hits, misses and evictions are published as the "cache.*" metrics tagged
+ * cache=customers.
+ */
+@Component
+public class CustomerCache {
+
+    static final String CACHE_NAME = "customers";
+
+    private final boolean enabled;
+    private final Cache<UUID, Customer> cache;
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicLong floor = new AtomicLong();
+    private final Cache<UUID, Long> writtenAt;
+
+    /**
+     * Constructor for dependency injection.
+     *
+     * @param properties The cache configuration
+     * @param meterRegistry The registry for the cache metrics
+     */
+    public CustomerCache(CustomerCacheProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .recordStats()
+                .build();
+        this.writtenAt = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .<UUID, Long>evictionListener((customerId, stamp, cause) -> floor.accumulateAndGet(stamp, Math::max))
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Returns the stamp to take before reading a customer from the repository, and to pass to
+     * {@link #putIfAbsent} with what was read.
+     *
+     * @return The current stamp
+     */
+    public long readStamp() {
+        return clock.get();
+    }
+
+    /**
+     * Returns a cached customer.
+     *
+     * @param customerId The customer id
+     * @return The customer, or empty if it isn't cached
+     */
+    public Optional<Customer> get(UUID customerId) {
+        return enabled ? Optional.ofNullable(cache.getIfPresent(customerId)) : Optional.empty();
+    }
+
+    /**
+     * Caches a customer as stored by a committed write.
+     *
+     * @param customer The customer as stored
+     */
+    public void put(Customer customer) {
+        if (enabled && customer != null && customer.getCustomerId() != null) {
+            stamp(customer.getCustomerId());
+            cache.put(customer.getCustomerId(), customer);
+        }
+    }
+
+    /**
+     * Caches a customer read from the repository, unless it is cached already or was written or
+     * invalidated since the read started.
+     *
+     * @param customer The customer as read
+     * @param readStamp The stamp taken with {@link #readStamp} before the read
+     */
+    public void putIfAbsent(Customer customer, long readStamp) {
+        if (enabled && customer != null && customer.getCustomerId() != null) {
+            // Checked inside the entry's atomic update, so an invalidation stamped after the check
+            // removes what this adds
+            cache.asMap().compute(customer.getCustomerId(), (customerId, cached) ->
+                    cached != null || !unchangedSince(customerId, readStamp) ? cached : customer);
+        }
+    }
+
+    /**
+     * Removes a customer that was written elsewhere or deleted.
+     *
+     * @param customerId The id of the customer
+     */
+    public void invalidate(UUID customerId) {
+        stamp(customerId);
+        cache.invalidate(customerId);
+    }
+
+    /**
+     * Removes all customers, when writes made elsewhere may have been missed.
+     */
+    public void invalidateAll() {
+        floor.accumulateAndGet(clock.incrementAndGet(), Math::max);
+        cache.invalidateAll();
+    }
+
+    /**
+     * Returns the number of cached customers.
+     *
+     * @return The approximate number of entries
+     */
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    /**
+     * Returns the hits, misses and evictions since the cache was created.
+     *
+     * @return The cumulative cache statistics
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    private void stamp(UUID customerId) {
+        writtenAt.put(customerId, clock.incrementAndGet());
+    }
+
+    private boolean unchangedSince(UUID customerId, long readStamp) {
+        Long written = writtenAt.getIfPresent(customerId);
+        return readStamp >= floor.get() && (written == null || readStamp >= written);
+    }
+}
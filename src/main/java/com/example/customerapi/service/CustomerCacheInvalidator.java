@@ -0,0 +1,256 @@
+package com.example.customerapi.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the customer cache of this replica consistent with writes made on the others.
+ *
+ * Each write appends a small row (change id, customer id, writing replica, time) to the
+ * customer_cache_changes table in the write's transaction, so the change commits if and only if the
+ * write does. A background thread on every replica polls the table every
+ * poll interval for changes above its watermark, in batches, and evicts the customers written by
+ * other replicas from its cache. Change ids are assigned at insert but become visible at commit,
+ * so an id skipped by the watermark is remembered as a gap and looked for again until it shows up
+ * or the gap timeout passes. Rows older than the retention are purged; a replica that couldn't poll
+ * for longer than that clears its whole cache instead.
+ *
+ * The time from a write to its eviction on another replica is recorded as
+ * "customer.cache.invalidation.lag", and the time since the last successful poll as
+ * "customer.cache.invalidation.staleness". Both assume the replicas' clocks are synchronized.
+ */
+@Service
+public class CustomerCacheInvalidator implements ApplicationRunner, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(CustomerCacheInvalidator.class);
+
+    static final String LAG_METRIC = "customer.cache.invalidation.lag";
+    static final String STALENESS_METRIC = "customer.cache.invalidation.staleness";
+    private static final int MAX_GAPS = 1_000;
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 10_000;
+    private static final String INSERT_CHANGE =
+            "INSERT INTO customer_cache_changes (customer_id, origin, changed_at) VALUES (?, ?, ?)";
+    private static final String SELECT_CHANGES =
+            "SELECT change_id, customer_id, origin, changed_at FROM customer_cache_changes";
+
+    private record Change(long changeId, UUID customerId, String origin, Instant changedAt) {
+    }
+
+    private static final RowMapper<Change> CHANGE_MAPPER = (rs, rowNum) -> new Change(rs.getLong("change_id"),
+            rs.getObject("customer_id", UUID.class), rs.getString("origin"),
+            rs.getTimestamp("changed_at").toInstant());
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CustomerCache cache;
+    private final CacheInvalidationProperties properties;
+    private final String origin = UUID.randomUUID().toString();
+    private final Map<Long, Long> gaps = new LinkedHashMap<>();
+    private final Timer lag;
+    private final Counter invalidations;
+    private final Counter errors;
+    private volatile long watermark;
+    private volatile long lastPollNanos = System.nanoTime();
+    private volatile Thread poller;
+
+    /**
+     * Creates the invalidator, and its table if it doesn't exist yet. Changes made before this
+     * replica started are skipped, since its cache is still empty.
+     *
+     * @param jdbcTemplate The template for the application database
+     * @param cache The cache evicted from
+     * @param meterRegistry The registry for the invalidation metrics
+     * @param properties The invalidation configuration
+     */
+    public CustomerCacheInvalidator(JdbcTemplate jdbcTemplate, CustomerCache cache, MeterRegistry meterRegistry,
+            CacheInvalidationProperties properties) {
+        if (properties.getBatchSize() < 1) {
+            throw new IllegalArgumentException("Cache invalidation batch size must be at least 1");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.cache = cache;
+        this.properties = properties;
+        this.lag = Timer.builder(LAG_METRIC)
+                .description("Time from a write on another replica to its eviction from this replica's cache")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.invalidations = Counter.builder("customer.cache.invalidations")
+                .description("Customers evicted from the cache after a write on another replica")
+                .register(meterRegistry);
+        this.errors = Counter.builder("customer.cache.invalidation.errors")
+                .description("Failed polls of the cache change table")
+                .register(meterRegistry);
+        Gauge.builder(STALENESS_METRIC, this, invalidator -> (System.nanoTime() - invalidator.lastPollNanos) / 1e9)
+                .description("Time since the cache change table was last polled successfully")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        if (properties.isEnabled()) {
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS customer_cache_changes ("
+                    + "change_id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+                    + "customer_id UUID NOT NULL, "
+                    + "origin VARCHAR(36) NOT NULL, "
+                    + "changed_at TIMESTAMP NOT NULL)");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_customer_cache_changes_changed_at "
+                    + "ON customer_cache_changes (changed_at)");
+            Long latest = jdbcTemplate.queryForObject("SELECT MAX(change_id) FROM customer_cache_changes", Long.class);
+            watermark = latest != null ? latest : 0;
+        }
+    }
+
+    /**
+     * Starts polling for changes made by other replicas.
+     *
+     * @param args The application arguments
+     */
+    @Override
+    public void run(ApplicationArguments args) {
+        if (properties.isEnabled()) {
+            lastPollNanos = System.nanoTime();
+            poller = Thread.ofPlatform().name("customer-cache-invalidation").daemon(true).start(this::pollLoop);
+        }
+    }
+
+    /**
+     * Stops polling.
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        Thread running = poller;
+        if (running != null) {
+            running.interrupt();
+            running.join(SHUTDOWN_TIMEOUT_MILLIS);
+        }
+    }
+
+    /**
+     * Records a write, so the other replicas evict the customer once it commits. Must be called
+     * within the write's transaction; a failure is thrown, so the write rolls back with it.
+     *
+     * @param customerId The id of the updated or deleted customer
+     */
+    public void record(UUID customerId) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        jdbcTemplate.update(INSERT_CHANGE, customerId, origin, Timestamp.from(Instant.now()));
+    }
+
+    /**
+     * Records a bulk write of several customers in one batch, like {@link #record} for each.
+     *
+     * @param customerIds The ids of the updated customers
+     */
+    public void recordAll(Collection<UUID> customerIds) {
+        if (!properties.isEnabled() || customerIds.isEmpty()) {
+            return;
+        }
+        Timestamp changedAt = Timestamp.from(Instant.now());
+        jdbcTemplate.batchUpdate(INSERT_CHANGE, customerIds.stream()
+                .map(customerId -> new Object[] {customerId, origin, changedAt})
+                .toList());
+    }
+
+    /**
+     * Deletes changes older than the retention.
+     *
+     * @return The number of changes deleted
+     */
+    @Scheduled(fixedDelayString = "${customer-api.cache-invalidation.purge-interval:PT1M}",
+            initialDelayString = "${customer-api.cache-invalidation.purge-interval:PT1M}")
+    public int purge() {
+        if (!properties.isEnabled()) {
+            return 0;
+        }
+        return jdbcTemplate.update("DELETE FROM customer_cache_changes WHERE changed_at < ?",
+                Timestamp.from(Instant.now().minus(properties.getRetention())));
+    }
+
+    /**
+     * Reads the changes above the watermark and the late ones filling earlier gaps, and evicts
+     * the customers written by other replicas. Only called from one thread at a time.
+     *
+     * @return The number of changes read
+     */
+    int poll() {
+        long now = System.nanoTime();
+        gaps.values().removeIf(seen -> now - seen > properties.getGapTimeout().toNanos());
+        List<Change> changes = new ArrayList<>();
+        if (!gaps.isEmpty()) {
+            // The ids are numbers this class generated the list of, so they are safe to inline
+            changes.addAll(jdbcTemplate.query(SELECT_CHANGES + " WHERE change_id IN ("
+                    + gaps.keySet().stream().map(String::valueOf).collect(Collectors.joining(", ")) + ")",
+                    CHANGE_MAPPER));
+        }
+        List<Change> batch;
+        do {
+            batch = jdbcTemplate.query(SELECT_CHANGES + " WHERE change_id > ? ORDER BY change_id LIMIT ?",
+                    CHANGE_MAPPER, watermark, properties.getBatchSize());
+            for (Change change : batch) {
+                for (long missing = watermark + 1; missing < change.changeId() && gaps.size() < MAX_GAPS; missing++) {
+                    gaps.put(missing, now);
+                }
+                watermark = change.changeId();
+            }
+            changes.addAll(batch);
+        } while (batch.size() == properties.getBatchSize());
+        Instant appliedAt = Instant.now();
+        for (Change change : changes) {
+            gaps.remove(change.changeId());
+            if (!origin.equals(change.origin())) {
+                cache.invalidate(change.customerId());
+                invalidations.increment();
+                lag.record(Duration.between(change.changedAt(), appliedAt));
+            }
+        }
+        lastPollNanos = System.nanoTime();
+        return changes.size();
+    }
+
+    private void pollLoop() {
+        boolean failing = false;
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                boolean missedChanges = System.nanoTime() - lastPollNanos > properties.getRetention().toNanos();
+                poll();
+                if (missedChanges) {
+                    logger.warn("Cache changes weren't polled for longer than their retention; clearing the cache");
+                    cache.invalidateAll();
+                }
+                failing = false;
+            } catch (DataAccessException ex) {
+                errors.increment();
+                if (!failing) {
+                    logger.warn("Polling cache changes failed; retrying every {}", properties.getPollInterval(), ex);
+                }
+                failing = true;
+            }
+            try {
+                Thread.sleep(properties.getPollInterval());
+            } catch (InterruptedException ex) {
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.customerapi.service;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration for the in-memory cache of customers read by id.
+ * Bound from properties prefixed with "customer-api.cache".
+ */
+@Data
+@ConfigurationProperties(prefix = "customer-api.cache")
+public class CustomerCacheProperties {
+
+    /**
+     * Whether customers read by id are cached.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Maximum number of customers cached; the least valuable are evicted beyond this.
+     */
+    private long maximumSize = 10_000;
+
+    /**
+     * How long a cached customer is served after it was loaded or written through this node.
+     * Bounds how stale an entry can be after a write it didn't see.
+     */
+    private Duration expireAfterWrite = Duration.ofMinutes(1);
+}
@@ -0,0 +1,293 @@
+package com.example.customerapi.service;
+
+import com.example.customerapi.model.Customer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of committed customer writes, kept between snapshots.
+ *
+ * The log is split into numbered segment files. A snapshot starts by rotating to a new
+ * segment, so every write committed after the snapshot began is in that segment or a later
+ * one, and restoring replays the segments from there on top of the snapshot. Each record is a
+ * length, a CRC32 and either the full state of a customer or the id of a deleted one; replaying
+ * a record is idempotent. Appends go straight to the file, so they survive the process being
+ * killed; they are forced to the disk on rotation and close.
+ */
+final class CustomerChangeLog {
+
+    private static final Logger logger = LoggerFactory.getLogger(CustomerChangeLog.class);
+
+    static final String SEGMENT_PREFIX = "changes-";
+    static final String SEGMENT_SUFFIX = ".log";
+    private static final int RECORD_HEADER = 8;
+    private static final int MAX_RECORD = 64 * 1024;
+    private static final byte OP_PUT = 1;
+    private static final byte OP_DELETE = 2;
+
+    /**
+     * One replayed record: the stored customer, or just the id of a deleted one.
+     *
+     * @param customerId The id of the customer written
+     * @param customer The customer as stored, or null if it was deleted
+     */
+    record Change(UUID customerId, Customer customer) {
+    }
+
+    private final Path directory;
+    private final ReentrantLock lock = new ReentrantLock();
+    private long segment;
+    private FileChannel channel;
+
+    /**
+     * Opens the log for appending to a new segment after the existing ones.
+     *
+     * @param directory The directory holding the segments
+     */
+    CustomerChangeLog(Path directory) throws IOException {
+        this.directory = directory;
+        List<Long> existing = segments(directory);
+        this.segment = existing.isEmpty() ? 1 : existing.get(existing.size() - 1) + 1;
+    }
+
+    /**
+     * Lists the segment numbers present in a directory, oldest first.
+     */
+    static List<Long> segments(Path directory) throws IOException {
+        List<Long> segments = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                    .forEach(name -> {
+                        try {
+                            segments.add(Long.parseLong(name.substring(SEGMENT_PREFIX.length(),
+                                    name.length() - SEGMENT_SUFFIX.length())));
+                        } catch (NumberFormatException ex) {
+                            // Not one of ours
+                        }
+                    });
+        }
+        segments.sort(null);
+        return segments;
+    }
+
+    static Path segmentFile(Path directory, long segment) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, segment, SEGMENT_SUFFIX));
+    }
+
+    /**
+     * Appends the full state of a customer.
+     *
+     * @param customer The customer as stored
+     */
+    void put(Customer customer) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(OP_PUT);
+            writeCustomer(out, customer);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        append(bytes.toByteArray());
+    }
+
+    /**
+     * Appends the deletion of a customer.
+     *
+     * @param customerId The id of the deleted customer
+     */
+    void delete(UUID customerId) {
+        append(ByteBuffer.allocate(17)
+                .put(OP_DELETE)
+                .putLong(customerId.getMostSignificantBits())
+                .putLong(customerId.getLeastSignificantBits())
+                .array());
+    }
+
+    /**
+     * Forces the current segment to disk and starts a new one with the next append.
+     *
+     * @return The number of the new segment
+     */
+    long rotate() throws IOException {
+        lock.lock();
+        try {
+            closeSegment();
+            return ++segment;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Forces the current segment to disk and closes it.
+     */
+    void close() throws IOException {
+        lock.lock();
+        try {
+            closeSegment();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Replays one segment, stopping at the first torn or corrupt record.
+     *
+     * @param directory The directory holding the segments
+     * @param segment The number of the segment
+     * @param action Receives each record in the order it was appended
+     * @return The number of records replayed
+     */
+    static long replay(Path directory, long segment, Consumer<Change> action) throws IOException {
+        Path file = segmentFile(directory, segment);
+        long records = 0;
+        try (FileChannel log = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER);
+            long position = 0;
+            long size = log.size();
+            while (position + RECORD_HEADER <= size) {
+                header.clear();
+                log.read(header, position);
+                int length = header.getInt(0);
+                int crc = header.getInt(4);
+                if (length <= 0 || length > MAX_RECORD || position + RECORD_HEADER + length > size) {
+                    break;
+                }
+                ByteBuffer payload = ByteBuffer.allocate(length);
+                log.read(payload, position + RECORD_HEADER);
+                if (crc(payload.array()) != crc) {
+                    break;
+                }
+                action.accept(decode(payload.array()));
+                records++;
+                position += RECORD_HEADER + length;
+            }
+            if (position < size) {
+                logger.warn("Ignoring {} bytes of torn or corrupt records at the end of {}", size - position, file);
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Writes the columns of a customer, as stored in the table.
+     */
+    static void writeCustomer(DataOutput out, Customer customer) throws IOException {
+        out.writeLong(customer.getCustomerId().getMostSignificantBits());
+        out.writeLong(customer.getCustomerId().getLeastSignificantBits());
+        writeString(out, customer.getGivenName());
+        writeString(out, customer.getMiddleInitial());
+        writeString(out, customer.getSurname());
+        writeString(out, customer.getPrimaryEmail());
+        writeString(out, customer.getContactNumber());
+        writeString(out, customer.getContactNumberE164());
+        writeString(out, customer.getEmailDomain());
+    }
+
+    /**
+     * Reads the columns of a customer written by {@link #writeCustomer}.
+     */
+    static Customer readCustomer(DataInput in) throws IOException {
+        return Customer.builder()
+                .customerId(new UUID(in.readLong(), in.readLong()))
+                .givenName(readString(in))
+                .middleInitial(readString(in))
+                .surname(readString(in))
+                .primaryEmail(readString(in))
+                .contactNumber(readString(in))
+                .contactNumberE164(readString(in))
+                .emailDomain(readString(in))
+                .build();
+    }
+
+    private void append(byte[] payload) {
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER + payload.length)
+                .putInt(payload.length)
+                .putInt(crc(payload))
+                .put(payload)
+                .flip();
+        lock.lock();
+        try {
+            if (channel == null) {
+                channel = FileChannel.open(segmentFile(directory, segment),
+                        StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            }
+            while (record.hasRemaining()) {
+                channel.write(record);
+            }
+        } catch (IOException ex) {
+            // A partly written record would hide the ones after it, so carry on in a fresh segment
+            try {
+                closeSegment();
+            } catch (IOException suppressed) {
+                ex.addSuppressed(suppressed);
+            }
+            segment++;
+            throw new UncheckedIOException(ex);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void closeSegment() throws IOException {
+        FileChannel open = channel;
+        channel = null;
+        if (open != null) {
+            try (open) {
+                open.force(false);
+            }
+        }
+    }
+
+    private static Change decode(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        byte op = in.readByte();
+        if (op == OP_PUT) {
+            Customer customer = readCustomer(in);
+            return new Change(customer.getCustomerId(), customer);
+        }
+        if (op == OP_DELETE) {
+            return new Change(new UUID(in.readLong(), in.readLong()), null);
+        }
+        throw new IOException("Unknown change log operation " + op);
+    }
+
+    private static void writeString(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static int crc(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,248 @@
+package com.example.customerapi.service;
+
+import com.example.customerapi.model.Customer;
+import com.example.customerapi.repository.CustomerRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory prefix index over customer given names, surnames and email addresses.
+ *
+ * Each searchable value is lower-cased and stored in a sorted skip list as
+ * "value NUL customerId", so all customers whose value starts with a prefix sit in one
+ * contiguous range that is walked only as far as the requested number of matches. Reads take
+ * no locks; writes to the same customer are applied atomically per customer id. The index is
+ * loaded from the table at startup and kept current by {@link CustomerService} after each
+ * committed write, so it only reflects writes made through this node.
+ */
+@Component
+public class CustomerSearchIndex implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(CustomerSearchIndex.class);
+
+    static final String MEMORY_METRIC = "customer.search.index.memory";
+    private static final char SEPARATOR = '\u0000';
+    private static final char RANGE_END = '\uffff';
+    private static final int LOAD_PAGE_SIZE = 1_000;
+    // Rough per-object costs (headers, references, skip-list nodes) used for the footprint estimate
+    private static final long TERM_OVERHEAD_BYTES = 96;
+    private static final long CUSTOMER_OVERHEAD_BYTES = 160;
+    private static final int KEY_SUFFIX_LENGTH = 1 + 36;
+
+    private final CustomerRepository repository;
+    private final int loadPageSize;
+    private final NavigableMap<String, UUID> terms = new ConcurrentSkipListMap<>();
+    private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong estimatedBytes = new AtomicLong();
+
+    /**
+     * Constructor for dependency injection.
+     *
+     * @param repository The repository the index is loaded from at startup
+     * @param meterRegistry The registry for the index size metrics
+     */
+    @Autowired
+    public CustomerSearchIndex(CustomerRepository repository, MeterRegistry meterRegistry) {
+        this(repository, meterRegistry, LOAD_PAGE_SIZE);
+    }
+
+    CustomerSearchIndex(CustomerRepository repository, MeterRegistry meterRegistry, int loadPageSize) {
+        this.repository = repository;
+        this.loadPageSize = loadPageSize;
+        Gauge.builder(MEMORY_METRIC, estimatedBytes, AtomicLong::get)
+                .description("Estimated heap used by the customer search index")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("customer.search.index.customers", entries, Map::size)
+                .description("Customers in the search index")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Loads every customer from the table, page by page. Customers written while the load runs
+     * are already current in the index and are not overwritten by the older page.
+     *
+     * @param args The application arguments
+     */
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.nanoTime();
+        Page<Customer> page = repository.findAll(PageRequest.of(0, loadPageSize, Sort.by("customerId")));
+        while (true) {
+            page.forEach(this::load);
+            if (!page.hasNext()) {
+                break;
+            }
+            page = repository.findAll(page.nextPageable());
+        }
+        logger.info("Search index loaded {} customers in {} ms", entries.size(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Adds a customer, or replaces its previously indexed values.
+     *
+     * @param customer The customer as stored
+     */
+    public void put(Customer customer) {
+        if (customer == null || customer.getCustomerId() == null) {
+            return;
+        }
+        Entry replacement = Entry.of(customer);
+        entries.compute(customer.getCustomerId(), (id, previous) -> {
+            if (previous != null) {
+                unindex(id, previous);
+            }
+            index(id, replacement);
+            return replacement;
+        });
+    }
+
+    /**
+     * Removes a customer.
+     *
+     * @param customerId The id of the deleted customer
+     */
+    public void remove(UUID customerId) {
+        entries.computeIfPresent(customerId, (id, previous) -> {
+            unindex(id, previous);
+            return null;
+        });
+    }
+
+    /**
+     * Finds customers whose given name, surname or email address starts with a prefix,
+     * ignoring case. Matches are ordered by the matching value.
+     *
+     * @param prefix The prefix to match
+     * @param limit The maximum number of customers returned
+     * @return Up to limit matching customers
+     */
+    public List<Customer> search(String prefix, int limit) {
+        String from = normalize(prefix);
+        Set<UUID> matches = new LinkedHashSet<>();
+        for (UUID id : terms.subMap(from, true, from + RANGE_END, false).values()) {
+            if (matches.size() >= limit) {
+                break;
+            }
+            matches.add(id);
+        }
+        List<Customer> results = new ArrayList<>(matches.size());
+        for (UUID id : matches) {
+            Entry entry = entries.get(id);
+            if (entry != null) {
+                results.add(entry.toCustomer(id));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Returns the estimated heap used by the index.
+     *
+     * @return The estimate in bytes
+     */
+    public long estimatedBytes() {
+        return estimatedBytes.get();
+    }
+
+    private void load(Customer customer) {
+        Entry loaded = Entry.of(customer);
+        entries.computeIfAbsent(customer.getCustomerId(), id -> {
+            index(id, loaded);
+            return loaded;
+        });
+    }
+
+    private void index(UUID id, Entry entry) {
+        for (String value : entry.values()) {
+            terms.put(key(value, id), id);
+        }
+        estimatedBytes.addAndGet(entry.estimatedBytes());
+    }
+
+    private void unindex(UUID id, Entry entry) {
+        for (String value : entry.values()) {
+            terms.remove(key(value, id));
+        }
+        estimatedBytes.addAndGet(-entry.estimatedBytes());
+    }
+
+    private static String key(String value, UUID id) {
+        return normalize(value) + SEPARATOR + id;
+    }
+
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * The indexed copy of a customer.
+     */
+    private record Entry(String givenName, String middleInitial, String surname, String primaryEmail,
+            String contactNumber, String contactNumberE164) {
+
+        static Entry of(Customer customer) {
+            return new Entry(customer.getGivenName(), customer.getMiddleInitial(), customer.getSurname(),
+                    customer.getPrimaryEmail(), customer.getContactNumber(), customer.getContactNumberE164());
+        }
+
+        List<String> values() {
+            List<String> values = new ArrayList<>(3);
+            for (String value : new String[] {givenName, surname, primaryEmail}) {
+                if (value != null && !value.isBlank()) {
+                    values.add(value);
+                }
+            }
+            return values;
+        }
+
+        long estimatedBytes() {
+            long bytes = CUSTOMER_OVERHEAD_BYTES + length(middleInitial) + length(contactNumber)
+                    + length(contactNumberE164);
+            for (String value : values()) {
+                // The value is held twice: in the entry and in its skip-list key
+                bytes += TERM_OVERHEAD_BYTES + 2L * value.length() + KEY_SUFFIX_LENGTH;
+            }
+            return bytes;
+        }
+
+        Customer toCustomer(UUID id) {
+            return Customer.builder()
+                    .customerId(id)
+                    .givenName(givenName)
+                    .middleInitial(middleInitial)
+                    .surname(surname)
+                    .primaryEmail(primaryEmail)
+                    .contactNumber(contactNumber)
+                    .contactNumberE164(contactNumberE164)
+                    .build();
+        }
+
+        private static long length(String value) {
+            return value == null ? 0 : value.length();
+        }
+    }
+}
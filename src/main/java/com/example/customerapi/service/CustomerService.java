@@ -3,41 +3,84 @@ package com.example.customerapi.service;
 
 import com.example.customerapi.exception.ResourceNotFoundException;
 import com.example.customerapi.model.Customer;
+import com.example.customerapi.repository.CustomerFilter;
 import com.example.customerapi.repository.CustomerRepository;
+import com.example.customerapi.repository.CustomerRepositoryCustom.UpsertResult;
 import org.springframework.stereotype.Service;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Service class for managing Customer entities.
- * Provides business logic for CRUD operations on customers.
+ * Provides business logic for CRUD operations on customers. Repository calls run within
+ * the deadline of the current request, see {@link DeadlineTransactions}.
  */
 @Service
 public class CustomerService {
 
     private final CustomerRepository repository;
+    private final HotKeyTracker hotKeyTracker;
+    private final DeadlineTransactions deadlines;
+    private final StripedLocks customerLocks;
+    private final GroupCommitWriter groupCommit;
+    private final CustomerSearchIndex searchIndex;
+    private final PhoneticNameIndex phoneticIndex;
+    private final CustomerStats stats;
+    private final CustomerSnapshotService snapshots;
+    private final CustomerCache cache;
+    private final CustomerCacheInvalidator invalidations;
 
     /**
      * Constructor for dependency injection of the CustomerRepository.
      *
      * @param repository The customer repository to be used by this service
+     * @param hotKeyTracker The tracker recording which customers are read most often
+     * @param deadlines Runs repository calls within the remaining request deadline
+     * @param customerLocks Serializes updates to the same customer on this node
+     * @param groupCommit Batches creates into shared commits when enabled
+     * @param searchIndex The prefix index kept current after each write
+     * @param phoneticIndex The fuzzy name index kept current after each write
+     * @param stats The aggregate counters kept current after each write
+     * @param snapshots The snapshot change log each committed write is appended to
+     * @param cache The cache of customers by id kept current after each write
+     * @param invalidations Tells the other replicas which cached customers changed, within each write's transaction
      */
-    public CustomerService(CustomerRepository repository) {
+    public CustomerService(CustomerRepository repository, HotKeyTracker hotKeyTracker,
+            DeadlineTransactions deadlines, StripedLocks customerLocks, GroupCommitWriter groupCommit,
+            CustomerSearchIndex searchIndex, PhoneticNameIndex phoneticIndex, CustomerStats stats,
+            CustomerSnapshotService snapshots, CustomerCache cache, CustomerCacheInvalidator invalidations) {
         this.repository = repository;
+        this.hotKeyTracker = hotKeyTracker;
+        this.deadlines = deadlines;
+        this.customerLocks = customerLocks;
+        this.groupCommit = groupCommit;
+        this.searchIndex = searchIndex;
+        this.phoneticIndex = phoneticIndex;
+        this.stats = stats;
+        this.snapshots = snapshots;
+        this.cache = cache;
+        this.invalidations = invalidations;
     }
 
     /**
      * Creates a new customer in the database.
+     * With group commit enabled the create joins the next batch and returns once it has committed.
      *
      * @param customer The customer object to create
      * @return The created customer with generated ID
      */
     public Customer createCustomer(Customer customer) {
-        return repository.save(customer);
+        Customer created = groupCommit.tryCreate(customer)
+                .orElseGet(() -> deadlines.execute(false, () -> repository.save(customer)));
+        indexWrite(created);
+        stats.created(created);
+        return created;
     }
 
     /**
@@ -46,7 +89,7 @@ public class CustomerService {
      * @return A list of all customers
      */
     public List<Customer> getAllCustomers() {
-        return repository.findAll();
+        return deadlines.execute(true, () -> repository.findAll());
     }
 
     /**
@@ -56,35 +99,173 @@ public class CustomerService {
      * @return A page of customers
      */
     public Page<Customer> getAllCustomers(Pageable pageable) {
-        return repository.findAll(pageable);
+        return deadlines.execute(true, () -> repository.findAll(pageable));
     }
 
     /**
-     * Retrieves a specific customer by ID.
+     * Retrieves one page of the customers matching a filter.
+     *
+     * @param filter The filter to apply
+     * @param pageable Pagination and sorting information, sorted as given by {@link CustomerFilter#indexOrder}
+     * @return A page of matching customers
+     */
+    public Page<Customer> findCustomers(CustomerFilter filter, Pageable pageable) {
+        return deadlines.execute(true, () -> repository.findAll(filter.toSpecification(), pageable));
+    }
+
+    /**
+     * Retrieves a specific customer by ID, from the cache if it holds the customer.
      *
      * @param id The UUID of the customer to retrieve
      * @return An Optional containing the customer if found, or empty if not found
      */
     public Optional<Customer> getCustomerById(UUID id) {
-        return repository.findById(id);
+        return getCustomerById(id, true);
+    }
+
+    /**
+     * Retrieves a specific customer by ID, from the cache if it holds the customer.
+     *
+     * @param id The UUID of the customer to retrieve
+     * @param recordAccess Whether the read counts towards the hot keys; false for synthetic reads
+     * @return An Optional containing the customer if found, or empty if not found
+     */
+    public Optional<Customer> getCustomerById(UUID id, boolean recordAccess) {
+        Optional<Customer> customer = cache.get(id);
+        if (customer.isEmpty()) {
+            long readStamp = cache.readStamp();
+            customer = deadlines.execute(true, () -> repository.findById(id));
+            customer.ifPresent(found -> cache.putIfAbsent(found, readStamp));
+        }
+        if (recordAccess) {
+            customer.ifPresent(found -> hotKeyTracker.record(found.getCustomerId()));
+        }
+        return customer;
+    }
+
+    /**
+     * Retrieves a specific customer by primary email address.
+     *
+     * @param email The email address of the customer to retrieve
+     * @return An Optional containing the customer if found, or empty if not found
+     */
+    public Optional<Customer> getCustomerByEmail(String email) {
+        Optional<Customer> customer = deadlines.execute(true, () -> repository.findByPrimaryEmail(email));
+        customer.ifPresent(found -> hotKeyTracker.record(found.getCustomerId()));
+        return customer;
+    }
+
+    /**
+     * Retrieves the customers with a contact number, e.g. to identify a caller.
+     *
+     * @param contactNumberE164 The contact number in E.164 form
+     * @return The customers with that number, possibly none
+     */
+    public List<Customer> getCustomersByPhone(String contactNumberE164) {
+        return deadlines.execute(true, () -> repository.findByContactNumberE164(contactNumberE164));
+    }
+
+    /**
+     * Creates the customer with the given primary email, or updates it if it already exists,
+     * in a single atomic statement.
+     * Upserts lock on the email, the key the statement matches on, so two upserts of the same
+     * email reach the index and the counters in commit order on this node.
+     *
+     * @param customer The customer data, keyed by its primary email
+     * @return The stored customer and the customer it replaced, if any
+     */
+    public UpsertResult upsertCustomerByEmail(Customer customer) {
+        return customerLocks.withLock(customer.getPrimaryEmail(), () -> {
+            UpsertResult result = deadlines.execute(false, () -> {
+                UpsertResult upserted = repository.upsertByPrimaryEmail(customer);
+                if (!upserted.created()) {
+                    invalidations.record(upserted.customer().getCustomerId());
+                }
+                return upserted;
+            });
+            indexWrite(result.customer());
+            if (result.created()) {
+                stats.created(result.customer());
+            } else {
+                stats.updated(CustomerStats.Key.of(result.previous()), result.customer());
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Finds customers whose given name, surname or email address starts with a prefix,
+     * from the in-memory search index rather than the database.
+     *
+     * @param prefix The prefix to match, ignoring case
+     * @param limit The maximum number of customers returned
+     * @return Up to limit matching customers
+     */
+    public List<Customer> searchCustomers(String prefix, int limit) {
+        return searchIndex.search(prefix, limit);
+    }
+
+    /**
+     * Finds customers whose given name or surname sounds like the query, closest spelling first,
+     * from the in-memory phonetic index rather than the database.
+     *
+     * @param name One or more words of the name, possibly misspelled
+     * @param limit The maximum number of customers returned
+     * @return Up to limit matching customers
+     */
+    public List<Customer> findCustomersByNameSound(String name, int limit) {
+        return phoneticIndex.search(name, limit);
     }
 
     /**
      * Deletes a customer by ID.
      * If the customer doesn't exist, throws a ResourceNotFoundException.
+     * Runs under the same lock as updates to the customer on this node.
      *
      * @param id The UUID of the customer to delete
      * @throws ResourceNotFoundException if the customer with the given ID is not found
      */
     public void deleteCustomer(UUID id) {
-        if (!repository.existsById(id)) {
-            throw new ResourceNotFoundException("Customer", "id", id);
-        }
-        repository.deleteById(id);
+        // Held until the indexes are updated, so a concurrent update can't put the customer back
+        customerLocks.withLock(id, () -> {
+            CustomerStats.Key deleted = deadlines.execute(false, () -> {
+                Customer customer = repository.findById(id)
+                        .orElseThrow(() -> new ResourceNotFoundException("Customer", "id", id));
+                repository.delete(customer);
+                invalidations.record(id);
+                return CustomerStats.Key.of(customer);
+            });
+            snapshots.logDelete(id);
+            cache.invalidate(id);
+            searchIndex.remove(id);
+            phoneticIndex.remove(id);
+            stats.deleted(deleted);
+            return null;
+        });
+    }
+
+    /**
+     * Returns the customer counts maintained in memory, without querying the database.
+     *
+     * @param maxDomains The maximum number of email domains listed, largest first
+     * @return The counts in total, by email domain and by surname initial
+     */
+    public CustomerStats.Snapshot getStats(int maxDomains) {
+        return stats.snapshot(maxDomains);
+    }
+
+    /**
+     * Returns the number of customers maintained in memory, without querying the database.
+     *
+     * @return The number of customers
+     */
+    public long countCustomers() {
+        return stats.total();
     }
 
     /**
      * Updates an existing customer with new information.
+     * Concurrent updates to the same customer on this node run one after the other.
      *
      * @param id The UUID of the customer to update
      * @param newCustomer The updated customer data
@@ -92,15 +273,53 @@ public class CustomerService {
      * @throws RuntimeException if the customer with the given ID is not found
      */
     public Customer updateCustomer(UUID id, Customer newCustomer) {
-        return repository.findById(id).map(c -> {
-            // Update all fields from the new customer
-            c.setGivenName(newCustomer.getGivenName());
-            c.setMiddleInitial(newCustomer.getMiddleInitial());
-            c.setSurname(newCustomer.getSurname());
-            c.setPrimaryEmail(newCustomer.getPrimaryEmail());
-            c.setContactNumber(newCustomer.getContactNumber());
-            // Save and return the updated customer
-            return repository.save(c);
-        }).orElseThrow(() -> new ResourceNotFoundException("Customer", "id", id));
+        // The lock is held across the whole transaction, so the next update reads this one's commit
+        return customerLocks.withLock(id, () -> {
+            AtomicReference<CustomerStats.Key> before = new AtomicReference<>();
+            Customer updated = deadlines.execute(false, () -> repository.findById(id).map(c -> {
+                before.set(CustomerStats.Key.of(c));
+                // Update all fields from the new customer
+                c.setGivenName(newCustomer.getGivenName());
+                c.setMiddleInitial(newCustomer.getMiddleInitial());
+                c.setSurname(newCustomer.getSurname());
+                c.setPrimaryEmail(newCustomer.getPrimaryEmail());
+                c.setContactNumber(newCustomer.getContactNumber());
+                // Save and return the updated customer
+                Customer saved = repository.save(c);
+                invalidations.record(id);
+                return saved;
+            }).orElseThrow(() -> new ResourceNotFoundException("Customer", "id", id)));
+            // Still under the lock, so concurrent updates reach the index in commit order
+            indexWrite(updated);
+            stats.updated(before.get(), updated);
+            return updated;
+        });
+    }
+
+    /**
+     * Brings the cache and the in-memory indexes up to date with customers changed in the database
+     * outside this service, such as by the contact number backfill. Each customer is read again
+     * under its lock, so a concurrent update on this node isn't overwritten by an older copy.
+     *
+     * @param ids The ids of the changed customers
+     */
+    public void refreshCustomers(Collection<UUID> ids) {
+        for (UUID id : ids) {
+            customerLocks.withLock(id, () -> {
+                deadlines.execute(true, () -> repository.findById(id))
+                        .ifPresentOrElse(this::indexWrite, () -> cache.invalidate(id));
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Brings the in-memory indexes, the cache and the snapshot change log up to date with a committed write.
+     */
+    private void indexWrite(Customer customer) {
+        snapshots.logPut(customer);
+        cache.put(customer);
+        searchIndex.put(customer);
+        phoneticIndex.put(customer);
     }
 }
@@ -0,0 +1,483 @@
+package com.example.customerapi.service;
+
+import com.example.customerapi.model.Customer;
+import com.example.customerapi.service.CustomerChangeLog.Change;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps the customers table of the in-memory database across restarts.
+ *
+ * On a schedule, the table is written to a gzip-compressed snapshot file with a CRC32 of its
+ * contents, read with a single statement so it is consistent. Writes committed through
+ * {@link CustomerService} are appended to a {@link CustomerChangeLog} in between; each snapshot
+ * starts a new log segment and records it, and older segments are deleted once no kept snapshot
+ * needs them.
+ *
+ * At startup, before the other runners load their indexes and before the application reports
+ * ready, the latest snapshot is restored if the table is empty: one thread decompresses it and
+ * hands batches of rows to a pool of threads that insert them, each batch in its own
+ * transaction. A snapshot whose checksum doesn't match is discarded in favour of the one before.
+ * The change log is then replayed from the segment the snapshot started. Writes made while the
+ * restore runs, before readiness, are only captured by the next snapshot.
+ */
+@Service
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class CustomerSnapshotService implements ApplicationRunner, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(CustomerSnapshotService.class);
+
+    static final String DURATION_METRIC = "customer.snapshot.duration";
+    static final String LOG_ERRORS_METRIC = "customer.snapshot.log.errors";
+    static final String SNAPSHOT_PREFIX = "snapshot-";
+    static final String SNAPSHOT_SUFFIX = ".gz";
+    private static final int MAGIC = 0x43534e50;
+    private static final int VERSION = 1;
+    private static final int BUFFER_BYTES = 64 * 1024;
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 60_000;
+
+    private static final String COLUMNS = "customer_id, given_name, middle_initial, surname, primary_email, "
+            + "contact_number, contact_number_e164, email_domain";
+    private static final String SELECT_SQL = "SELECT " + COLUMNS + " FROM customers";
+    private static final String INSERT_SQL = "INSERT INTO customers (" + COLUMNS + ") "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String MERGE_SQL = "MERGE INTO customers (" + COLUMNS + ") KEY (customer_id) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String DELETE_SQL = "DELETE FROM customers WHERE customer_id = ?";
+    // A stale holder of the email, whose own later change is further on in the log
+    private static final String RELEASE_EMAIL_SQL =
+            "DELETE FROM customers WHERE primary_email = ? AND customer_id <> ?";
+
+    /**
+     * Outcome of a restore at startup.
+     *
+     * @param snapshot The snapshot file restored, or null if none could be
+     * @param customers Customers loaded from the snapshot
+     * @param changes Change log records replayed on top of it
+     * @param duration How long the restore took
+     */
+    public record RestoreResult(Path snapshot, long customers, long changes, Duration duration) {
+    }
+
+    /**
+     * A snapshot file that was loaded completely and matched its checksum.
+     */
+    private record Loaded(long firstSegment, long customers) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactions;
+    private final SnapshotProperties properties;
+    private final Path directory;
+    private final Timer writeTimer;
+    private final Timer restoreTimer;
+    private final Counter logErrors;
+    private final ReentrantLock snapshotLock = new ReentrantLock();
+    private volatile CustomerChangeLog changeLog;
+
+    /**
+     * Constructor for dependency injection.
+     *
+     * @param jdbcTemplate The template for the customers table
+     * @param transactionManager The transaction manager committing each restored batch
+     * @param meterRegistry The registry for the snapshot metrics
+     * @param properties The snapshot configuration
+     */
+    public CustomerSnapshotService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry, SnapshotProperties properties) {
+        if (properties.getMaxSnapshots() < 1 || properties.getRestoreBatchSize() < 1
+                || properties.getRestoreParallelism() < 1) {
+            throw new IllegalArgumentException("Snapshots kept, restore batch size and restore parallelism must be "
+                    + "at least 1");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactions = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.directory = Paths.get(properties.getDirectory()).toAbsolutePath().normalize();
+        this.writeTimer = Timer.builder(DURATION_METRIC)
+                .description("Time taken to write or restore a snapshot of the customers table")
+                .tag("operation", "write")
+                .register(meterRegistry);
+        this.restoreTimer = Timer.builder(DURATION_METRIC)
+                .description("Time taken to write or restore a snapshot of the customers table")
+                .tag("operation", "restore")
+                .register(meterRegistry);
+        this.logErrors = Counter.builder(LOG_ERRORS_METRIC)
+                .description("Committed writes that could not be appended to the snapshot change log")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Restores the table at application start if snapshots are enabled.
+     *
+     * @param args The application arguments
+     */
+    @Override
+    public void run(ApplicationArguments args) throws IOException, InterruptedException {
+        if (properties.isEnabled()) {
+            restore();
+        }
+    }
+
+    /**
+     * Forces the change log to disk and closes it.
+     */
+    @Override
+    public void destroy() throws IOException {
+        CustomerChangeLog log = changeLog;
+        changeLog = null;
+        if (log != null) {
+            log.close();
+        }
+    }
+
+    /**
+     * Restores the latest usable snapshot and the changes logged since, unless the table already
+     * holds customers, then starts logging writes.
+     *
+     * @return What was restored, or null if the table wasn't empty
+     */
+    RestoreResult restore() throws IOException, InterruptedException {
+        Files.createDirectories(directory);
+        RestoreResult result = null;
+        Long existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM customers", Long.class);
+        if (existing != null && existing > 0) {
+            logger.info("Customers table already holds {} rows, not restoring from {}", existing, directory);
+        } else {
+            result = restoreLatest();
+        }
+        changeLog = new CustomerChangeLog(directory);
+        return result;
+    }
+
+    /**
+     * Logs a customer as stored by a committed create or update.
+     *
+     * @param customer The customer as stored
+     */
+    public void logPut(Customer customer) {
+        CustomerChangeLog log = changeLog;
+        if (log != null) {
+            try {
+                log.put(customer);
+            } catch (UncheckedIOException ex) {
+                logErrors.increment();
+                logger.warn("Could not log change to customer {}; it is kept from the next snapshot on",
+                        customer.getCustomerId(), ex);
+            }
+        }
+    }
+
+    /**
+     * Logs a committed delete.
+     *
+     * @param customerId The id of the deleted customer
+     */
+    public void logDelete(UUID customerId) {
+        CustomerChangeLog log = changeLog;
+        if (log != null) {
+            try {
+                log.delete(customerId);
+            } catch (UncheckedIOException ex) {
+                logErrors.increment();
+                logger.warn("Could not log delete of customer {}; it is kept from the next snapshot on",
+                        customerId, ex);
+            }
+        }
+    }
+
+    /**
+     * Writes a snapshot of the table and deletes the snapshots and log segments no longer needed.
+     * Does nothing if snapshots are disabled or one is already being written.
+     */
+    @Scheduled(fixedDelayString = "${customer-api.snapshot.interval:PT15M}",
+            initialDelayString = "${customer-api.snapshot.interval:PT15M}")
+    public void snapshot() {
+        CustomerChangeLog log = changeLog;
+        if (log == null || !snapshotLock.tryLock()) {
+            return;
+        }
+        long start = System.nanoTime();
+        Path temporary = null;
+        try {
+            // Writes committed from here on go to the new segment, which the snapshot replays from
+            long firstSegment = log.rotate();
+            Path target = directory.resolve(String.format("%s%020d%s", SNAPSHOT_PREFIX, firstSegment,
+                    SNAPSHOT_SUFFIX));
+            temporary = directory.resolve(target.getFileName() + ".tmp");
+            long customers = write(temporary, firstSegment);
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+            prune();
+            long elapsed = System.nanoTime() - start;
+            writeTimer.record(elapsed, TimeUnit.NANOSECONDS);
+            logger.info("Snapshot of {} customers written to {} ({} bytes) in {} ms", customers, target,
+                    Files.size(target), elapsed / 1_000_000);
+        } catch (IOException | RuntimeException ex) {
+            logger.warn("Customer snapshot failed", ex);
+            if (temporary != null) {
+                temporary.toFile().delete();
+            }
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    private long write(Path file, long firstSegment) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            GZIPOutputStream gzip = new GZIPOutputStream(Channels.newOutputStream(channel), BUFFER_BYTES);
+            CheckedOutputStream checked = new CheckedOutputStream(gzip, new CRC32());
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(checked, BUFFER_BYTES));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(firstSegment);
+            out.writeLong(System.currentTimeMillis());
+            long[] customers = {0};
+            RowCallbackHandler writeRow = rs -> {
+                try {
+                    out.writeBoolean(true);
+                    CustomerChangeLog.writeCustomer(out, toCustomer(rs));
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+                customers[0]++;
+            };
+            try {
+                jdbcTemplate.query(SELECT_SQL, writeRow);
+            } catch (UncheckedIOException ex) {
+                throw ex.getCause();
+            }
+            out.writeBoolean(false);
+            out.writeLong(customers[0]);
+            out.flush();
+            // The checksum itself goes around the checked stream
+            new DataOutputStream(gzip).writeLong(checked.getChecksum().getValue());
+            gzip.finish();
+            channel.force(true);
+            return customers[0];
+        }
+    }
+
+    private RestoreResult restoreLatest() throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        Path restored = null;
+        Loaded loaded = null;
+        for (Path snapshot : snapshots()) {
+            try {
+                loaded = load(snapshot);
+                restored = snapshot;
+                break;
+            } catch (IOException | RuntimeException ex) {
+                logger.warn("Snapshot {} is unusable, trying the one before", snapshot, ex);
+                jdbcTemplate.update("DELETE FROM customers");
+            }
+        }
+        List<Long> segments = CustomerChangeLog.segments(directory);
+        long firstSegment;
+        if (loaded != null) {
+            firstSegment = loaded.firstSegment();
+        } else {
+            // Without a snapshot, only the changes logged since the first start can be recovered
+            firstSegment = segments.isEmpty() ? 1 : segments.get(0);
+            if (firstSegment > 1) {
+                logger.error("No usable snapshot in {}; restoring only the changes logged from segment {}",
+                        directory, firstSegment);
+            }
+        }
+        long changes = 0;
+        for (long segment : segments) {
+            if (segment >= firstSegment) {
+                changes += CustomerChangeLog.replay(directory, segment, this::apply);
+            }
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        restoreTimer.record(elapsed);
+        long customers = loaded != null ? loaded.customers() : 0;
+        logger.info("Restored {} customers from {} and replayed {} logged changes in {} ms", customers,
+                restored != null ? restored : "no snapshot", changes, elapsed.toMillis());
+        return new RestoreResult(restored, customers, changes, elapsed);
+    }
+
+    /**
+     * Loads a snapshot into the empty table, verifying its row count and checksum once read.
+     */
+    private Loaded load(Path snapshot) throws IOException, InterruptedException {
+        int parallelism = properties.getRestoreParallelism();
+        int batchSize = properties.getRestoreBatchSize();
+        Semaphore inFlight = new Semaphore(parallelism);
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        ExecutorService workers = Executors.newFixedThreadPool(parallelism,
+                Thread.ofPlatform().name("customer-snapshot-restore-", 0).daemon(true).factory());
+        try (InputStream file = Files.newInputStream(snapshot)) {
+            BufferedInputStream inflated = new BufferedInputStream(new GZIPInputStream(file, BUFFER_BYTES),
+                    BUFFER_BYTES);
+            CheckedInputStream checked = new CheckedInputStream(inflated, new CRC32());
+            DataInputStream in = new DataInputStream(checked);
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Not a customer snapshot: " + snapshot);
+            }
+            long firstSegment = in.readLong();
+            in.readLong();
+            long customers = 0;
+            List<Object[]> batch = new ArrayList<>(batchSize);
+            while (in.readBoolean() && failure.get() == null) {
+                batch.add(columns(CustomerChangeLog.readCustomer(in)));
+                customers++;
+                if (batch.size() == batchSize) {
+                    submit(batch, workers, inFlight, failure);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                submit(batch, workers, inFlight, failure);
+            }
+            inFlight.acquire(parallelism);
+            if (failure.get() != null) {
+                throw failure.get();
+            }
+            long expectedCustomers = in.readLong();
+            long checksum = checked.getChecksum().getValue();
+            if (expectedCustomers != customers || new DataInputStream(inflated).readLong() != checksum) {
+                throw new IOException("Checksum mismatch in " + snapshot);
+            }
+            return new Loaded(firstSegment, customers);
+        } finally {
+            workers.shutdown();
+            workers.awaitTermination(SHUTDOWN_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void submit(List<Object[]> batch, ExecutorService workers, Semaphore inFlight,
+            AtomicReference<RuntimeException> failure) throws InterruptedException {
+        inFlight.acquire();
+        workers.execute(() -> {
+            try {
+                transactions.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_SQL, batch));
+            } catch (RuntimeException ex) {
+                failure.compareAndSet(null, ex);
+            } finally {
+                inFlight.release();
+            }
+        });
+    }
+
+    private void apply(Change change) {
+        if (change.customer() == null) {
+            jdbcTemplate.update(DELETE_SQL, change.customerId());
+            return;
+        }
+        Object[] columns = columns(change.customer());
+        try {
+            jdbcTemplate.update(MERGE_SQL, columns);
+        } catch (DuplicateKeyException ex) {
+            // Writes to different customers may be logged in a different order than they committed
+            jdbcTemplate.update(RELEASE_EMAIL_SQL, change.customer().getPrimaryEmail(), change.customerId());
+            jdbcTemplate.update(MERGE_SQL, columns);
+        }
+    }
+
+    /**
+     * Deletes the snapshots beyond the number kept, and the log segments older than all kept snapshots.
+     */
+    private void prune() throws IOException {
+        List<Path> snapshots = snapshots();
+        int kept = Math.min(properties.getMaxSnapshots(), snapshots.size());
+        for (Path old : snapshots.subList(kept, snapshots.size())) {
+            Files.deleteIfExists(old);
+        }
+        if (kept == 0) {
+            return;
+        }
+        long oldestNeeded = segmentOf(snapshots.get(kept - 1));
+        for (long segment : CustomerChangeLog.segments(directory)) {
+            if (segment < oldestNeeded) {
+                Files.deleteIfExists(CustomerChangeLog.segmentFile(directory, segment));
+            }
+        }
+    }
+
+    /**
+     * Lists the snapshot files, newest first.
+     */
+    private List<Path> snapshots() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> {
+                String name = file.getFileName().toString();
+                return name.startsWith(SNAPSHOT_PREFIX) && name.endsWith(SNAPSHOT_SUFFIX);
+            }).sorted(Comparator.comparing((Path file) -> file.getFileName().toString()).reversed()).toList();
+        }
+    }
+
+    private static long segmentOf(Path snapshot) {
+        String name = snapshot.getFileName().toString();
+        return Long.parseLong(name.substring(SNAPSHOT_PREFIX.length(), name.length() - SNAPSHOT_SUFFIX.length()));
+    }
+
+    private static Object[] columns(Customer customer) {
+        return new Object[] {customer.getCustomerId(), customer.getGivenName(), customer.getMiddleInitial(),
+                customer.getSurname(), customer.getPrimaryEmail(), customer.getContactNumber(),
+                customer.getContactNumberE164(), customer.getEmailDomain()};
+    }
+
+    private static Customer toCustomer(ResultSet rs) throws SQLException {
+        return Customer.builder()
+                .customerId(rs.getObject("customer_id", UUID.class))
+                .givenName(rs.getString("given_name"))
+                .middleInitial(rs.getString("middle_initial"))
+                .surname(rs.getString("surname"))
+                .primaryEmail(rs.getString("primary_email"))
+                .contactNumber(rs.getString("contact_number"))
+                .contactNumberE164(rs.getString("contact_number_e164"))
+                .emailDomain(rs.getString("email_domain"))
+                .build();
+    }
+}
@@ -0,0 +1,267 @@
+package com.example.customerapi.service;
+
+import com.example.customerapi.model.Customer;
+import com.example.customerapi.repository.MappedCustomerRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Customer counts in total, by email domain and by surname initial, kept in memory and
+ * maintained incrementally by {@link CustomerService} after each committed create, update,
+ * upsert and delete, so reading them never touches the database.
+ *
+ * The counters only see writes made through this node, not those of other replicas or made
+ * directly in the database, so they are periodically reconciled against GROUP BY queries:
+ * the difference to the database is added to each counter, and its size published
+ * as drift. Writes committing while a reconciliation runs may be off by one until the next.
+ * With the "mmap" profile customers are not in the database, so they are counted from the
+ * memory-mapped store instead.
+ */
+@Component
+public class CustomerStats implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(CustomerStats.class);
+
+    static final String DRIFT_METRIC = "customer.stats.drift";
+    static final String NO_DOMAIN = "(none)";
+    static final String OTHER_INITIAL = "#";
+
+    private static final String DOMAIN_COUNTS_SQL =
+            "SELECT email_domain, COUNT(*) FROM customers GROUP BY email_domain";
+    private static final String INITIAL_COUNTS_SQL =
+            "SELECT SUBSTRING(TRIM(surname), 1, 1), COUNT(*) FROM customers GROUP BY SUBSTRING(TRIM(surname), 1, 1)";
+
+    /**
+     * The counters a customer contributes to.
+     *
+     * @param emailDomain The lower-cased email domain
+     * @param surnameInitial The upper-cased first letter of the surname
+     */
+    public record Key(String emailDomain, String surnameInitial) {
+
+        /**
+         * Determines the counters of a customer.
+         *
+         * @param customer The customer
+         * @return Its counter keys
+         */
+        public static Key of(Customer customer) {
+            return new Key(domainOf(customer.getPrimaryEmail()), initialOf(customer.getSurname()));
+        }
+    }
+
+    /**
+     * A snapshot of the counts.
+     *
+     * @param total The number of customers
+     * @param byEmailDomain Customers per email domain, largest first
+     * @param bySurnameInitial Customers per surname initial, alphabetically
+     * @param reconciledAt When the counts were last reconciled with the database, or null if not yet
+     */
+    public record Snapshot(long total, Map<String, Long> byEmailDomain, Map<String, Long> bySurnameInitial,
+            Instant reconciledAt) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Optional<MappedCustomerRepository> mappedRepository;
+    private final LongAdder total = new LongAdder();
+    private final Map<String, LongAdder> byEmailDomain = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> bySurnameInitial = new ConcurrentHashMap<>();
+    private final ReentrantLock reconcileLock = new ReentrantLock();
+    private final Counter drift;
+    private volatile Instant reconciledAt;
+
+    /**
+     * Constructor for dependency injection.
+     *
+     * @param jdbcTemplate The template the reconciliation queries run on
+     * @param meterRegistry The registry for the total and drift metrics
+     * @param mappedRepository The memory-mapped repository if it replaces the database, else empty
+     */
+    public CustomerStats(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+            Optional<MappedCustomerRepository> mappedRepository) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.mappedRepository = mappedRepository;
+        this.drift = Counter.builder(DRIFT_METRIC)
+                .description("Corrections applied to the customer counters by reconciliation")
+                .register(meterRegistry);
+        Gauge.builder("customer.stats.total", total, LongAdder::sum)
+                .description("Customers, as counted incrementally")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Loads the counts from the database at startup.
+     *
+     * @param args The application arguments
+     */
+    @Override
+    public void run(ApplicationArguments args) {
+        reconcile();
+    }
+
+    /**
+     * Counts a created customer.
+     *
+     * @param customer The customer, as stored
+     */
+    public void created(Customer customer) {
+        add(Key.of(customer), 1);
+    }
+
+    /**
+     * Moves an updated customer between counters if its email domain or surname initial changed.
+     *
+     * @param before The counter keys of the customer before the update
+     * @param after The customer, as stored
+     */
+    public void updated(Key before, Customer after) {
+        Key key = Key.of(after);
+        if (!key.equals(before)) {
+            add(before, -1);
+            add(key, 1);
+        }
+    }
+
+    /**
+     * Uncounts a deleted customer.
+     *
+     * @param key The counter keys of the deleted customer
+     */
+    public void deleted(Key key) {
+        add(key, -1);
+    }
+
+    /**
+     * Returns the total number of customers without touching the database.
+     *
+     * @return The counted total
+     */
+    public long total() {
+        return total.sum();
+    }
+
+    /**
+     * Returns the current counts.
+     *
+     * @param maxDomains The maximum number of email domains listed, largest first
+     * @return The counts
+     */
+    public Snapshot snapshot(int maxDomains) {
+        Map<String, Long> domains = new LinkedHashMap<>();
+        byEmailDomain.entrySet().stream()
+                .map(entry -> Map.entry(entry.getKey(), entry.getValue().sum()))
+                .filter(entry -> entry.getValue() > 0)
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder())
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(maxDomains)
+                .forEach(entry -> domains.put(entry.getKey(), entry.getValue()));
+        Map<String, Long> initials = new TreeMap<>();
+        bySurnameInitial.forEach((initial, count) -> {
+            long sum = count.sum();
+            if (sum > 0) {
+                initials.put(initial, sum);
+            }
+        });
+        return new Snapshot(total.sum(), domains, initials, reconciledAt);
+    }
+
+    /**
+     * Recounts from the database and corrects the counters by the difference.
+     */
+    @Scheduled(fixedDelayString = "${customer-api.stats.reconcile-interval:PT5M}",
+            initialDelayString = "${customer-api.stats.reconcile-interval:PT5M}")
+    public void reconcile() {
+        if (!reconcileLock.tryLock()) {
+            return;
+        }
+        try {
+            Map<String, Long> domains = new HashMap<>();
+            Map<String, Long> initials = new HashMap<>();
+            if (mappedRepository.isPresent()) {
+                mappedRepository.get().forEach(customer -> {
+                    Key key = Key.of(customer);
+                    domains.merge(key.emailDomain(), 1L, Long::sum);
+                    initials.merge(key.surnameInitial(), 1L, Long::sum);
+                });
+            } else {
+                jdbcTemplate.query(DOMAIN_COUNTS_SQL, rs -> {
+                    String domain = rs.getString(1);
+                    domains.merge(domain != null ? domain : NO_DOMAIN, rs.getLong(2), Long::sum);
+                });
+                jdbcTemplate.query(INITIAL_COUNTS_SQL, rs -> {
+                    initials.merge(initialOf(rs.getString(1)), rs.getLong(2), Long::sum);
+                });
+            }
+            long corrections = correct(byEmailDomain, domains) + correct(bySurnameInitial, initials);
+            long counted = initials.values().stream().mapToLong(Long::longValue).sum();
+            long totalDrift = counted - total.sum();
+            total.add(totalDrift);
+            corrections += Math.abs(totalDrift);
+            drift.increment(corrections);
+            reconciledAt = Instant.now();
+            if (corrections > 0) {
+                logger.info("Customer counters reconciled with {} corrections, {} customers", corrections, counted);
+            }
+        } finally {
+            reconcileLock.unlock();
+        }
+    }
+
+    private static long correct(Map<String, LongAdder> counters, Map<String, Long> actual) {
+        long corrections = 0;
+        for (Map.Entry<String, Long> entry : actual.entrySet()) {
+            LongAdder counter = counters.computeIfAbsent(entry.getKey(), key -> new LongAdder());
+            long difference = entry.getValue() - counter.sum();
+            counter.add(difference);
+            corrections += Math.abs(difference);
+        }
+        for (Map.Entry<String, LongAdder> entry : counters.entrySet()) {
+            if (!actual.containsKey(entry.getKey())) {
+                long difference = entry.getValue().sum();
+                entry.getValue().add(-difference);
+                corrections += Math.abs(difference);
+            }
+        }
+        return corrections;
+    }
+
+    private void add(Key key, long delta) {
+        total.add(delta);
+        byEmailDomain.computeIfAbsent(key.emailDomain(), domain -> new LongAdder()).add(delta);
+        bySurnameInitial.computeIfAbsent(key.surnameInitial(), initial -> new LongAdder()).add(delta);
+    }
+
+    private static String domainOf(String email) {
+        String domain = Customer.emailDomainOf(email);
+        return domain != null ? domain : NO_DOMAIN;
+    }
+
+    static String initialOf(String surname) {
+        String trimmed = surname != null ? surname.trim() : "";
+        if (trimmed.isEmpty() || !Character.isLetter(trimmed.codePointAt(0))) {
+            return OTHER_INITIAL;
+        }
+        return new String(Character.toChars(trimmed.codePointAt(0))).toUpperCase(Locale.ROOT);
+    }
+}
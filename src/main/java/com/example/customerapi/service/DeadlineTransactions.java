@@ -0,0 +1,107 @@
+package com.example.customerapi.service;
+
+import com.example.customerapi.exception.DeadlineExceededException;
+import com.example.customerapi.resilience.RequestDeadline;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Supplier;
+
+/**
+ * Runs service operations within the deadline of the current request.
+ *
+ * When the request carries a deadline the operation runs in a transaction whose timeout is
+ * the remaining budget; Hibernate derives each JDBC statement's query timeout from the time
+ * left in that transaction, so a slow query is cancelled by the driver instead of running on
+ * after the client has given up. Operations whose budget is already spent are not started.
+ * Writes always run in a transaction, even without a deadline, so that everything a write
+ * does (such as recording a cache invalidation) commits or rolls back together.
+ */
+@Component
+public class DeadlineTransactions {
+
+    static final String EXCEEDED_METRIC = "customer.deadline.exceeded";
+
+    private final PlatformTransactionManager transactionManager;
+    private final Counter skippedBeforeQuery;
+    private final Counter cancelledQueries;
+
+    /**
+     * Constructor for dependency injection.
+     *
+     * @param transactionManager The transaction manager used for deadline-bound transactions
+     * @param meterRegistry The registry for the deadline counters
+     */
+    public DeadlineTransactions(PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.transactionManager = transactionManager;
+        this.skippedBeforeQuery = exceededCounter(meterRegistry, "service");
+        this.cancelledQueries = exceededCounter(meterRegistry, "database");
+    }
+
+    /**
+     * Runs an operation within the current request's deadline.
+     *
+     * @param readOnly Whether the operation only reads
+     * @param operation The operation to run
+     * @param <T> The result type
+     * @return The result of the operation
+     * @throws DeadlineExceededException if the budget ran out before or during the operation
+     */
+    public <T> T execute(boolean readOnly, Supplier<T> operation) {
+        RequestDeadline deadline = RequestDeadline.current();
+        if (deadline == null) {
+            if (readOnly) {
+                return operation.get();
+            }
+            return new TransactionTemplate(transactionManager).execute(status -> operation.get());
+        }
+        if (deadline.isExpired()) {
+            skippedBeforeQuery.increment();
+            throw new DeadlineExceededException("Request deadline exceeded before the database was queried");
+        }
+
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(readOnly);
+        template.setTimeout(deadline.remainingSeconds());
+        try {
+            return template.execute(status -> operation.get());
+        } catch (QueryTimeoutException | TransactionTimedOutException ex) {
+            cancelledQueries.increment();
+            throw new DeadlineExceededException("Request deadline exceeded while querying the database", ex);
+        }
+    }
+
+    /**
+     * Runs an operation without a result within the current request's deadline.
+     *
+     * @param readOnly Whether the operation only reads
+     * @param operation The operation to run
+     * @throws DeadlineExceededException if the budget ran out before or during the operation
+     */
+    public void run(boolean readOnly, Runnable operation) {
+        execute(readOnly, () -> {
+            operation.run();
+            return null;
+        });
+    }
+
+    /**
+     * Registers the counter of requests abandoned at a given stage. Every increment is work
+     * (a query, a serialization) that was not done for a client that had already given up.
+     *
+     * @param meterRegistry The registry
+     * @param stage The stage whose work was skipped
+     * @return The counter
+     */
+    public static Counter exceededCounter(MeterRegistry meterRegistry, String stage) {
+        return Counter.builder(EXCEEDED_METRIC)
+                .description("Requests abandoned because their deadline passed, by the stage whose work was skipped")
+                .tag("stage", stage)
+                .register(meterRegistry);
+    }
+}
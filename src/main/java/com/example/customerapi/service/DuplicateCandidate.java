@@ -0,0 +1,195 @@
+package com.example.customerapi.service;
+
+import com.example.customerapi.model.PhoneNumbers;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * A customer reduced to the normalized fields duplicate detection blocks on and compares:
+ * names lower-cased without accents, punctuation or spaces, the email lower-cased, its local
+ * part without dots and "+tag", and the last ten digits of the phone number.
+ *
+ * @param id The customer id
+ * @param givenName The normalized given name
+ * @param surname The normalized surname
+ * @param email The lower-cased email address
+ * @param emailLocal The normalized local part of the email address
+ * @param phone The last ten digits of the contact number
+ */
+record DuplicateCandidate(UUID id, String givenName, String surname, String email, String emailLocal,
+        String phone) {
+
+    /**
+     * Number of blocking keys per candidate; see {@link #blockingKey(int)}.
+     */
+    static final int KEY_TYPES = 3;
+
+    private static final Pattern NOT_LETTER_OR_DIGIT = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final int PHONE_DIGITS = 10;
+    private static final int PHONE_SUFFIX_DIGITS = 4;
+    private static final int MAX_NAME_DISTANCE = 2;
+
+    /**
+     * Why two candidates are considered the same customer.
+     */
+    enum MatchReason {
+        /** The same email address, ignoring case, dots and "+tag" in the local part. */
+        EMAIL,
+        /** The same phone number and names at most two edits apart. */
+        PHONE_AND_NAME,
+        /** The same name and email local part, at different domains. */
+        NAME_AND_EMAIL_LOCAL,
+        /** The same name and phone numbers one digit apart. */
+        NAME_AND_SIMILAR_PHONE
+    }
+
+    /**
+     * Normalizes a customer's fields.
+     *
+     * @param id The customer id
+     * @param givenName The given name as stored
+     * @param surname The surname as stored
+     * @param email The primary email as stored
+     * @param contactNumber The contact number as stored
+     * @return The candidate
+     */
+    static DuplicateCandidate of(UUID id, String givenName, String surname, String email, String contactNumber) {
+        String lowerEmail = email != null ? email.trim().toLowerCase(Locale.ROOT) : "";
+        int at = lowerEmail.lastIndexOf('@');
+        String local = at >= 0 ? lowerEmail.substring(0, at) : lowerEmail;
+        int tag = local.indexOf('+');
+        local = tag >= 0 ? local.substring(0, tag) : local;
+        return new DuplicateCandidate(id, normalizeName(givenName), normalizeName(surname), lowerEmail,
+                NOT_LETTER_OR_DIGIT.matcher(local).replaceAll(""), phoneDigits(contactNumber));
+    }
+
+    /**
+     * Returns one of the keys candidates are grouped by; only candidates sharing a key are compared.
+     *
+     * @param type The key type, 0 (surname and phone suffix), 1 (email local part) or 2 (phone number)
+     * @return The key, or null if the candidate lacks the fields for it
+     */
+    String blockingKey(int type) {
+        return switch (type) {
+            case 0 -> surname.isEmpty() || phone.length() < PHONE_SUFFIX_DIGITS
+                    ? null
+                    : "s:" + surname + ':' + phone.substring(phone.length() - PHONE_SUFFIX_DIGITS);
+            case 1 -> emailLocal.isEmpty() ? null : "e:" + emailLocal;
+            case 2 -> phone.isEmpty() ? null : "p:" + phone;
+            default -> throw new IllegalArgumentException("Unknown blocking key type " + type);
+        };
+    }
+
+    /**
+     * Whether this and another candidate also share a key of a type before the given one, whose
+     * block was compared. A pair sharing several keys is compared in several blocks; it is only
+     * reported from the first of them that wasn't skipped as oversized.
+     *
+     * @param other The other candidate
+     * @param type The key type of the block being compared
+     * @param skippedKeys The keys of the blocks that weren't compared
+     * @return true if the pair is handled by an earlier block
+     */
+    boolean sharesEarlierKey(DuplicateCandidate other, int type, Set<String> skippedKeys) {
+        for (int earlier = 0; earlier < type; earlier++) {
+            String key = blockingKey(earlier);
+            if (key != null && key.equals(other.blockingKey(earlier)) && !skippedKeys.contains(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Decides whether this and another candidate are the same customer.
+     *
+     * @param other The other candidate
+     * @return The reason they match, or null if they don't
+     */
+    MatchReason match(DuplicateCandidate other) {
+        if (!email.isEmpty() && (email.equals(other.email) || sameNormalizedEmail(other))) {
+            return MatchReason.EMAIL;
+        }
+        boolean sameName = givenName.equals(other.givenName) && surname.equals(other.surname);
+        if (!phone.isEmpty() && phone.equals(other.phone)
+                && PhoneticNameIndex.levenshtein(givenName + surname, other.givenName + other.surname)
+                        <= MAX_NAME_DISTANCE) {
+            return MatchReason.PHONE_AND_NAME;
+        }
+        if (sameName && !emailLocal.isEmpty() && emailLocal.equals(other.emailLocal)) {
+            return MatchReason.NAME_AND_EMAIL_LOCAL;
+        }
+        if (sameName && phone.length() == PHONE_DIGITS && other.phone.length() == PHONE_DIGITS
+                && PhoneticNameIndex.levenshtein(phone, other.phone) <= 1) {
+            return MatchReason.NAME_AND_SIMILAR_PHONE;
+        }
+        return null;
+    }
+
+    /**
+     * Writes the candidate to a spill file.
+     *
+     * @param out The spill file
+     * @throws IOException if the file cannot be written
+     */
+    void writeTo(DataOutput out) throws IOException {
+        out.writeLong(id.getMostSignificantBits());
+        out.writeLong(id.getLeastSignificantBits());
+        out.writeUTF(givenName);
+        out.writeUTF(surname);
+        out.writeUTF(email);
+        out.writeUTF(emailLocal);
+        out.writeUTF(phone);
+    }
+
+    /**
+     * Reads a candidate written by {@link #writeTo(DataOutput)}.
+     *
+     * @param in The spill file
+     * @return The candidate
+     * @throws IOException if the file cannot be read
+     */
+    static DuplicateCandidate readFrom(DataInput in) throws IOException {
+        return new DuplicateCandidate(new UUID(in.readLong(), in.readLong()), in.readUTF(), in.readUTF(),
+                in.readUTF(), in.readUTF(), in.readUTF());
+    }
+
+    private boolean sameNormalizedEmail(DuplicateCandidate other) {
+        return !emailLocal.isEmpty() && emailLocal.equals(other.emailLocal)
+                && domain(email).equals(domain(other.email));
+    }
+
+    private static String domain(String email) {
+        return email.substring(email.lastIndexOf('@') + 1);
+    }
+
+    private static String normalizeName(String name) {
+        if (name == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(name, Normalizer.Form.NFD);
+        String unaccented = COMBINING_MARKS.matcher(decomposed).replaceAll("");
+        return NOT_LETTER_OR_DIGIT.matcher(unaccented.toLowerCase(Locale.ROOT)).replaceAll("");
+    }
+
+    private static String phoneDigits(String contactNumber) {
+        String e164 = PhoneNumbers.toE164(contactNumber);
+        String source = e164 != null ? e164 : contactNumber != null ? contactNumber : "";
+        StringBuilder digits = new StringBuilder(source.length());
+        for (int i = 0; i < source.length(); i++) {
+            char c = source.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            }
+        }
+        return digits.length() > PHONE_DIGITS ? digits.substring(digits.length() - PHONE_DIGITS) : digits.toString();
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.customerapi.service;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration for the duplicate customer detection job.
+ * Bound from properties prefixed with "customer-api.duplicates".
+ */
+@Data
+@ConfigurationProperties(prefix = "customer-api.duplicates")
+public class DuplicateDetectionProperties {
+
+    /**
+     * Local directory the reports, and the temporary spill files of a running job, are written to.
+     */
+    private String directory = "duplicates";
+
+    /**
+     * Number of customers read from the database per query.
+     */
+    private int pageSize = 10_000;
+
+    /**
+     * Number of spill files the blocking keys are hashed into. Only one partition is held in
+     * memory at a time, so more partitions mean less memory per step.
+     */
+    private int partitions = 128;
+
+    /**
+     * Number of threads comparing candidates within blocks. Defaults to the number of processors.
+     */
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Largest block compared pairwise. Larger blocks (a key shared by very many customers,
+     * e.g. "info@") would cost quadratic comparisons and are skipped and counted instead.
+     */
+    private int maxBlockSize = 500;
+
+    /**
+     * Maximum number of reports kept in the directory; the oldest are deleted beyond this.
+     */
+    private int maxReports = 10;
+}
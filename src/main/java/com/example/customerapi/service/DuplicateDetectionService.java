@@ -0,0 +1,476 @@
+package com.example.customerapi.service;
+
+import com.example.customerapi.service.DuplicateCandidate.MatchReason;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Finds customers stored more than once, differing only in case, punctuation, accents or
+ * phone formatting, and writes the pairs to a CSV report.
+ *
+ * Comparing every customer with every other is quadratic, so the job blocks: each customer
+ * is normalized (see {@link DuplicateCandidate}) and filed under a few blocking keys, and only
+ * customers sharing a key are compared. To keep memory bounded at any table size, the table is
+ * read in primary key order one page at a time and every (key, customer) entry is appended to
+ * one of a fixed number of spill files chosen by hashing the key, so all members of a block end
+ * up in the same file. A first pass over the files only counts the members of each block, to
+ * find the blocks over the maximum block size. The files are then processed one at a time: a file
+ * is grouped into its blocks in memory, leaving out the oversized ones, and the blocks are compared
+ * in parallel on a ForkJoinPool, before the next file is read. Memory therefore scales with the
+ * table size divided by the number of partitions.
+ */
+@Service
+public class DuplicateDetectionService implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(DuplicateDetectionService.class);
+
+    static final String ROWS_METRIC = "customer.duplicates.rows";
+    static final String PAIRS_METRIC = "customer.duplicates.pairs";
+    static final String REPORT_PREFIX = "duplicates-";
+    static final String REPORT_SUFFIX = ".csv";
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 10_000;
+    private static final int SPILL_BUFFER_BYTES = 16 * 1024;
+    private static final int BLOCKS_PER_TASK = 64;
+    private static final DateTimeFormatter FILE_TIMESTAMP =
+            DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS").withZone(ZoneOffset.UTC);
+
+    private static final String SELECT_SQL =
+            "SELECT customer_id, given_name, surname, primary_email, contact_number FROM customers";
+
+    /**
+     * Lifecycle of a detection run.
+     */
+    public enum State {
+        IDLE, RUNNING, STOPPING, COMPLETED, STOPPED, FAILED
+    }
+
+    /**
+     * Progress of the current or last detection run.
+     *
+     * @param state Where the run is in its lifecycle
+     * @param rowsScanned Customers read from the database
+     * @param partitionsProcessed Spill files compared so far
+     * @param partitions Spill files in total
+     * @param blocksCompared Blocks of two or more customers that were compared
+     * @param oversizedBlocks Blocks skipped for exceeding the maximum block size
+     * @param comparisons Pairs of customers compared
+     * @param duplicatePairs Pairs reported as duplicates
+     * @param rowsPerSecond Customers processed per second of the run so far
+     * @param startedAt When the run started, or null if none has
+     * @param finishedAt When the run finished, or null if it hasn't
+     * @param report The report file, or null before the comparison phase
+     * @param error Why the run failed, or null
+     */
+    public record DetectionStatus(State state, long rowsScanned, int partitionsProcessed, int partitions,
+            long blocksCompared, long oversizedBlocks, long comparisons, long duplicatePairs, double rowsPerSecond,
+            Instant startedAt, Instant finishedAt, String report, String error) {
+    }
+
+    /**
+     * Two customers found to be the same, with the smaller id first.
+     */
+    record DuplicatePair(UUID first, UUID second, MatchReason reason) {
+    }
+
+    /**
+     * The candidates sharing one blocking key.
+     */
+    private record Block(int type, List<DuplicateCandidate> candidates) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DuplicateDetectionProperties properties;
+    private final Path directory;
+    private final Counter rowsCounter;
+    private final Counter pairsCounter;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final AtomicLong rowsScanned = new AtomicLong();
+    private final AtomicInteger partitionsProcessed = new AtomicInteger();
+    private final AtomicLong blocksCompared = new AtomicLong();
+    private final AtomicLong oversizedBlocks = new AtomicLong();
+    private final LongAdder comparisons = new LongAdder();
+    private final AtomicLong duplicatePairs = new AtomicLong();
+    private final AtomicReference<String> error = new AtomicReference<>();
+    private volatile State state = State.IDLE;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile Path report;
+    private volatile Thread coordinator;
+
+    /**
+     * Constructor for dependency injection.
+     *
+     * @param jdbcTemplate The template for the customers table
+     * @param meterRegistry The registry for the detection metrics
+     * @param properties The detection configuration
+     */
+    public DuplicateDetectionService(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+            DuplicateDetectionProperties properties) {
+        if (properties.getPageSize() < 1 || properties.getPartitions() < 1 || properties.getParallelism() < 1
+                || properties.getMaxBlockSize() < 2) {
+            throw new IllegalArgumentException("Duplicate detection page size, partitions and parallelism must be "
+                    + "at least 1 and the maximum block size at least 2");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.directory = Paths.get(properties.getDirectory()).toAbsolutePath().normalize();
+        this.rowsCounter = Counter.builder(ROWS_METRIC)
+                .description("Customers read by duplicate detection")
+                .register(meterRegistry);
+        this.pairsCounter = Counter.builder(PAIRS_METRIC)
+                .description("Duplicate customer pairs reported")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Stops a running job and waits for it to finish writing its report.
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        stop();
+        Thread running = coordinator;
+        if (running != null) {
+            running.join(SHUTDOWN_TIMEOUT_MILLIS);
+        }
+    }
+
+    /**
+     * Starts a detection run in the background, unless one is already running.
+     *
+     * @return The status of the run
+     */
+    public DetectionStatus start() {
+        lock.lock();
+        try {
+            if (state == State.RUNNING || state == State.STOPPING) {
+                return status();
+            }
+            rowsScanned.set(0);
+            partitionsProcessed.set(0);
+            blocksCompared.set(0);
+            oversizedBlocks.set(0);
+            comparisons.reset();
+            duplicatePairs.set(0);
+            error.set(null);
+            report = null;
+            startedAt = Instant.now();
+            finishedAt = null;
+            state = State.RUNNING;
+            coordinator = Thread.ofPlatform().name("customer-duplicates").daemon(true).start(this::detect);
+            return status();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Asks a running job to stop. The report then holds the pairs found in the partitions
+     * compared so far.
+     *
+     * @return The status of the run
+     */
+    public DetectionStatus stop() {
+        lock.lock();
+        try {
+            if (state == State.RUNNING) {
+                state = State.STOPPING;
+            }
+            return status();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the progress of the current or last run.
+     *
+     * @return The detection status
+     */
+    public DetectionStatus status() {
+        Instant started = startedAt;
+        Instant finished = finishedAt;
+        double rowsPerSecond = 0;
+        if (started != null) {
+            long elapsedMillis = Duration.between(started, finished != null ? finished : Instant.now()).toMillis();
+            rowsPerSecond = rowsScanned.get() * 1000.0 / Math.max(1, elapsedMillis);
+        }
+        Path currentReport = report;
+        return new DetectionStatus(state, rowsScanned.get(), partitionsProcessed.get(), properties.getPartitions(),
+                blocksCompared.get(), oversizedBlocks.get(), comparisons.sum(), duplicatePairs.get(), rowsPerSecond,
+                started, finished, currentReport != null ? currentReport.toString() : null, error.get());
+    }
+
+    private void detect() {
+        logger.info("Duplicate detection started");
+        ForkJoinPool pool = new ForkJoinPool(properties.getParallelism());
+        Path spillDirectory = null;
+        try {
+            Files.createDirectories(directory);
+            spillDirectory = Files.createTempDirectory(directory, "spill-");
+            Path[] partitions = spill(spillDirectory);
+            Set<String> oversizedKeys = findOversizedKeys(partitions);
+            report = directory.resolve(REPORT_PREFIX + FILE_TIMESTAMP.format(Instant.now()) + REPORT_SUFFIX);
+            try (BufferedWriter writer = Files.newBufferedWriter(report)) {
+                writer.write("first_customer_id,second_customer_id,reason");
+                writer.newLine();
+                for (int i = 0; i < partitions.length && state == State.RUNNING; i++) {
+                    for (DuplicatePair pair : compare(partitions[i], pool, oversizedKeys)) {
+                        writer.write(pair.first() + "," + pair.second() + "," + pair.reason());
+                        writer.newLine();
+                    }
+                    Files.delete(partitions[i]);
+                    partitionsProcessed.incrementAndGet();
+                }
+            }
+            pruneOldReports();
+        } catch (IOException | RuntimeException ex) {
+            logger.warn("Duplicate detection failed", ex);
+            error.compareAndSet(null, ex.getMessage());
+        } finally {
+            pool.shutdownNow();
+            if (spillDirectory != null) {
+                try {
+                    FileSystemUtils.deleteRecursively(spillDirectory);
+                } catch (IOException ex) {
+                    logger.warn("Could not delete duplicate detection spill files in {}", spillDirectory, ex);
+                }
+            }
+            finish();
+        }
+    }
+
+    /**
+     * Reads the table page by page and appends each customer to the spill file of each of its
+     * blocking keys.
+     */
+    private Path[] spill(Path spillDirectory) throws IOException {
+        int partitionCount = properties.getPartitions();
+        Path[] files = new Path[partitionCount];
+        DataOutputStream[] outputs = new DataOutputStream[partitionCount];
+        try {
+            for (int i = 0; i < partitionCount; i++) {
+                files[i] = spillDirectory.resolve("partition-" + i);
+                outputs[i] = new DataOutputStream(
+                        new BufferedOutputStream(Files.newOutputStream(files[i]), SPILL_BUFFER_BYTES));
+            }
+            UUID after = null;
+            while (state == State.RUNNING) {
+                List<DuplicateCandidate> page = nextPage(after);
+                if (page.isEmpty()) {
+                    break;
+                }
+                for (DuplicateCandidate candidate : page) {
+                    for (int type = 0; type < DuplicateCandidate.KEY_TYPES; type++) {
+                        String key = candidate.blockingKey(type);
+                        if (key != null) {
+                            DataOutputStream out = outputs[Math.floorMod(key.hashCode(), partitionCount)];
+                            out.writeByte(type);
+                            out.writeUTF(key);
+                            candidate.writeTo(out);
+                        }
+                    }
+                }
+                rowsScanned.addAndGet(page.size());
+                rowsCounter.increment(page.size());
+                after = page.get(page.size() - 1).id();
+            }
+        } finally {
+            for (DataOutputStream out : outputs) {
+                if (out != null) {
+                    out.close();
+                }
+            }
+        }
+        return files;
+    }
+
+    private List<DuplicateCandidate> nextPage(UUID after) {
+        String sql = after == null
+                ? SELECT_SQL + " ORDER BY customer_id LIMIT ?"
+                : SELECT_SQL + " WHERE customer_id > ? ORDER BY customer_id LIMIT ?";
+        Object[] args = after == null
+                ? new Object[] {properties.getPageSize()}
+                : new Object[] {after, properties.getPageSize()};
+        return jdbcTemplate.query(sql, (rs, rowNum) -> DuplicateCandidate.of(rs.getObject("customer_id", UUID.class),
+                rs.getString("given_name"), rs.getString("surname"), rs.getString("primary_email"),
+                rs.getString("contact_number")), args);
+    }
+
+    /**
+     * Counts the members of each block, one spill file at a time, and returns the keys of the
+     * blocks over the maximum block size.
+     */
+    private Set<String> findOversizedKeys(Path[] partitions) throws IOException {
+        Set<String> oversized = new HashSet<>();
+        for (int i = 0; i < partitions.length && state == State.RUNNING; i++) {
+            Map<String, Integer> sizes = new HashMap<>();
+            try (DataInputStream in = new DataInputStream(
+                    new BufferedInputStream(Files.newInputStream(partitions[i]), SPILL_BUFFER_BYTES))) {
+                while (in.read() != -1) {
+                    String key = in.readUTF();
+                    DuplicateCandidate.readFrom(in);
+                    if (sizes.merge(key, 1, Integer::sum) == properties.getMaxBlockSize() + 1) {
+                        oversized.add(key);
+                    }
+                }
+            }
+        }
+        oversizedBlocks.set(oversized.size());
+        return oversized;
+    }
+
+    /**
+     * Groups one spill file into blocks, without the oversized ones, and compares the candidates
+     * within each block in parallel.
+     */
+    private List<DuplicatePair> compare(Path partition, ForkJoinPool pool, Set<String> oversizedKeys)
+            throws IOException {
+        Map<String, Block> blocks = new HashMap<>();
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(partition), SPILL_BUFFER_BYTES))) {
+            int type;
+            while ((type = in.read()) != -1) {
+                int keyType = type;
+                String key = in.readUTF();
+                DuplicateCandidate candidate = DuplicateCandidate.readFrom(in);
+                if (!oversizedKeys.contains(key)) {
+                    blocks.computeIfAbsent(key, k -> new Block(keyType, new ArrayList<>(2))).candidates()
+                            .add(candidate);
+                }
+            }
+        }
+        List<Block> comparable = new ArrayList<>();
+        for (Block block : blocks.values()) {
+            if (block.candidates().size() > 1) {
+                comparable.add(block);
+            }
+        }
+        List<DuplicatePair> pairs = pool.invoke(new CompareTask(comparable, 0, comparable.size(), oversizedKeys));
+        blocksCompared.addAndGet(comparable.size());
+        duplicatePairs.addAndGet(pairs.size());
+        pairsCounter.increment(pairs.size());
+        return pairs;
+    }
+
+    private void pruneOldReports() throws IOException {
+        List<Path> reports;
+        try (Stream<Path> listing = Files.list(directory)) {
+            reports = listing.filter(path -> {
+                String name = path.getFileName().toString();
+                return name.startsWith(REPORT_PREFIX) && name.endsWith(REPORT_SUFFIX);
+            }).sorted().toList();
+        }
+        // Names start with a sortable timestamp, so the oldest come first
+        for (int i = 0; i < reports.size() - properties.getMaxReports(); i++) {
+            Files.deleteIfExists(reports.get(i));
+        }
+    }
+
+    private void finish() {
+        lock.lock();
+        try {
+            finishedAt = Instant.now();
+            if (error.get() != null) {
+                state = State.FAILED;
+            } else {
+                state = state == State.STOPPING ? State.STOPPED : State.COMPLETED;
+            }
+            DetectionStatus status = status();
+            logger.info("Duplicate detection {}: {} customers at {} per second, {} comparisons, {} duplicate pairs, "
+                    + "{} oversized blocks skipped", state, status.rowsScanned(), Math.round(status.rowsPerSecond()),
+                    status.comparisons(), status.duplicatePairs(), status.oversizedBlocks());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Compares the candidates of a range of blocks, splitting the range until it is small enough.
+     */
+    private final class CompareTask extends RecursiveTask<List<DuplicatePair>> {
+
+        private final List<Block> blocks;
+        private final int from;
+        private final int to;
+        private final Set<String> oversizedKeys;
+
+        CompareTask(List<Block> blocks, int from, int to, Set<String> oversizedKeys) {
+            this.blocks = blocks;
+            this.from = from;
+            this.to = to;
+            this.oversizedKeys = oversizedKeys;
+        }
+
+        @Override
+        protected List<DuplicatePair> compute() {
+            if (to - from > BLOCKS_PER_TASK) {
+                int middle = (from + to) >>> 1;
+                CompareTask left = new CompareTask(blocks, from, middle, oversizedKeys);
+                left.fork();
+                List<DuplicatePair> pairs = new ArrayList<>(
+                        new CompareTask(blocks, middle, to, oversizedKeys).compute());
+                pairs.addAll(left.join());
+                return pairs;
+            }
+            List<DuplicatePair> pairs = new ArrayList<>();
+            long compared = 0;
+            for (int b = from; b < to; b++) {
+                Block block = blocks.get(b);
+                List<DuplicateCandidate> candidates = block.candidates();
+                for (int i = 0; i < candidates.size(); i++) {
+                    DuplicateCandidate first = candidates.get(i);
+                    for (int j = i + 1; j < candidates.size(); j++) {
+                        DuplicateCandidate second = candidates.get(j);
+                        if (first.sharesEarlierKey(second, block.type(), oversizedKeys)) {
+                            continue;
+                        }
+                        compared++;
+                        MatchReason reason = first.match(second);
+                        if (reason != null) {
+                            pairs.add(first.id().compareTo(second.id()) < 0
+                                    ? new DuplicatePair(first.id(), second.id(), reason)
+                                    : new DuplicatePair(second.id(), first.id(), reason));
+                        }
+                    }
+                }
+            }
+            comparisons.add(compared);
+            return pairs;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.customerapi.service;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration for the group-commit write path of customer creation.
+ * Bound from properties prefixed with "customer-api.group-commit".
+ */
+@Data
+@ConfigurationProperties(prefix = "customer-api.group-commit")
+public class GroupCommitProperties {
+
+    /**
+     * Whether creates are queued and committed in batches instead of one transaction each.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Maximum number of creates waiting to be written. When full, creates are written directly.
+     */
+    private int queueCapacity = 10_000;
+
+    /**
+     * Maximum number of rows written and committed together.
+     */
+    private int maxBatchSize = 100;
+
+    /**
+     * How long the writer waits for more creates to fill a batch after the first one arrives.
+     * Longer waits mean bigger batches (fewer commits) but add up to this much latency per create.
+     */
+    private Duration maxBatchDelay = Duration.ofMillis(2);
+}
@@ -0,0 +1,279 @@
+package com.example.customerapi.service;
+
+import com.example.customerapi.exception.DeadlineExceededException;
+import com.example.customerapi.model.Customer;
+import com.example.customerapi.repository.CustomerRepository;
+import com.example.customerapi.repository.CustomerRepositoryCustom;
+import com.example.customerapi.resilience.RequestDeadline;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Writes customer creates in batches, one commit per batch instead of one per create.
+ *
+ * Request threads put their create on a bounded queue and wait. A single writer thread takes
+ * whatever has queued up (up to the batch size, waiting at most the batch delay for more),
+ * inserts it with one multi-row statement and commits once; each waiting request is then
+ * released with its stored customer. A create is only acknowledged after its batch has
+ * committed, so it is exactly as durable as a create in its own transaction.
+ *
+ * If one row of a batch violates a constraint (e.g. a duplicate email) the batch is rolled
+ * back and its rows are written one by one, so only the offending create fails.
+ *
+ * A create whose request deadline passes while it is still queued is abandoned and never
+ * written, so a create is never committed after its caller was told it failed. Once the writer
+ * has taken a create into a batch, the caller waits for that batch to commit even past its deadline.
+ */
+@Component
+public class GroupCommitWriter implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(GroupCommitWriter.class);
+
+    static final String BATCH_SIZE_METRIC = "customer.group-commit.batch.size";
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 10_000;
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    private final CustomerRepositoryCustom repository;
+    private final TransactionTemplate transactions;
+    private final GroupCommitProperties properties;
+    private final BlockingQueue<PendingCreate> queue;
+    private final DistributionSummary batchSizes;
+    private final Timer commitTimer;
+    private final Timer waitTimer;
+    private final Counter overflow;
+    private final Counter skippedExpired;
+    private volatile boolean running;
+    private Thread writer;
+
+    /**
+     * Constructor for dependency injection.
+     *
+     * @param repository The customer repository the batches are inserted through
+     * @param transactionManager The transaction manager committing each batch
+     * @param meterRegistry The registry for the batching metrics
+     * @param properties The group-commit configuration
+     */
+    @Autowired
+    public GroupCommitWriter(CustomerRepository repository, PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry, GroupCommitProperties properties) {
+        this((CustomerRepositoryCustom) repository, transactionManager, meterRegistry, properties);
+    }
+
+    GroupCommitWriter(CustomerRepositoryCustom repository, PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry, GroupCommitProperties properties) {
+        this.repository = repository;
+        this.transactions = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.batchSizes = DistributionSummary.builder(BATCH_SIZE_METRIC)
+                .description("Number of creates committed together")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.commitTimer = Timer.builder("customer.group-commit.commit")
+                .description("Time to insert and commit one batch")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("customer.group-commit.wait")
+                .description("Time from queueing a create until its batch committed")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.overflow = Counter.builder("customer.group-commit.overflow")
+                .description("Creates written directly because the queue was full")
+                .register(meterRegistry);
+        this.skippedExpired = DeadlineTransactions.exceededCounter(meterRegistry, "service");
+        Gauge.builder("customer.group-commit.queue", queue, BlockingQueue::size)
+                .description("Creates waiting to be written")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts the writer thread if group commit is enabled.
+     */
+    @PostConstruct
+    public void start() {
+        if (!properties.isEnabled() || running) {
+            return;
+        }
+        running = true;
+        writer = Thread.ofPlatform().name("customer-group-commit").daemon(true).start(this::drain);
+    }
+
+    /**
+     * Stops accepting creates and waits for the writer to commit what is already queued.
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        if (writer != null) {
+            writer.join(SHUTDOWN_TIMEOUT_MILLIS);
+        }
+    }
+
+    /**
+     * Creates a customer through the next batch and waits for that batch to commit.
+     *
+     * @param customer The customer to create
+     * @return The stored customer, or empty if group commit is disabled or the queue is full,
+     *         in which case the caller should write the customer directly
+     * @throws DeadlineExceededException if the request deadline passes before the batch commits
+     */
+    public Optional<Customer> tryCreate(Customer customer) {
+        if (!running) {
+            return Optional.empty();
+        }
+        RequestDeadline deadline = RequestDeadline.current();
+        if (deadline != null && deadline.isExpired()) {
+            skippedExpired.increment();
+            throw new DeadlineExceededException("Request deadline exceeded before the create was queued");
+        }
+        PendingCreate pending = new PendingCreate(customer, new CompletableFuture<>(), new AtomicBoolean(),
+                System.nanoTime());
+        if (!queue.offer(pending)) {
+            overflow.increment();
+            return Optional.empty();
+        }
+        return Optional.of(await(pending, deadline));
+    }
+
+    private Customer await(PendingCreate pending, RequestDeadline deadline) {
+        CompletableFuture<Customer> result = pending.result();
+        try {
+            try {
+                return deadline == null ? result.get() : result.get(deadline.remainingNanos(), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException ex) {
+                if (pending.claimed().compareAndSet(false, true)) {
+                    // Still queued: the writer will skip it, so the create is never written
+                    skippedExpired.increment();
+                    throw new DeadlineExceededException("Request deadline exceeded waiting for the batch to commit",
+                            ex);
+                }
+                // Already in a batch being written; wait for its outcome so the caller sees the commit
+                return result.get();
+            }
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Group commit failed", ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for the batch to commit", ex);
+        }
+    }
+
+    private void drain() {
+        List<PendingCreate> batch = new ArrayList<>(properties.getMaxBatchSize());
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingCreate first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                fill(batch);
+                write(batch);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                logger.warn("Group commit writer interrupted with {} creates queued", queue.size());
+                return;
+            } catch (RuntimeException ex) {
+                // write() completes every future itself; never let the writer thread die
+                logger.error("Group commit writer failed", ex);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Adds queued creates to the batch until it is full or the batch delay has passed.
+     */
+    private void fill(List<PendingCreate> batch) throws InterruptedException {
+        int maxBatchSize = properties.getMaxBatchSize();
+        long until = System.nanoTime() + properties.getMaxBatchDelay().toNanos();
+        queue.drainTo(batch, maxBatchSize - batch.size());
+        while (batch.size() < maxBatchSize) {
+            long remaining = until - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            PendingCreate next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+            queue.drainTo(batch, maxBatchSize - batch.size());
+        }
+    }
+
+    private void write(List<PendingCreate> batch) {
+        // Take each create from its caller, dropping those whose callers already gave up
+        batch.removeIf(pending -> !pending.claimed().compareAndSet(false, true));
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<Customer> customers = batch.stream().map(PendingCreate::customer).toList();
+        long start = System.nanoTime();
+        try {
+            List<Customer> stored = transactions.execute(status -> repository.insertAll(customers));
+            commitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            batchSizes.record(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                complete(batch.get(i), stored.get(i));
+            }
+        } catch (DataIntegrityViolationException ex) {
+            writeIndividually(batch);
+        } catch (RuntimeException ex) {
+            batch.forEach(pending -> pending.result().completeExceptionally(ex));
+        }
+    }
+
+    private void writeIndividually(List<PendingCreate> batch) {
+        for (PendingCreate pending : batch) {
+            try {
+                List<Customer> single = List.of(pending.customer());
+                List<Customer> stored = transactions.execute(status -> repository.insertAll(single));
+                batchSizes.record(1);
+                complete(pending, stored.get(0));
+            } catch (RuntimeException ex) {
+                pending.result().completeExceptionally(ex);
+            }
+        }
+    }
+
+    private void complete(PendingCreate pending, Customer stored) {
+        waitTimer.record(System.nanoTime() - pending.queuedAt(), TimeUnit.NANOSECONDS);
+        pending.result().complete(stored);
+    }
+
+    /**
+     * A create waiting for its batch. Claimed by the writer before it is written, or by the
+     * caller when its deadline passes first; whichever claims it decides its fate.
+     */
+    private record PendingCreate(Customer customer, CompletableFuture<Customer> result, AtomicBoolean claimed,
+            long queuedAt) {
+    }
+}
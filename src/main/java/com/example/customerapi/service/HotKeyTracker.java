@@ -0,0 +1,171 @@
+package com.example.customerapi.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Tracks the most frequently read customers.
+ *
+ * Every access increments a {@link CountMinSketch}; customers whose estimate beats the
+ * smallest tracked count are admitted to a space-saving top-K set, evicting the current
+ * minimum. The common case (a key that is neither tracked nor hot enough) is a handful of
+ * atomic increments and a volatile read. Counts are halved periodically so the ranking
+ * follows current traffic rather than all-time totals.
+ */
+@Component
+public class HotKeyTracker {
+
+    private final boolean enabled;
+    private final int capacity;
+    private final CountMinSketch sketch;
+    private final Map<UUID, Long> topKeys = new ConcurrentHashMap<>();
+    private final ReentrantLock admissionLock = new ReentrantLock();
+    private final LongAdder totalAccesses = new LongAdder();
+    private volatile long admissionThreshold;
+
+    /**
+     * Constructor for dependency injection of the tracker configuration.
+     *
+     * @param enabled Whether accesses are recorded
+     * @param capacity Number of top keys tracked
+     * @param width Counters per sketch row
+     * @param depth Number of sketch rows
+     */
+    public HotKeyTracker(@Value("${customer-api.hotkeys.enabled:true}") boolean enabled,
+            @Value("${customer-api.hotkeys.capacity:100}") int capacity,
+            @Value("${customer-api.hotkeys.sketch-width:8192}") int width,
+            @Value("${customer-api.hotkeys.sketch-depth:4}") int depth) {
+        this.enabled = enabled;
+        this.capacity = capacity;
+        this.sketch = new CountMinSketch(width, depth);
+    }
+
+    /**
+     * Records a read of a customer.
+     *
+     * @param customerId The id of the customer that was read
+     */
+    public void record(UUID customerId) {
+        if (!enabled || customerId == null) {
+            return;
+        }
+        totalAccesses.increment();
+        long estimate = sketch.add(hash(customerId));
+        if (topKeys.computeIfPresent(customerId, (id, count) -> Math.max(count, estimate)) != null) {
+            return;
+        }
+        if (estimate <= admissionThreshold && topKeys.size() >= capacity) {
+            return;
+        }
+        admissionLock.lock();
+        try {
+            admit(customerId, estimate);
+        } finally {
+            admissionLock.unlock();
+        }
+    }
+
+    private void admit(UUID customerId, long estimate) {
+        if (topKeys.containsKey(customerId)) {
+            topKeys.merge(customerId, estimate, Math::max);
+            return;
+        }
+        if (topKeys.size() < capacity) {
+            topKeys.put(customerId, estimate);
+        } else {
+            // K is small, so a linear scan for the minimum is cheaper than keeping a heap
+            // consistent with counts that are updated concurrently outside the lock.
+            Map.Entry<UUID, Long> minimum = minimumEntry();
+            if (minimum == null || estimate <= minimum.getValue()) {
+                admissionThreshold = minimum != null ? minimum.getValue() : 0L;
+                return;
+            }
+            topKeys.remove(minimum.getKey());
+            topKeys.put(customerId, estimate);
+        }
+        if (topKeys.size() >= capacity) {
+            Map.Entry<UUID, Long> minimum = minimumEntry();
+            admissionThreshold = minimum != null ? minimum.getValue() : 0L;
+        }
+    }
+
+    private Map.Entry<UUID, Long> minimumEntry() {
+        return topKeys.entrySet().stream()
+                .min(Map.Entry.comparingByValue())
+                .orElse(null);
+    }
+
+    /**
+     * Halves all counts so the ranking reflects recent traffic.
+     */
+    @Scheduled(fixedRateString = "${customer-api.hotkeys.decay-interval:PT1M}",
+            initialDelayString = "${customer-api.hotkeys.decay-interval:PT1M}")
+    public void decay() {
+        admissionLock.lock();
+        try {
+            sketch.decay();
+            topKeys.replaceAll((id, count) -> count >>> 1);
+            topKeys.values().removeIf(count -> count == 0L);
+            admissionThreshold = admissionThreshold >>> 1;
+            long total = totalAccesses.sumThenReset();
+            totalAccesses.add(total >>> 1);
+        } finally {
+            admissionLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the hottest customers ordered by estimated access count.
+     *
+     * @param limit Maximum number of entries returned
+     * @return The hot keys, most frequent first
+     */
+    public List<HotKey> topKeys(int limit) {
+        return topKeys.entrySet().stream()
+                .sorted(Map.Entry.<UUID, Long>comparingByValue(Comparator.reverseOrder()))
+                .limit(limit)
+                .map(entry -> new HotKey(entry.getKey(), entry.getValue()))
+                .toList();
+    }
+
+    /**
+     * Returns the estimated number of accesses to a customer.
+     *
+     * @param customerId The customer id
+     * @return The estimated (decayed) access count
+     */
+    public long estimate(UUID customerId) {
+        return sketch.estimate(hash(customerId));
+    }
+
+    /**
+     * Returns the total number of recorded accesses, decayed along with the counts.
+     *
+     * @return The decayed access total
+     */
+    public long totalAccesses() {
+        return totalAccesses.sum();
+    }
+
+    private static long hash(UUID id) {
+        return id.getMostSignificantBits() * 31 + id.getLeastSignificantBits();
+    }
+
+    /**
+     * A frequently accessed customer and its estimated access count.
+     *
+     * @param customerId The customer id
+     * @param estimatedCount The estimated (decayed) access count
+     */
+    public record HotKey(UUID customerId, long estimatedCount) {
+    }
+}
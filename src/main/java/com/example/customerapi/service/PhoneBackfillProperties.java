@@ -0,0 +1,29 @@
+package com.example.customerapi.service;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration for the background backfill of normalized contact numbers.
+ * Bound from properties prefixed with "customer-api.phone-backfill".
+ */
+@Data
+@ConfigurationProperties(prefix = "customer-api.phone-backfill")
+public class PhoneBackfillProperties {
+
+    /**
+     * Number of customers read and updated per chunk, each chunk in its own transaction.
+     */
+    private int chunkSize = 500;
+
+    /**
+     * Number of chunks updated concurrently.
+     */
+    private int parallelism = 4;
+
+    /**
+     * Whether the backfill starts when the application starts. It can also be started
+     * and stopped at any time through /actuator/phonebackfill.
+     */
+    private boolean runOnStartup = false;
+}
@@ -0,0 +1,301 @@
+package com.example.customerapi.service;
+
+import com.example.customerapi.model.PhoneNumbers;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fills in the normalized E.164 contact number of customers stored before the column existed.
+ *
+ * A coordinator thread walks the customers still missing the column in primary key order,
+ * one chunk at a time, and hands each chunk to a small worker pool that updates it in its
+ * own transaction. At most the configured parallelism chunks are in flight, so the scan never
+ * runs ahead of the writers. The backfill is resumable: rows are only ever selected while
+ * the column is still empty, so after a stop or a restart a new run picks up what is left.
+ * Contact numbers that cannot be normalized are counted and left empty. Each chunk records its
+ * customers as changed for the other replicas in the same transaction, and once committed they
+ * are refreshed in this replica's cache and indexes.
+ */
+@Service
+public class PhoneBackfillService implements ApplicationRunner, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(PhoneBackfillService.class);
+
+    static final String ROWS_METRIC = "customer.phone-backfill.rows";
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 10_000;
+
+    private static final String SELECT_SQL = "SELECT customer_id, contact_number FROM customers "
+            + "WHERE contact_number_e164 IS NULL AND contact_number IS NOT NULL";
+    private static final String UPDATE_SQL = "UPDATE customers SET contact_number_e164 = ? "
+            + "WHERE customer_id = ? AND contact_number = ? AND contact_number_e164 IS NULL";
+
+    /**
+     * Lifecycle of a backfill run.
+     */
+    public enum State {
+        IDLE, RUNNING, STOPPING, COMPLETED, STOPPED, FAILED
+    }
+
+    /**
+     * Progress of the current or last backfill run.
+     *
+     * @param state Where the run is in its lifecycle
+     * @param scanned Customers read without a normalized contact number
+     * @param updated Customers whose normalized contact number was written
+     * @param unparseable Customers whose contact number could not be normalized
+     * @param startedAt When the run started, or null if none has
+     * @param finishedAt When the run finished, or null if it hasn't
+     * @param error Why the run failed, or null
+     */
+    public record BackfillStatus(State state, long scanned, long updated, long unparseable,
+            Instant startedAt, Instant finishedAt, String error) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactions;
+    private final CustomerService customers;
+    private final CustomerCacheInvalidator invalidations;
+    private final PhoneBackfillProperties properties;
+    private final Counter updatedRows;
+    private final Counter unparseableRows;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final AtomicLong scanned = new AtomicLong();
+    private final AtomicLong updated = new AtomicLong();
+    private final AtomicLong unparseable = new AtomicLong();
+    private final AtomicReference<String> error = new AtomicReference<>();
+    private volatile State state = State.IDLE;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile Thread coordinator;
+
+    /**
+     * Constructor for dependency injection.
+     *
+     * @param jdbcTemplate The template for the customers table
+     * @param transactionManager The transaction manager committing each chunk
+     * @param customers Refreshes the cache and indexes with the updated customers
+     * @param invalidations Tells the other replicas which customers were updated
+     * @param meterRegistry The registry for the backfill metrics
+     * @param properties The backfill configuration
+     */
+    public PhoneBackfillService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            CustomerService customers, CustomerCacheInvalidator invalidations, MeterRegistry meterRegistry,
+            PhoneBackfillProperties properties) {
+        if (properties.getChunkSize() < 1 || properties.getParallelism() < 1) {
+            throw new IllegalArgumentException("Backfill chunk size and parallelism must be at least 1");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactions = new TransactionTemplate(transactionManager);
+        this.customers = customers;
+        this.invalidations = invalidations;
+        this.properties = properties;
+        this.updatedRows = Counter.builder(ROWS_METRIC)
+                .description("Customers processed by the contact number backfill")
+                .tag("outcome", "updated")
+                .register(meterRegistry);
+        this.unparseableRows = Counter.builder(ROWS_METRIC)
+                .description("Customers processed by the contact number backfill")
+                .tag("outcome", "unparseable")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts the backfill at application start if configured to.
+     *
+     * @param args The application arguments
+     */
+    @Override
+    public void run(ApplicationArguments args) {
+        if (properties.isRunOnStartup()) {
+            start();
+        }
+    }
+
+    /**
+     * Stops the backfill and waits for the chunks in flight to commit.
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        stop();
+        Thread running = coordinator;
+        if (running != null) {
+            running.join(SHUTDOWN_TIMEOUT_MILLIS);
+        }
+    }
+
+    /**
+     * Starts a backfill run in the background, unless one is already running.
+     *
+     * @return The status of the run
+     */
+    public BackfillStatus start() {
+        lock.lock();
+        try {
+            if (state == State.RUNNING || state == State.STOPPING) {
+                return status();
+            }
+            scanned.set(0);
+            updated.set(0);
+            unparseable.set(0);
+            error.set(null);
+            startedAt = Instant.now();
+            finishedAt = null;
+            state = State.RUNNING;
+            coordinator = Thread.ofPlatform().name("customer-phone-backfill").daemon(true).start(this::backfill);
+            return status();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Asks a running backfill to stop after the chunks already in flight. A later run resumes
+     * with the customers that are still missing the normalized number.
+     *
+     * @return The status of the run
+     */
+    public BackfillStatus stop() {
+        lock.lock();
+        try {
+            if (state == State.RUNNING) {
+                state = State.STOPPING;
+            }
+            return status();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the progress of the current or last run.
+     *
+     * @return The backfill status
+     */
+    public BackfillStatus status() {
+        return new BackfillStatus(state, scanned.get(), updated.get(), unparseable.get(),
+                startedAt, finishedAt, error.get());
+    }
+
+    private void backfill() {
+        int parallelism = properties.getParallelism();
+        Semaphore inFlight = new Semaphore(parallelism);
+        ExecutorService workers = Executors.newFixedThreadPool(parallelism,
+                Thread.ofPlatform().name("customer-phone-backfill-", 0).daemon(true).factory());
+        logger.info("Contact number backfill started");
+        try {
+            Object after = null;
+            while (state == State.RUNNING && error.get() == null) {
+                List<Object[]> chunk = nextChunk(after);
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                scanned.addAndGet(chunk.size());
+                after = chunk.get(chunk.size() - 1)[1];
+                inFlight.acquire();
+                workers.execute(() -> {
+                    try {
+                        update(chunk);
+                    } catch (RuntimeException ex) {
+                        logger.warn("Contact number backfill chunk failed", ex);
+                        error.compareAndSet(null, ex.getMessage());
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+            inFlight.acquire(parallelism);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            error.compareAndSet(null, "Interrupted");
+        } catch (RuntimeException ex) {
+            logger.warn("Contact number backfill failed", ex);
+            error.compareAndSet(null, ex.getMessage());
+        } finally {
+            workers.shutdown();
+            finish();
+        }
+    }
+
+    /**
+     * Reads the next chunk after the given primary key, as rows of [contact number, customer id]
+     * ready to be bound to the update once the normalized number is put in front.
+     */
+    private List<Object[]> nextChunk(Object after) {
+        String sql = after == null
+                ? SELECT_SQL + " ORDER BY customer_id LIMIT ?"
+                : SELECT_SQL + " AND customer_id > ? ORDER BY customer_id LIMIT ?";
+        Object[] args = after == null
+                ? new Object[] {properties.getChunkSize()}
+                : new Object[] {after, properties.getChunkSize()};
+        return jdbcTemplate.query(sql, (rs, rowNum) ->
+                new Object[] {rs.getString("contact_number"), rs.getObject("customer_id", UUID.class)}, args);
+    }
+
+    private void update(List<Object[]> chunk) {
+        List<Object[]> batch = new ArrayList<>(chunk.size());
+        List<UUID> ids = new ArrayList<>(chunk.size());
+        for (Object[] row : chunk) {
+            String e164 = PhoneNumbers.toE164((String) row[0]);
+            if (e164 == null) {
+                unparseable.incrementAndGet();
+                unparseableRows.increment();
+            } else {
+                batch.add(new Object[] {e164, row[1], row[0]});
+                ids.add((UUID) row[1]);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        int[] counts = transactions.execute(status -> {
+            int[] rowCounts = jdbcTemplate.batchUpdate(UPDATE_SQL, batch);
+            invalidations.recordAll(ids);
+            return rowCounts;
+        });
+        long written = 0;
+        for (int count : counts) {
+            // Drivers may report a statement as executed without a row count
+            written += count == Statement.SUCCESS_NO_INFO ? 1 : count;
+        }
+        updated.addAndGet(written);
+        updatedRows.increment(written);
+        customers.refreshCustomers(ids);
+    }
+
+    private void finish() {
+        lock.lock();
+        try {
+            finishedAt = Instant.now();
+            if (error.get() != null) {
+                state = State.FAILED;
+            } else {
+                state = state == State.STOPPING ? State.STOPPED : State.COMPLETED;
+            }
+            logger.info("Contact number backfill {}: {} scanned, {} updated, {} unparseable",
+                    state, scanned.get(), updated.get(), unparseable.get());
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,339 @@
+package com.example.customerapi.service;
+
+import com.example.customerapi.model.Customer;
+import com.example.customerapi.repository.CustomerRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.commons.codec.language.DoubleMetaphone;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory phonetic index for finding customers by a misspelled or misheard name.
+ *
+ * Each word of a customer's given name and surname is reduced to its Double Metaphone codes
+ * (primary and alternate), and the customer is filed under each code. A query is encoded the
+ * same way; only customers in the matching buckets are candidates, and those are re-ranked by
+ * edit distance to the spelled query. When a query has several words, customers matching all
+ * of them are preferred. The number of candidates re-ranked per query is capped, so a lookup
+ * never degrades into a scan of all customers.
+ *
+ * Like {@link CustomerSearchIndex}, the index is loaded at startup and kept current by
+ * {@link CustomerService} after each committed write.
+ */
+@Component
+public class PhoneticNameIndex implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(PhoneticNameIndex.class);
+
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}]+");
+    private static final int LOAD_PAGE_SIZE = 1_000;
+
+    private final CustomerRepository repository;
+    private final DoubleMetaphone encoder = new DoubleMetaphone();
+    private final int maxCandidates;
+    private final Map<String, Set<UUID>> buckets = new ConcurrentHashMap<>();
+    private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor for dependency injection.
+     *
+     * @param repository The repository the index is loaded from at startup
+     * @param meterRegistry The registry for the index size metrics
+     * @param maxCandidates Maximum number of customers re-ranked per query
+     */
+    @Autowired
+    public PhoneticNameIndex(CustomerRepository repository, MeterRegistry meterRegistry,
+            @Value("${customer-api.fuzzy-search.max-candidates:5000}") int maxCandidates) {
+        this.repository = repository;
+        this.maxCandidates = maxCandidates;
+        Gauge.builder("customer.fuzzy.index.codes", buckets, Map::size)
+                .description("Distinct phonetic codes in the fuzzy name index")
+                .register(meterRegistry);
+        Gauge.builder("customer.fuzzy.index.customers", entries, Map::size)
+                .description("Customers in the fuzzy name index")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Loads every customer from the table, page by page. Customers written while the load runs
+     * are already current in the index and are not overwritten by the older page.
+     *
+     * @param args The application arguments
+     */
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.nanoTime();
+        Page<Customer> page = repository.findAll(PageRequest.of(0, LOAD_PAGE_SIZE, Sort.by("customerId")));
+        while (true) {
+            page.forEach(this::load);
+            if (!page.hasNext()) {
+                break;
+            }
+            page = repository.findAll(page.nextPageable());
+        }
+        logger.info("Fuzzy name index loaded {} customers with {} codes in {} ms", entries.size(), buckets.size(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Adds a customer, or replaces its previously indexed names.
+     *
+     * @param customer The customer as stored
+     */
+    public void put(Customer customer) {
+        if (customer == null || customer.getCustomerId() == null) {
+            return;
+        }
+        Entry replacement = entryOf(customer);
+        entries.compute(customer.getCustomerId(), (id, previous) -> {
+            if (previous != null) {
+                unindex(id, previous);
+            }
+            index(id, replacement);
+            return replacement;
+        });
+    }
+
+    /**
+     * Removes a customer.
+     *
+     * @param customerId The id of the deleted customer
+     */
+    public void remove(UUID customerId) {
+        entries.computeIfPresent(customerId, (id, previous) -> {
+            unindex(id, previous);
+            return null;
+        });
+    }
+
+    /**
+     * Finds customers whose name sounds like the query, closest spelling first.
+     *
+     * @param name One or more words of the given name and/or surname
+     * @param limit The maximum number of customers returned
+     * @return Up to limit customers, ordered by edit distance to the query
+     */
+    public List<Customer> search(String name, int limit) {
+        List<String> queryWords = words(name);
+        if (queryWords.isEmpty()) {
+            return List.of();
+        }
+        List<Match> matches = new ArrayList<>();
+        for (UUID id : candidates(queryWords)) {
+            Entry entry = entries.get(id);
+            if (entry != null) {
+                matches.add(new Match(id, entry, distance(queryWords, entry.words())));
+            }
+        }
+        return matches.stream()
+                .sorted(Comparator.comparingInt(Match::distance).thenComparing(match -> match.entry().sortKey()))
+                .limit(limit)
+                .map(match -> match.entry().toCustomer(match.id()))
+                .toList();
+    }
+
+    /**
+     * Collects candidates from the buckets of each query word. Customers matching every word
+     * come first; the rest only fill up to the candidate cap. Buckets are read in place rather
+     * than copied, so the cost follows the cap and the smallest bucket, not the largest.
+     */
+    private Set<UUID> candidates(List<String> queryWords) {
+        List<List<Set<UUID>>> perWord = new ArrayList<>(queryWords.size());
+        for (String word : queryWords) {
+            List<Set<UUID>> wordBuckets = new ArrayList<>(2);
+            for (String code : codes(word)) {
+                Set<UUID> bucket = buckets.get(code);
+                if (bucket != null) {
+                    wordBuckets.add(bucket);
+                }
+            }
+            perWord.add(wordBuckets);
+        }
+        perWord.sort(Comparator.comparingInt(wordBuckets -> wordBuckets.stream().mapToInt(Set::size).sum()));
+
+        Set<UUID> candidates = new LinkedHashSet<>();
+        if (perWord.size() > 1) {
+            for (Set<UUID> bucket : perWord.get(0)) {
+                for (UUID id : bucket) {
+                    if (candidates.size() >= maxCandidates) {
+                        return candidates;
+                    }
+                    if (perWord.stream().allMatch(wordBuckets -> containsAny(wordBuckets, id))) {
+                        candidates.add(id);
+                    }
+                }
+            }
+        }
+        for (List<Set<UUID>> wordBuckets : perWord) {
+            for (Set<UUID> bucket : wordBuckets) {
+                for (UUID id : bucket) {
+                    if (candidates.size() >= maxCandidates) {
+                        return candidates;
+                    }
+                    candidates.add(id);
+                }
+            }
+        }
+        return candidates;
+    }
+
+    private static boolean containsAny(List<Set<UUID>> wordBuckets, UUID id) {
+        for (Set<UUID> bucket : wordBuckets) {
+            if (bucket.contains(id)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void load(Customer customer) {
+        Entry loaded = entryOf(customer);
+        entries.computeIfAbsent(customer.getCustomerId(), id -> {
+            index(id, loaded);
+            return loaded;
+        });
+    }
+
+    private void index(UUID id, Entry entry) {
+        for (String code : entry.codes()) {
+            // Added inside compute, so a concurrent unindex can't drop the set between lookup and add
+            buckets.compute(code, (key, ids) -> {
+                Set<UUID> bucket = ids == null ? ConcurrentHashMap.newKeySet() : ids;
+                bucket.add(id);
+                return bucket;
+            });
+        }
+    }
+
+    private void unindex(UUID id, Entry entry) {
+        for (String code : entry.codes()) {
+            buckets.computeIfPresent(code, (key, ids) -> {
+                ids.remove(id);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    private Entry entryOf(Customer customer) {
+        List<String> words = new ArrayList<>(words(customer.getGivenName()));
+        words.addAll(words(customer.getSurname()));
+        Set<String> codes = new HashSet<>();
+        for (String word : words) {
+            codes.addAll(codes(word));
+        }
+        return new Entry(copy(customer.getCustomerId(), customer), List.copyOf(words), Set.copyOf(codes));
+    }
+
+    private Set<String> codes(String word) {
+        Set<String> codes = new HashSet<>(2);
+        String primary = encoder.doubleMetaphone(word);
+        if (primary != null && !primary.isEmpty()) {
+            codes.add(primary);
+        }
+        String alternate = encoder.doubleMetaphone(word, true);
+        if (alternate != null && !alternate.isEmpty()) {
+            codes.add(alternate);
+        }
+        return codes;
+    }
+
+    private static List<String> words(String value) {
+        if (value == null || value.isBlank()) {
+            return List.of();
+        }
+        List<String> words = new ArrayList<>();
+        for (String word : WORD_SEPARATOR.split(value.toLowerCase(Locale.ROOT))) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Sums, for each query word, the edit distance to the closest word of the customer's name.
+     */
+    private static int distance(List<String> queryWords, List<String> nameWords) {
+        int total = 0;
+        for (String queryWord : queryWords) {
+            int best = Integer.MAX_VALUE;
+            for (String nameWord : nameWords) {
+                best = Math.min(best, levenshtein(queryWord, nameWord));
+            }
+            total += best == Integer.MAX_VALUE ? queryWord.length() : best;
+        }
+        return total;
+    }
+
+    static int levenshtein(String a, String b) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = previous[j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    /**
+     * The indexed copy of a customer with its name words and phonetic codes.
+     */
+    private record Entry(Customer customer, List<String> words, Set<String> codes) {
+
+        String sortKey() {
+            return String.join(" ", words);
+        }
+
+        Customer toCustomer(UUID id) {
+            return copy(id, customer);
+        }
+    }
+
+    /**
+     * Detached copy, so later changes to a managed entity or a returned result don't leak into the index.
+     */
+    private static Customer copy(UUID id, Customer customer) {
+        return Customer.builder()
+                .customerId(id)
+                .givenName(customer.getGivenName())
+                .middleInitial(customer.getMiddleInitial())
+                .surname(customer.getSurname())
+                .primaryEmail(customer.getPrimaryEmail())
+                .contactNumber(customer.getContactNumber())
+                .contactNumberE164(customer.getContactNumberE164())
+                .build();
+    }
+
+    private record Match(UUID id, Entry entry, int distance) {
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.customerapi.service;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration for the snapshots of the customers table taken to survive restarts of the
+ * in-memory database. Bound from properties prefixed with "customer-api.snapshot".
+ */
+@Data
+@ConfigurationProperties(prefix = "customer-api.snapshot")
+public class SnapshotProperties {
+
+    /**
+     * Whether snapshots are taken, writes logged between them, and the table restored at startup.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Local directory, ideally a volume that outlives the pod, holding the snapshots and the change log.
+     */
+    private String directory = "snapshots";
+
+    /**
+     * Number of snapshots kept. The change log is kept back to the oldest of them, so a corrupt
+     * latest snapshot can be replaced by the one before.
+     */
+    private int maxSnapshots = 2;
+
+    /**
+     * Number of customers inserted per batch and transaction when restoring.
+     */
+    private int restoreBatchSize = 1_000;
+
+    /**
+     * Number of threads inserting batches when restoring. Defaults to the number of processors.
+     */
+    private int restoreParallelism = Runtime.getRuntime().availableProcessors();
+}
@@ -0,0 +1,111 @@
+package com.example.customerapi.service;
+
+import com.example.customerapi.exception.DeadlineExceededException;
+import com.example.customerapi.resilience.RequestDeadline;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * A fixed array of locks that serializes work on the same key within this node.
+ *
+ * Keys are hashed onto the stripes, so work on the same key always takes the same lock while
+ * work on different keys mostly proceeds in parallel; two keys sharing a stripe only costs
+ * some needless waiting. Memory stays constant however many keys there are, and no lock
+ * objects are created or cleaned up per key. Waits are bounded by the request deadline.
+ */
+@Component
+public class StripedLocks {
+
+    static final String WAIT_METRIC = "customer.lock.wait";
+
+    private final ReentrantLock[] locks;
+    private final int mask;
+    private final Timer waitTimer;
+    private final Counter timeouts;
+
+    /**
+     * Constructor for dependency injection.
+     *
+     * @param stripes Number of locks, rounded up to a power of two
+     * @param meterRegistry The registry for the lock wait metrics
+     */
+    public StripedLocks(@Value("${customer-api.locking.stripes:256}") int stripes, MeterRegistry meterRegistry) {
+        if (stripes < 1) {
+            throw new IllegalArgumentException("stripes must be positive");
+        }
+        int size = Integer.highestOneBit(stripes);
+        size = size < stripes ? size << 1 : size;
+        this.locks = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+        this.waitTimer = Timer.builder(WAIT_METRIC)
+                .description("Time spent waiting for a per-customer lock")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.timeouts = Counter.builder("customer.lock.timeouts")
+                .description("Lock waits abandoned because the request deadline passed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs an action while holding the lock for a key.
+     *
+     * @param key The key to serialize on
+     * @param action The action to run
+     * @param <T> The result type
+     * @return The result of the action
+     * @throws DeadlineExceededException if the request deadline passed while waiting
+     */
+    public <T> T withLock(Object key, Supplier<T> action) {
+        ReentrantLock lock = lockFor(key);
+        long start = System.nanoTime();
+        acquire(lock);
+        waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void acquire(ReentrantLock lock) {
+        RequestDeadline deadline = RequestDeadline.current();
+        if (deadline == null) {
+            lock.lock();
+            return;
+        }
+        try {
+            if (lock.tryLock(deadline.remainingNanos(), TimeUnit.NANOSECONDS)) {
+                return;
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        timeouts.increment();
+        throw new DeadlineExceededException("Request deadline exceeded waiting for a concurrent update");
+    }
+
+    ReentrantLock lockFor(Object key) {
+        int h = key.hashCode();
+        // Spread the high bits down so keys differing only there don't share a stripe
+        return locks[(h ^ (h >>> 16)) & mask];
+    }
+
+    /**
+     * Returns the number of stripes.
+     *
+     * @return The number of locks
+     */
+    public int stripes() {
+        return locks.length;
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.customerapi.service;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration for the warm-up run at startup before the pod reports ready.
+ * Bound from properties prefixed with "customer-api.warmup".
+ */
+@Data
+@ConfigurationProperties(prefix = "customer-api.warmup")
+public class WarmupProperties {
+
+    /**
+     * Whether the cache is preloaded and the API exercised before readiness.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Longest readiness is held for the warm-up; it stops and the pod reports ready after this.
+     */
+    private Duration timeout = Duration.ofSeconds(60);
+
+    /**
+     * Maximum number of customers preloaded into the cache.
+     */
+    private int preloadCount = 1_000;
+
+    /**
+     * File the hottest customer ids are saved to periodically and at shutdown, and read from
+     * at startup. When blank, hot keys aren't saved and the cache is preloaded from the table.
+     */
+    private String hotKeysFile = "";
+
+    /**
+     * Number of synthetic requests sent to the API over loopback to warm up the JIT.
+     */
+    private int requests = 5_000;
+
+    /**
+     * Number of threads sending the synthetic requests.
+     */
+    private int concurrency = 4;
+}
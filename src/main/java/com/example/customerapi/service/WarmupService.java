@@ -0,0 +1,389 @@
+package com.example.customerapi.service;
+
+import com.example.customerapi.model.Customer;
+import com.example.customerapi.repository.CustomerRepository;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.web.context.WebServerInitializedEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Warms the pod up after startup so the first real requests don't pay for cold caches and
+ * interpreted code.
+ *
+ * Once the application has started, a background thread preloads the customer cache with the
+ * customers that were hottest before the last shutdown, as saved from the {@link HotKeyTracker},
+ * topped up from the table. It then sends synthetic read requests over loopback to the main
+ * {@code /api/customers} endpoints, so the filters, controller, serialization and repository
+ * paths are compiled before traffic arrives. The requests carry the {@link WarmupToken}, so they
+ * are neither rate limited nor counted as hot keys. The "warmup" readiness indicator reports
+ * OUT_OF_SERVICE until this completes or the timeout passes, whichever is first. The duration
+ * and the cache hit rate during the synthetic requests are logged and published as metrics.
+ */
+@Service
+public class WarmupService implements ApplicationRunner, ApplicationListener<WebServerInitializedEvent>,
+        DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(WarmupService.class);
+
+    static final String DURATION_METRIC = "customer.warmup.duration";
+    static final String HIT_RATIO_METRIC = "customer.warmup.hit.ratio";
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 10_000;
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(5);
+    private static final int PRELOAD_CHUNK = 500;
+    private static final int REQUEST_KINDS = 5;
+
+    /**
+     * Lifecycle of the warm-up.
+     */
+    public enum State {
+        DISABLED, PENDING, RUNNING, COMPLETED, TIMED_OUT, FAILED
+    }
+
+    /**
+     * Progress or outcome of the warm-up.
+     *
+     * @param state Where the warm-up is in its lifecycle
+     * @param preloaded Customers put in the cache
+     * @param preloadedHotKeys Of those, customers taken from the saved hot keys
+     * @param requests Synthetic requests sent
+     * @param failedRequests Synthetic requests that failed or didn't return a 2xx status
+     * @param cacheHitRate Share of cache lookups during the synthetic requests that hit
+     * @param duration How long the warm-up took, or has taken so far
+     * @param startedAt When the warm-up started, or null if it hasn't
+     * @param error Why the warm-up failed, or null
+     */
+    public record WarmupStatus(State state, int preloaded, int preloadedHotKeys, long requests, long failedRequests,
+            double cacheHitRate, Duration duration, Instant startedAt, String error) {
+    }
+
+    private final CustomerRepository repository;
+    private final CustomerCache cache;
+    private final HotKeyTracker hotKeyTracker;
+    private final WarmupToken token;
+    private final WarmupProperties properties;
+    private final Path hotKeysFile;
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong failedRequests = new AtomicLong();
+    private volatile State state;
+    private volatile int port = -1;
+    private volatile int preloaded;
+    private volatile int preloadedHotKeys;
+    private volatile double cacheHitRate;
+    private volatile long startNanos;
+    private volatile long durationNanos;
+    private volatile Instant startedAt;
+    private volatile String error;
+    private volatile Thread worker;
+
+    /**
+     * Constructor for dependency injection.
+     *
+     * @param repository The repository customers are preloaded from
+     * @param cache The cache that is preloaded
+     * @param hotKeyTracker The tracker whose hottest customers are saved for the next start
+     * @param token The token that marks the synthetic requests
+     * @param meterRegistry The registry for the warm-up metrics
+     * @param properties The warm-up configuration
+     */
+    public WarmupService(CustomerRepository repository, CustomerCache cache, HotKeyTracker hotKeyTracker,
+            WarmupToken token, MeterRegistry meterRegistry, WarmupProperties properties) {
+        if (properties.getPreloadCount() < 0 || properties.getRequests() < 0 || properties.getConcurrency() < 1) {
+            throw new IllegalArgumentException("Warm-up preload count and requests must not be negative and "
+                    + "concurrency must be at least 1");
+        }
+        this.repository = repository;
+        this.cache = cache;
+        this.hotKeyTracker = hotKeyTracker;
+        this.token = token;
+        this.properties = properties;
+        this.hotKeysFile = properties.getHotKeysFile().isBlank()
+                ? null
+                : Paths.get(properties.getHotKeysFile()).toAbsolutePath().normalize();
+        this.state = properties.isEnabled() ? State.PENDING : State.DISABLED;
+        Gauge.builder(DURATION_METRIC, this, warmup -> warmup.durationNanos / 1e9)
+                .description("Time the last warm-up took")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder(HIT_RATIO_METRIC, this, warmup -> warmup.cacheHitRate)
+                .description("Customer cache hit ratio during the warm-up requests")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void onApplicationEvent(WebServerInitializedEvent event) {
+        if (event.getApplicationContext().getServerNamespace() == null) {
+            port = event.getWebServer().getPort();
+        }
+    }
+
+    void setPort(int port) {
+        this.port = port;
+    }
+
+    /**
+     * Starts the warm-up in the background once the application has started.
+     *
+     * @param args The application arguments
+     */
+    @Override
+    public void run(ApplicationArguments args) {
+        if (state != State.PENDING) {
+            return;
+        }
+        startNanos = System.nanoTime();
+        startedAt = Instant.now();
+        state = State.RUNNING;
+        worker = Thread.ofPlatform().name("customer-warmup").daemon(true).start(this::warmUp);
+    }
+
+    /**
+     * Stops a running warm-up and saves the hot keys for the next start.
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        saveHotKeys();
+        Thread running = worker;
+        if (running != null) {
+            running.interrupt();
+            running.join(SHUTDOWN_TIMEOUT_MILLIS);
+        }
+    }
+
+    /**
+     * Returns whether readiness should still be held: the warm-up hasn't run yet, or is running
+     * and within its timeout.
+     *
+     * @return True while the pod shouldn't receive traffic yet
+     */
+    public boolean isHoldingReadiness() {
+        return state == State.PENDING || (state == State.RUNNING && !deadlinePassed());
+    }
+
+    /**
+     * Returns the progress or outcome of the warm-up.
+     *
+     * @return The warm-up status
+     */
+    public WarmupStatus status() {
+        long elapsed = state == State.RUNNING ? System.nanoTime() - startNanos : durationNanos;
+        return new WarmupStatus(state, preloaded, preloadedHotKeys, requests.get(), failedRequests.get(),
+                cacheHitRate, Duration.ofNanos(elapsed), startedAt, error);
+    }
+
+    /**
+     * Saves the hottest customer ids, hottest first, for the warm-up of the next start. Does
+     * nothing without a hot keys file, or before any customer has been read.
+     */
+    @Scheduled(fixedRateString = "${customer-api.warmup.save-interval:PT1M}",
+            initialDelayString = "${customer-api.warmup.save-interval:PT1M}")
+    public void saveHotKeys() {
+        if (hotKeysFile == null) {
+            return;
+        }
+        List<String> ids = hotKeyTracker.topKeys(properties.getPreloadCount()).stream()
+                .map(hotKey -> hotKey.customerId().toString())
+                .toList();
+        if (ids.isEmpty()) {
+            return;
+        }
+        try {
+            Files.createDirectories(hotKeysFile.getParent());
+            Path temporary = hotKeysFile.resolveSibling(hotKeysFile.getFileName() + ".tmp");
+            Files.write(temporary, ids);
+            Files.move(temporary, hotKeysFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            logger.warn("Could not save hot keys to {}", hotKeysFile, ex);
+        }
+    }
+
+    private void warmUp() {
+        try {
+            List<Customer> customers = preload();
+            if (port > 0 && properties.getRequests() > 0) {
+                CacheStats before = cache.stats();
+                sendRequests(customers);
+                CacheStats during = cache.stats().minus(before);
+                cacheHitRate = during.requestCount() == 0 ? 0.0 : during.hitRate();
+            }
+            durationNanos = System.nanoTime() - startNanos;
+            state = deadlinePassed() ? State.TIMED_OUT : State.COMPLETED;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            finishFailed("Interrupted");
+            return;
+        } catch (RuntimeException ex) {
+            logger.warn("Warm-up failed", ex);
+            finishFailed(ex.getMessage());
+            return;
+        }
+        logger.info("Warm-up {} in {} ms: {} customers preloaded ({} hot), {} requests ({} failed), "
+                + "cache hit rate {}", state, durationNanos / 1_000_000, preloaded, preloadedHotKeys,
+                requests.get(), failedRequests.get(), String.format(Locale.ROOT, "%.3f", cacheHitRate));
+    }
+
+    private void finishFailed(String message) {
+        durationNanos = System.nanoTime() - startNanos;
+        error = message;
+        state = State.FAILED;
+    }
+
+    /**
+     * Puts the saved hot customers in the cache, then tops up with customers from the table.
+     */
+    private List<Customer> preload() {
+        int limit = properties.getPreloadCount();
+        long readStamp = cache.readStamp();
+        List<Customer> loaded = new ArrayList<>();
+        List<UUID> hotKeys = readHotKeys(limit);
+        for (int start = 0; start < hotKeys.size() && !deadlinePassed(); start += PRELOAD_CHUNK) {
+            loaded.addAll(repository.findAllById(hotKeys.subList(start, Math.min(start + PRELOAD_CHUNK,
+                    hotKeys.size()))));
+        }
+        preloadedHotKeys = loaded.size();
+        if (loaded.size() < limit && !deadlinePassed()) {
+            Set<UUID> present = new LinkedHashSet<>(hotKeys);
+            repository.findAll(PageRequest.of(0, limit, Sort.by("customerId"))).forEach(customer -> {
+                if (loaded.size() < limit && !present.contains(customer.getCustomerId())) {
+                    loaded.add(customer);
+                }
+            });
+        }
+        loaded.forEach(customer -> cache.putIfAbsent(customer, readStamp));
+        preloaded = loaded.size();
+        return loaded;
+    }
+
+    private List<UUID> readHotKeys(int limit) {
+        if (hotKeysFile == null || !Files.exists(hotKeysFile)) {
+            return List.of();
+        }
+        Set<UUID> ids = new LinkedHashSet<>();
+        try (var lines = Files.lines(hotKeysFile)) {
+            // Damaged lines are skipped before the limit, so they don't take preload slots
+            lines.map(WarmupService::parseHotKey)
+                    .filter(Objects::nonNull)
+                    .distinct()
+                    .limit(limit)
+                    .forEach(ids::add);
+        } catch (IOException | RuntimeException ex) {
+            logger.warn("Could not read hot keys from {}", hotKeysFile, ex);
+        }
+        return List.copyOf(ids);
+    }
+
+    private static UUID parseHotKey(String line) {
+        try {
+            return UUID.fromString(line.strip());
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Sends the synthetic requests from several threads, cycling through the read endpoints.
+     */
+    private void sendRequests(List<Customer> customers) throws InterruptedException {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(REQUEST_TIMEOUT).build();
+        String base = "http://localhost:" + port + "/api/customers";
+        AtomicLong next = new AtomicLong();
+        ExecutorService senders = Executors.newFixedThreadPool(properties.getConcurrency(),
+                Thread.ofPlatform().name("customer-warmup-", 0).daemon(true).factory());
+        try {
+            for (int i = 0; i < properties.getConcurrency(); i++) {
+                senders.execute(() -> {
+                    long request;
+                    while ((request = next.getAndIncrement()) < properties.getRequests() && !deadlinePassed()
+                            && !Thread.currentThread().isInterrupted()) {
+                        send(client, request(base, request, customers));
+                    }
+                });
+            }
+        } finally {
+            senders.shutdown();
+            long remaining = properties.getTimeout().toNanos() - (System.nanoTime() - startNanos);
+            if (!senders.awaitTermination(Math.max(remaining, 0) + REQUEST_TIMEOUT.toNanos(), TimeUnit.NANOSECONDS)) {
+                senders.shutdownNow();
+            }
+        }
+    }
+
+    private HttpRequest request(String base, long request, List<Customer> customers) {
+        Customer customer = customers.isEmpty() ? null : customers.get((int) (request / REQUEST_KINDS
+                % customers.size()));
+        String uri = switch ((int) (request % REQUEST_KINDS)) {
+            // Without customers a lookup by id could only return 404, so list them instead
+            case 0 -> customer != null ? base + "/" + customer.getCustomerId() : base + "?page=0&size=20";
+            case 1 -> base + "?page=0&size=20";
+            case 2 -> base + "/search?prefix=" + searchPrefix(customer);
+            case 3 -> base;
+            default -> base + "/stats?limit=10";
+        };
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(uri))
+                .timeout(REQUEST_TIMEOUT)
+                .header(WarmupToken.HEADER, token.value());
+        return request % REQUEST_KINDS == 3
+                ? builder.method("HEAD", HttpRequest.BodyPublishers.noBody()).build()
+                : builder.GET().build();
+    }
+
+    private static String searchPrefix(Customer customer) {
+        String surname = customer != null ? customer.getSurname() : null;
+        if (surname == null || surname.length() < 2 || !surname.chars().limit(2).allMatch(Character::isLetter)) {
+            return "a";
+        }
+        return surname.substring(0, 2).toLowerCase(Locale.ROOT);
+    }
+
+    private void send(HttpClient client, HttpRequest request) {
+        try {
+            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() / 100 != 2) {
+                failedRequests.incrementAndGet();
+            }
+        } catch (IOException ex) {
+            failedRequests.incrementAndGet();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        requests.incrementAndGet();
+    }
+
+    private boolean deadlinePassed() {
+        return System.nanoTime() - startNanos > properties.getTimeout().toNanos();
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.customerapi.service;
+
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.UUID;
+
+/**
+ * Secret that marks the synthetic requests of the {@link WarmupService}, so the rate limiter
+ * lets them through and the {@link HotKeyTracker} doesn't count them.
+ *
+ * The value is generated at startup and only sent over loopback, so clients can't use the
+ * header to skip the rate limit.
+ */
+@Component
+public class WarmupToken {
+
+    public static final String HEADER = "X-Warmup-Token";
+
+    private final String value = UUID.randomUUID().toString();
+
+    /**
+     * Returns the value the warm-up sends in the {@value #HEADER} header.
+     *
+     * @return The token
+     */
+    public String value() {
+        return value;
+    }
+
+    /**
+     * Returns whether a header value is this token.
+     *
+     * @param headerValue The value of the {@value #HEADER} header, or null if it is absent
+     * @return True if the request was sent by the warm-up
+     */
+    public boolean matches(String headerValue) {
+        return headerValue != null && MessageDigest.isEqual(value.getBytes(StandardCharsets.UTF_8),
+                headerValue.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.customerapi;
+
+import com.example.customerapi.model.Customer;
+import com.example.customerapi.service.CustomerService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests that a write on one replica evicts the customer from another replica's cache, running two
+ * application contexts against one shared in-memory H2 database.
+ */
+public class CrossReplicaCacheInvalidationTest {
+
+    private ConfigurableApplicationContext first;
+    private ConfigurableApplicationContext second;
+
+    @BeforeEach
+    public void setup() {
+        String url = "jdbc:h2:mem:replicas-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+        first = start(url);
+        second = start(url);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        second.close();
+        first.close();
+    }
+
+    @Test
+    public void testUpdateOnOneReplicaEvictsTheOther() throws InterruptedException {
+        // Arrange
+        CustomerService firstReplica = first.getBean(CustomerService.class);
+        CustomerService secondReplica = second.getBean(CustomerService.class);
+        Customer created = firstReplica.createCustomer(customer("Doe"));
+        UUID id = created.getCustomerId();
+        assertEquals("Doe", secondReplica.getCustomerById(id).orElseThrow().getSurname());
+
+        // Act
+        firstReplica.updateCustomer(id, customer("Smith"));
+
+        // Assert
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!"Smith".equals(secondReplica.getCustomerById(id).orElseThrow().getSurname())
+                && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals("Smith", secondReplica.getCustomerById(id).orElseThrow().getSurname());
+        assertTrue(second.getBean(MeterRegistry.class).get("customer.cache.invalidation.lag").timer().count() >= 1);
+    }
+
+    private static ConfigurableApplicationContext start(String url) {
+        return new SpringApplicationBuilder(CustomerApiApplication.class).run(
+                "--spring.datasource.url=" + url,
+                "--server.port=0",
+                "--spring.jpa.show-sql=false",
+                "--customer-api.warmup.enabled=false",
+                "--customer-api.cache-invalidation.poll-interval=PT0.02S");
+    }
+
+    private static Customer customer(String surname) {
+        return Customer.builder()
+                .givenName("John")
+                .middleInitial("Q")
+                .surname(surname)
+                .primaryEmail("john.doe@example.com")
+                .contactNumber("555-123-4567")
+                .build();
+    }
+}
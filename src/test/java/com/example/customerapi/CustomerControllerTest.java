@@ -3,6 +3,7 @@ package com.example.customerapi;
 
 import com.example.customerapi.model.Customer;
 import com.example.customerapi.repository.CustomerRepository;
+import com.example.customerapi.service.CustomerStats;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -12,16 +13,20 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
-// import org.springframework.test.web.servlet.MvcResult; // Unused import
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.util.List;
 import java.util.UUID;
 
 import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.head;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -42,6 +47,9 @@ public class CustomerControllerTest {
     @Autowired
     private CustomerRepository customerRepository;
 
+    @Autowired
+    private CustomerStats customerStats;
+
     private Customer testCustomer;
     private UUID testCustomerId;
 
@@ -109,6 +117,44 @@ public class CustomerControllerTest {
                 .andExpect(jsonPath("$[0].customerId").value(testCustomerId.toString()));
     }
 
+    /**
+     * Test listing customers filtered by email domain and surname prefix via the API.
+     * Verifies that only matching customers are returned, in surname order.
+     */
+    @Test
+    public void testGetCustomersWithFilters() throws Exception {
+        customerRepository.save(Customer.builder().givenName("Sam").surname("Smart")
+                .primaryEmail("sam.smart@EXAMPLE.com").contactNumber("555-123-4567").build());
+        customerRepository.save(Customer.builder().givenName("Ed").surname("Smith")
+                .primaryEmail("ed.smith@other.org").contactNumber("555-123-4568").build());
+
+        mockMvc.perform(get("/api/customers").param("emailDomain", "example.com").param("namePrefix", "Sm"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].surname").value("Smart"))
+                .andExpect(jsonPath("$[1].customerId").value(testCustomerId.toString()));
+
+        mockMvc.perform(get("/api/customers").param("surname", "Smith").param("sort", "givenName").param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].givenName").value("Ed"));
+    }
+
+    /**
+     * Test that filter and sort combinations no index can serve are rejected.
+     */
+    @Test
+    public void testGetCustomersRejectsUnindexedCombinations() throws Exception {
+        mockMvc.perform(get("/api/customers").param("emailDomain", "example.com").param("sort", "givenName"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/customers").param("surname", "Smith").param("namePrefix", "Sm"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/customers").param("size", "1000"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/customers").param("page", "5000").param("size", "10"))
+                .andExpect(status().isBadRequest());
+    }
+
     /**
      * Test retrieving a specific customer by ID via the API.
      * Verifies that the correct customer data is returned.
@@ -133,6 +179,18 @@ public class CustomerControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    /**
+     * Test retrieving a specific customer by email via the API.
+     * Verifies that the correct customer data is returned.
+     */
+    @Test
+    public void testGetCustomerByEmail() throws Exception {
+        mockMvc.perform(get("/api/customers/by-email/{email}", "jane.smith@example.com"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.customerId").value(testCustomerId.toString()))
+                .andExpect(jsonPath("$.primaryEmail").value("jane.smith@example.com"));
+    }
+
     /**
      * Test updating an existing customer via the API.
      * Verifies that the customer data is updated correctly.
@@ -190,4 +248,241 @@ public class CustomerControllerTest {
                 .content(objectMapper.writeValueAsString(customer)))
                 .andExpect(status().isBadRequest());
     }
+
+    /**
+     * Test upserting by email via the API.
+     * Verifies that a new email creates a customer (201) and an existing email updates it in place (200).
+     */
+    @Test
+    public void testUpsertCustomerByEmail() throws Exception {
+        Customer newCustomer = Customer.builder()
+                .givenName("John")
+                .surname("Doe")
+                .primaryEmail("john.doe@example.com")
+                .contactNumber("123-456-7890")
+                .build();
+
+        mockMvc.perform(put("/api/customers/by-email/{email}", "john.doe@example.com")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(newCustomer)))
+                .andExpect(status().isCreated())
+                .andExpect(header().exists("Location"))
+                .andExpect(jsonPath("$.customerId").exists())
+                .andExpect(jsonPath("$.givenName").value("John"));
+
+        Customer existingCustomer = Customer.builder()
+                .givenName("Jane")
+                .middleInitial("Q")
+                .surname("Smith")
+                .primaryEmail("jane.smith@example.com")
+                .contactNumber("555-123-4567")
+                .build();
+
+        mockMvc.perform(put("/api/customers/by-email/{email}", "jane.smith@example.com")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(existingCustomer)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.customerId").value(testCustomerId.toString()))
+                .andExpect(jsonPath("$.middleInitial").value("Q"))
+                .andExpect(jsonPath("$.contactNumber").value("555-123-4567"));
+    }
+
+    /**
+     * Test upserting by email with a body whose email differs from the path.
+     * Verifies that a 400 Bad Request response is returned.
+     */
+    @Test
+    public void testUpsertCustomerByEmailMismatch() throws Exception {
+        Customer customer = Customer.builder()
+                .givenName("John")
+                .surname("Doe")
+                .primaryEmail("john.doe@example.com")
+                .contactNumber("123-456-7890")
+                .build();
+
+        mockMvc.perform(put("/api/customers/by-email/{email}", "someone.else@example.com")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(customer)))
+                .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Test creating customers in bulk via the API.
+     * Verifies that a duplicate email fails only its own item.
+     */
+    @Test
+    public void testCreateCustomersBatch() throws Exception {
+        List<Customer> customers = List.of(
+                Customer.builder().givenName("John").surname("Doe").primaryEmail("john.doe@example.com")
+                        .contactNumber("123-456-7890").build(),
+                Customer.builder().givenName("Jane").surname("Smith").primaryEmail("jane.smith@example.com")
+                        .contactNumber("234-567-8901").build());
+
+        mockMvc.perform(post("/api/customers/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(customers)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("COMPLETED"))
+                .andExpect(jsonPath("$.succeeded").value(1))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.errors[0].index").value(1));
+    }
+
+    /**
+     * Test creating a customer asynchronously via the API.
+     * Verifies that 202 Accepted is returned with a job that can be polled until it completes.
+     */
+    @Test
+    public void testCreateCustomerAsync() throws Exception {
+        Customer customer = Customer.builder()
+                .givenName("John")
+                .surname("Doe")
+                .primaryEmail("john.doe@example.com")
+                .contactNumber("123-456-7890")
+                .build();
+
+        MvcResult accepted = mockMvc.perform(post("/api/customers")
+                .header("Prefer", "respond-async")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(customer)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Preference-Applied", "respond-async"))
+                .andExpect(header().exists("Location"))
+                .andExpect(jsonPath("$.total").value(1))
+                .andReturn();
+
+        String location = accepted.getResponse().getHeader("Location");
+        String status = "QUEUED";
+        for (int attempt = 0; attempt < 100 && !"COMPLETED".equals(status); attempt++) {
+            Thread.sleep(20);
+            MvcResult poll = mockMvc.perform(get(location)).andExpect(status().isOk()).andReturn();
+            status = objectMapper.readTree(poll.getResponse().getContentAsString()).get("status").asText();
+        }
+        assertEquals("COMPLETED", status);
+        assertNotNull(customerRepository.findByPrimaryEmail("john.doe@example.com").orElse(null));
+    }
+
+    /**
+     * Test retrieving an unknown job via the API.
+     * Verifies that a 404 Not Found response is returned.
+     */
+    @Test
+    public void testGetJobNotFound() throws Exception {
+        mockMvc.perform(get("/api/customers/jobs/{id}", UUID.randomUUID()))
+                .andExpect(status().isNotFound());
+    }
+
+    /**
+     * Test type-ahead search via the API.
+     * Verifies that a customer created through the API is found by the start of its surname, ignoring case.
+     */
+    @Test
+    public void testSearchCustomersByPrefix() throws Exception {
+        Customer customer = Customer.builder()
+                .givenName("Zelda")
+                .surname("Quasimodo")
+                .primaryEmail("zelda.q@example.com")
+                .contactNumber("345-678-9012")
+                .build();
+        mockMvc.perform(post("/api/customers")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(customer)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/customers/search").param("prefix", "QUASI"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].givenName").value("Zelda"));
+
+        mockMvc.perform(get("/api/customers/search").param("prefix", "zel").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Test fuzzy name search via the API.
+     * Verifies that a misspelled name finds the customer with the similar-sounding name.
+     */
+    @Test
+    public void testFindCustomersByNameSound() throws Exception {
+        Customer customer = Customer.builder()
+                .givenName("Katherine")
+                .surname("Schmidt")
+                .primaryEmail("k.schmidt@example.com")
+                .contactNumber("456-789-0123")
+                .build();
+        mockMvc.perform(post("/api/customers")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(customer)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/customers/fuzzy").param("name", "Catherine Schmit"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].primaryEmail").value("k.schmidt@example.com"));
+    }
+
+    /**
+     * Test looking customers up by phone number via the API.
+     * Verifies that a number written in a different format than it was stored in still matches.
+     */
+    @Test
+    public void testGetCustomersByPhone() throws Exception {
+        mockMvc.perform(get("/api/customers/by-phone/{phone}", "(987) 654-3210"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].customerId").value(testCustomerId.toString()))
+                .andExpect(jsonPath("$[0].contactNumberE164").value("+19876543210"));
+
+        mockMvc.perform(get("/api/customers/by-phone/{phone}", "+44 20 7946 0000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    /**
+     * Test that a phone lookup with something that is not a phone number is rejected.
+     */
+    @Test
+    public void testGetCustomersByPhoneRejectsInvalidNumber() throws Exception {
+        mockMvc.perform(get("/api/customers/by-phone/{phone}", "call-me"))
+                .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Test the customer counts via the API.
+     * The test customer is saved directly through the repository, so the counters are reconciled first;
+     * a customer created through the API is then counted without reconciliation.
+     */
+    @Test
+    public void testCustomerStatsAndTotalCount() throws Exception {
+        customerStats.reconcile();
+        mockMvc.perform(head("/api/customers"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", "1"));
+
+        Customer customer = Customer.builder()
+                .givenName("John")
+                .surname("Doe")
+                .primaryEmail("john.doe@example.com")
+                .contactNumber("123-456-7890")
+                .build();
+        mockMvc.perform(post("/api/customers")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(customer)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(head("/api/customers"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", "2"));
+        mockMvc.perform(get("/api/customers/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(2))
+                .andExpect(jsonPath("$.byEmailDomain['example.com']").value(2))
+                .andExpect(jsonPath("$.bySurnameInitial.D").value(1))
+                .andExpect(jsonPath("$.bySurnameInitial.S").value(1))
+                .andExpect(jsonPath("$.reconciledAt").exists());
+        mockMvc.perform(get("/api/customers/stats").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+
+        customerRepository.deleteAll();
+        customerStats.reconcile();
+    }
 }
@@ -0,0 +1,42 @@
+package com.example.customerapi.actuator;
+
+import com.example.customerapi.service.DuplicateDetectionService;
+import com.example.customerapi.service.DuplicateDetectionService.DetectionStatus;
+import com.example.customerapi.service.DuplicateDetectionService.State;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for the DuplicatesEndpoint class.
+ */
+@ExtendWith(MockitoExtension.class)
+public class DuplicatesEndpointTest {
+
+    @Mock
+    private DuplicateDetectionService detection;
+
+    @Test
+    public void testOperationsDelegateToDetection() {
+        // Arrange
+        DetectionStatus running = new DetectionStatus(State.RUNNING, 1000, 0, 128, 0, 0, 0, 0, 5000.0,
+                Instant.now(), null, null, null);
+        DetectionStatus stopping = new DetectionStatus(State.STOPPING, 2000, 3, 128, 10, 0, 40, 2, 4000.0,
+                running.startedAt(), null, "duplicates/duplicates-20240101-000000-000.csv", null);
+        when(detection.start()).thenReturn(running);
+        when(detection.status()).thenReturn(running);
+        when(detection.stop()).thenReturn(stopping);
+        DuplicatesEndpoint endpoint = new DuplicatesEndpoint(detection);
+
+        // Act & Assert
+        assertEquals(running, endpoint.start());
+        assertEquals(running, endpoint.status());
+        assertEquals(stopping, endpoint.stop());
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.customerapi.actuator;
+
+import com.example.customerapi.service.HotKeyTracker;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests for the HotKeysEndpoint class.
+ */
+public class HotKeysEndpointTest {
+
+    @Test
+    public void testHotKeysListsTrackedCustomers() {
+        // Arrange
+        HotKeyTracker tracker = new HotKeyTracker(true, 10, 1024, 4);
+        UUID id = UUID.randomUUID();
+        tracker.record(id);
+        tracker.record(id);
+        HotKeysEndpoint endpoint = new HotKeysEndpoint(tracker);
+
+        // Act
+        Map<String, Object> result = endpoint.hotKeys(null);
+
+        // Assert
+        assertEquals(2L, result.get("totalAccesses"));
+        List<?> keys = (List<?>) result.get("keys");
+        assertEquals(1, keys.size());
+        assertEquals(new HotKeyTracker.HotKey(id, 2), keys.get(0));
+    }
+
+    @Test
+    public void testLimitBelowOneIsRejected() {
+        HotKeysEndpoint endpoint = new HotKeysEndpoint(new HotKeyTracker(true, 10, 1024, 4));
+
+        assertThrows(InvalidEndpointRequestException.class, () -> endpoint.hotKeys(0));
+        assertThrows(InvalidEndpointRequestException.class, () -> endpoint.hotKeys(-1));
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.customerapi.actuator;
+
+import com.example.customerapi.diagnostics.CustomerRequestEvent;
+import com.example.customerapi.diagnostics.JfrProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the JfrEndpoint class.
+ */
+public class JfrEndpointTest {
+
+    @TempDir
+    Path tempDir;
+
+    private JfrEndpoint endpoint;
+
+    @AfterEach
+    public void tearDown() {
+        if (endpoint != null) {
+            endpoint.destroy();
+        }
+    }
+
+    private JfrProperties properties(boolean enabled) {
+        JfrProperties properties = new JfrProperties();
+        properties.setEnabled(enabled);
+        properties.setDirectory(tempDir.toString());
+        return properties;
+    }
+
+    @Test
+    public void testStatusWhenDisabled() throws Exception {
+        // Arrange
+        endpoint = new JfrEndpoint(properties(false));
+
+        // Act
+        endpoint.start();
+        Map<String, Object> status = endpoint.status();
+
+        // Assert
+        assertEquals(false, status.get("enabled"));
+        assertEquals("NOT_STARTED", ((Map<?, ?>) status.get("continuous")).get("state"));
+    }
+
+    @Test
+    public void testDumpRequiresContinuousRecording() {
+        endpoint = new JfrEndpoint(properties(false));
+
+        assertThrows(InvalidEndpointRequestException.class, () -> endpoint.record("dump", 1, null));
+    }
+
+    @Test
+    public void testUnknownActionIsRejected() {
+        endpoint = new JfrEndpoint(properties(false));
+
+        assertThrows(InvalidEndpointRequestException.class, () -> endpoint.record("delete", null, null));
+    }
+
+    @Test
+    public void testDumpWritesFileToConfiguredDirectory() throws Exception {
+        // Arrange
+        endpoint = new JfrEndpoint(properties(true));
+        endpoint.start();
+        CustomerRequestEvent event = new CustomerRequestEvent();
+        event.route = "/api/customers/{id}";
+        event.status = 200;
+        event.commit();
+
+        // Act
+        Map<String, Object> result = endpoint.record("dump", 5, null);
+
+        // Assert
+        Path file = Paths.get((String) result.get("file"));
+        assertTrue(Files.exists(file));
+        assertEquals(tempDir.toAbsolutePath().normalize(), file.getParent());
+        assertEquals("RUNNING", ((Map<?, ?>) endpoint.status().get("continuous")).get("state"));
+    }
+
+    @Test
+    public void testOversizedDumpIsRejectedAndDeleted() throws Exception {
+        // Arrange
+        JfrProperties properties = properties(true);
+        properties.setMaxFileSize(DataSize.ofBytes(1));
+        endpoint = new JfrEndpoint(properties);
+        endpoint.start();
+
+        // Act & Assert
+        assertThrows(InvalidEndpointRequestException.class, () -> endpoint.record("dump", 5, null));
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertTrue(files.noneMatch(file -> file.getFileName().toString().endsWith(".jfr")));
+        }
+    }
+
+    @Test
+    public void testCustomerIdIsHashed() {
+        String hash = CustomerRequestEvent.hashCustomerId("123e4567-e89b-12d3-a456-426614174000");
+
+        assertEquals(16, hash.length());
+        assertEquals(hash, CustomerRequestEvent.hashCustomerId("123e4567-e89b-12d3-a456-426614174000"));
+    }
+}
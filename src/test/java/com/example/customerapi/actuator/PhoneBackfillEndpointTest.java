@@ -0,0 +1,42 @@
+package com.example.customerapi.actuator;
+
+import com.example.customerapi.service.PhoneBackfillService;
+import com.example.customerapi.service.PhoneBackfillService.BackfillStatus;
+import com.example.customerapi.service.PhoneBackfillService.State;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for the PhoneBackfillEndpoint class.
+ */
+@ExtendWith(MockitoExtension.class)
+public class PhoneBackfillEndpointTest {
+
+    @Mock
+    private PhoneBackfillService backfill;
+
+    @Test
+    public void testOperationsDelegateToBackfill() {
+        // Arrange
+        BackfillStatus running = new BackfillStatus(State.RUNNING, 10, 8, 2, Instant.now(), null, null);
+        BackfillStatus stopping = new BackfillStatus(State.STOPPING, 10, 8, 2, running.startedAt(), null, null);
+        when(backfill.start()).thenReturn(running);
+        when(backfill.status()).thenReturn(running);
+        when(backfill.stop()).thenReturn(stopping);
+        PhoneBackfillEndpoint endpoint = new PhoneBackfillEndpoint(backfill);
+
+        // Act & Assert
+        assertEquals(running, endpoint.start());
+        assertEquals(running, endpoint.status());
+        assertEquals(stopping, endpoint.stop());
+        verify(backfill).stop();
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.customerapi.config;
+
+import com.example.customerapi.exception.ErrorResponseWriter;
+import com.example.customerapi.resilience.BulkheadProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServlet;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the BulkheadFilter class.
+ */
+public class BulkheadFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private BulkheadFilter filter;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        BulkheadProperties properties = new BulkheadProperties();
+        properties.setMaxWait(Duration.ZERO);
+        BulkheadProperties.Compartment bulk = new BulkheadProperties.Compartment();
+        bulk.setMaxConcurrent(1);
+        bulk.setMaxQueued(0);
+        properties.getCompartments().put(RouteClass.BULK, bulk);
+        filter = new BulkheadFilter(properties, meterRegistry,
+                new ErrorResponseWriter(new ObjectMapper().findAndRegisterModules()));
+    }
+
+    @Test
+    public void testRequestHoldsSlotWhileInChain() throws ServletException, IOException {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/customers");
+        int[] activeDuringChain = new int[1];
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+        }, (req, res, next) -> activeDuringChain[0] = filter.bulkhead().getActive(RouteClass.BULK));
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        // Assert
+        assertEquals(1, activeDuringChain[0]);
+        assertEquals(0, filter.bulkhead().getActive(RouteClass.BULK));
+        assertEquals(1, meterRegistry.get("customer.bulkhead.queue.time").tag("bulkhead", "bulk").timer().count());
+    }
+
+    @Test
+    public void testRequestIsRejectedWhenBulkheadIsFull() throws Exception {
+        // Arrange
+        assertTrue(filter.bulkhead().acquire(RouteClass.BULK, 0));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/customers"), response, chain);
+
+        // Assert
+        assertNull(chain.getRequest());
+        assertEquals(503, response.getStatus());
+        assertEquals("1", response.getHeader("Retry-After"));
+        assertEquals(1.0, meterRegistry.get("customer.bulkhead.rejected").tag("bulkhead", "bulk")
+                .functionCounter().count());
+    }
+
+    @Test
+    public void testOtherRouteClassesAreNotAffected() throws Exception {
+        assertTrue(filter.bulkhead().acquire(RouteClass.BULK, 0));
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/customers/1"), new MockHttpServletResponse(), chain);
+
+        assertNotNull(chain.getRequest());
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.customerapi.config;
+
+import com.example.customerapi.exception.ErrorResponseWriter;
+import com.example.customerapi.resilience.AdaptiveConcurrencyLimiter;
+import com.example.customerapi.resilience.ConcurrencyLimitProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the ConcurrencyLimitFilter class.
+ */
+public class ConcurrencyLimitFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ConcurrencyLimitFilter filter;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+        ConcurrencyLimitProperties.Limits bulk = new ConcurrencyLimitProperties.Limits();
+        bulk.setInitialLimit(2);
+        bulk.setMinLimit(1);
+        properties.getRoutes().put(RouteClass.BULK, bulk);
+        filter = new ConcurrencyLimitFilter(properties, meterRegistry,
+                new ErrorResponseWriter(new ObjectMapper().findAndRegisterModules()));
+    }
+
+    @Test
+    public void testAdmittedRequestReachesChain() throws ServletException, IOException {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/customers");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        filter.doFilter(request, response, chain);
+
+        // Assert
+        assertNotNull(chain.getRequest());
+        assertEquals(200, response.getStatus());
+        assertEquals(0, filter.limiterFor(RouteClass.BULK).getInFlight());
+    }
+
+    @Test
+    public void testRequestBeyondLimitIsRejected() throws ServletException, IOException {
+        // Arrange
+        AdaptiveConcurrencyLimiter bulkLimiter = filter.limiterFor(RouteClass.BULK);
+        while (bulkLimiter.tryAcquire()) {
+            // saturate the bulk route class
+        }
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/customers");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        filter.doFilter(request, response, chain);
+
+        // Assert
+        assertNull(chain.getRequest());
+        assertEquals(503, response.getStatus());
+        assertEquals("1", response.getHeader("Retry-After"));
+        assertTrue(response.getContentAsString().contains("Service Overloaded"));
+        assertEquals(1.0, meterRegistry.get("customer.concurrency.rejected").tag("route", "bulk").counter().count());
+    }
+
+    @Test
+    public void testRouteClassesHaveSeparateLimits() throws ServletException, IOException {
+        // Arrange
+        AdaptiveConcurrencyLimiter bulkLimiter = filter.limiterFor(RouteClass.BULK);
+        while (bulkLimiter.tryAcquire()) {
+            // saturate the bulk route class
+        }
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/customers/123");
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        // Assert
+        assertNotNull(chain.getRequest());
+    }
+
+    @Test
+    public void testNonApiRequestsAreNotLimited() {
+        assertTrue(filter.shouldNotFilter(new MockHttpServletRequest("GET", "/actuator/health")));
+    }
+}
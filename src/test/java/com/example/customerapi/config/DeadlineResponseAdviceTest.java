@@ -0,0 +1,56 @@
+package com.example.customerapi.config;
+
+import com.example.customerapi.exception.DeadlineExceededException;
+import com.example.customerapi.resilience.RequestDeadline;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests for the DeadlineResponseAdvice class.
+ */
+public class DeadlineResponseAdviceTest {
+
+    private DeadlineResponseAdvice advice;
+
+    @BeforeEach
+    public void setup() {
+        advice = new DeadlineResponseAdvice(new SimpleMeterRegistry());
+        RequestDeadline.set(RequestDeadline.after(Duration.ofNanos(-1)));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        RequestDeadline.clear();
+    }
+
+    @Test
+    public void testExpiredReadIsNotSerialized() {
+        assertThrows(DeadlineExceededException.class, () -> write("GET", "body"));
+    }
+
+    @Test
+    public void testExpiredWriteReturnsItsResult() {
+        assertEquals("created", write("POST", "created"));
+        assertEquals("deleted", write("DELETE", "deleted"));
+    }
+
+    private Object write(String method, Object body) {
+        return advice.beforeBodyWrite(body, null, MediaType.APPLICATION_JSON,
+                MappingJackson2HttpMessageConverter.class,
+                new ServletServerHttpRequest(new MockHttpServletRequest(method, "/api/customers")),
+                new ServletServerHttpResponse(new MockHttpServletResponse()));
+    }
+}
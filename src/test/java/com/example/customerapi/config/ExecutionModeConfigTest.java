@@ -0,0 +1,76 @@
+package com.example.customerapi.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskDecorator;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the ExecutionModeConfig class.
+ */
+public class ExecutionModeConfigTest {
+
+    private final ExecutionModeConfig config = new ExecutionModeConfig();
+
+    @AfterEach
+    public void tearDown() {
+        MDC.clear();
+    }
+
+    @Test
+    public void testMdcTaskDecoratorPropagatesAndRestoresContext() {
+        // Arrange
+        TaskDecorator decorator = config.mdcTaskDecorator();
+        MDC.put("requestId", "request-1");
+        AtomicReference<String> seen = new AtomicReference<>();
+        Runnable decorated = decorator.decorate(() -> seen.set(MDC.get("requestId")));
+        MDC.put("requestId", "request-2");
+
+        // Act
+        decorated.run();
+
+        // Assert
+        assertEquals("request-1", seen.get());
+        assertEquals("request-2", MDC.get("requestId"));
+    }
+
+    @Test
+    public void testVirtualApplicationTaskExecutorRunsOnVirtualThreads() throws Exception {
+        // Arrange
+        MDC.put("requestId", "request-1");
+        try (ExecutorService virtualThreads = config.virtualThreadExecutor()) {
+            AsyncTaskExecutor executor = config.applicationTaskExecutor(virtualThreads, config.mdcTaskDecorator());
+
+            // Act
+            Future<String[]> result = executor.submit(() -> new String[] {
+                    String.valueOf(Thread.currentThread().isVirtual()), MDC.get("requestId")});
+            String[] observed = result.get(5, TimeUnit.SECONDS);
+
+            // Assert
+            assertTrue(Boolean.parseBoolean(observed[0]));
+            assertEquals("request-1", observed[1]);
+        }
+    }
+
+    @Test
+    public void testDecoratedTaskWithoutContextLeavesNoMdc() {
+        // Arrange
+        Runnable decorated = config.mdcTaskDecorator().decorate(() -> MDC.put("requestId", "leaked"));
+
+        // Act
+        decorated.run();
+
+        // Assert
+        assertNull(MDC.get("requestId"));
+    }
+}
@@ -0,0 +1,210 @@
+package com.example.customerapi.config;
+
+import com.example.customerapi.exception.ErrorResponseWriter;
+import com.example.customerapi.resilience.IdempotencyProperties;
+import com.example.customerapi.resilience.InMemoryIdempotencyStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the IdempotencyFilter class.
+ */
+public class IdempotencyFilterTest {
+
+    private static final String BODY = "{\"givenName\":\"John\"}";
+
+    private IdempotencyProperties properties;
+    private IdempotencyFilter filter;
+    private AtomicInteger executions;
+    private volatile int status;
+    private volatile CountDownLatch release;
+    private volatile CountDownLatch started;
+
+    @BeforeEach
+    public void setup() {
+        properties = new IdempotencyProperties();
+        filter = new IdempotencyFilter(properties, new InMemoryIdempotencyStore(100), new SimpleMeterRegistry(),
+                new ErrorResponseWriter(new ObjectMapper().findAndRegisterModules()));
+        executions = new AtomicInteger();
+        status = 200;
+        release = new CountDownLatch(0);
+        started = new CountDownLatch(1);
+    }
+
+    private MockHttpServletResponse post(String key, String body) throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/customers");
+        request.addHeader("Idempotency-Key", key);
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                String received = new String(req.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+                started.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                int execution = executions.incrementAndGet();
+                resp.setStatus(status);
+                if (status == HttpServletResponse.SC_ACCEPTED) {
+                    resp.setHeader("Location", "/api/customers/jobs/" + execution);
+                    resp.setHeader("Preference-Applied", "respond-async");
+                }
+                resp.setContentType("application/json");
+                resp.getWriter().write("{\"execution\":" + execution + ",\"received\":" + received + "}");
+            }
+        }));
+        return response;
+    }
+
+    @Test
+    public void testReplayReturnsStoredResponseWithoutExecuting() throws Exception {
+        // Act
+        MockHttpServletResponse first = post("key-1", BODY);
+        MockHttpServletResponse second = post("key-1", BODY);
+
+        // Assert
+        assertEquals(1, executions.get());
+        assertEquals(200, second.getStatus());
+        assertEquals(first.getContentAsString(), second.getContentAsString());
+        assertTrue(first.getContentAsString().contains("\"received\":" + BODY));
+        assertNull(first.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals("true", second.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+    }
+
+    @Test
+    public void testReplayKeepsLocationAndPreferenceApplied() throws Exception {
+        // Arrange
+        status = 202;
+        post("key-1", BODY);
+
+        // Act
+        MockHttpServletResponse retry = post("key-1", BODY);
+
+        // Assert
+        assertEquals(1, executions.get());
+        assertEquals(202, retry.getStatus());
+        assertEquals("/api/customers/jobs/1", retry.getHeader("Location"));
+        assertEquals("respond-async", retry.getHeader("Preference-Applied"));
+    }
+
+    @Test
+    public void testKeyReusedWithDifferentBodyIsRejected() throws Exception {
+        // Arrange
+        post("key-1", BODY);
+
+        // Act
+        MockHttpServletResponse response = post("key-1", "{\"givenName\":\"Jane\"}");
+
+        // Assert
+        assertEquals(422, response.getStatus());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    public void testServerErrorIsNotStored() throws Exception {
+        // Arrange
+        status = 503;
+        post("key-1", BODY);
+        status = 200;
+
+        // Act
+        MockHttpServletResponse retry = post("key-1", BODY);
+
+        // Assert
+        assertEquals(2, executions.get());
+        assertEquals(200, retry.getStatus());
+        assertNull(retry.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+    }
+
+    @Test
+    public void testClientErrorIsReplayed() throws Exception {
+        // Arrange
+        status = 409;
+        post("key-1", BODY);
+
+        // Act
+        MockHttpServletResponse retry = post("key-1", BODY);
+
+        // Assert
+        assertEquals(1, executions.get());
+        assertEquals(409, retry.getStatus());
+    }
+
+    @Test
+    public void testRequestsWithoutKeyAreNotFiltered() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/customers");
+
+        assertTrue(filter.shouldNotFilter(request));
+    }
+
+    @Test
+    public void testConcurrentDuplicateWaitsForInFlightExecution() throws Exception {
+        // Arrange
+        release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<MockHttpServletResponse> first = executor.submit(() -> post("key-1", BODY));
+            Future<MockHttpServletResponse> duplicate = executor.submit(() -> post("key-1", BODY));
+
+            // Act
+            Thread.sleep(200);
+            release.countDown();
+
+            // Assert
+            assertEquals(first.get(5, TimeUnit.SECONDS).getContentAsString(),
+                    duplicate.get(5, TimeUnit.SECONDS).getContentAsString());
+            assertEquals(1, executions.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testDuplicateGivesUpAfterInFlightTimeout() throws Exception {
+        // Arrange
+        properties.setInFlightTimeout(Duration.ofMillis(100));
+        release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<MockHttpServletResponse> first = executor.submit(() -> post("key-1", BODY));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            // Act
+            MockHttpServletResponse duplicate = post("key-1", BODY);
+
+            // Assert
+            assertEquals(409, duplicate.getStatus());
+            release.countDown();
+            assertEquals(200, first.get(5, TimeUnit.SECONDS).getStatus());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.customerapi.config;
+
+import com.example.customerapi.exception.ErrorResponseWriter;
+import com.example.customerapi.resilience.RateLimitProperties;
+import com.example.customerapi.service.WarmupToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the RateLimitFilter class.
+ */
+public class RateLimitFilterTest {
+
+    private RateLimitProperties properties;
+    private WarmupToken warmupToken;
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    public void setup() {
+        properties = new RateLimitProperties();
+        properties.setEnabled(true);
+        RateLimitProperties.Limit bulk = new RateLimitProperties.Limit();
+        bulk.setPermitsPerSecond(0.01);
+        bulk.setBurst(2);
+        properties.getRoutes().put(RouteClass.BULK, bulk);
+        warmupToken = new WarmupToken();
+        filter = new RateLimitFilter(properties, new SimpleMeterRegistry(),
+                new ErrorResponseWriter(new ObjectMapper().findAndRegisterModules()), warmupToken);
+    }
+
+    private MockHttpServletResponse perform(MockHttpServletRequest request, MockFilterChain chain)
+            throws ServletException, IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    @Test
+    public void testAdmittedRequestCarriesRateLimitHeaders() throws ServletException, IOException {
+        MockFilterChain chain = new MockFilterChain();
+
+        MockHttpServletResponse response = perform(new MockHttpServletRequest("GET", "/api/customers"), chain);
+
+        assertNotNull(chain.getRequest());
+        assertEquals("2", response.getHeader(RateLimitFilter.LIMIT_HEADER));
+        assertEquals("1", response.getHeader(RateLimitFilter.REMAINING_HEADER));
+        assertNotNull(response.getHeader(RateLimitFilter.RESET_HEADER));
+    }
+
+    @Test
+    public void testRequestOverLimitIsRejectedWith429() throws ServletException, IOException {
+        // Arrange
+        perform(new MockHttpServletRequest("GET", "/api/customers"), new MockFilterChain());
+        perform(new MockHttpServletRequest("GET", "/api/customers"), new MockFilterChain());
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        MockHttpServletResponse response = perform(new MockHttpServletRequest("GET", "/api/customers"), chain);
+
+        // Assert
+        assertNull(chain.getRequest());
+        assertEquals(429, response.getStatus());
+        assertEquals("0", response.getHeader(RateLimitFilter.REMAINING_HEADER));
+        assertTrue(Long.parseLong(response.getHeader("Retry-After")) > 0);
+    }
+
+    @Test
+    public void testApiKeyClientsAreLimitedSeparately() throws ServletException, IOException {
+        // Arrange
+        properties.getApiKeys().add("partner-1");
+        perform(new MockHttpServletRequest("GET", "/api/customers"), new MockFilterChain());
+        perform(new MockHttpServletRequest("GET", "/api/customers"), new MockFilterChain());
+        MockHttpServletRequest partner = new MockHttpServletRequest("GET", "/api/customers");
+        partner.addHeader("X-API-Key", "partner-1");
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        perform(partner, chain);
+
+        // Assert
+        assertNotNull(chain.getRequest());
+    }
+
+    @Test
+    public void testUnknownApiKeyIsLimitedByAddress() throws ServletException, IOException {
+        // Arrange
+        perform(new MockHttpServletRequest("GET", "/api/customers"), new MockFilterChain());
+        perform(new MockHttpServletRequest("GET", "/api/customers"), new MockFilterChain());
+        MockHttpServletRequest forged = new MockHttpServletRequest("GET", "/api/customers");
+        forged.addHeader("X-API-Key", "made-up");
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        MockHttpServletResponse response = perform(forged, chain);
+
+        // Assert
+        assertNull(chain.getRequest());
+        assertEquals(429, response.getStatus());
+    }
+
+    @Test
+    public void testWarmupRequestsAreNotLimited() {
+        // Arrange
+        MockHttpServletRequest warmup = new MockHttpServletRequest("GET", "/api/customers");
+        warmup.addHeader(WarmupToken.HEADER, warmupToken.value());
+        MockHttpServletRequest forged = new MockHttpServletRequest("GET", "/api/customers");
+        forged.addHeader(WarmupToken.HEADER, "made-up");
+
+        // Act & Assert
+        assertTrue(filter.shouldNotFilter(warmup));
+        assertFalse(filter.shouldNotFilter(forged));
+    }
+
+    @Test
+    public void testDisabledFilterIsSkipped() {
+        properties.setEnabled(false);
+
+        assertTrue(filter.shouldNotFilter(new MockHttpServletRequest("GET", "/api/customers")));
+    }
+}
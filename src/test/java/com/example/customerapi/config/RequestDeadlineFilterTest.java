@@ -0,0 +1,125 @@
+package com.example.customerapi.config;
+
+import com.example.customerapi.exception.ErrorResponseWriter;
+import com.example.customerapi.resilience.DeadlineProperties;
+import com.example.customerapi.resilience.RequestDeadline;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the RequestDeadlineFilter class.
+ */
+public class RequestDeadlineFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RequestDeadlineFilter filter;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        DeadlineProperties properties = new DeadlineProperties();
+        properties.getRoutes().put(RouteClass.POINT_READ, Duration.ofSeconds(2));
+        filter = new RequestDeadlineFilter(properties, meterRegistry,
+                new ErrorResponseWriter(new ObjectMapper().findAndRegisterModules()));
+    }
+
+    @Test
+    public void testRouteDefaultApplies() {
+        // Arrange
+        MockHttpServletRequest pointRead = new MockHttpServletRequest("GET", "/api/customers/42");
+        MockHttpServletRequest write = new MockHttpServletRequest("POST", "/api/customers");
+
+        // Act & Assert
+        assertEquals(Duration.ofSeconds(2), filter.budgetFor(pointRead));
+        assertEquals(Duration.ofSeconds(5), filter.budgetFor(write));
+    }
+
+    @Test
+    public void testGrpcTimeoutHeader() {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/customers/42");
+        request.addHeader(RequestDeadlineFilter.GRPC_TIMEOUT_HEADER, "750m");
+
+        // Act & Assert
+        assertEquals(Duration.ofMillis(750), filter.budgetFor(request));
+    }
+
+    @Test
+    public void testRequestedBudgetIsCapped() {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/customers/42");
+        request.addHeader(RequestDeadlineFilter.GRPC_TIMEOUT_HEADER, "1H");
+
+        // Act & Assert
+        assertEquals(Duration.ofSeconds(30), filter.budgetFor(request));
+    }
+
+    @Test
+    public void testMalformedHeaderFallsBackToRouteDefault() {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/customers/42");
+        request.addHeader(RequestDeadlineFilter.DEADLINE_HEADER, "tomorrow");
+
+        // Act & Assert
+        assertEquals(Duration.ofSeconds(2), filter.budgetFor(request));
+    }
+
+    @Test
+    public void testDeadlineIsBoundDuringChain() throws ServletException, IOException {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/customers/42");
+        request.addHeader(RequestDeadlineFilter.DEADLINE_HEADER,
+                String.valueOf(Instant.now().plusSeconds(10).toEpochMilli()));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicLong remaining = new AtomicLong();
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                remaining.set(RequestDeadline.current().remainingNanos());
+            }
+        });
+
+        // Act
+        filter.doFilter(request, response, chain);
+
+        // Assert
+        assertTrue(remaining.get() > Duration.ofSeconds(8).toNanos());
+        assertNull(RequestDeadline.current());
+    }
+
+    @Test
+    public void testExpiredDeadlineIsRejected() throws ServletException, IOException {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/customers/42");
+        request.addHeader(RequestDeadlineFilter.DEADLINE_HEADER, Instant.now().minusSeconds(1).toString());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        filter.doFilter(request, response, chain);
+
+        // Assert
+        assertEquals(504, response.getStatus());
+        assertNull(chain.getRequest());
+        assertEquals(1.0, meterRegistry.get("customer.deadline.exceeded").tag("stage", "admission")
+                .counter().count());
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.customerapi.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for the RequestResourceMetricsFilter class.
+ */
+@ExtendWith(MockitoExtension.class)
+public class RequestResourceMetricsFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @Mock
+    private HttpServletRequest request;
+
+    @Mock
+    private HttpServletResponse response;
+
+    @Mock
+    private FilterChain filterChain;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    public void testDisabledFilterIsSkipped() {
+        RequestResourceMetricsFilter filter = new RequestResourceMetricsFilter(meterRegistry, false);
+
+        assertTrue(filter.shouldNotFilter(request));
+        assertTrue(meterRegistry.getMeters().isEmpty());
+    }
+
+    @Test
+    public void testRecordsAllocationPerRouteTemplate() throws ServletException, IOException {
+        // Arrange
+        RequestResourceMetricsFilter filter = new RequestResourceMetricsFilter(
+                meterRegistry, ManagementFactory.getThreadMXBean(), true);
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE))
+                .thenReturn("/api/customers/{id}");
+        doAnswer(invocation -> new byte[64 * 1024]).when(filterChain).doFilter(request, response);
+
+        // Act
+        filter.doFilterInternal(request, response, filterChain);
+
+        // Assert
+        assertFalse(filter.shouldNotFilter(request));
+        verify(filterChain).doFilter(request, response);
+        DistributionSummary allocated = meterRegistry.find(RequestResourceMetricsFilter.ALLOCATION_METRIC)
+                .tag("uri", "/api/customers/{id}")
+                .tag("method", "GET")
+                .summary();
+        assertNotNull(allocated);
+        assertEquals(1, allocated.count());
+        assertTrue(allocated.totalAmount() >= 64 * 1024);
+    }
+
+    @Test
+    public void testUnmatchedRequestUsesUnknownRoute() throws ServletException, IOException {
+        // Arrange
+        RequestResourceMetricsFilter filter = new RequestResourceMetricsFilter(
+                meterRegistry, ManagementFactory.getThreadMXBean(), true);
+        when(request.getMethod()).thenReturn("GET");
+
+        // Act
+        filter.doFilterInternal(request, response, filterChain);
+
+        // Assert
+        assertNotNull(meterRegistry.find(RequestResourceMetricsFilter.ALLOCATION_METRIC)
+                .tag("uri", RequestResourceMetricsFilter.UNKNOWN_ROUTE)
+                .summary());
+    }
+
+    @Test
+    public void testRequestOnVirtualThreadIsNotMeasured() throws Exception {
+        // Arrange
+        RequestResourceMetricsFilter filter = new RequestResourceMetricsFilter(
+                meterRegistry, ManagementFactory.getThreadMXBean(), true);
+        AtomicReference<Exception> failure = new AtomicReference<>();
+
+        // Act
+        Thread.ofVirtual().start(() -> {
+            try {
+                filter.doFilterInternal(request, response, filterChain);
+            } catch (Exception ex) {
+                failure.set(ex);
+            }
+        }).join();
+
+        // Assert
+        assertNull(failure.get());
+        verify(filterChain).doFilter(request, response);
+        assertTrue(meterRegistry.getMeters().isEmpty());
+    }
+}
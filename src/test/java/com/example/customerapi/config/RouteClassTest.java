@@ -0,0 +1,27 @@
+package com.example.customerapi.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Tests for the RouteClass enum.
+ */
+public class RouteClassTest {
+
+    @Test
+    public void testClassification() {
+        assertEquals(RouteClass.BULK, RouteClass.of(new MockHttpServletRequest("GET", "/api/customers")));
+        assertEquals(RouteClass.POINT_READ, RouteClass.of(new MockHttpServletRequest("HEAD", "/api/customers")));
+        assertEquals(RouteClass.POINT_READ, RouteClass.of(new MockHttpServletRequest("GET", "/api/customers/stats")));
+        assertEquals(RouteClass.POINT_READ, RouteClass.of(
+                new MockHttpServletRequest("GET", "/api/customers/123e4567-e89b-12d3-a456-426614174000")));
+        assertEquals(RouteClass.WRITE, RouteClass.of(new MockHttpServletRequest("POST", "/api/customers")));
+        assertEquals(RouteClass.WRITE, RouteClass.of(new MockHttpServletRequest("DELETE", "/api/customers/1")));
+        assertEquals(RouteClass.BULK, RouteClass.of(new MockHttpServletRequest("POST", "/api/customers/batch")));
+        assertEquals(RouteClass.POINT_READ, RouteClass.of(new MockHttpServletRequest("GET", "/api/customers/jobs/1")));
+        assertNull(RouteClass.of(new MockHttpServletRequest("GET", "/actuator/health")));
+    }
+}
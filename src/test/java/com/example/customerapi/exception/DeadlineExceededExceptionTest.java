@@ -0,0 +1,34 @@
+package com.example.customerapi.exception;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Tests for the DeadlineExceededException class.
+ */
+public class DeadlineExceededExceptionTest {
+
+    @Test
+    public void testConstructorWithMessage() {
+        // Act
+        DeadlineExceededException exception = new DeadlineExceededException("Request deadline exceeded");
+
+        // Assert
+        assertEquals("Request deadline exceeded", exception.getMessage());
+    }
+
+    @Test
+    public void testConstructorWithCause() {
+        // Arrange
+        QueryTimeoutException cause = new QueryTimeoutException("Query timed out");
+
+        // Act
+        DeadlineExceededException exception = new DeadlineExceededException("Request deadline exceeded", cause);
+
+        // Assert
+        assertSame(cause, exception.getCause());
+    }
+}
@@ -3,6 +3,7 @@ package com.example.customerapi.exception;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
@@ -110,6 +111,50 @@ public class GlobalExceptionHandlerTest {
         assertEquals("test/uri", errorResponse.getPath());
     }
 
+    @Test
+    public void testHandleDeadlineExceededException() {
+        // Arrange
+        DeadlineExceededException ex = new DeadlineExceededException("Request deadline exceeded");
+
+        // Act
+        ResponseEntity<Object> response = exceptionHandler.handleDeadlineExceededException(ex, webRequest);
+
+        // Assert
+        assertEquals(HttpStatus.GATEWAY_TIMEOUT, response.getStatusCode());
+        ErrorResponse errorResponse = (ErrorResponse) response.getBody();
+        assertNotNull(errorResponse);
+        assertEquals("Deadline Exceeded", errorResponse.getError());
+        assertEquals("Request deadline exceeded", errorResponse.getMessage());
+    }
+
+    @Test
+    public void testHandleQueryTimeoutException() {
+        // Arrange
+        QueryTimeoutException ex = new QueryTimeoutException("Query timed out");
+
+        // Act
+        ResponseEntity<Object> response = exceptionHandler.handleDeadlineExceededException(ex, webRequest);
+
+        // Assert
+        assertEquals(HttpStatus.GATEWAY_TIMEOUT, response.getStatusCode());
+    }
+
+    @Test
+    public void testHandleJobRejectedException() {
+        // Arrange
+        JobRejectedException ex = new JobRejectedException("Job queue is full, retry later");
+
+        // Act
+        ResponseEntity<Object> response = exceptionHandler.handleJobRejectedException(ex, webRequest);
+
+        // Assert
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("1", response.getHeaders().getFirst("Retry-After"));
+        ErrorResponse errorResponse = (ErrorResponse) response.getBody();
+        assertNotNull(errorResponse);
+        assertEquals("Job queue is full, retry later", errorResponse.getMessage());
+    }
+
     @Test
     public void testHandleGlobalException() {
         // Arrange
@@ -0,0 +1,101 @@
+package com.example.customerapi.health;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for the CachedHealthIndicator class.
+ */
+public class CachedHealthIndicatorTest {
+
+    private final MutableClock clock = new MutableClock();
+
+    @Test
+    public void testUnknownBeforeFirstRefresh() {
+        CachedHealthIndicator indicator = new CachedHealthIndicator(
+                () -> Health.up().build(), Duration.ofSeconds(30), clock);
+
+        assertEquals(Status.UNKNOWN, indicator.health().getStatus());
+    }
+
+    @Test
+    public void testHealthServesCachedResultWithoutEvaluatingDelegate() {
+        // Arrange
+        AtomicInteger evaluations = new AtomicInteger();
+        HealthIndicator delegate = () -> {
+            evaluations.incrementAndGet();
+            return Health.up().withDetail("database", "H2").build();
+        };
+        CachedHealthIndicator indicator = new CachedHealthIndicator(delegate, Duration.ofSeconds(30), clock);
+        indicator.refresh();
+
+        // Act
+        Health first = indicator.health();
+        Health second = indicator.health();
+
+        // Assert
+        assertEquals(Status.UP, first.getStatus());
+        assertEquals("H2", second.getDetails().get("database"));
+        assertEquals(1, evaluations.get());
+    }
+
+    @Test
+    public void testFailingDelegateIsReportedDown() {
+        CachedHealthIndicator indicator = new CachedHealthIndicator(() -> {
+            throw new IllegalStateException("Connection refused");
+        }, Duration.ofSeconds(30), clock);
+
+        indicator.refresh();
+
+        assertEquals(Status.DOWN, indicator.health().getStatus());
+    }
+
+    @Test
+    public void testStaleResultIsReportedDown() {
+        // Arrange
+        CachedHealthIndicator indicator = new CachedHealthIndicator(
+                () -> Health.up().build(), Duration.ofSeconds(30), clock);
+        indicator.refresh();
+
+        // Act
+        clock.advance(Duration.ofSeconds(31));
+
+        // Assert
+        assertEquals(Status.DOWN, indicator.health().getStatus());
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.customerapi.health;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for the SaturationHealthIndicator class.
+ */
+@ExtendWith(MockitoExtension.class)
+public class SaturationHealthIndicatorTest {
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private HikariDataSource hikariDataSource;
+
+    @Mock
+    private HikariPoolMXBean pool;
+
+    private SaturationHealthIndicator indicator;
+
+    @BeforeEach
+    public void setup() throws SQLException {
+        when(dataSource.isWrapperFor(HikariDataSource.class)).thenReturn(true);
+        when(dataSource.unwrap(HikariDataSource.class)).thenReturn(hikariDataSource);
+        when(hikariDataSource.getHikariPoolMXBean()).thenReturn(pool);
+        indicator = new SaturationHealthIndicator(dataSource, 5, 20);
+    }
+
+    @Test
+    public void testUpWhenBelowThresholds() {
+        // Arrange
+        when(pool.getThreadsAwaitingConnection()).thenReturn(2);
+        indicator.setQueuedRequests(() -> 3);
+
+        // Act
+        Health health = indicator.health();
+
+        // Assert
+        assertEquals(Status.UP, health.getStatus());
+        assertEquals(2, health.getDetails().get("pendingConnections"));
+        assertEquals(3, health.getDetails().get("queuedRequests"));
+    }
+
+    @Test
+    public void testOutOfServiceWhenConnectionPoolSaturated() {
+        when(pool.getThreadsAwaitingConnection()).thenReturn(6);
+
+        assertEquals(Status.OUT_OF_SERVICE, indicator.health().getStatus());
+    }
+
+    @Test
+    public void testOutOfServiceWhenRequestQueueSaturated() {
+        when(pool.getThreadsAwaitingConnection()).thenReturn(0);
+        indicator.setQueuedRequests(() -> 21);
+
+        assertEquals(Status.OUT_OF_SERVICE, indicator.health().getStatus());
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.customerapi.health;
+
+import com.example.customerapi.service.WarmupService;
+import com.example.customerapi.service.WarmupService.State;
+import com.example.customerapi.service.WarmupService.WarmupStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for the WarmupHealthIndicator class.
+ */
+@ExtendWith(MockitoExtension.class)
+public class WarmupHealthIndicatorTest {
+
+    @Mock
+    private WarmupService warmup;
+
+    @Test
+    public void testOutOfServiceWhileWarmingUp() {
+        // Arrange
+        when(warmup.status()).thenReturn(new WarmupStatus(State.RUNNING, 100, 80, 250, 0, 0.9,
+                Duration.ofSeconds(2), Instant.now(), null));
+        when(warmup.isHoldingReadiness()).thenReturn(true);
+
+        // Act
+        Health health = new WarmupHealthIndicator(warmup).health();
+
+        // Assert
+        assertEquals(Status.OUT_OF_SERVICE, health.getStatus());
+        assertEquals(State.RUNNING, health.getDetails().get("state"));
+        assertEquals(100, health.getDetails().get("preloaded"));
+    }
+
+    @Test
+    public void testUpOnceWarmupTimedOut() {
+        when(warmup.status()).thenReturn(new WarmupStatus(State.TIMED_OUT, 100, 80, 1_000, 3, 0.95,
+                Duration.ofSeconds(60), Instant.now(), null));
+        when(warmup.isHoldingReadiness()).thenReturn(false);
+
+        assertEquals(Status.UP, new WarmupHealthIndicator(warmup).health().getStatus());
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.customerapi.jobs;
+
+import com.example.customerapi.exception.JobRejectedException;
+import com.example.customerapi.jobs.CustomerJob.JobView;
+import com.example.customerapi.jobs.CustomerJob.Status;
+import com.example.customerapi.model.Customer;
+import com.example.customerapi.service.CustomerService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for the CustomerJobService class.
+ */
+@ExtendWith(MockitoExtension.class)
+public class CustomerJobServiceTest {
+
+    @Mock
+    private CustomerService customerService;
+
+    private ValidatorFactory validatorFactory;
+    private JobProperties properties;
+    private CustomerJobService jobService;
+
+    @BeforeEach
+    public void setup() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        properties = new JobProperties();
+        properties.setWorkers(1);
+        properties.setQueueCapacity(1);
+        properties.setMaxItems(3);
+        jobService = new CustomerJobService(customerService, validatorFactory.getValidator(), properties,
+                new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        jobService.destroy();
+        validatorFactory.close();
+    }
+
+    @Test
+    public void testBatchReportsErrorsPerItem() {
+        // Arrange
+        Customer duplicate = customer("taken@example.com");
+        when(customerService.createCustomer(any(Customer.class))).thenReturn(new Customer());
+        when(customerService.createCustomer(duplicate)).thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        // Act
+        JobView result = jobService.runCreate(List.of(customer("ok@example.com"), customer("not-an-email"),
+                duplicate));
+
+        // Assert
+        assertEquals(Status.COMPLETED, result.status());
+        assertEquals(3, result.processed());
+        assertEquals(1, result.succeeded());
+        assertEquals(2, result.failed());
+        assertEquals(1, result.errors().get(0).index());
+        assertEquals("Email must be valid", result.errors().get(0).message());
+        assertEquals(2, result.errors().get(1).index());
+        assertEquals("Email address is already in use", result.errors().get(1).message());
+        verify(customerService, times(2)).createCustomer(any(Customer.class));
+    }
+
+    @Test
+    public void testSubmittedJobRunsInBackground() throws InterruptedException {
+        // Arrange
+        when(customerService.createCustomer(any(Customer.class))).thenReturn(new Customer());
+
+        // Act
+        CustomerJob job = jobService.submitCreate(List.of(customer("a@example.com"), customer("b@example.com")));
+        awaitFinished(job);
+
+        // Assert
+        JobView view = jobService.findJob(job.getId()).orElseThrow().view();
+        assertEquals(Status.COMPLETED, view.status());
+        assertEquals(2, view.succeeded());
+    }
+
+    @Test
+    public void testQueuedJobCanBeCancelledAndFullQueueRejects() throws InterruptedException {
+        // Arrange
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Customer blocking = customer("blocking@example.com");
+        when(customerService.createCustomer(blocking)).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return new Customer();
+        });
+        CustomerJob running = jobService.submitCreate(List.of(blocking));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CustomerJob queued = jobService.submitCreate(List.of(customer("queued@example.com")));
+
+        // Act
+        assertThrows(JobRejectedException.class, () -> jobService.submitCreate(List.of(customer("c@example.com"))));
+        jobService.cancelJob(queued.getId());
+        release.countDown();
+        awaitFinished(running);
+
+        // Assert
+        assertEquals(Status.CANCELLED, queued.getStatus());
+        assertEquals(Status.COMPLETED, running.getStatus());
+        verify(customerService, never()).createCustomer(customer("queued@example.com"));
+    }
+
+    @Test
+    public void testOversizedBatchIsRejected() {
+        List<Customer> tooMany = List.of(customer("a@example.com"), customer("b@example.com"),
+                customer("c@example.com"), customer("d@example.com"));
+
+        assertThrows(ConstraintViolationException.class, () -> jobService.submitCreate(tooMany));
+        assertThrows(ConstraintViolationException.class, () -> jobService.runCreate(List.of()));
+    }
+
+    @Test
+    public void testOldestFinishedJobIsDroppedWhenStoreIsFull() throws InterruptedException {
+        // Arrange
+        properties.setMaxRetained(1);
+        when(customerService.createCustomer(any(Customer.class))).thenReturn(new Customer());
+        CustomerJob first = jobService.submitCreate(List.of(customer("a@example.com")));
+        awaitFinished(first);
+
+        // Act
+        CustomerJob second = jobService.submitCreate(List.of(customer("b@example.com")));
+
+        // Assert
+        assertFalse(jobService.findJob(first.getId()).isPresent());
+        assertTrue(jobService.findJob(second.getId()).isPresent());
+    }
+
+    private static void awaitFinished(CustomerJob job) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!job.isFinished()) {
+            if (System.nanoTime() > deadline) {
+                fail("Job did not finish: " + job.view());
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private static Customer customer(String email) {
+        return Customer.builder()
+                .givenName("John")
+                .surname("Doe")
+                .primaryEmail(email)
+                .contactNumber("123-456-7890")
+                .build();
+    }
+}
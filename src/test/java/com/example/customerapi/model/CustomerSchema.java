@@ -0,0 +1,52 @@
+package com.example.customerapi.model;
+
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.springframework.boot.orm.jpa.hibernate.SpringImplicitNamingStrategy;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Creates the customers table in a test database the way the application does, from the
+ * {@link Customer} mapping with Spring Boot's naming strategies, so tests of hand-written SQL
+ * run against the real column names and indexes.
+ */
+public final class CustomerSchema {
+
+    private CustomerSchema() {
+    }
+
+    /**
+     * Creates the customers table, replacing it if it exists.
+     *
+     * @param dataSource The test database
+     */
+    public static void create(DataSource dataSource) {
+        bootstrap(dataSource, "create");
+    }
+
+    /**
+     * Checks that the customers table matches the mapping.
+     *
+     * @param dataSource The test database
+     * @throws RuntimeException if a table or column is missing or of the wrong type
+     */
+    public static void validate(DataSource dataSource) {
+        bootstrap(dataSource, "validate");
+    }
+
+    private static void bootstrap(DataSource dataSource, String action) {
+        LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+        factory.setDataSource(dataSource);
+        factory.setPackagesToScan(Customer.class.getPackageName());
+        factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factory.setJpaPropertyMap(Map.of(
+                "hibernate.hbm2ddl.auto", action,
+                "hibernate.physical_naming_strategy", CamelCaseToUnderscoresNamingStrategy.class.getName(),
+                "hibernate.implicit_naming_strategy", SpringImplicitNamingStrategy.class.getName()));
+        factory.afterPropertiesSet();
+        factory.destroy();
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.customerapi.model;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+
+/**
+ * Tests that the shared schema/customers.sql, which the reactive API creates its table from,
+ * matches the JPA mapping of the servlet API.
+ */
+public class CustomerSchemaTest {
+
+    @Test
+    public void testSharedSchemaMatchesMapping() {
+        // Arrange
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:customer-schema-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        new ResourceDatabasePopulator(new ClassPathResource("schema/customers.sql")).execute(dataSource);
+
+        // Act & Assert
+        assertDoesNotThrow(() -> CustomerSchema.validate(dataSource));
+    }
+}
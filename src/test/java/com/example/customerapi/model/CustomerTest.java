@@ -13,6 +13,7 @@ import java.util.UUID;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
@@ -62,7 +63,9 @@ public class CustomerTest {
                 "B",
                 "Smith",
                 "jane.smith@example.com",
-                "987-654-3210"
+                "987-654-3210",
+                "+19876543210",
+                "example.com"
         );
 
         // Assert
@@ -72,6 +75,32 @@ public class CustomerTest {
         assertEquals("Smith", customer.getSurname());
         assertEquals("jane.smith@example.com", customer.getPrimaryEmail());
         assertEquals("987-654-3210", customer.getContactNumber());
+        assertEquals("+19876543210", customer.getContactNumberE164());
+        assertEquals("example.com", customer.getEmailDomain());
+    }
+
+    @Test
+    public void testDeriveLookupColumns() {
+        // Arrange
+        Customer customer = Customer.builder()
+                .contactNumber("(987) 654.3210")
+                .primaryEmail("Jane.Smith@Example.COM")
+                .build();
+
+        // Act
+        customer.deriveLookupColumns();
+
+        // Assert
+        assertEquals("+19876543210", customer.getContactNumberE164());
+        assertEquals("example.com", customer.getEmailDomain());
+    }
+
+    @Test
+    public void testEmailDomainOf() {
+        assertEquals("mail.example.org", Customer.emailDomainOf("a@b@Mail.Example.org"));
+        assertNull(Customer.emailDomainOf("no-at-sign"));
+        assertNull(Customer.emailDomainOf("trailing@"));
+        assertNull(Customer.emailDomainOf(null));
     }
 
     @Test
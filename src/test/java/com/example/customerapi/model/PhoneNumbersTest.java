@@ -0,0 +1,35 @@
+package com.example.customerapi.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Tests for the PhoneNumbers class.
+ */
+public class PhoneNumbersTest {
+
+    @Test
+    public void testFormatsOfTheSameNumberNormalizeAlike() {
+        assertEquals("+15551234567", PhoneNumbers.toE164("(555) 123-4567"));
+        assertEquals("+15551234567", PhoneNumbers.toE164("555.123.4567"));
+        assertEquals("+15551234567", PhoneNumbers.toE164("+1 555 123 4567"));
+        assertEquals("+15551234567", PhoneNumbers.toE164("5551234567"));
+        assertEquals("+15551234567", PhoneNumbers.toE164("1-555-123-4567"));
+    }
+
+    @Test
+    public void testInternationalNumberKeepsItsCountryCode() {
+        assertEquals("+445551234567", PhoneNumbers.toE164("+44 555 123 4567"));
+    }
+
+    @Test
+    public void testUnusableNumbersAreRejected() {
+        assertNull(PhoneNumbers.toE164(null));
+        assertNull(PhoneNumbers.toE164("555-1234"));
+        assertNull(PhoneNumbers.toE164("call me"));
+        assertNull(PhoneNumbers.toE164("+1 555 123 4567 ext 9"));
+        assertNull(PhoneNumbers.toE164("+1234567890123456"));
+    }
+}
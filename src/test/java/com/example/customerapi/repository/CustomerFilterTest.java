@@ -0,0 +1,81 @@
+package com.example.customerapi.repository;
+
+import com.example.customerapi.model.Customer;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the CustomerFilter class.
+ */
+public class CustomerFilterTest {
+
+    @Test
+    public void testBlankValuesAreAbsentAndDomainIsNormalized() {
+        // Act
+        CustomerFilter filter = new CustomerFilter(" ", "", "@Example.COM ");
+
+        // Assert
+        assertNull(filter.surname());
+        assertNull(filter.namePrefix());
+        assertEquals("example.com", filter.emailDomain());
+        assertFalse(filter.isEmpty());
+        assertTrue(new CustomerFilter(null, " ", null).isEmpty());
+    }
+
+    @Test
+    public void testSortPropertiesFollowIndexes() {
+        assertEquals(Set.of("customerId", "surname"), new CustomerFilter(null, null, null).sortProperties());
+        assertEquals(Set.of("surname", "givenName"), new CustomerFilter("Smith", null, null).sortProperties());
+        assertEquals(Set.of("surname"), new CustomerFilter(null, "Sm", null).sortProperties());
+        assertEquals(Set.of("surname"), new CustomerFilter("Smith", null, "example.com").sortProperties());
+    }
+
+    @Test
+    public void testIndexOrderPutsFilteredColumnsFirst() {
+        assertEquals(Sort.by(Sort.Direction.ASC, "surname", "givenName", "customerId"),
+                new CustomerFilter("Smith", null, null).indexOrder("givenName", Sort.Direction.ASC));
+        assertEquals(Sort.by(Sort.Direction.DESC, "emailDomain", "surname", "customerId"),
+                new CustomerFilter(null, "Sm", "example.com").indexOrder("surname", Sort.Direction.DESC));
+        assertEquals(Sort.by(Sort.Direction.ASC, "customerId"),
+                new CustomerFilter(null, null, null).indexOrder("customerId", Sort.Direction.ASC));
+    }
+
+    @Test
+    public void testUnindexedCombinationsAreRejected() {
+        // Arrange
+        CustomerFilter byDomain = new CustomerFilter(null, null, "example.com");
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> byDomain.indexOrder("givenName", Sort.Direction.ASC));
+        assertNotNull(new CustomerFilter("Smith", "Sm", null).unsupportedReason());
+        assertNull(byDomain.unsupportedReason());
+    }
+
+    @Test
+    public void testMatchesInMemory() {
+        // Arrange
+        Customer customer = Customer.builder()
+                .givenName("Jane")
+                .surname("Smith_Jones")
+                .primaryEmail("jane@Example.com")
+                .build();
+        customer.deriveLookupColumns();
+
+        // Act & Assert
+        assertTrue(new CustomerFilter(null, null, null).matches(customer));
+        assertTrue(new CustomerFilter("Smith_Jones", null, "example.com").matches(customer));
+        assertTrue(new CustomerFilter(null, "Smith_", "@EXAMPLE.com").matches(customer));
+        assertFalse(new CustomerFilter(null, "Smith%", null).matches(customer));
+        assertFalse(new CustomerFilter("Smith", null, null).matches(customer));
+        assertFalse(new CustomerFilter(null, null, "other.com").matches(customer));
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.customerapi.repository;
+
+import com.example.customerapi.model.Customer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests that the filtered list queries return the right customers and that H2 answers
+ * each supported filter and sort combination from the composite indexes declared on
+ * the customers table, reading rows in index order instead of sorting them.
+ */
+@SpringBootTest
+public class CustomerQueryPlanTest {
+
+    private static final int CUSTOMERS = 2_000;
+    private static final String SELECT = "SELECT customer_id FROM customers ";
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void setup() {
+        List<Object[]> rows = new ArrayList<>(CUSTOMERS);
+        for (int i = 0; i < CUSTOMERS; i++) {
+            String email = "user" + i + "@d" + (i % 10) + ".example.com";
+            rows.add(new Object[] {UUID.randomUUID(), "Given" + (i % 20), String.format("Surname%03d", i % 100),
+                    email, "555-000-" + String.format("%04d", i), Customer.emailDomainOf(email)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO customers (customer_id, given_name, surname, primary_email, "
+                + "contact_number, email_domain) VALUES (?, ?, ?, ?, ?, ?)", rows);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @AfterEach
+    public void cleanup() {
+        customerRepository.deleteAll();
+    }
+
+    @Test
+    public void testSurnameFilterUsesSurnameIndex() {
+        assertIndexSorted("idx_customers_surname_given_name", SELECT
+                + "WHERE surname = 'Surname042' ORDER BY surname, given_name, customer_id LIMIT 10");
+    }
+
+    @Test
+    public void testNamePrefixFilterUsesSurnameIndex() {
+        assertIndexSorted("idx_customers_surname_given_name", SELECT
+                + "WHERE surname LIKE 'Surname04%' ESCAPE '\\' ORDER BY surname, given_name, customer_id LIMIT 10");
+    }
+
+    @Test
+    public void testEmailDomainFilterUsesDomainIndex() {
+        assertIndexSorted("idx_customers_email_domain_surname", SELECT
+                + "WHERE email_domain = 'd3.example.com' ORDER BY email_domain, surname, customer_id LIMIT 10");
+        assertIndexSorted("idx_customers_email_domain_surname", SELECT
+                + "WHERE email_domain = 'd3.example.com' AND surname = 'Surname013' "
+                + "ORDER BY email_domain, surname, customer_id LIMIT 10");
+        assertIndexSorted("idx_customers_email_domain_surname", SELECT
+                + "WHERE email_domain = 'd3.example.com' AND surname LIKE 'Surname01%' ESCAPE '\\' "
+                + "ORDER BY email_domain, surname, customer_id LIMIT 10");
+    }
+
+    @Test
+    public void testUnfilteredSortBySurnameUsesSurnameIndex() {
+        assertIndexSorted("idx_customers_surname_given_name", SELECT
+                + "ORDER BY surname, given_name, customer_id LIMIT 10");
+    }
+
+    @Test
+    public void testFilteredPageIsSortedInIndexOrder() {
+        // Arrange
+        CustomerFilter filter = new CustomerFilter(null, "Surname01", "D3.example.com");
+        PageRequest pageable = PageRequest.of(0, 5, filter.indexOrder("surname", Sort.Direction.ASC));
+
+        // Act
+        Page<Customer> page = customerRepository.findAll(filter.toSpecification(), pageable);
+
+        // Assert
+        assertEquals(20, page.getTotalElements());
+        assertEquals(5, page.getContent().size());
+        assertEquals("Surname013", page.getContent().get(0).getSurname());
+        for (Customer customer : page.getContent()) {
+            assertEquals("d3.example.com", customer.getEmailDomain());
+            assertTrue(customer.getSurname().startsWith("Surname01"));
+        }
+    }
+
+    @Test
+    public void testNamePrefixWildcardsAreLiteral() {
+        // Arrange
+        jdbcTemplate.update("INSERT INTO customers (customer_id, given_name, surname, primary_email, "
+                + "contact_number, email_domain) VALUES (?, 'Ann', 'Surname_X', 'ann@x.example.com', "
+                + "'555-111-2222', 'x.example.com')", UUID.randomUUID());
+        CustomerFilter filter = new CustomerFilter(null, "Surname_", null);
+        PageRequest pageable = PageRequest.of(0, 10, filter.indexOrder("surname", Sort.Direction.ASC));
+
+        // Act
+        List<Customer> customers = customerRepository.findAll(filter.toSpecification(), pageable).getContent();
+
+        // Assert
+        assertEquals(1, customers.size());
+        assertEquals("Surname_X", customers.get(0).getSurname());
+    }
+
+    private void assertIndexSorted(String index, String sql) {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+        assertTrue(plan.toLowerCase(Locale.ROOT).contains(index), () -> "Expected " + index + " in " + plan);
+        assertTrue(plan.contains("/* index sorted */"), () -> "Expected rows read in index order: " + plan);
+    }
+}
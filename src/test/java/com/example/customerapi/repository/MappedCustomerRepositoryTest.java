@@ -0,0 +1,194 @@
+package com.example.customerapi.repository;
+
+import com.example.customerapi.model.Customer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the MappedCustomerRepository class.
+ */
+public class MappedCustomerRepositoryTest {
+
+    @TempDir
+    private Path directory;
+
+    private MappedCustomerRepository repository;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        repository = new MappedCustomerRepository(new MappedCustomerStore(directory, 1_000, 1L << 20, false));
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        repository.destroy();
+    }
+
+    @Test
+    public void testSaveAndFind() {
+        // Arrange
+        Customer customer = Customer.builder()
+                .givenName("John")
+                .surname("Doe")
+                .primaryEmail("john.doe@example.com")
+                .contactNumber("(555) 123-4567")
+                .build();
+
+        // Act
+        Customer saved = repository.save(customer);
+
+        // Assert
+        assertNotNull(saved.getCustomerId());
+        assertEquals("+15551234567", saved.getContactNumberE164());
+        assertEquals(saved, repository.findById(saved.getCustomerId()).orElseThrow());
+        assertEquals(saved, repository.findByPrimaryEmail("john.doe@example.com").orElseThrow());
+        assertEquals(List.of(saved), repository.findByContactNumberE164("+15551234567"));
+        assertTrue(repository.existsById(saved.getCustomerId()));
+        assertEquals(1, repository.count());
+    }
+
+    @Test
+    public void testInsertAllIsAllOrNothing() {
+        // Arrange
+        repository.insertAll(List.of(customer("taken@example.com", "Doe", "John")));
+
+        // Act & Assert
+        assertThrows(DataIntegrityViolationException.class, () -> repository.insertAll(
+                List.of(customer("new@example.com", "Doe", "Jane"), customer("taken@example.com", "Doe", "Joe"))));
+        assertEquals(1, repository.count());
+        assertTrue(repository.findByPrimaryEmail("new@example.com").isEmpty());
+    }
+
+    @Test
+    public void testUpsertByPrimaryEmail() {
+        // Act
+        CustomerRepositoryCustom.UpsertResult created = repository.upsertByPrimaryEmail(
+                customer("jane@example.com", "Smith", "Jane"));
+        CustomerRepositoryCustom.UpsertResult updated = repository.upsertByPrimaryEmail(
+                customer("jane@example.com", "Jones", "Jane"));
+
+        // Assert
+        assertTrue(created.created());
+        assertFalse(updated.created());
+        assertEquals(created.customer().getCustomerId(), updated.customer().getCustomerId());
+        assertEquals("Smith", updated.previous().getSurname());
+        assertEquals("Jones", repository.findByPrimaryEmail("jane@example.com").orElseThrow().getSurname());
+    }
+
+    @Test
+    public void testPagesInIdOrderCoverEveryCustomerOnce() {
+        // Arrange
+        for (int i = 0; i < 25; i++) {
+            repository.save(customer("user" + i + "@example.com", "Doe", "John"));
+        }
+
+        // Act
+        Set<UUID> seen = new HashSet<>();
+        Page<Customer> page = repository.findAll(PageRequest.of(0, 10, Sort.by("customerId")));
+        int pages = 1;
+        seen.addAll(page.map(Customer::getCustomerId).getContent());
+        while (page.hasNext()) {
+            page = repository.findAll(page.nextPageable());
+            seen.addAll(page.map(Customer::getCustomerId).getContent());
+            pages++;
+        }
+
+        // Assert
+        assertEquals(3, pages);
+        assertEquals(25, page.getTotalElements());
+        assertEquals(25, seen.size());
+    }
+
+    @Test
+    public void testFilterSpecificationWithIndexOrder() {
+        // Arrange
+        repository.save(customer("a@d1.example.com", "Surname02", "Ann"));
+        repository.save(customer("b@d1.example.com", "Surname01", "Bob"));
+        repository.save(customer("c@d2.example.com", "Surname01", "Cid"));
+        repository.save(customer("d@d1.example.com", "Other", "Dee"));
+        CustomerFilter filter = new CustomerFilter(null, "Surname", "D1.example.com");
+
+        // Act
+        Page<Customer> page = repository.findAll(filter.toSpecification(),
+                PageRequest.of(0, 10, filter.indexOrder("surname", Sort.Direction.DESC)));
+
+        // Assert
+        assertEquals(2, page.getTotalElements());
+        assertEquals(List.of("Surname02", "Surname01"), page.map(Customer::getSurname).getContent());
+        assertEquals(1, repository.count(new CustomerFilter("Other", null, null).toSpecification()));
+    }
+
+    @Test
+    public void testSortByNames() {
+        // Arrange
+        repository.save(customer("a@example.com", "Doe", "Zoe"));
+        repository.save(customer("b@example.com", "Adams", "Amy"));
+        repository.save(customer("c@example.com", "Doe", "Al"));
+
+        // Act
+        List<Customer> sorted = repository.findAll(Sort.by("surname", "givenName"));
+
+        // Assert
+        assertEquals(List.of("Amy", "Al", "Zoe"), sorted.stream().map(Customer::getGivenName).toList());
+    }
+
+    @Test
+    public void testDeletes() {
+        // Arrange
+        Customer first = repository.save(customer("a@example.com", "Doe", "John"));
+        Customer second = repository.save(customer("b@example.com", "Doe", "Jane"));
+        repository.save(customer("c@example.com", "Doe", "Joe"));
+
+        // Act
+        repository.delete(first);
+        repository.deleteById(second.getCustomerId());
+        repository.deleteById(UUID.randomUUID());
+
+        // Assert
+        assertEquals(1, repository.count());
+        assertTrue(repository.findById(first.getCustomerId()).isEmpty());
+        repository.deleteAll();
+        assertEquals(0, repository.count());
+    }
+
+    @Test
+    public void testUnsupportedQueries() {
+        // Arrange
+        Specification<Customer> other = (root, query, cb) -> cb.conjunction();
+
+        // Act & Assert
+        assertThrows(UnsupportedOperationException.class,
+                () -> repository.findAll(Example.of(customer("a@example.com", "Doe", "John"))));
+        assertThrows(UnsupportedOperationException.class, () -> repository.findAll(other));
+    }
+
+    private static Customer customer(String email, String surname, String givenName) {
+        return Customer.builder()
+                .givenName(givenName)
+                .surname(surname)
+                .primaryEmail(email)
+                .contactNumber("555-123-4567")
+                .build();
+    }
+}
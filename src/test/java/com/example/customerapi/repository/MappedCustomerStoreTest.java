@@ -0,0 +1,349 @@
+package com.example.customerapi.repository;
+
+import com.example.customerapi.model.Customer;
+import com.example.customerapi.repository.CustomerRepositoryCustom.UpsertResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the MappedCustomerStore class, including recovery from simulated crashes.
+ */
+public class MappedCustomerStoreTest {
+
+    private static final long NO_CHECKPOINT = 1L << 30;
+
+    @TempDir
+    private Path directory;
+
+    private MappedCustomerStore store;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        store = open(100);
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        store.close();
+    }
+
+    @Test
+    public void testPutAndGet() {
+        // Arrange
+        Customer customer = customer("john.doe@example.com", "Doe");
+        customer.setMiddleInitial(null);
+
+        // Act
+        store.putAll(List.of(customer));
+
+        // Assert
+        Customer byId = store.get(customer.getCustomerId());
+        assertEquals(customer, byId);
+        assertEquals("+15551234567", byId.getContactNumberE164());
+        assertEquals("example.com", byId.getEmailDomain());
+        assertEquals(customer, store.getByEmail("john.doe@example.com"));
+        assertNull(store.getByEmail("JOHN.DOE@example.com"));
+        assertNull(store.get(UUID.randomUUID()));
+        assertTrue(store.contains(customer.getCustomerId()));
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    public void testUpdateMovesEmail() {
+        // Arrange
+        Customer customer = customer("old@example.com", "Doe");
+        store.putAll(List.of(customer));
+        customer.setPrimaryEmail("new@example.com");
+        customer.deriveLookupColumns();
+
+        // Act
+        store.putAll(List.of(customer));
+
+        // Assert
+        assertEquals(1, store.size());
+        assertNull(store.getByEmail("old@example.com"));
+        assertEquals(customer.getCustomerId(), store.getByEmail("new@example.com").getCustomerId());
+        store.putAll(List.of(customer("old@example.com", "Smith")));
+        assertEquals(2, store.size());
+    }
+
+    @Test
+    public void testDuplicateEmailRejectsWholeBatch() {
+        // Arrange
+        store.putAll(List.of(customer("taken@example.com", "Doe")));
+
+        // Act & Assert
+        assertThrows(DataIntegrityViolationException.class, () -> store.putAll(
+                List.of(customer("free@example.com", "Smith"), customer("taken@example.com", "Jones"))));
+        assertThrows(DataIntegrityViolationException.class, () -> store.putAll(
+                List.of(customer("twice@example.com", "Smith"), customer("twice@example.com", "Jones"))));
+        assertEquals(1, store.size());
+        assertNull(store.getByEmail("free@example.com"));
+    }
+
+    @Test
+    public void testOversizedCustomerIsRejected() {
+        // Arrange
+        Customer customer = customer("long@example.com", "x".repeat(MappedCustomerStore.SLOT_SIZE));
+
+        // Act & Assert
+        assertThrows(DataIntegrityViolationException.class, () -> store.putAll(List.of(customer)));
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    public void testUpsertByEmailKeepsId() {
+        // Act
+        UpsertResult created = store.upsertByEmail(customer("jane@example.com", "Smith"));
+        UpsertResult updated = store.upsertByEmail(customer("jane@example.com", "Jones"));
+
+        // Assert
+        assertTrue(created.created());
+        assertFalse(updated.created());
+        assertEquals(created.customer().getCustomerId(), updated.customer().getCustomerId());
+        assertEquals("Smith", updated.previous().getSurname());
+        assertEquals("Jones", store.get(created.customer().getCustomerId()).getSurname());
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    public void testRemoveKeepsOtherCustomersReachable() throws IOException {
+        // Arrange: a small store, so probe sequences collide and removal has to shift entries back
+        store.close();
+        store = new MappedCustomerStore(directory.resolve("small"), 64, NO_CHECKPOINT, true);
+        List<Customer> customers = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            customers.add(customer("user" + i + "@example.com", "Doe"));
+        }
+        store.putAll(customers);
+
+        // Act
+        List<UUID> removed = new ArrayList<>();
+        for (int i = 0; i < 64; i += 2) {
+            removed.add(customers.get(i).getCustomerId());
+        }
+        int count = store.removeAll(removed);
+
+        // Assert
+        assertEquals(32, count);
+        assertEquals(32, store.size());
+        for (int i = 0; i < 64; i++) {
+            Customer customer = customers.get(i);
+            assertEquals(i % 2 == 1, store.contains(customer.getCustomerId()));
+            assertEquals(i % 2 == 1, store.getByEmail(customer.getPrimaryEmail()) != null);
+        }
+        assertEquals(32, store.ids().size());
+    }
+
+    @Test
+    public void testFullStoreRejectsInserts() throws IOException {
+        // Arrange
+        store.close();
+        store = new MappedCustomerStore(directory.resolve("full"), 2, NO_CHECKPOINT, true);
+        Customer first = customer("a@example.com", "Doe");
+        store.putAll(List.of(first, customer("b@example.com", "Doe")));
+
+        // Act & Assert
+        assertThrows(DataAccessResourceFailureException.class,
+                () -> store.putAll(List.of(customer("c@example.com", "Doe"))));
+        first.setSurname("Smith");
+        store.putAll(List.of(first));
+        assertEquals("Smith", store.get(first.getCustomerId()).getSurname());
+    }
+
+    @Test
+    public void testClear() {
+        // Arrange
+        store.putAll(List.of(customer("a@example.com", "Doe"), customer("b@example.com", "Doe")));
+
+        // Act
+        store.clear();
+
+        // Assert
+        assertEquals(0, store.size());
+        assertNull(store.getByEmail("a@example.com"));
+        List<Customer> all = new ArrayList<>();
+        store.forEach(all::add);
+        assertTrue(all.isEmpty());
+    }
+
+    @Test
+    public void testReopenKeepsCustomers() throws IOException {
+        // Arrange
+        Customer customer = customer("john.doe@example.com", "Doe");
+        store.putAll(List.of(customer));
+        store.close();
+
+        // Act
+        store = open(200);
+
+        // Assert
+        assertEquals(1, store.size());
+        assertEquals(customer, store.getByEmail("john.doe@example.com"));
+        assertThrows(IllegalStateException.class, () -> open(50));
+    }
+
+    @Test
+    public void testCrashBeforeSlotsReachDiskIsRecoveredFromLog() throws IOException {
+        // Arrange: writes since the last checkpoint are only in the log once the slot pages are lost
+        Customer kept = customer("kept@example.com", "Doe");
+        Customer deleted = customer("deleted@example.com", "Doe");
+        store.putAll(List.of(kept, deleted));
+        kept.setSurname("Smith");
+        store.putAll(List.of(kept));
+        store.removeAll(List.of(deleted.getCustomerId()));
+        zeroSlotFile();
+
+        // Act
+        MappedCustomerStore recovered = open(100);
+
+        // Assert
+        assertEquals(1, recovered.size());
+        assertEquals("Smith", recovered.get(kept.getCustomerId()).getSurname());
+        assertNull(recovered.getByEmail("deleted@example.com"));
+        recovered.close();
+    }
+
+    @Test
+    public void testTornLogRecordIsDiscarded() throws IOException {
+        // Arrange
+        Customer customer = customer("john.doe@example.com", "Doe");
+        store.putAll(List.of(customer));
+        zeroSlotFile();
+        try (FileChannel log = FileChannel.open(directory.resolve(MappedCustomerStore.LOG_FILE),
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            log.write(ByteBuffer.wrap(new byte[] {0, 0, 1, 0, 42, 42}));
+        }
+
+        // Act
+        MappedCustomerStore recovered = open(100);
+
+        // Assert
+        assertEquals(1, recovered.size());
+        assertEquals(customer, recovered.get(customer.getCustomerId()));
+        assertEquals(0, Files.size(directory.resolve(MappedCustomerStore.LOG_FILE)));
+        recovered.close();
+    }
+
+    @Test
+    public void testCorruptSlotIsDropped() throws IOException {
+        // Arrange
+        Customer first = customer("first@example.com", "Doe");
+        Customer second = customer("second@example.com", "Doe");
+        store.putAll(List.of(first, second));
+        store.close();
+        try (FileChannel slots = FileChannel.open(directory.resolve(MappedCustomerStore.DATA_FILE),
+                StandardOpenOption.WRITE)) {
+            slots.write(ByteBuffer.wrap(new byte[] {(byte) 0xff}), 20);
+        }
+
+        // Act
+        store = open(100);
+
+        // Assert
+        assertEquals(1, store.size());
+        assertNull(store.get(first.getCustomerId()));
+        assertNotNull(store.get(second.getCustomerId()));
+    }
+
+    @Test
+    public void testReadersSeeWholeCustomersDuringWrites() throws Exception {
+        // Arrange: the writer flips a customer between two versions whose fields must never mix
+        Customer customer = customer("flip@example.com", "Aaaa");
+        customer.setGivenName("Aaaa");
+        store.putAll(List.of(customer));
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        Future<?> writer = executor.submit(() -> {
+            try {
+                for (int i = 0; i < 2_000; i++) {
+                    String name = i % 2 == 0 ? "Bbbbbbbb" : "Aaaa";
+                    customer.setGivenName(name);
+                    customer.setSurname(name);
+                    store.putAll(List.of(customer));
+                }
+            } finally {
+                running.set(false);
+            }
+        });
+        List<Future<Set<String>>> readers = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            readers.add(executor.submit(() -> {
+                Set<String> seen = new HashSet<>();
+                while (running.get()) {
+                    Customer read = store.get(customer.getCustomerId());
+                    seen.add(read.getGivenName() + "/" + read.getSurname());
+                }
+                return seen;
+            }));
+        }
+
+        // Act
+        writer.get(30, TimeUnit.SECONDS);
+
+        // Assert
+        for (Future<Set<String>> reader : readers) {
+            Set<String> seen = reader.get(30, TimeUnit.SECONDS);
+            assertTrue(Set.of("Aaaa/Aaaa", "Bbbbbbbb/Bbbbbbbb").containsAll(seen), seen::toString);
+        }
+        executor.shutdown();
+    }
+
+    private MappedCustomerStore open(int capacity) throws IOException {
+        return new MappedCustomerStore(directory, capacity, NO_CHECKPOINT, true);
+    }
+
+    // Simulates the slot pages written since the last checkpoint never reaching the disk
+    private void zeroSlotFile() throws IOException {
+        try (FileChannel slots = FileChannel.open(directory.resolve(MappedCustomerStore.DATA_FILE),
+                StandardOpenOption.WRITE)) {
+            long size = slots.size();
+            ByteBuffer zeros = ByteBuffer.allocate(MappedCustomerStore.SLOT_SIZE);
+            for (long position = 0; position < size; position += zeros.capacity()) {
+                zeros.clear();
+                slots.write(zeros, position);
+            }
+        }
+    }
+
+    private static Customer customer(String email, String surname) {
+        Customer customer = Customer.builder()
+                .customerId(UUID.randomUUID())
+                .givenName("John")
+                .middleInitial("Q")
+                .surname(surname)
+                .primaryEmail(email)
+                .contactNumber("555-123-4567")
+                .build();
+        customer.deriveLookupColumns();
+        return customer;
+    }
+}
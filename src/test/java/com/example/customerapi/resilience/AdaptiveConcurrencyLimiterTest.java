@@ -0,0 +1,94 @@
+package com.example.customerapi.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the AdaptiveConcurrencyLimiter class.
+ */
+public class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Test
+    public void testRejectsBeyondLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 1.5, 0.2);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+
+        assertEquals(2, limiter.getInFlight());
+        assertEquals(1, limiter.getRejected());
+    }
+
+    @Test
+    public void testCompletionReleasesCapacity() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 10, 1.5, 0.2);
+        assertTrue(limiter.tryAcquire());
+
+        limiter.onComplete(FAST, true);
+
+        assertEquals(0, limiter.getInFlight());
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    public void testLimitShrinksWhenLatencyRises() {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 4, 200, 1.5, 0.2);
+        hold(limiter, 10);
+        sample(limiter, FAST, 50);
+        int baselineLimit = limiter.getLimit();
+
+        // Act
+        sample(limiter, SLOW, 60);
+
+        // Assert
+        assertTrue(limiter.getLimit() < baselineLimit,
+                "limit " + limiter.getLimit() + " should drop below " + baselineLimit);
+    }
+
+    @Test
+    public void testLimitGrowsWhileLatencyIsStable() {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 4, 200, 1.5, 0.2);
+        hold(limiter, 15);
+
+        // Act
+        sample(limiter, FAST, 200);
+
+        // Assert
+        assertTrue(limiter.getLimit() > 20);
+        assertTrue(limiter.getLimit() <= 200);
+    }
+
+    @Test
+    public void testLimitDoesNotGrowWhenUnderused() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 4, 200, 1.5, 0.2);
+
+        sample(limiter, FAST, 200);
+
+        assertEquals(20, limiter.getLimit());
+    }
+
+    private static void hold(AdaptiveConcurrencyLimiter limiter, int requests) {
+        for (int i = 0; i < requests; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+    }
+
+    private static void sample(AdaptiveConcurrencyLimiter limiter, long rttNanos, int samples) {
+        for (int i = 0; i < samples; i++) {
+            if (limiter.tryAcquire()) {
+                limiter.onComplete(rttNanos, false);
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.customerapi.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the ClientRateLimiter class.
+ */
+public class ClientRateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final ClientRateLimiter limiter = new ClientRateLimiter(1_000);
+
+    @Test
+    public void testBurstIsAdmittedThenRejected() {
+        // Arrange
+        long now = 0;
+
+        // Act & Assert
+        for (int i = 0; i < 5; i++) {
+            ClientRateLimiter.Decision decision = limiter.tryAcquire("client", 1, 5, now);
+            assertTrue(decision.allowed());
+            assertEquals(4 - i, decision.remaining());
+        }
+        ClientRateLimiter.Decision rejected = limiter.tryAcquire("client", 1, 5, now);
+        assertFalse(rejected.allowed());
+        assertEquals(SECOND, rejected.retryAfterNanos());
+    }
+
+    @Test
+    public void testTokensRefillAtConfiguredRate() {
+        for (int i = 0; i < 2; i++) {
+            limiter.tryAcquire("client", 10, 2, 0);
+        }
+        assertFalse(limiter.tryAcquire("client", 10, 2, 0).allowed());
+
+        assertTrue(limiter.tryAcquire("client", 10, 2, SECOND / 10).allowed());
+        assertFalse(limiter.tryAcquire("client", 10, 2, SECOND / 10).allowed());
+    }
+
+    @Test
+    public void testClientsHaveIndependentBuckets() {
+        assertTrue(limiter.tryAcquire("a", 1, 1, 0).allowed());
+        assertFalse(limiter.tryAcquire("a", 1, 1, 0).allowed());
+
+        assertTrue(limiter.tryAcquire("b", 1, 1, 0).allowed());
+    }
+
+    @Test
+    public void testClientsBeyondCapShareOverflowBucket() {
+        ClientRateLimiter capped = new ClientRateLimiter(2);
+        capped.tryAcquire("a", 1, 1, 0);
+        capped.tryAcquire("b", 1, 1, 0);
+
+        assertTrue(capped.tryAcquire("c", 1, 1, 0).allowed());
+        assertFalse(capped.tryAcquire("d", 1, 1, 0).allowed());
+        assertEquals(3, capped.size());
+    }
+
+    @Test
+    public void testIdleBucketsAreEvicted() {
+        limiter.tryAcquire("idle", 10, 10, 0);
+        limiter.tryAcquire("busy", 10, 10, 10 * SECOND);
+
+        int evicted = limiter.evictIdle(10 * SECOND, 5 * SECOND);
+
+        assertEquals(1, evicted);
+        assertEquals(1, limiter.size());
+    }
+
+    @Test
+    public void testConcurrentClientsNeverExceedBurst() throws InterruptedException {
+        // Arrange
+        AtomicInteger admitted = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // Act
+        for (int t = 0; t < 8; t++) {
+            executor.execute(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    if (limiter.tryAcquire("shared", 0.001, 100, 0).allowed()) {
+                        admitted.incrementAndGet();
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        // Assert
+        assertEquals(100, admitted.get());
+    }
+}
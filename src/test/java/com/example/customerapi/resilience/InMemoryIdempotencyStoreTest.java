@@ -0,0 +1,86 @@
+package com.example.customerapi.resilience;
+
+import com.example.customerapi.resilience.IdempotencyStore.IdempotencyRecord;
+import com.example.customerapi.resilience.IdempotencyStore.StoredResponse;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the InMemoryIdempotencyStore class.
+ */
+public class InMemoryIdempotencyStoreTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-01T00:00:00Z");
+    private static final Duration TTL = Duration.ofHours(1);
+
+    @Test
+    public void testClaimCompleteAndReplay() {
+        // Arrange
+        InMemoryIdempotencyStore store = new InMemoryIdempotencyStore(10);
+
+        // Act
+        Optional<IdempotencyRecord> first = store.claim("key", "fp", NOW, TTL);
+        Optional<IdempotencyRecord> inProgress = store.claim("key", "fp", NOW, TTL);
+        store.complete("key", new StoredResponse(200, "application/json", Map.of(), new byte[] {1}));
+        Optional<IdempotencyRecord> completed = store.claim("key", "fp", NOW, TTL);
+
+        // Assert
+        assertTrue(first.isEmpty());
+        assertFalse(inProgress.orElseThrow().isCompleted());
+        assertEquals(200, completed.orElseThrow().response().status());
+    }
+
+    @Test
+    public void testReleasedKeyCanBeClaimedAgain() {
+        // Arrange
+        InMemoryIdempotencyStore store = new InMemoryIdempotencyStore(10);
+        store.claim("key", "fp", NOW, TTL);
+
+        // Act
+        store.release("key");
+
+        // Assert
+        assertTrue(store.claim("key", "fp", NOW, TTL).isEmpty());
+    }
+
+    @Test
+    public void testExpiredKeysAreForgotten() {
+        // Arrange
+        InMemoryIdempotencyStore store = new InMemoryIdempotencyStore(10);
+        store.claim("key", "fp", NOW, TTL);
+        store.complete("key", new StoredResponse(200, null, Map.of(), new byte[0]));
+
+        // Act
+        Instant later = NOW.plus(TTL);
+        int evicted = store.evictExpired(later);
+
+        // Assert
+        assertEquals(1, evicted);
+        assertTrue(store.find("key", later).isEmpty());
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    public void testOldestKeyIsEvictedWhenFull() {
+        // Arrange
+        InMemoryIdempotencyStore store = new InMemoryIdempotencyStore(2);
+
+        // Act
+        store.claim("a", "fp", NOW, TTL);
+        store.claim("b", "fp", NOW, TTL);
+        store.claim("c", "fp", NOW, TTL);
+
+        // Assert
+        assertEquals(2, store.size());
+        assertTrue(store.find("a", NOW).isEmpty());
+        assertTrue(store.find("c", NOW).isPresent());
+    }
+}
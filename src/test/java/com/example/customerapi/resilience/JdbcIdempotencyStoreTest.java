@@ -0,0 +1,96 @@
+package com.example.customerapi.resilience;
+
+import com.example.customerapi.resilience.IdempotencyStore.IdempotencyRecord;
+import com.example.customerapi.resilience.IdempotencyStore.StoredResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the JdbcIdempotencyStore class against an in-memory H2 database.
+ */
+public class JdbcIdempotencyStoreTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-01T00:00:00Z");
+    private static final Duration TTL = Duration.ofHours(1);
+
+    private JdbcIdempotencyStore store;
+
+    @BeforeEach
+    public void setup() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:idempotency-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        store = new JdbcIdempotencyStore(new JdbcTemplate(dataSource), Duration.ofSeconds(30));
+    }
+
+    @Test
+    public void testSecondReplicaSeesClaimAndReplay() {
+        // Act
+        boolean claimed = store.claim("key", "fp", NOW, TTL).isEmpty();
+        IdempotencyRecord inProgress = store.claim("key", "fp", NOW, TTL).orElseThrow();
+        store.complete("key", new StoredResponse(200, "application/json", Map.of("Location", "/api/customers/jobs/1",
+                "Preference-Applied", "respond-async"), new byte[] {1, 2, 3}));
+        IdempotencyRecord completed = store.claim("key", "fp", NOW, TTL).orElseThrow();
+
+        // Assert
+        assertTrue(claimed);
+        assertFalse(inProgress.isCompleted());
+        assertEquals(200, completed.response().status());
+        assertEquals("application/json", completed.response().contentType());
+        assertEquals(Map.of("Location", "/api/customers/jobs/1", "Preference-Applied", "respond-async"),
+                completed.response().headers());
+        assertArrayEquals(new byte[] {1, 2, 3}, completed.response().body());
+    }
+
+    @Test
+    public void testAbandonedClaimIsTakenOver() {
+        // Arrange
+        store.claim("key", "fp", NOW, TTL);
+
+        // Act
+        boolean takenOver = store.claim("key", "fp", NOW.plusSeconds(31), TTL).isEmpty();
+
+        // Assert
+        assertTrue(takenOver);
+    }
+
+    @Test
+    public void testExpiredKeyIsReclaimedAndEvicted() {
+        // Arrange
+        store.claim("key", "fp", NOW, TTL);
+        store.complete("key", new StoredResponse(200, null, Map.of(), new byte[0]));
+        Instant later = NOW.plus(TTL);
+
+        // Act & Assert
+        assertTrue(store.find("key", later).isEmpty());
+        assertTrue(store.claim("key", "other", later, TTL).isEmpty());
+        assertEquals(1, store.evictExpired(later.plus(TTL)));
+    }
+
+    @Test
+    public void testReleaseOnlyForgetsUnfinishedClaims() {
+        // Arrange
+        store.claim("open", "fp", NOW, TTL);
+        store.claim("done", "fp", NOW, TTL);
+        store.complete("done", new StoredResponse(201, null, Map.of(), new byte[0]));
+
+        // Act
+        store.release("open");
+        store.release("done");
+
+        // Assert
+        assertTrue(store.find("open", NOW).isEmpty());
+        assertTrue(store.find("done", NOW).isPresent());
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.customerapi.resilience;
+
+import com.example.customerapi.config.RouteClass;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the PriorityBulkhead class.
+ */
+public class PriorityBulkheadTest {
+
+    private static final long WAIT = TimeUnit.SECONDS.toNanos(5);
+
+    private static BulkheadProperties properties(int totalPermits, int maxConcurrent, int maxQueued) {
+        BulkheadProperties properties = new BulkheadProperties();
+        properties.setTotalPermits(totalPermits);
+        properties.getDefaults().setMaxConcurrent(maxConcurrent);
+        properties.getDefaults().setMaxQueued(maxQueued);
+        return properties;
+    }
+
+    @Test
+    public void testAcquireAndRelease() throws InterruptedException {
+        PriorityBulkhead bulkhead = new PriorityBulkhead(properties(2, 2, 0));
+
+        assertTrue(bulkhead.acquire(RouteClass.POINT_READ, 0));
+        assertEquals(1, bulkhead.getActive(RouteClass.POINT_READ));
+
+        bulkhead.release(RouteClass.POINT_READ);
+        assertEquals(0, bulkhead.getActive(RouteClass.POINT_READ));
+    }
+
+    @Test
+    public void testCompartmentLimitIsIndependentOfSharedPool() throws InterruptedException {
+        // Arrange
+        BulkheadProperties properties = properties(10, 10, 0);
+        BulkheadProperties.Compartment bulk = new BulkheadProperties.Compartment();
+        bulk.setMaxConcurrent(1);
+        bulk.setMaxQueued(0);
+        properties.getCompartments().put(RouteClass.BULK, bulk);
+        PriorityBulkhead bulkhead = new PriorityBulkhead(properties);
+
+        // Act
+        assertTrue(bulkhead.acquire(RouteClass.BULK, 0));
+
+        // Assert
+        assertFalse(bulkhead.acquire(RouteClass.BULK, 0));
+        assertTrue(bulkhead.acquire(RouteClass.POINT_READ, 0));
+        assertEquals(1, bulkhead.getRejected(RouteClass.BULK));
+    }
+
+    @Test
+    public void testWaitTimesOut() throws InterruptedException {
+        PriorityBulkhead bulkhead = new PriorityBulkhead(properties(1, 1, 5));
+        assertTrue(bulkhead.acquire(RouteClass.WRITE, 0));
+
+        assertFalse(bulkhead.acquire(RouteClass.WRITE, TimeUnit.MILLISECONDS.toNanos(20)));
+
+        assertEquals(0, bulkhead.getQueued(RouteClass.WRITE));
+        assertEquals(1, bulkhead.getRejected(RouteClass.WRITE));
+    }
+
+    @Test
+    public void testQueuedPointReadsAreDispatchedFirst() throws Exception {
+        // Arrange
+        PriorityBulkhead bulkhead = new PriorityBulkhead(properties(1, 1, 5));
+        assertTrue(bulkhead.acquire(RouteClass.BULK, 0));
+        CompletableFuture<Boolean> bulk = CompletableFuture.supplyAsync(() -> acquire(bulkhead, RouteClass.BULK));
+        awaitQueued(bulkhead, RouteClass.BULK);
+        CompletableFuture<Boolean> pointRead =
+                CompletableFuture.supplyAsync(() -> acquire(bulkhead, RouteClass.POINT_READ));
+        awaitQueued(bulkhead, RouteClass.POINT_READ);
+
+        // Act
+        bulkhead.release(RouteClass.BULK);
+
+        // Assert
+        assertTrue(pointRead.get(5, TimeUnit.SECONDS));
+        assertFalse(bulk.isDone());
+        assertEquals(1, bulkhead.getQueued(RouteClass.BULK));
+
+        bulkhead.release(RouteClass.POINT_READ);
+        assertTrue(bulk.get(5, TimeUnit.SECONDS));
+    }
+
+    private static boolean acquire(PriorityBulkhead bulkhead, RouteClass routeClass) {
+        try {
+            return bulkhead.acquire(routeClass, WAIT);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static void awaitQueued(PriorityBulkhead bulkhead, RouteClass routeClass) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (bulkhead.getQueued(routeClass) == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(1, bulkhead.getQueued(routeClass));
+    }
+}
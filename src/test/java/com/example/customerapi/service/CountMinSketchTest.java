@@ -0,0 +1,60 @@
+package com.example.customerapi.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the CountMinSketch class.
+ */
+public class CountMinSketchTest {
+
+    @Test
+    public void testEstimateNeverUndercounts() {
+        // Arrange
+        CountMinSketch sketch = new CountMinSketch(1024, 4);
+
+        // Act
+        for (long key = 0; key < 5000; key++) {
+            for (int i = 0; i < key % 7; i++) {
+                sketch.add(key);
+            }
+        }
+
+        // Assert
+        for (long key = 0; key < 5000; key++) {
+            assertTrue(sketch.estimate(key) >= key % 7);
+        }
+    }
+
+    @Test
+    public void testAddReturnsUpdatedEstimate() {
+        CountMinSketch sketch = new CountMinSketch(1024, 4);
+
+        sketch.add(42L);
+        long estimate = sketch.add(42L);
+
+        assertEquals(2, estimate);
+        assertEquals(2, sketch.estimate(42L));
+    }
+
+    @Test
+    public void testDecayHalvesCounts() {
+        CountMinSketch sketch = new CountMinSketch(1024, 4);
+        for (int i = 0; i < 10; i++) {
+            sketch.add(7L);
+        }
+
+        sketch.decay();
+
+        assertEquals(5, sketch.estimate(7L));
+    }
+
+    @Test
+    public void testWidthIsRoundedToPowerOfTwo() {
+        assertEquals(1024, new CountMinSketch(1000, 2).width());
+        assertThrows(IllegalArgumentException.class, () -> new CountMinSketch(1024, 0));
+    }
+}
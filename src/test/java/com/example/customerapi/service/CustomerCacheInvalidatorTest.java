@@ -0,0 +1,141 @@
+package com.example.customerapi.service;
+
+import com.example.customerapi.model.Customer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the CustomerCacheInvalidator class, with two replicas sharing an in-memory H2 database.
+ */
+public class CustomerCacheInvalidatorTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private CacheInvalidationProperties properties;
+    private CustomerCache firstCache;
+    private CustomerCache secondCache;
+    private SimpleMeterRegistry secondRegistry;
+    private CustomerCacheInvalidator first;
+    private CustomerCacheInvalidator second;
+
+    @BeforeEach
+    public void setup() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:mem:cache-invalidation-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", ""));
+        properties = new CacheInvalidationProperties();
+        properties.setBatchSize(3);
+        firstCache = new CustomerCache(new CustomerCacheProperties(), new SimpleMeterRegistry());
+        secondCache = new CustomerCache(new CustomerCacheProperties(), new SimpleMeterRegistry());
+        secondRegistry = new SimpleMeterRegistry();
+        first = new CustomerCacheInvalidator(jdbcTemplate, firstCache, new SimpleMeterRegistry(), properties);
+        second = new CustomerCacheInvalidator(jdbcTemplate, secondCache, secondRegistry, properties);
+    }
+
+    @Test
+    public void testEvictsCustomersWrittenByOtherReplica() {
+        // Arrange
+        Customer customer = customer();
+        firstCache.put(customer);
+        secondCache.put(customer);
+
+        // Act
+        first.record(customer.getCustomerId());
+        int firstRead = first.poll();
+        int secondRead = second.poll();
+
+        // Assert
+        assertEquals(1, firstRead);
+        assertEquals(1, secondRead);
+        assertTrue(firstCache.get(customer.getCustomerId()).isPresent());
+        assertTrue(secondCache.get(customer.getCustomerId()).isEmpty());
+        assertEquals(1, secondRegistry.get(CustomerCacheInvalidator.LAG_METRIC).timer().count());
+        assertEquals(0, second.poll());
+    }
+
+    @Test
+    public void testReadsBatchesUntilCaughtUp() {
+        // Arrange
+        for (int i = 0; i < 10; i++) {
+            Customer customer = customer();
+            secondCache.put(customer);
+            first.record(customer.getCustomerId());
+        }
+
+        // Act
+        int read = second.poll();
+
+        // Assert
+        assertEquals(10, read);
+        assertEquals(0, secondCache.size());
+    }
+
+    @Test
+    public void testSkipsChangesMadeBeforeStart() {
+        // Arrange
+        first.record(UUID.randomUUID());
+
+        // Act
+        CustomerCacheInvalidator late = new CustomerCacheInvalidator(jdbcTemplate, secondCache,
+                new SimpleMeterRegistry(), properties);
+
+        // Assert
+        assertEquals(0, late.poll());
+    }
+
+    @Test
+    public void testChangeCommittedLateFillsGap() {
+        // Arrange: change 2 commits before change 1, whose id was taken first
+        Customer late = customer();
+        secondCache.put(late);
+        insertChange(2, UUID.randomUUID(), Instant.now());
+        second.poll();
+
+        // Act
+        insertChange(1, late.getCustomerId(), Instant.now());
+        int read = second.poll();
+
+        // Assert
+        assertEquals(1, read);
+        assertTrue(secondCache.get(late.getCustomerId()).isEmpty());
+        assertEquals(0, second.poll());
+    }
+
+    @Test
+    public void testPurgeDeletesChangesOlderThanRetention() {
+        // Arrange
+        properties.setRetention(Duration.ofMinutes(10));
+        first.record(UUID.randomUUID());
+        insertChange(100, UUID.randomUUID(), Instant.now().minus(Duration.ofMinutes(11)));
+
+        // Act
+        int purged = first.purge();
+
+        // Assert
+        assertEquals(1, purged);
+        assertEquals(1, (long) jdbcTemplate.queryForObject("SELECT COUNT(*) FROM customer_cache_changes", Long.class));
+    }
+
+    private void insertChange(long changeId, UUID customerId, Instant changedAt) {
+        jdbcTemplate.update("INSERT INTO customer_cache_changes (change_id, customer_id, origin, changed_at) "
+                + "VALUES (?, ?, ?, ?)", changeId, customerId, "other-replica", Timestamp.from(changedAt));
+    }
+
+    private static Customer customer() {
+        return Customer.builder()
+                .customerId(UUID.randomUUID())
+                .givenName("John")
+                .surname("Doe")
+                .primaryEmail("john.doe@example.com")
+                .build();
+    }
+}
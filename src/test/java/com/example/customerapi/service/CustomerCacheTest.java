@@ -0,0 +1,112 @@
+package com.example.customerapi.service;
+
+import com.example.customerapi.model.Customer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the CustomerCache class.
+ */
+public class CustomerCacheTest {
+
+    @Test
+    public void testReadDoesNotReplaceWrittenCustomer() {
+        // Arrange
+        CustomerCache cache = new CustomerCache(new CustomerCacheProperties(), new SimpleMeterRegistry());
+        UUID customerId = UUID.randomUUID();
+        Customer written = customer(customerId, "Smith");
+
+        // Act
+        long readStamp = cache.readStamp();
+        cache.put(written);
+        cache.putIfAbsent(customer(customerId, "Doe"), readStamp);
+
+        // Assert
+        assertEquals(Optional.of(written), cache.get(customerId));
+        assertEquals(1, cache.stats().hitCount());
+    }
+
+    @Test
+    public void testInvalidateRemovesCustomer() {
+        // Arrange
+        CustomerCache cache = new CustomerCache(new CustomerCacheProperties(), new SimpleMeterRegistry());
+        Customer customer = customer(UUID.randomUUID(), "Doe");
+        cache.put(customer);
+
+        // Act
+        cache.invalidate(customer.getCustomerId());
+
+        // Assert
+        assertTrue(cache.get(customer.getCustomerId()).isEmpty());
+        assertEquals(1, cache.stats().missCount());
+    }
+
+    @Test
+    public void testReadStartedBeforeInvalidationIsNotCached() {
+        // Arrange
+        CustomerCache cache = new CustomerCache(new CustomerCacheProperties(), new SimpleMeterRegistry());
+        Customer deleted = customer(UUID.randomUUID(), "Doe");
+        long readStamp = cache.readStamp();
+        cache.invalidate(deleted.getCustomerId());
+
+        // Act
+        cache.putIfAbsent(deleted, readStamp);
+
+        // Assert
+        assertTrue(cache.get(deleted.getCustomerId()).isEmpty());
+        cache.putIfAbsent(deleted, cache.readStamp());
+        assertTrue(cache.get(deleted.getCustomerId()).isPresent());
+    }
+
+    @Test
+    public void testReadStartedBeforeEvictedStampIsNotCached() {
+        // Arrange: a one-entry cache keeps the stamp of only one customer
+        CustomerCacheProperties properties = new CustomerCacheProperties();
+        properties.setMaximumSize(1);
+        CustomerCache cache = new CustomerCache(properties, new SimpleMeterRegistry());
+        Customer deleted = customer(UUID.randomUUID(), "Doe");
+        long readStamp = cache.readStamp();
+        cache.invalidate(deleted.getCustomerId());
+        for (int i = 0; i < 100; i++) {
+            cache.invalidate(UUID.randomUUID());
+        }
+
+        // Act
+        cache.putIfAbsent(deleted, readStamp);
+
+        // Assert
+        assertTrue(cache.get(deleted.getCustomerId()).isEmpty());
+    }
+
+    @Test
+    public void testDisabledCacheStoresNothing() {
+        // Arrange
+        CustomerCacheProperties properties = new CustomerCacheProperties();
+        properties.setEnabled(false);
+        CustomerCache cache = new CustomerCache(properties, new SimpleMeterRegistry());
+        Customer customer = customer(UUID.randomUUID(), "Doe");
+
+        // Act
+        cache.put(customer);
+        cache.putIfAbsent(customer, cache.readStamp());
+
+        // Assert
+        assertTrue(cache.get(customer.getCustomerId()).isEmpty());
+        assertEquals(0, cache.size());
+    }
+
+    private static Customer customer(UUID customerId, String surname) {
+        return Customer.builder()
+                .customerId(customerId)
+                .givenName("John")
+                .surname(surname)
+                .primaryEmail("john@example.com")
+                .build();
+    }
+}
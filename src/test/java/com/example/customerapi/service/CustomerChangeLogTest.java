@@ -0,0 +1,98 @@
+package com.example.customerapi.service;
+
+import com.example.customerapi.model.Customer;
+import com.example.customerapi.service.CustomerChangeLog.Change;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Tests for the CustomerChangeLog class.
+ */
+public class CustomerChangeLogTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    public void testReplaysRecordsInOrder() throws IOException {
+        // Arrange
+        CustomerChangeLog log = new CustomerChangeLog(directory);
+        Customer customer = customer();
+        customer.setMiddleInitial(null);
+        UUID deleted = UUID.randomUUID();
+
+        // Act
+        log.put(customer);
+        log.delete(deleted);
+        log.close();
+
+        // Assert
+        List<Change> changes = new ArrayList<>();
+        assertEquals(2, CustomerChangeLog.replay(directory, 1, changes::add));
+        assertEquals(customer, changes.get(0).customer());
+        assertEquals("+15551234567", changes.get(0).customer().getContactNumberE164());
+        assertEquals(deleted, changes.get(1).customerId());
+        assertNull(changes.get(1).customer());
+    }
+
+    @Test
+    public void testRotateStartsNewSegmentOnNextAppend() throws IOException {
+        // Arrange
+        CustomerChangeLog log = new CustomerChangeLog(directory);
+        log.put(customer());
+
+        // Act
+        long next = log.rotate();
+        long empty = log.rotate();
+        log.put(customer());
+        log.close();
+
+        // Assert
+        assertEquals(2, next);
+        assertEquals(3, empty);
+        assertEquals(List.of(1L, 3L), CustomerChangeLog.segments(directory));
+    }
+
+    @Test
+    public void testTornRecordEndsReplay() throws IOException {
+        // Arrange
+        CustomerChangeLog log = new CustomerChangeLog(directory);
+        log.put(customer());
+        log.close();
+        try (FileChannel segment = FileChannel.open(CustomerChangeLog.segmentFile(directory, 1),
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            segment.write(ByteBuffer.wrap(new byte[] {0, 0, 1, 0, 42, 42}));
+        }
+
+        // Act
+        long replayed = CustomerChangeLog.replay(directory, 1, change -> { });
+
+        // Assert
+        assertEquals(1, replayed);
+    }
+
+    private static Customer customer() {
+        Customer customer = Customer.builder()
+                .customerId(UUID.randomUUID())
+                .givenName("John")
+                .middleInitial("Q")
+                .surname("Doe")
+                .primaryEmail("john.doe@example.com")
+                .contactNumber("555-123-4567")
+                .build();
+        customer.deriveLookupColumns();
+        return customer;
+    }
+}
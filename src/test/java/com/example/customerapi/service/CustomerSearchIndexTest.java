@@ -0,0 +1,131 @@
+package com.example.customerapi.service;
+
+import com.example.customerapi.model.Customer;
+import com.example.customerapi.repository.CustomerRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for the CustomerSearchIndex class.
+ */
+@ExtendWith(MockitoExtension.class)
+public class CustomerSearchIndexTest {
+
+    @Mock
+    private CustomerRepository customerRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CustomerSearchIndex index;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        index = new CustomerSearchIndex(customerRepository, meterRegistry, 2);
+    }
+
+    @Test
+    public void testMatchesAnyFieldIgnoringCase() {
+        // Arrange
+        Customer john = customer("John", "Doe", "jd@example.com");
+        Customer jane = customer("Jane", "Johnson", "jane@example.com");
+        index.put(john);
+        index.put(jane);
+        index.put(customer("Bob", "Smith", "bob@example.com"));
+
+        // Act
+        List<Customer> results = index.search("JO", 10);
+
+        // Assert
+        assertEquals(List.of(john, jane), results);
+        assertEquals(List.of(john), index.search("jd@", 10));
+    }
+
+    @Test
+    public void testCustomerMatchingOnSeveralFieldsIsReturnedOnce() {
+        // Arrange
+        Customer customer = customer("Jo", "Jones", "jo.jones@example.com");
+        index.put(customer);
+
+        // Act & Assert
+        assertEquals(1, index.search("jo", 10).size());
+    }
+
+    @Test
+    public void testLimitCapsResults() {
+        for (int i = 0; i < 20; i++) {
+            index.put(customer("Anna" + i, "Lee", "anna" + i + "@example.com"));
+        }
+
+        assertEquals(5, index.search("anna", 5).size());
+    }
+
+    @Test
+    public void testUpdateReplacesOldValuesAndDeleteRemoves() {
+        // Arrange
+        Customer customer = customer("John", "Doe", "jd@example.com");
+        index.put(customer);
+        long footprint = index.estimatedBytes();
+
+        // Act
+        Customer renamed = Customer.builder()
+                .customerId(customer.getCustomerId())
+                .givenName("John")
+                .surname("Smith")
+                .primaryEmail("jd@example.com")
+                .build();
+        index.put(renamed);
+
+        // Assert
+        assertTrue(index.search("doe", 10).isEmpty());
+        assertEquals(List.of(renamed), index.search("smi", 10));
+        assertEquals(footprint + 2L * ("Smith".length() - "Doe".length()), index.estimatedBytes());
+
+        index.remove(customer.getCustomerId());
+        assertTrue(index.search("j", 10).isEmpty());
+        assertEquals(0, index.estimatedBytes());
+        assertEquals(0.0, meterRegistry.get(CustomerSearchIndex.MEMORY_METRIC).gauge().value());
+    }
+
+    @Test
+    public void testStartupLoadReadsAllPages() {
+        // Arrange
+        Customer first = customer("Ann", "Able", "ann@example.com");
+        Customer second = customer("Ben", "Baker", "ben@example.com");
+        Customer third = customer("Cat", "Cole", "cat@example.com");
+        Pageable firstPage = PageRequest.of(0, 2);
+        when(customerRepository.findAll(any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(first, second), firstPage, 3))
+                .thenReturn(new PageImpl<>(List.of(third), firstPage.next(), 3));
+
+        // Act
+        index.run(null);
+
+        // Assert
+        assertEquals(List.of(first), index.search("ann", 10));
+        assertEquals(List.of(third), index.search("cole", 10));
+    }
+
+    private static Customer customer(String givenName, String surname, String email) {
+        return Customer.builder()
+                .customerId(UUID.randomUUID())
+                .givenName(givenName)
+                .surname(surname)
+                .primaryEmail(email)
+                .build();
+    }
+}
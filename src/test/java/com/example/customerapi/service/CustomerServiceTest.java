@@ -1,19 +1,25 @@
 package com.example.customerapi.service;
 
+import com.example.customerapi.exception.DeadlineExceededException;
 import com.example.customerapi.exception.ResourceNotFoundException;
 import com.example.customerapi.model.Customer;
 import com.example.customerapi.repository.CustomerRepository;
+import com.example.customerapi.repository.CustomerRepositoryCustom.UpsertResult;
+import com.example.customerapi.resilience.RequestDeadline;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -25,6 +31,7 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -38,7 +45,33 @@ public class CustomerServiceTest {
     @Mock
     private CustomerRepository customerRepository;
 
-    @InjectMocks
+    @Mock
+    private HotKeyTracker hotKeyTracker;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private GroupCommitWriter groupCommitWriter;
+
+    @Mock
+    private CustomerSearchIndex searchIndex;
+
+    @Mock
+    private PhoneticNameIndex phoneticIndex;
+
+    @Mock
+    private CustomerStats stats;
+
+    @Mock
+    private CustomerSnapshotService snapshots;
+
+    @Mock
+    private CustomerCache cache;
+
+    @Mock
+    private CustomerCacheInvalidator invalidations;
+
     private CustomerService customerService;
 
     private Customer testCustomer;
@@ -46,6 +79,10 @@ public class CustomerServiceTest {
 
     @BeforeEach
     public void setup() {
+        customerService = new CustomerService(customerRepository, hotKeyTracker,
+                new DeadlineTransactions(transactionManager, new SimpleMeterRegistry()),
+                new StripedLocks(16, new SimpleMeterRegistry()), groupCommitWriter, searchIndex,
+                phoneticIndex, stats, snapshots, cache, invalidations);
         testCustomerId = UUID.randomUUID();
         testCustomer = Customer.builder()
                 .customerId(testCustomerId)
@@ -56,6 +93,11 @@ public class CustomerServiceTest {
                 .build();
     }
 
+    @AfterEach
+    public void tearDown() {
+        RequestDeadline.clear();
+    }
+
     @Test
     public void testCreateCustomer() {
         // Arrange
@@ -69,6 +111,25 @@ public class CustomerServiceTest {
         assertEquals(testCustomerId, createdCustomer.getCustomerId());
         assertEquals("John", createdCustomer.getGivenName());
         verify(customerRepository, times(1)).save(testCustomer);
+        verify(searchIndex).put(testCustomer);
+        verify(phoneticIndex).put(testCustomer);
+        verify(stats).created(testCustomer);
+        verify(snapshots).logPut(testCustomer);
+        verify(cache).put(testCustomer);
+        verify(invalidations, never()).record(any(UUID.class));
+    }
+
+    @Test
+    public void testCreateCustomerThroughGroupCommit() {
+        // Arrange
+        when(groupCommitWriter.tryCreate(testCustomer)).thenReturn(Optional.of(testCustomer));
+
+        // Act
+        Customer createdCustomer = customerService.createCustomer(testCustomer);
+
+        // Assert
+        assertEquals(testCustomerId, createdCustomer.getCustomerId());
+        verify(customerRepository, never()).save(any(Customer.class));
     }
 
     @Test
@@ -129,6 +190,48 @@ public class CustomerServiceTest {
         assertTrue(result.isPresent());
         assertEquals(testCustomerId, result.get().getCustomerId());
         verify(customerRepository, times(1)).findById(testCustomerId);
+        verify(hotKeyTracker, times(1)).record(testCustomerId);
+        verify(cache).putIfAbsent(testCustomer, 0L);
+    }
+
+    @Test
+    public void testGetCustomerByIdFromCache() {
+        // Arrange
+        when(cache.get(testCustomerId)).thenReturn(Optional.of(testCustomer));
+
+        // Act
+        Optional<Customer> result = customerService.getCustomerById(testCustomerId);
+
+        // Assert
+        assertEquals(Optional.of(testCustomer), result);
+        verify(customerRepository, never()).findById(any(UUID.class));
+        verify(hotKeyTracker, times(1)).record(testCustomerId);
+    }
+
+    @Test
+    public void testGetCustomerByEmail() {
+        // Arrange
+        when(customerRepository.findByPrimaryEmail("john.doe@example.com")).thenReturn(Optional.of(testCustomer));
+
+        // Act
+        Optional<Customer> result = customerService.getCustomerByEmail("john.doe@example.com");
+
+        // Assert
+        assertTrue(result.isPresent());
+        assertEquals(testCustomerId, result.get().getCustomerId());
+        verify(hotKeyTracker, times(1)).record(testCustomerId);
+    }
+
+    @Test
+    public void testGetCustomersByPhone() {
+        // Arrange
+        when(customerRepository.findByContactNumberE164("+11234567890")).thenReturn(List.of(testCustomer));
+
+        // Act
+        List<Customer> result = customerService.getCustomersByPhone("+11234567890");
+
+        // Assert
+        assertEquals(List.of(testCustomer), result);
     }
 
     @Test
@@ -143,6 +246,7 @@ public class CustomerServiceTest {
         // Assert
         assertTrue(result.isEmpty());
         verify(customerRepository, times(1)).findById(nonExistentId);
+        verify(hotKeyTracker, times(0)).record(any(UUID.class));
     }
 
     @Test
@@ -172,6 +276,8 @@ public class CustomerServiceTest {
         assertEquals("555-123-4567", result.getContactNumber());
         verify(customerRepository, times(1)).findById(testCustomerId);
         verify(customerRepository, times(1)).save(any(Customer.class));
+        verify(stats).updated(new CustomerStats.Key("example.com", "D"), result);
+        verify(invalidations).record(testCustomerId);
     }
 
     @Test
@@ -197,25 +303,84 @@ public class CustomerServiceTest {
         verify(customerRepository, times(0)).save(any(Customer.class));
     }
 
+    @Test
+    public void testUpsertCustomerByEmail() {
+        // Arrange
+        when(customerRepository.upsertByPrimaryEmail(testCustomer)).thenReturn(new UpsertResult(testCustomer, null));
+
+        // Act
+        UpsertResult result = customerService.upsertCustomerByEmail(testCustomer);
+
+        // Assert
+        assertTrue(result.created());
+        assertEquals(testCustomerId, result.customer().getCustomerId());
+        verify(customerRepository, times(0)).save(any(Customer.class));
+        verify(stats).created(testCustomer);
+        verify(invalidations, never()).record(any(UUID.class));
+    }
+
+    @Test
+    public void testUpsertExistingCustomerInvalidatesOtherReplicas() {
+        // Arrange
+        Customer previous = Customer.builder()
+                .customerId(testCustomerId)
+                .surname("Smith")
+                .primaryEmail(testCustomer.getPrimaryEmail())
+                .build();
+        when(customerRepository.upsertByPrimaryEmail(testCustomer)).thenReturn(new UpsertResult(testCustomer, previous));
+
+        // Act
+        customerService.upsertCustomerByEmail(testCustomer);
+
+        // Assert
+        verify(cache).put(testCustomer);
+        verify(invalidations).record(testCustomerId);
+        verify(stats, never()).created(any(Customer.class));
+        verify(stats).updated(CustomerStats.Key.of(previous), testCustomer);
+        verify(customerRepository, never()).findByPrimaryEmail(any(String.class));
+    }
+
+    @Test
+    public void testRefreshCustomersReindexesStoredAndEvictsDeleted() {
+        // Arrange
+        UUID deletedId = UUID.randomUUID();
+        when(customerRepository.findById(testCustomerId)).thenReturn(Optional.of(testCustomer));
+        when(customerRepository.findById(deletedId)).thenReturn(Optional.empty());
+
+        // Act
+        customerService.refreshCustomers(List.of(testCustomerId, deletedId));
+
+        // Assert
+        verify(cache).put(testCustomer);
+        verify(searchIndex).put(testCustomer);
+        verify(phoneticIndex).put(testCustomer);
+        verify(cache).invalidate(deletedId);
+    }
+
     @Test
     public void testDeleteCustomer() {
         // Arrange
-        when(customerRepository.existsById(testCustomerId)).thenReturn(true);
-        doNothing().when(customerRepository).deleteById(testCustomerId);
+        when(customerRepository.findById(testCustomerId)).thenReturn(Optional.of(testCustomer));
+        doNothing().when(customerRepository).delete(testCustomer);
 
         // Act
         customerService.deleteCustomer(testCustomerId);
 
         // Assert
-        verify(customerRepository, times(1)).existsById(testCustomerId);
-        verify(customerRepository, times(1)).deleteById(testCustomerId);
+        verify(customerRepository, times(1)).findById(testCustomerId);
+        verify(customerRepository, times(1)).delete(testCustomer);
+        verify(searchIndex).remove(testCustomerId);
+        verify(stats).deleted(CustomerStats.Key.of(testCustomer));
+        verify(snapshots).logDelete(testCustomerId);
+        verify(cache).invalidate(testCustomerId);
+        verify(invalidations).record(testCustomerId);
     }
 
     @Test
     public void testDeleteCustomerNotFound() {
         // Arrange
         UUID nonExistentId = UUID.randomUUID();
-        when(customerRepository.existsById(nonExistentId)).thenReturn(false);
+        when(customerRepository.findById(nonExistentId)).thenReturn(Optional.empty());
 
         // Act & Assert
         ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () -> {
@@ -223,7 +388,19 @@ public class CustomerServiceTest {
         });
 
         assertEquals("Customer not found with id: '" + nonExistentId + "'", exception.getMessage());
-        verify(customerRepository, times(1)).existsById(nonExistentId);
-        verify(customerRepository, times(0)).deleteById(nonExistentId);
+        verify(customerRepository, times(1)).findById(nonExistentId);
+        verify(customerRepository, times(0)).delete(any(Customer.class));
+        verify(stats, times(0)).deleted(any(CustomerStats.Key.class));
+        verify(snapshots, times(0)).logDelete(any(UUID.class));
+    }
+
+    @Test
+    public void testExpiredDeadlineSkipsRepository() {
+        // Arrange
+        RequestDeadline.set(RequestDeadline.after(Duration.ZERO));
+
+        // Act & Assert
+        assertThrows(DeadlineExceededException.class, () -> customerService.getCustomerById(testCustomerId));
+        verify(customerRepository, times(0)).findById(any(UUID.class));
     }
 }
@@ -0,0 +1,266 @@
+package com.example.customerapi.service;
+
+import com.example.customerapi.model.Customer;
+import com.example.customerapi.model.CustomerSchema;
+import com.example.customerapi.service.CustomerSnapshotService.RestoreResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Tests for the CustomerSnapshotService class, restarting against a fresh in-memory H2 database.
+ */
+public class CustomerSnapshotServiceTest {
+
+
+    @TempDir
+    private Path directory;
+
+    private SnapshotProperties properties;
+    private JdbcTemplate jdbcTemplate;
+    private CustomerSnapshotService snapshots;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        properties = new SnapshotProperties();
+        properties.setEnabled(true);
+        properties.setDirectory(directory.toString());
+        properties.setRestoreBatchSize(7);
+        properties.setRestoreParallelism(3);
+        restart();
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        snapshots.destroy();
+    }
+
+    @Test
+    public void testRestoresSnapshotAndLoggedChanges() throws Exception {
+        // Arrange
+        List<Customer> customers = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            customers.add(create("user" + i + "@example.com", "Doe"));
+        }
+        snapshots.snapshot();
+        Customer updated = customers.get(10);
+        updated.setSurname("Smith");
+        update(updated);
+        delete(customers.get(20).getCustomerId());
+        create("late@example.com", "Jones");
+        Map<UUID, String> expected = table();
+
+        // Act
+        RestoreResult result = restart();
+
+        // Assert
+        assertEquals(100, result.customers());
+        assertEquals(3, result.changes());
+        assertEquals(expected, table());
+        assertEquals(100, (long) jdbcTemplate.queryForObject("SELECT COUNT(*) FROM customers", Long.class));
+        assertEquals("+15551234567", jdbcTemplate.queryForObject(
+                "SELECT contact_number_e164 FROM customers WHERE customer_id = ?", String.class,
+                updated.getCustomerId()));
+    }
+
+    @Test
+    public void testRestoresLoggedChangesWithoutSnapshot() throws Exception {
+        // Arrange
+        create("a@example.com", "Doe");
+        Customer deleted = create("b@example.com", "Doe");
+        delete(deleted.getCustomerId());
+        Map<UUID, String> expected = table();
+
+        // Act
+        RestoreResult result = restart();
+
+        // Assert
+        assertNull(result.snapshot());
+        assertEquals(3, result.changes());
+        assertEquals(expected, table());
+    }
+
+    @Test
+    public void testCorruptSnapshotFallsBackToThePreviousOne() throws Exception {
+        // Arrange
+        create("a@example.com", "Doe");
+        snapshots.snapshot();
+        create("b@example.com", "Doe");
+        snapshots.snapshot();
+        create("c@example.com", "Doe");
+        Map<UUID, String> expected = table();
+        Path latest = snapshotFiles().get(snapshotFiles().size() - 1);
+        try (FileChannel file = FileChannel.open(latest, StandardOpenOption.WRITE)) {
+            file.write(ByteBuffer.wrap(new byte[] {0, 0, 0, 0}), Files.size(latest) / 2);
+        }
+
+        // Act
+        RestoreResult result = restart();
+
+        // Assert
+        assertEquals(snapshotFiles().get(0), result.snapshot());
+        assertEquals(1, result.customers());
+        assertEquals(expected, table());
+    }
+
+    @Test
+    public void testEmailMovedBetweenCustomersReplaysInEitherOrder() throws Exception {
+        // Arrange: the new holder of an email was logged before the customer who gave it up
+        Customer previous = create("shared@example.com", "Doe");
+        snapshots.snapshot();
+        previous.setPrimaryEmail("moved@example.com");
+        previous.deriveLookupColumns();
+        Customer next = customer("shared@example.com", "Smith");
+        jdbcTemplate.update("UPDATE customers SET primary_email = ? WHERE customer_id = ?",
+                previous.getPrimaryEmail(), previous.getCustomerId());
+        insert(next);
+        snapshots.logPut(next);
+        snapshots.logPut(previous);
+        Map<UUID, String> expected = table();
+
+        // Act
+        restart();
+
+        // Assert
+        assertEquals(expected, table());
+    }
+
+    @Test
+    public void testTableWithCustomersIsNotOverwritten() throws Exception {
+        // Arrange
+        create("a@example.com", "Doe");
+        snapshots.snapshot();
+        snapshots.destroy();
+        DriverManagerDataSource dataSource = newDatabase();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        Customer existing = customer("existing@example.com", "Doe");
+        insert(existing);
+        snapshots = new CustomerSnapshotService(jdbcTemplate, new DataSourceTransactionManager(dataSource),
+                new SimpleMeterRegistry(), properties);
+
+        // Act
+        RestoreResult result = snapshots.restore();
+
+        // Assert
+        assertNull(result);
+        assertEquals(Map.of(existing.getCustomerId(), "existing@example.com Doe"), table());
+    }
+
+    @Test
+    public void testKeepsOnlyTheSnapshotsAndSegmentsStillNeeded() throws Exception {
+        // Arrange
+        for (int i = 0; i < 4; i++) {
+            create("user" + i + "@example.com", "Doe");
+            snapshots.snapshot();
+        }
+        create("late@example.com", "Doe");
+        Map<UUID, String> expected = table();
+
+        // Act
+        List<Path> kept = snapshotFiles();
+
+        // Assert
+        assertEquals(2, kept.size());
+        long oldestKept = Long.parseLong(kept.get(0).getFileName().toString().replaceAll("\\D", ""));
+        assertEquals(oldestKept, CustomerChangeLog.segments(directory).get(0));
+        restart();
+        assertEquals(expected, table());
+    }
+
+    /**
+     * Simulates a restart: closes the current node and restores into a new, empty database.
+     */
+    private RestoreResult restart() throws Exception {
+        if (snapshots != null) {
+            snapshots.destroy();
+        }
+        DriverManagerDataSource dataSource = newDatabase();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        snapshots = new CustomerSnapshotService(jdbcTemplate, new DataSourceTransactionManager(dataSource),
+                new SimpleMeterRegistry(), properties);
+        return snapshots.restore();
+    }
+
+    private DriverManagerDataSource newDatabase() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:customer-snapshot-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        CustomerSchema.create(dataSource);
+        return dataSource;
+    }
+
+    private List<Path> snapshotFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(CustomerSnapshotService.SNAPSHOT_SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private Map<UUID, String> table() {
+        Map<UUID, String> rows = new TreeMap<>();
+        jdbcTemplate.query("SELECT customer_id, primary_email, surname FROM customers", rs -> {
+            rows.put(rs.getObject("customer_id", UUID.class),
+                    rs.getString("primary_email") + " " + rs.getString("surname"));
+        });
+        return rows;
+    }
+
+    private Customer create(String email, String surname) {
+        Customer customer = customer(email, surname);
+        insert(customer);
+        snapshots.logPut(customer);
+        return customer;
+    }
+
+    private void update(Customer customer) {
+        jdbcTemplate.update("UPDATE customers SET surname = ? WHERE customer_id = ?",
+                customer.getSurname(), customer.getCustomerId());
+        snapshots.logPut(customer);
+    }
+
+    private void delete(UUID customerId) {
+        jdbcTemplate.update("DELETE FROM customers WHERE customer_id = ?", customerId);
+        snapshots.logDelete(customerId);
+    }
+
+    private void insert(Customer customer) {
+        jdbcTemplate.update("INSERT INTO customers (customer_id, given_name, middle_initial, surname, "
+                + "primary_email, contact_number, contact_number_e164, email_domain) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)", customer.getCustomerId(), customer.getGivenName(),
+                customer.getMiddleInitial(), customer.getSurname(), customer.getPrimaryEmail(),
+                customer.getContactNumber(), customer.getContactNumberE164(), customer.getEmailDomain());
+    }
+
+    private static Customer customer(String email, String surname) {
+        Customer customer = Customer.builder()
+                .customerId(UUID.randomUUID())
+                .givenName("John")
+                .surname(surname)
+                .primaryEmail(email)
+                .contactNumber("555-123-4567")
+                .build();
+        customer.deriveLookupColumns();
+        return customer;
+    }
+}
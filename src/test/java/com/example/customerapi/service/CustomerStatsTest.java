@@ -0,0 +1,200 @@
+package com.example.customerapi.service;
+
+import com.example.customerapi.model.Customer;
+import com.example.customerapi.model.CustomerSchema;
+import com.example.customerapi.repository.MappedCustomerRepository;
+import com.example.customerapi.repository.MappedStoreProperties;
+import com.example.customerapi.service.CustomerStats.Key;
+import com.example.customerapi.service.CustomerStats.Snapshot;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Tests for the CustomerStats class against an in-memory H2 database.
+ */
+public class CustomerStatsTest {
+
+
+    private JdbcTemplate jdbcTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private CustomerStats stats;
+
+    @BeforeEach
+    public void setup() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:customer-stats-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        CustomerSchema.create(dataSource);
+        meterRegistry = new SimpleMeterRegistry();
+        stats = new CustomerStats(jdbcTemplate, meterRegistry, Optional.empty());
+    }
+
+    @Test
+    public void testIncrementalCounts() {
+        // Arrange
+        Customer doe = customer("Doe", "john.doe@example.com");
+        Customer smith = customer("Smith", "jane.smith@Example.com");
+        Customer brown = customer("brown", "bob@other.org");
+
+        // Act
+        stats.created(doe);
+        stats.created(smith);
+        stats.created(brown);
+        Key before = Key.of(brown);
+        brown.setSurname("Adams");
+        stats.updated(before, brown);
+        stats.deleted(Key.of(smith));
+
+        // Assert
+        Snapshot snapshot = stats.snapshot(10);
+        assertEquals(2, snapshot.total());
+        assertEquals(2, stats.total());
+        assertEquals(Map.of("example.com", 1L, "other.org", 1L), snapshot.byEmailDomain());
+        assertEquals(List.of("A", "D"), List.copyOf(snapshot.bySurnameInitial().keySet()));
+        assertNull(snapshot.reconciledAt());
+        assertEquals(2.0, meterRegistry.get("customer.stats.total").gauge().value());
+    }
+
+    @Test
+    public void testUpdateWithinSameCountersChangesNothing() {
+        // Arrange
+        Customer doe = customer("Doe", "john.doe@example.com");
+        stats.created(doe);
+        Key before = Key.of(doe);
+        doe.setSurname("Dalton");
+
+        // Act
+        stats.updated(before, doe);
+
+        // Assert
+        Snapshot snapshot = stats.snapshot(10);
+        assertEquals(1, snapshot.total());
+        assertEquals(Map.of("D", 1L), snapshot.bySurnameInitial());
+    }
+
+    @Test
+    public void testSnapshotListsLargestDomainsFirst() {
+        // Arrange
+        for (int i = 0; i < 3; i++) {
+            stats.created(customer("Doe", "a" + i + "@big.example"));
+        }
+        for (int i = 0; i < 2; i++) {
+            stats.created(customer("Doe", "b" + i + "@medium.example"));
+        }
+        stats.created(customer("Doe", "c@small.example"));
+        stats.created(customer("Doe", null));
+
+        // Act
+        Snapshot snapshot = stats.snapshot(2);
+
+        // Assert
+        assertEquals(7, snapshot.total());
+        assertEquals(List.of("big.example", "medium.example"), List.copyOf(snapshot.byEmailDomain().keySet()));
+        assertEquals(3L, snapshot.byEmailDomain().get("big.example"));
+    }
+
+    @Test
+    public void testInitialOf() {
+        assertEquals("D", CustomerStats.initialOf("  doe"));
+        assertEquals("É", CustomerStats.initialOf("élise"));
+        assertEquals(CustomerStats.OTHER_INITIAL, CustomerStats.initialOf("'t Hooft"));
+        assertEquals(CustomerStats.OTHER_INITIAL, CustomerStats.initialOf(""));
+        assertEquals(CustomerStats.OTHER_INITIAL, CustomerStats.initialOf(null));
+    }
+
+    @Test
+    public void testReconcileCorrectsDrift() {
+        // Arrange
+        insert("Doe", "john.doe@example.com");
+        insert("Smith", "jane.smith@example.com");
+        insert("Brown", "bob@other.org");
+        insert("Adams", null);
+        stats.created(customer("Doe", "john.doe@example.com"));
+        stats.created(customer("Zimmer", "zed@gone.example"));
+
+        // Act
+        stats.reconcile();
+
+        // Assert
+        Snapshot snapshot = stats.snapshot(10);
+        assertEquals(4, snapshot.total());
+        assertEquals(Map.of("example.com", 2L, "other.org", 1L, CustomerStats.NO_DOMAIN, 1L),
+                snapshot.byEmailDomain());
+        assertEquals(Map.of("A", 1L, "B", 1L, "D", 1L, "S", 1L), snapshot.bySurnameInitial());
+        assertNotNull(snapshot.reconciledAt());
+        // One domain and one initial each for Smith, Brown and Adams, the same for Zimmer, and two totals
+        assertEquals(10.0, meterRegistry.get(CustomerStats.DRIFT_METRIC).counter().count());
+    }
+
+    @Test
+    public void testReconcileWithoutDriftCorrectsNothing() {
+        // Arrange
+        insert("Doe", "john.doe@example.com");
+        stats.reconcile();
+        stats.created(customer("Smith", "jane.smith@example.com"));
+        insert("Smith", "jane.smith@example.com");
+
+        // Act
+        stats.reconcile();
+
+        // Assert
+        assertEquals(2, stats.total());
+        assertEquals(3.0, meterRegistry.get(CustomerStats.DRIFT_METRIC).counter().count());
+    }
+
+    @Test
+    public void testReconcileCountsMappedStoreInsteadOfDatabase(@TempDir Path directory) throws IOException {
+        // Arrange
+        insert("Doe", "john.doe@example.com");
+        MappedStoreProperties properties = new MappedStoreProperties();
+        properties.setDirectory(directory.toString());
+        properties.setCapacity(10);
+        MappedCustomerRepository mapped = new MappedCustomerRepository(properties);
+        mapped.save(customer("Smith", "jane.smith@example.com"));
+        mapped.save(customer("Brown", "bob@other.org"));
+        CustomerStats mappedStats = new CustomerStats(jdbcTemplate, new SimpleMeterRegistry(), Optional.of(mapped));
+
+        // Act
+        mappedStats.reconcile();
+
+        // Assert
+        Snapshot snapshot = mappedStats.snapshot(10);
+        assertEquals(2, snapshot.total());
+        assertEquals(Map.of("example.com", 1L, "other.org", 1L), snapshot.byEmailDomain());
+        assertEquals(Map.of("B", 1L, "S", 1L), snapshot.bySurnameInitial());
+        mapped.destroy();
+    }
+
+    private static Customer customer(String surname, String email) {
+        Customer customer = Customer.builder()
+                .customerId(UUID.randomUUID())
+                .givenName("Given")
+                .surname(surname)
+                .primaryEmail(email)
+                .contactNumber("555-123-4567")
+                .build();
+        customer.deriveLookupColumns();
+        return customer;
+    }
+
+    private void insert(String surname, String email) {
+        jdbcTemplate.update("INSERT INTO customers (customer_id, given_name, surname, primary_email, "
+                + "contact_number, email_domain) VALUES (?, 'Given', ?, ?, '555-123-4567', ?)",
+                UUID.randomUUID(), surname, email, Customer.emailDomainOf(email));
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.customerapi.service;
+
+import com.example.customerapi.exception.DeadlineExceededException;
+import com.example.customerapi.resilience.RequestDeadline;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for the DeadlineTransactions class.
+ */
+@ExtendWith(MockitoExtension.class)
+public class DeadlineTransactionsTest {
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private DeadlineTransactions deadlines;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        deadlines = new DeadlineTransactions(transactionManager, meterRegistry);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        RequestDeadline.clear();
+    }
+
+    @Test
+    public void testWithoutDeadlineRunsDirectly() {
+        // Act
+        String result = deadlines.execute(true, () -> "done");
+
+        // Assert
+        assertEquals("done", result);
+        verifyNoInteractions(transactionManager);
+    }
+
+    @Test
+    public void testWriteWithoutDeadlineRunsInTransaction() {
+        // Arrange
+        TransactionStatus status = new SimpleTransactionStatus();
+        when(transactionManager.getTransaction(any())).thenReturn(status);
+
+        // Act
+        String result = deadlines.execute(false, () -> "done");
+
+        // Assert
+        assertEquals("done", result);
+        verify(transactionManager).getTransaction(argThat(definition ->
+                definition.getTimeout() == TransactionDefinition.TIMEOUT_DEFAULT && !definition.isReadOnly()));
+        verify(transactionManager).commit(status);
+    }
+
+    @Test
+    public void testTransactionTimeoutIsRemainingBudget() {
+        // Arrange
+        RequestDeadline.set(RequestDeadline.after(Duration.ofMillis(2500)));
+        TransactionStatus status = new SimpleTransactionStatus();
+        when(transactionManager.getTransaction(any())).thenReturn(status);
+
+        // Act
+        String result = deadlines.execute(true, () -> "done");
+
+        // Assert
+        assertEquals("done", result);
+        verify(transactionManager).getTransaction(argThat(definition ->
+                definition.getTimeout() == 3 && definition.isReadOnly()));
+        verify(transactionManager).commit(status);
+    }
+
+    @Test
+    public void testExpiredDeadlineSkipsOperation() {
+        // Arrange
+        RequestDeadline.set(RequestDeadline.after(Duration.ofMillis(-1)));
+
+        // Act & Assert
+        assertThrows(DeadlineExceededException.class, () -> deadlines.execute(true, () -> "done"));
+        verify(transactionManager, never()).getTransaction(any());
+        assertEquals(1.0, meterRegistry.get(DeadlineTransactions.EXCEEDED_METRIC)
+                .tag("stage", "service").counter().count());
+    }
+
+    @Test
+    public void testQueryTimeoutBecomesDeadlineExceeded() {
+        // Arrange
+        RequestDeadline.set(RequestDeadline.after(Duration.ofSeconds(1)));
+        TransactionStatus status = new SimpleTransactionStatus();
+        when(transactionManager.getTransaction(any())).thenReturn(status);
+
+        // Act & Assert
+        assertThrows(DeadlineExceededException.class, () -> deadlines.execute(true, () -> {
+            throw new QueryTimeoutException("Query timed out");
+        }));
+        verify(transactionManager).rollback(status);
+        assertEquals(1.0, meterRegistry.get(DeadlineTransactions.EXCEEDED_METRIC)
+                .tag("stage", "database").counter().count());
+    }
+}
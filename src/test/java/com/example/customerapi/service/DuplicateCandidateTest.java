@@ -0,0 +1,100 @@
+package com.example.customerapi.service;
+
+import com.example.customerapi.service.DuplicateCandidate.MatchReason;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the DuplicateCandidate class.
+ */
+public class DuplicateCandidateTest {
+
+    @Test
+    public void testNormalizesCasePunctuationAccentsAndPhoneFormat() {
+        // Act
+        DuplicateCandidate candidate = DuplicateCandidate.of(UUID.randomUUID(), "José", "O'Brien",
+                " Jose.OBrien+news@Example.com", "(555) 123-4567");
+
+        // Assert
+        assertEquals("jose", candidate.givenName());
+        assertEquals("obrien", candidate.surname());
+        assertEquals("jose.obrien+news@example.com", candidate.email());
+        assertEquals("joseobrien", candidate.emailLocal());
+        assertEquals("5551234567", candidate.phone());
+        assertEquals("s:obrien:4567", candidate.blockingKey(0));
+        assertEquals("e:joseobrien", candidate.blockingKey(1));
+        assertEquals("p:5551234567", candidate.blockingKey(2));
+    }
+
+    @Test
+    public void testMatchReasons() {
+        // Arrange
+        DuplicateCandidate jane = candidate("Jane", "Smith", "jane.smith@example.com", "555-123-4567");
+
+        // Act & Assert
+        assertEquals(MatchReason.EMAIL,
+                jane.match(candidate("J", "Doe", "JaneSmith+x@EXAMPLE.com", "555-000-0000")));
+        assertEquals(MatchReason.PHONE_AND_NAME,
+                jane.match(candidate("Jayne", "Smith", "js@other.org", "+1 555 123 4567")));
+        assertEquals(MatchReason.NAME_AND_EMAIL_LOCAL,
+                jane.match(candidate("JANE", "SMITH", "jane.smith@other.org", "555-999-9999")));
+        assertEquals(MatchReason.NAME_AND_SIMILAR_PHONE,
+                jane.match(candidate("Jane", "Smith", "js@other.org", "555-123-4568")));
+        assertNull(jane.match(candidate("John", "Smith", "john@other.org", "555-123-4567")));
+    }
+
+    @Test
+    public void testSharesEarlierKey() {
+        // Arrange
+        DuplicateCandidate first = candidate("Jane", "Smith", "jane@example.com", "555-123-4567");
+        DuplicateCandidate second = candidate("Jane", "Smith", "jane@other.org", "555-123-4567");
+
+        // Act & Assert
+        assertFalse(first.sharesEarlierKey(second, 0, Set.of()));
+        assertTrue(first.sharesEarlierKey(second, 1, Set.of()));
+        assertTrue(first.sharesEarlierKey(second, 2, Set.of()));
+    }
+
+    @Test
+    public void testSkippedEarlierKeyIsNotShared() {
+        // Arrange
+        DuplicateCandidate first = candidate("Jane", "Smith", "jane@example.com", "555-123-4567");
+        DuplicateCandidate second = candidate("Jane", "Smith", "jane@other.org", "555-123-4567");
+        Set<String> skipped = Set.of(first.blockingKey(0));
+
+        // Act & Assert
+        assertFalse(first.sharesEarlierKey(second, 1, skipped));
+        assertTrue(first.sharesEarlierKey(second, 2, skipped));
+    }
+
+    @Test
+    public void testSpillRoundTrip() throws IOException {
+        // Arrange
+        DuplicateCandidate candidate = candidate("Jane", "Smith", "jane@example.com", "555-123-4567");
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        // Act
+        candidate.writeTo(new DataOutputStream(bytes));
+        DuplicateCandidate read = DuplicateCandidate.readFrom(
+                new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        // Assert
+        assertEquals(candidate, read);
+    }
+
+    private static DuplicateCandidate candidate(String givenName, String surname, String email, String phone) {
+        return DuplicateCandidate.of(UUID.randomUUID(), givenName, surname, email, phone);
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.customerapi.service;
+
+import com.example.customerapi.model.CustomerSchema;
+import com.example.customerapi.service.DuplicateDetectionService.DetectionStatus;
+import com.example.customerapi.service.DuplicateDetectionService.State;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the DuplicateDetectionService class against an in-memory H2 database.
+ */
+public class DuplicateDetectionServiceTest {
+
+
+    @TempDir
+    private Path directory;
+
+    private JdbcTemplate jdbcTemplate;
+    private DuplicateDetectionProperties properties;
+    private DuplicateDetectionService detection;
+
+    @BeforeEach
+    public void setup() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:duplicates-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        CustomerSchema.create(dataSource);
+        properties = new DuplicateDetectionProperties();
+        properties.setDirectory(directory.toString());
+        properties.setPageSize(7);
+        properties.setPartitions(4);
+        properties.setParallelism(2);
+        properties.setMaxBlockSize(50);
+        properties.setMaxReports(1);
+        detection = new DuplicateDetectionService(jdbcTemplate, new SimpleMeterRegistry(), properties);
+    }
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        detection.destroy();
+    }
+
+    @Test
+    public void testReportsEachDuplicatePairOnce() throws Exception {
+        // Arrange
+        for (int i = 0; i < 100; i++) {
+            insert("Given" + i, "Surname" + i, "user" + i + "@example.com", String.format("555-200-%04d", i));
+        }
+        UUID jane = insert("Jane", "Smith", "jane.smith@example.com", "555-123-4567");
+        UUID janeAgain = insert("JANE", "Smith", "Jane.Smith@Example.com", "(555) 123-4567");
+        UUID jon = insert("Jon", "O'Neil", "jon@example.com", "555-987-6543");
+        UUID jonAgain = insert("John", "ONeil", "john.oneil@other.org", "+1 555 987 6543");
+
+        // Act
+        DetectionStatus status = awaitFinished(detection.start());
+
+        // Assert
+        assertEquals(State.COMPLETED, status.state());
+        assertNull(status.error());
+        assertEquals(104, status.rowsScanned());
+        assertEquals(4, status.partitionsProcessed());
+        assertEquals(2, status.duplicatePairs());
+        assertTrue(status.rowsPerSecond() > 0);
+        List<String> lines = Files.readAllLines(Path.of(status.report()));
+        assertEquals("first_customer_id,second_customer_id,reason", lines.get(0));
+        assertEquals(Set.of(pair(jane, janeAgain, "EMAIL"), pair(jon, jonAgain, "PHONE_AND_NAME")),
+                Set.copyOf(lines.subList(1, lines.size())));
+        assertEquals(List.of(Path.of(status.report()).getFileName()), listDirectory());
+    }
+
+    @Test
+    public void testOversizedBlocksAreSkipped() throws Exception {
+        // Arrange
+        properties.setMaxBlockSize(2);
+        detection = new DuplicateDetectionService(jdbcTemplate, new SimpleMeterRegistry(), properties);
+        for (int i = 0; i < 3; i++) {
+            insert("Info", "Desk" + i, "info@domain" + i + ".com", String.format("555-300-%04d", i));
+        }
+
+        // Act
+        DetectionStatus status = awaitFinished(detection.start());
+
+        // Assert
+        assertEquals(State.COMPLETED, status.state());
+        assertEquals(1, status.oversizedBlocks());
+        assertEquals(0, status.duplicatePairs());
+    }
+
+    @Test
+    public void testPairInOversizedBlockIsReportedFromLaterBlock() throws Exception {
+        // Arrange: all three share the surname and phone suffix block, only the Janes the email local part
+        properties.setMaxBlockSize(2);
+        detection = new DuplicateDetectionService(jdbcTemplate, new SimpleMeterRegistry(), properties);
+        insert("Info", "Desk", "info@example.com", "555-111-0000");
+        UUID jane = insert("Jane", "Desk", "jane.desk@example.com", "555-222-0000");
+        UUID janeAgain = insert("Jane", "Desk", "janedesk@other.org", "555-333-0000");
+
+        // Act
+        DetectionStatus status = awaitFinished(detection.start());
+
+        // Assert
+        assertEquals(State.COMPLETED, status.state());
+        assertEquals(1, status.oversizedBlocks());
+        assertEquals(List.of(pair(jane, janeAgain, "NAME_AND_EMAIL_LOCAL")),
+                Files.readAllLines(Path.of(status.report())).subList(1, 2));
+    }
+
+    @Test
+    public void testInvalidPartitionsAreRejected() {
+        // Arrange
+        properties.setPartitions(0);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> new DuplicateDetectionService(jdbcTemplate, new SimpleMeterRegistry(), properties));
+    }
+
+    private UUID insert(String givenName, String surname, String email, String contactNumber) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO customers (customer_id, given_name, surname, primary_email, contact_number) "
+                + "VALUES (?, ?, ?, ?, ?)", id, givenName, surname, email, contactNumber);
+        return id;
+    }
+
+    private static String pair(UUID a, UUID b, String reason) {
+        return a.compareTo(b) < 0 ? a + "," + b + "," + reason : b + "," + a + "," + reason;
+    }
+
+    private List<Path> listDirectory() throws IOException {
+        try (Stream<Path> listing = Files.list(directory)) {
+            return listing.map(Path::getFileName).collect(Collectors.toList());
+        }
+    }
+
+    private DetectionStatus awaitFinished(DetectionStatus status) throws InterruptedException {
+        List<State> running = List.of(State.RUNNING, State.STOPPING);
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (running.contains(status.state()) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            status = detection.status();
+        }
+        assertNotNull(status.finishedAt());
+        return status;
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.customerapi.service;
+
+import com.example.customerapi.exception.DeadlineExceededException;
+import com.example.customerapi.model.Customer;
+import com.example.customerapi.model.CustomerSchema;
+import com.example.customerapi.repository.CustomerRepositoryCustomImpl;
+import com.example.customerapi.resilience.RequestDeadline;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the GroupCommitWriter class against an in-memory H2 database.
+ */
+public class GroupCommitWriterTest {
+
+
+    private SimpleMeterRegistry meterRegistry;
+    private JdbcTemplate jdbcTemplate;
+    private GroupCommitProperties properties;
+    private GroupCommitWriter writer;
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void setup() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:group-commit-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        CustomerSchema.create(dataSource);
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new GroupCommitProperties();
+        properties.setEnabled(true);
+        properties.setMaxBatchSize(50);
+        properties.setMaxBatchDelay(Duration.ofMillis(50));
+        writer = new GroupCommitWriter(new CustomerRepositoryCustomImpl(jdbcTemplate),
+                new DataSourceTransactionManager(dataSource), meterRegistry, properties);
+        writer.start();
+        executor = Executors.newFixedThreadPool(20);
+    }
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        executor.shutdownNow();
+        writer.destroy();
+    }
+
+    @Test
+    public void testConcurrentCreatesShareCommits() throws Exception {
+        // Arrange
+        List<Future<Optional<Customer>>> futures = new ArrayList<>();
+
+        // Act
+        for (int i = 0; i < 20; i++) {
+            Customer customer = customer("user" + i + "@example.com");
+            futures.add(executor.submit(() -> writer.tryCreate(customer)));
+        }
+        List<Customer> created = new ArrayList<>();
+        for (Future<Optional<Customer>> future : futures) {
+            created.add(future.get(5, TimeUnit.SECONDS).orElseThrow());
+        }
+
+        // Assert
+        assertEquals(20, created.stream().map(Customer::getCustomerId).distinct().count());
+        assertEquals("+11234567890", created.get(0).getContactNumberE164());
+        assertEquals(20, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM customers", Integer.class));
+        DistributionSummary batches = meterRegistry.find(GroupCommitWriter.BATCH_SIZE_METRIC).summary();
+        assertNotNull(batches);
+        assertEquals(20.0, batches.totalAmount());
+        assertTrue(batches.count() < 20, "creates should have been committed in shared batches");
+    }
+
+    @Test
+    public void testDuplicateEmailFailsOnlyItsOwnCreate() throws Exception {
+        // Arrange
+        jdbcTemplate.update("INSERT INTO customers (customer_id, given_name, surname, primary_email) "
+                + "VALUES (?, 'Existing', 'Customer', 'taken@example.com')", UUID.randomUUID());
+        Customer duplicate = customer("taken@example.com");
+        Customer fresh = customer("fresh@example.com");
+
+        // Act
+        Future<Optional<Customer>> duplicateResult = executor.submit(() -> writer.tryCreate(duplicate));
+        Future<Optional<Customer>> freshResult = executor.submit(() -> writer.tryCreate(fresh));
+
+        // Assert
+        ExecutionException failure = assertThrows(ExecutionException.class,
+                () -> duplicateResult.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(DataIntegrityViolationException.class, failure.getCause());
+        assertEquals("fresh@example.com", freshResult.get(5, TimeUnit.SECONDS).orElseThrow().getPrimaryEmail());
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM customers", Integer.class));
+    }
+
+    @Test
+    public void testCreateAbandonedAtDeadlineIsNotWritten() throws Exception {
+        // Arrange: the batch waits longer for company than the request may wait for its commit
+        writer.destroy();
+        properties.setMaxBatchDelay(Duration.ofMillis(500));
+        writer = new GroupCommitWriter(new CustomerRepositoryCustomImpl(jdbcTemplate),
+                new DataSourceTransactionManager(jdbcTemplate.getDataSource()), meterRegistry, properties);
+        writer.start();
+
+        // Act
+        Future<Optional<Customer>> result = executor.submit(() -> {
+            RequestDeadline.set(RequestDeadline.after(Duration.ofMillis(50)));
+            try {
+                return writer.tryCreate(customer("late@example.com"));
+            } finally {
+                RequestDeadline.clear();
+            }
+        });
+
+        // Assert
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(DeadlineExceededException.class, failure.getCause());
+        Thread.sleep(700);
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM customers", Integer.class));
+    }
+
+    @Test
+    public void testDisabledWriterDefersToDirectWrite() throws InterruptedException {
+        // Arrange
+        writer.destroy();
+        properties.setEnabled(false);
+        GroupCommitWriter disabled = new GroupCommitWriter(new CustomerRepositoryCustomImpl(jdbcTemplate),
+                new DataSourceTransactionManager(jdbcTemplate.getDataSource()), new SimpleMeterRegistry(), properties);
+        disabled.start();
+
+        // Act
+        Optional<Customer> result = disabled.tryCreate(customer("direct@example.com"));
+
+        // Assert
+        assertTrue(result.isEmpty());
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM customers", Integer.class));
+    }
+
+    private static Customer customer(String email) {
+        return Customer.builder()
+                .givenName("John")
+                .surname("Doe")
+                .primaryEmail(email)
+                .contactNumber("123-456-7890")
+                .build();
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.customerapi.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the HotKeyTracker class.
+ */
+public class HotKeyTrackerTest {
+
+    @Test
+    public void testTopKeysAreOrderedByFrequency() {
+        // Arrange
+        HotKeyTracker tracker = new HotKeyTracker(true, 2, 1024, 4);
+        UUID hottest = UUID.randomUUID();
+        UUID warm = UUID.randomUUID();
+        UUID cold = UUID.randomUUID();
+
+        // Act
+        for (int i = 0; i < 50; i++) {
+            tracker.record(hottest);
+        }
+        for (int i = 0; i < 20; i++) {
+            tracker.record(warm);
+        }
+        tracker.record(cold);
+
+        // Assert
+        List<HotKeyTracker.HotKey> top = tracker.topKeys(10);
+        assertEquals(2, top.size());
+        assertEquals(hottest, top.get(0).customerId());
+        assertEquals(warm, top.get(1).customerId());
+        assertEquals(71, tracker.totalAccesses());
+    }
+
+    @Test
+    public void testHotKeyDisplacesColdKey() {
+        // Arrange
+        HotKeyTracker tracker = new HotKeyTracker(true, 1, 1024, 4);
+        UUID cold = UUID.randomUUID();
+        UUID hot = UUID.randomUUID();
+        tracker.record(cold);
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            tracker.record(hot);
+        }
+
+        // Assert
+        assertEquals(hot, tracker.topKeys(1).get(0).customerId());
+    }
+
+    @Test
+    public void testDecayHalvesCounts() {
+        HotKeyTracker tracker = new HotKeyTracker(true, 10, 1024, 4);
+        UUID id = UUID.randomUUID();
+        for (int i = 0; i < 8; i++) {
+            tracker.record(id);
+        }
+
+        tracker.decay();
+
+        assertEquals(4, tracker.topKeys(1).get(0).estimatedCount());
+        assertEquals(4, tracker.estimate(id));
+    }
+
+    @Test
+    public void testDisabledTrackerRecordsNothing() {
+        HotKeyTracker tracker = new HotKeyTracker(false, 10, 1024, 4);
+
+        tracker.record(UUID.randomUUID());
+
+        assertTrue(tracker.topKeys(10).isEmpty());
+        assertEquals(0, tracker.totalAccesses());
+    }
+
+    @Test
+    public void testConcurrentRecordingKeepsCapacity() throws InterruptedException {
+        // Arrange
+        HotKeyTracker tracker = new HotKeyTracker(true, 16, 4096, 4);
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            ids.add(UUID.randomUUID());
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // Act
+        for (int t = 0; t < 8; t++) {
+            executor.execute(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    tracker.record(ids.get(i % 7 == 0 ? i % 200 : i % 4));
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        // Assert
+        assertTrue(tracker.topKeys(100).size() <= 16);
+        assertEquals(80_000, tracker.totalAccesses());
+        assertTrue(tracker.topKeys(4).stream().allMatch(key -> ids.subList(0, 4).contains(key.customerId())));
+    }
+}
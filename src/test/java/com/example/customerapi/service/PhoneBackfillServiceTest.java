@@ -0,0 +1,178 @@
+package com.example.customerapi.service;
+
+import com.example.customerapi.model.CustomerSchema;
+import com.example.customerapi.service.PhoneBackfillService.BackfillStatus;
+import com.example.customerapi.service.PhoneBackfillService.State;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for the PhoneBackfillService class against an in-memory H2 database.
+ */
+public class PhoneBackfillServiceTest {
+
+
+    private JdbcTemplate jdbcTemplate;
+    private DataSourceTransactionManager transactionManager;
+    private SimpleMeterRegistry meterRegistry;
+    private PhoneBackfillProperties properties;
+    private CustomerService customers;
+    private CustomerCacheInvalidator invalidations;
+    private PhoneBackfillService backfill;
+
+    @BeforeEach
+    public void setup() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:phone-backfill-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        CustomerSchema.create(dataSource);
+        transactionManager = new DataSourceTransactionManager(dataSource);
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new PhoneBackfillProperties();
+        properties.setChunkSize(7);
+        properties.setParallelism(3);
+        customers = mock(CustomerService.class);
+        invalidations = new CustomerCacheInvalidator(jdbcTemplate,
+                new CustomerCache(new CustomerCacheProperties(), new SimpleMeterRegistry()), new SimpleMeterRegistry(),
+                new CacheInvalidationProperties());
+        backfill = new PhoneBackfillService(jdbcTemplate, transactionManager, customers, invalidations,
+                meterRegistry, properties);
+    }
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        backfill.destroy();
+    }
+
+    @Test
+    public void testBackfillNormalizesAllRowsInChunks() throws InterruptedException {
+        // Arrange
+        List<String> formats = List.of("(555) %03d-4567", "555.%03d.4567", "+1 555 %03d 4567");
+        for (int i = 0; i < 100; i++) {
+            insert("user" + i + "@example.com", String.format(formats.get(i % formats.size()), i));
+        }
+        insert("bad@example.com", "12345");
+
+        // Act
+        BackfillStatus status = awaitFinished(backfill.start());
+
+        // Assert
+        assertEquals(State.COMPLETED, status.state());
+        assertEquals(101, status.scanned());
+        assertEquals(100, status.updated());
+        assertEquals(1, status.unparseable());
+        assertNull(status.error());
+        assertNotNull(status.finishedAt());
+        assertEquals("+15550424567", e164("user42@example.com"));
+        assertEquals("+15550434567", e164("user43@example.com"));
+        assertNull(e164("bad@example.com"));
+        assertEquals(100.0, meterRegistry.get(PhoneBackfillService.ROWS_METRIC)
+                .tag("outcome", "updated").counter().count());
+        assertEquals(100, (long) jdbcTemplate.queryForObject("SELECT COUNT(*) FROM customer_cache_changes",
+                Long.class));
+    }
+
+    @Test
+    public void testBackfillRefreshesUpdatedCustomers() throws InterruptedException {
+        // Arrange
+        Set<UUID> inserted = new HashSet<>();
+        for (int i = 0; i < 20; i++) {
+            inserted.add(insert("user" + i + "@example.com", String.format("555-%03d-4567", i)));
+        }
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<UUID>> refreshed = ArgumentCaptor.forClass(Collection.class);
+
+        // Act
+        awaitFinished(backfill.start());
+
+        // Assert
+        verify(customers, atLeastOnce()).refreshCustomers(refreshed.capture());
+        Set<UUID> ids = new HashSet<>();
+        refreshed.getAllValues().forEach(ids::addAll);
+        assertEquals(inserted, ids);
+    }
+
+    @Test
+    public void testBackfillResumesWithRemainingRows() throws InterruptedException {
+        // Arrange
+        for (int i = 0; i < 20; i++) {
+            insert("user" + i + "@example.com", "555-123-45" + String.format("%02d", i));
+        }
+        // Simulate a run that stopped part way: some rows already carry the normalized number
+        jdbcTemplate.update("UPDATE customers SET contact_number_e164 = '+15551234500' "
+                + "WHERE primary_email = 'user0@example.com'");
+
+        // Act
+        BackfillStatus status = awaitFinished(backfill.start());
+
+        // Assert
+        assertEquals(State.COMPLETED, status.state());
+        assertEquals(19, status.scanned());
+        assertEquals(19, status.updated());
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM customers WHERE contact_number_e164 IS NULL", Integer.class));
+    }
+
+    @Test
+    public void testStopBeforeStartLeavesBackfillIdle() {
+        // Act
+        BackfillStatus status = backfill.stop();
+
+        // Assert
+        assertEquals(State.IDLE, status.state());
+        assertNull(status.startedAt());
+    }
+
+    @Test
+    public void testInvalidChunkSizeIsRejected() {
+        // Arrange
+        properties.setChunkSize(0);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> new PhoneBackfillService(jdbcTemplate, transactionManager, customers, invalidations,
+                        meterRegistry, properties));
+    }
+
+    private UUID insert(String email, String contactNumber) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO customers (customer_id, given_name, surname, primary_email, contact_number) "
+                + "VALUES (?, 'Test', 'Customer', ?, ?)", id, email, contactNumber);
+        return id;
+    }
+
+    private String e164(String email) {
+        return jdbcTemplate.queryForObject("SELECT contact_number_e164 FROM customers WHERE primary_email = ?",
+                String.class, email);
+    }
+
+    private BackfillStatus awaitFinished(BackfillStatus status) throws InterruptedException {
+        List<State> running = List.of(State.RUNNING, State.STOPPING);
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (running.contains(status.state()) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            status = backfill.status();
+        }
+        return status;
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.customerapi.service;
+
+import com.example.customerapi.model.Customer;
+import com.example.customerapi.repository.CustomerRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the PhoneticNameIndex class.
+ */
+@ExtendWith(MockitoExtension.class)
+public class PhoneticNameIndexTest {
+
+    @Mock
+    private CustomerRepository customerRepository;
+
+    private PhoneticNameIndex index;
+
+    @BeforeEach
+    public void setup() {
+        index = new PhoneticNameIndex(customerRepository, new SimpleMeterRegistry(), 100);
+    }
+
+    @Test
+    public void testMisspelledNameFindsSimilarSoundingCustomers() {
+        // Arrange
+        Customer stephen = customer("Stephen", "Meyer");
+        Customer steven = customer("Steven", "Myers");
+        index.put(stephen);
+        index.put(steven);
+        index.put(customer("Robert", "Jones"));
+
+        // Act
+        List<Customer> results = index.search("stefan", 10);
+
+        // Assert
+        assertEquals(2, results.size());
+        assertTrue(results.contains(stephen));
+        assertTrue(results.contains(steven));
+    }
+
+    @Test
+    public void testClosestSpellingRanksFirst() {
+        // Arrange
+        Customer smith = customer("John", "Smith");
+        Customer smyth = customer("John", "Smyth");
+        index.put(smith);
+        index.put(smyth);
+
+        // Act
+        List<Customer> results = index.search("jon smyth", 10);
+
+        // Assert
+        assertEquals(List.of(smyth, smith), results);
+    }
+
+    @Test
+    public void testCustomersMatchingEveryWordAreCandidatesFirst() {
+        // Arrange
+        PhoneticNameIndex capped = new PhoneticNameIndex(customerRepository, new SimpleMeterRegistry(), 1);
+        Customer johnBrown = customer("John", "Brown");
+        capped.put(customer("Mary", "Brown"));
+        capped.put(customer("John", "Green"));
+        capped.put(johnBrown);
+
+        // Act
+        List<Customer> results = capped.search("Jon Braun", 10);
+
+        // Assert
+        assertEquals(List.of(johnBrown), results);
+    }
+
+    @Test
+    public void testUpdateAndDeleteMaintainBuckets() {
+        // Arrange
+        Customer customer = customer("Claire", "Dubois");
+        index.put(customer);
+        Customer renamed = Customer.builder()
+                .customerId(customer.getCustomerId())
+                .givenName("Claire")
+                .surname("Martin")
+                .primaryEmail(customer.getPrimaryEmail())
+                .build();
+
+        // Act
+        index.put(renamed);
+
+        // Assert
+        assertTrue(index.search("duboi", 10).isEmpty());
+        assertEquals(List.of(renamed), index.search("martyn", 10));
+
+        index.remove(customer.getCustomerId());
+        assertTrue(index.search("clare", 10).isEmpty());
+    }
+
+    @Test
+    public void testCandidateCapBoundsWork() {
+        // Arrange
+        PhoneticNameIndex capped = new PhoneticNameIndex(customerRepository, new SimpleMeterRegistry(), 5);
+        for (int i = 0; i < 50; i++) {
+            capped.put(customer("Anna", "Smith"));
+        }
+
+        // Act & Assert
+        assertEquals(5, capped.search("smith", 50).size());
+    }
+
+    @Test
+    public void testLevenshtein() {
+        assertEquals(0, PhoneticNameIndex.levenshtein("smith", "smith"));
+        assertEquals(1, PhoneticNameIndex.levenshtein("smith", "smyth"));
+        assertEquals(3, PhoneticNameIndex.levenshtein("kitten", "sitting"));
+        assertEquals(4, PhoneticNameIndex.levenshtein("", "jane"));
+    }
+
+    private static Customer customer(String givenName, String surname) {
+        return Customer.builder()
+                .customerId(UUID.randomUUID())
+                .givenName(givenName)
+                .surname(surname)
+                .primaryEmail(UUID.randomUUID() + "@example.com")
+                .build();
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.customerapi.service;
+
+import com.example.customerapi.exception.DeadlineExceededException;
+import com.example.customerapi.resilience.RequestDeadline;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the StripedLocks class.
+ */
+public class StripedLocksTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private StripedLocks locks;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        locks = new StripedLocks(16, meterRegistry);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        RequestDeadline.clear();
+    }
+
+    @Test
+    public void testStripeCountIsRoundedUpToPowerOfTwo() {
+        assertEquals(16, locks.stripes());
+        assertEquals(128, new StripedLocks(100, meterRegistry).stripes());
+        assertEquals(1, new StripedLocks(1, meterRegistry).stripes());
+        assertThrows(IllegalArgumentException.class, () -> new StripedLocks(0, meterRegistry));
+    }
+
+    @Test
+    public void testSameKeyAlwaysMapsToSameLock() {
+        UUID id = UUID.randomUUID();
+
+        assertSame(locks.lockFor(id), locks.lockFor(UUID.fromString(id.toString())));
+    }
+
+    @Test
+    public void testUpdatesToSameKeyAreSerialized() throws Exception {
+        // Arrange
+        UUID id = UUID.randomUUID();
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // Act
+        try {
+            Future<?>[] futures = new Future<?>[8];
+            for (int i = 0; i < futures.length; i++) {
+                futures[i] = executor.submit(() -> locks.withLock(id, () -> {
+                    maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+                    try {
+                        Thread.sleep(5);
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return active.decrementAndGet();
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(5, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Assert
+        assertEquals(1, maxActive.get());
+        assertEquals(8, meterRegistry.find(StripedLocks.WAIT_METRIC).timer().count());
+    }
+
+    @Test
+    public void testDifferentStripesProceedInParallel() throws Exception {
+        // Arrange
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        while (locks.lockFor(second) == locks.lockFor(first)) {
+            second = UUID.randomUUID();
+        }
+        UUID other = second;
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            Future<?> holder = executor.submit(() -> locks.withLock(first, () -> {
+                holding.countDown();
+                try {
+                    return release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }));
+            assertTrue(holding.await(5, TimeUnit.SECONDS));
+
+            // Act
+            String result = locks.withLock(other, () -> "done");
+
+            // Assert
+            assertEquals("done", result);
+            assertNotSame(locks.lockFor(first), locks.lockFor(other));
+            release.countDown();
+            holder.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testWaitGivesUpWhenDeadlinePasses() throws Exception {
+        // Arrange
+        UUID id = UUID.randomUUID();
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            executor.submit(() -> locks.withLock(id, () -> {
+                holding.countDown();
+                try {
+                    return release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }));
+            assertTrue(holding.await(5, TimeUnit.SECONDS));
+            RequestDeadline.set(RequestDeadline.after(Duration.ofMillis(50)));
+
+            // Act & Assert
+            assertThrows(DeadlineExceededException.class, () -> locks.withLock(id, () -> "never"));
+            assertEquals(1.0, meterRegistry.find("customer.lock.timeouts").counter().count());
+            assertFalse(locks.lockFor(id).isHeldByCurrentThread());
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package com.example.customerapi.service;
+
+import com.example.customerapi.model.Customer;
+import com.example.customerapi.repository.CustomerRepository;
+import com.example.customerapi.service.WarmupService.State;
+import com.example.customerapi.service.WarmupService.WarmupStatus;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for the WarmupService class, sending the synthetic requests to a local stub server.
+ */
+@ExtendWith(MockitoExtension.class)
+public class WarmupServiceTest {
+
+    @Mock
+    private CustomerRepository repository;
+
+    @TempDir
+    private Path directory;
+
+    private final Map<String, AtomicInteger> requestsByRoute = new ConcurrentHashMap<>();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final Map<String, AtomicInteger> tokensSent = new ConcurrentHashMap<>();
+    private volatile boolean blockRequests;
+    private volatile int responseStatus = 200;
+    private HttpServer server;
+    private CustomerCache cache;
+    private HotKeyTracker hotKeyTracker;
+    private WarmupToken token;
+    private WarmupProperties properties;
+    private WarmupService warmup;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        cache = new CustomerCache(new CustomerCacheProperties(), new SimpleMeterRegistry());
+        hotKeyTracker = new HotKeyTracker(true, 10, 1024, 4);
+        token = new WarmupToken();
+        properties = new WarmupProperties();
+        properties.setHotKeysFile(directory.resolve("hot-keys.txt").toString());
+        properties.setPreloadCount(2);
+        properties.setRequests(50);
+        properties.setConcurrency(2);
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/api/customers", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            String last = path.substring(path.lastIndexOf('/') + 1);
+            String route = exchange.getRequestMethod() + " " + path.replace(last, isUuid(last) ? "{id}" : last);
+            requestsByRoute.computeIfAbsent(route, key -> new AtomicInteger()).incrementAndGet();
+            String sent = exchange.getRequestHeaders().getFirst(WarmupToken.HEADER);
+            tokensSent.computeIfAbsent(String.valueOf(sent), key -> new AtomicInteger()).incrementAndGet();
+            if (isUuid(last)) {
+                cache.get(UUID.fromString(last));
+            }
+            if (blockRequests) {
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            exchange.sendResponseHeaders(responseStatus, -1);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        release.countDown();
+        if (warmup != null) {
+            warmup.destroy();
+        }
+        server.stop(0);
+    }
+
+    @Test
+    public void testPreloadsHotKeysAndExercisesEndpoints() throws Exception {
+        // Arrange
+        Customer first = customer("Doe");
+        Customer second = customer("Smith");
+        Files.write(directory.resolve("hot-keys.txt"), List.of(first.getCustomerId().toString(), "not-an-id",
+                second.getCustomerId().toString()));
+        when(repository.findAllById(List.of(first.getCustomerId(), second.getCustomerId())))
+                .thenReturn(List.of(first, second));
+        warmup = newWarmup();
+
+        // Act
+        assertTrue(warmup.isHoldingReadiness());
+        warmup.run(null);
+        WarmupStatus status = awaitFinished();
+
+        // Assert
+        assertEquals(State.COMPLETED, status.state());
+        assertEquals(2, status.preloaded());
+        assertEquals(2, status.preloadedHotKeys());
+        assertEquals(50, status.requests());
+        assertEquals(0, status.failedRequests());
+        assertEquals(1.0, status.cacheHitRate());
+        assertEquals(10, requestsByRoute.get("GET /api/customers/{id}").get());
+        assertEquals(10, requestsByRoute.get("GET /api/customers/search").get());
+        assertEquals(10, requestsByRoute.get("HEAD /api/customers").get());
+        assertEquals(10, requestsByRoute.get("GET /api/customers/stats").get());
+        assertEquals(Set.of(token.value()), tokensSent.keySet());
+        assertEquals(50, tokensSent.get(token.value()).get());
+        assertFalse(warmup.isHoldingReadiness());
+        verify(repository, never()).findAll(any(Pageable.class));
+    }
+
+    @Test
+    public void testPreloadsFromTableWithoutHotKeys() throws Exception {
+        // Arrange
+        Customer customer = customer("Doe");
+        when(repository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(customer)));
+        properties.setRequests(0);
+        warmup = newWarmup();
+
+        // Act
+        warmup.run(null);
+        WarmupStatus status = awaitFinished();
+
+        // Assert
+        assertEquals(State.COMPLETED, status.state());
+        assertEquals(1, status.preloaded());
+        assertEquals(0, status.preloadedHotKeys());
+        assertEquals(customer, cache.get(customer.getCustomerId()).orElseThrow());
+        assertTrue(requestsByRoute.isEmpty());
+    }
+
+    @Test
+    public void testRejectedRequestsCountAsFailed() throws Exception {
+        // Arrange
+        when(repository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(List.of()));
+        properties.setRequests(10);
+        responseStatus = 429;
+        warmup = newWarmup();
+
+        // Act
+        warmup.run(null);
+        WarmupStatus status = awaitFinished();
+
+        // Assert
+        assertEquals(State.COMPLETED, status.state());
+        assertEquals(10, status.requests());
+        assertEquals(10, status.failedRequests());
+    }
+
+    @Test
+    public void testTimeoutReleasesReadiness() throws Exception {
+        // Arrange
+        when(repository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(List.of()));
+        properties.setTimeout(Duration.ofMillis(200));
+        blockRequests = true;
+        warmup = newWarmup();
+
+        // Act
+        warmup.run(null);
+        Thread.sleep(400);
+
+        // Assert
+        assertFalse(warmup.isHoldingReadiness());
+        release.countDown();
+        assertEquals(State.TIMED_OUT, awaitFinished().state());
+    }
+
+    @Test
+    public void testDisabledWarmupDoesNotHoldReadiness() {
+        // Arrange
+        properties.setEnabled(false);
+        warmup = newWarmup();
+
+        // Act
+        warmup.run(null);
+
+        // Assert
+        assertEquals(State.DISABLED, warmup.status().state());
+        assertFalse(warmup.isHoldingReadiness());
+    }
+
+    @Test
+    public void testSavesHottestKeysFirst() throws Exception {
+        // Arrange
+        UUID hot = UUID.randomUUID();
+        UUID warm = UUID.randomUUID();
+        for (int i = 0; i < 5; i++) {
+            hotKeyTracker.record(hot);
+        }
+        hotKeyTracker.record(warm);
+        warmup = newWarmup();
+
+        // Act
+        warmup.saveHotKeys();
+
+        // Assert
+        assertEquals(List.of(hot.toString(), warm.toString()), Files.readAllLines(directory.resolve("hot-keys.txt")));
+    }
+
+    private WarmupService newWarmup() {
+        WarmupService service = new WarmupService(repository, cache, hotKeyTracker, token, new SimpleMeterRegistry(),
+                properties);
+        service.setPort(server.getAddress().getPort());
+        return service;
+    }
+
+    private WarmupStatus awaitFinished() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (warmup.status().state() == State.RUNNING && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        return warmup.status();
+    }
+
+    private static boolean isUuid(String value) {
+        try {
+            UUID.fromString(value);
+            return true;
+        } catch (IllegalArgumentException ex) {
+            return false;
+        }
+    }
+
+    private static Customer customer(String surname) {
+        return Customer.builder()
+                .customerId(UUID.randomUUID())
+                .givenName("John")
+                .surname(surname)
+                .primaryEmail(surname.toLowerCase() + "@example.com")
+                .build();
+    }
+}